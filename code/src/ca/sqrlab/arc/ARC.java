@@ -3,8 +3,19 @@ package ca.sqrlab.arc;
 import java.io.File;
 
 import ca.sqrlab.arc.evolution.ARCGeneticAlgorithm;
+import ca.sqrlab.arc.evolution.CorrectnessFitness;
+import ca.sqrlab.arc.evolution.FitnessFunction;
+import ca.sqrlab.arc.evolution.IslandMigration;
+import ca.sqrlab.arc.evolution.MutantSource;
+import ca.sqrlab.arc.evolution.SurrogateModel;
+import ca.sqrlab.arc.evolution.SynchronizationOptimizer;
+import ca.sqrlab.arc.evolution.TournamentSelection;
 import ca.sqrlab.arc.io.FileUtils;
 import ca.sqrlab.arc.tools.SettingsManager;
+import ca.sqrlab.arc.tools.compilation.CompilationCache;
+import ca.sqrlab.arc.tools.testing.SPRTStoppingRule;
+import ca.sqrlab.arc.tools.testing.TestRunner;
+import ca.sqrlab.arc.tools.testing.TestWorkerPool;
 
 /**
  * The {@code ARC} class stores all the general ARC settings, as well as the
@@ -118,6 +129,203 @@ public class ARC extends SettingsManager {
 	 * fixed program, if one was found. */
 	public static final String SETTING_OUTPUT_DIR = "OUTPUT_DIR";
 	
+	/** The setting name for the number of workers which evaluate individuals
+	 * concurrently, each in a private copy of the project directory. */
+	public static final String SETTING_EVALUATION_WORKERS = "EVALUATION_WORKERS";
+	
+	/** The setting name for the number of workers which check if candidate
+	 * mutants compile concurrently, each in a private copy of the project
+	 * directory. */
+	public static final String SETTING_COMPILE_WORKERS = "COMPILE_WORKERS";
+	
+	/** The setting name for the directory which contains the private project
+	 * directories of the evaluation workers. */
+	public static final String SETTING_WORKER_DIR = "WORKER_DIR";
+	
+	/** The setting name for the number of test-suite executions of a program
+	 * which are run at the same time. */
+	public static final String SETTING_CONCURRENT_TEST_RUNS =
+			"CONCURRENT_TEST_RUNS";
+	
+	/** The setting name for the flag which enables removing comments and
+	 * whitespace from source files before they are hashed to find identical
+	 * programs. */
+	public static final String SETTING_FITNESS_CACHE_NORMALIZE =
+			"FITNESS_CACHE_NORMALIZE";
+	
+	/** The setting name for the flag which enables stopping the testing of
+	 * an individual once the sequential probability ratio test is
+	 * conclusive. */
+	public static final String SETTING_EARLY_STOPPING = "EARLY_STOPPING";
+	
+	/** The setting name for the probability of the early stopping test
+	 * deciding an individual is better than a score when it is not. */
+	public static final String SETTING_SPRT_ALPHA = "SPRT_ALPHA";
+	
+	/** The setting name for the probability of the early stopping test
+	 * deciding an individual is worse than a score when it is not. */
+	public static final String SETTING_SPRT_BETA = "SPRT_BETA";
+	
+	/** The setting name for the half-width of the pass rate region around a
+	 * score in which the early stopping test does not need to decide. */
+	public static final String SETTING_SPRT_DELTA = "SPRT_DELTA";
+	
+	/** The setting name for the number of test-suite executions which are
+	 * run at once during the extended validation of a potential solution. */
+	public static final String SETTING_VALIDATION_CONCURRENT_RUNS =
+			"VALIDATION_CONCURRENT_RUNS";
+	
+	/** The setting name for the flag which enables speculatively creating and
+	 * compiling the mutants of the next generation while the current
+	 * generation is still being tested. */
+	public static final String SETTING_PIPELINED_GENERATIONS =
+			"PIPELINED_GENERATIONS";
+	
+	/** The setting name for the evolution mode of the genetic algorithm,
+	 * which is either generational or steady-state. */
+	public static final String SETTING_EVOLUTION_MODE = "EVOLUTION_MODE";
+	
+	/** The setting name for the maximum number of individuals evaluated in
+	 * steady-state mode. A value of 0 uses the population size times the
+	 * maximum number of generations. */
+	public static final String SETTING_MAX_EVALUATIONS = "MAX_EVALUATIONS";
+	
+	/** The setting name for the maximum time, in milliseconds, the genetic
+	 * algorithm may spend evolving programs. A value of 0 means there is no
+	 * time limit. */
+	public static final String SETTING_MAX_TIME_MILLIS = "MAX_TIME_MILLIS";
+	
+	/** The setting name for the suffix added to the name of the ARC
+	 * directory, so multiple ARC processes can share the same root. */
+	public static final String SETTING_ARC_DIR_SUFFIX = "ARC_DIR_SUFFIX";
+	
+	/** The setting name for the ID of the island this ARC process evolves in
+	 * island mode. Island mode is disabled if the ID is negative. */
+	public static final String SETTING_ISLAND_ID = "ISLAND_ID";
+	
+	/** The setting name for the directory shared by all the islands, which
+	 * is used to exchange individuals between them. */
+	public static final String SETTING_MIGRATION_DIR = "MIGRATION_DIR";
+	
+	/** The setting name for the number of generations between migrations. */
+	public static final String SETTING_MIGRATION_INTERVAL = "MIGRATION_INTERVAL";
+	
+	/** The setting name for the number of best individuals an island sends
+	 * to the other islands at each migration. */
+	public static final String SETTING_MIGRATION_SIZE = "MIGRATION_SIZE";
+	
+	/** The setting name for the file the genetic algorithm state is saved
+	 * to, so the run can be resumed. */
+	public static final String SETTING_CHECKPOINT_FILE = "CHECKPOINT_FILE";
+	
+	/** The setting name for the number of generations between checkpoints.
+	 * In steady-state mode, a checkpoint is saved every time this many
+	 * populations worth of individuals have been evaluated. A value of 0 (the
+	 * default) disables checkpoints. */
+	public static final String SETTING_CHECKPOINT_INTERVAL = "CHECKPOINT_INTERVAL";
+	
+	/** The setting name for the flag which resumes the genetic algorithm
+	 * from the last checkpoint instead of starting over. */
+	public static final String SETTING_RESUME = "RESUME";
+	
+	/** The setting name for the flag which uses a surrogate model to test
+	 * the individuals predicted to be the best first. */
+	public static final String SETTING_SURROGATE_MODEL = "SURROGATE_MODEL";
+	
+	/** The setting name for the number of tested individuals the surrogate
+	 * model needs before it is used to skip individuals. */
+	public static final String SETTING_SURROGATE_MIN_SAMPLES =
+			"SURROGATE_MIN_SAMPLES";
+	
+	/** The setting name for the fraction of each generation, predicted to be
+	 * the worst by the surrogate model, which is not tested. */
+	public static final String SETTING_SURROGATE_SKIP_FRACTION =
+			"SURROGATE_SKIP_FRACTION";
+	
+	/** The setting name for the flag which optimizes a fix by removing or
+	 * shrinking its synchronization before it is output. */
+	public static final String SETTING_OPTIMIZATION_PHASE = "OPTIMIZATION_PHASE";
+	
+	/** The setting name for the maximum number of rounds of the
+	 * optimization phase. */
+	public static final String SETTING_OPTIMIZATION_ROUNDS = "OPTIMIZATION_ROUNDS";
+	
+	/** The setting name for the flag which minimizes a fix with delta
+	 * debugging, removing the changes which are not needed to fix the bugs,
+	 * before it is output. */
+	public static final String SETTING_MINIMIZE_FIX = "MINIMIZE_FIX";
+	
+	/** The setting name for the fraction of new individuals which are
+	 * created by crossover between two candidates instead of mutation. */
+	public static final String SETTING_CROSSOVER_RATE = "CROSSOVER_RATE";
+	
+	/** The setting name for the strategy which chooses the candidate each
+	 * new individual is created from: 'elitist', 'tournament' or 'rank'. If
+	 * empty, generations use the elitist strategy and steady-state mode
+	 * chooses candidates uniformly at random. */
+	public static final String SETTING_SELECTION_STRATEGY = "SELECTION_STRATEGY";
+	
+	/** The setting name for the number of candidates in a tournament of the
+	 * tournament selection strategy. */
+	public static final String SETTING_TOURNAMENT_SIZE = "TOURNAMENT_SIZE";
+	
+	/** The setting name for the policy which chooses the mutation operator
+	 * to try next, from the operators which fix the bug type chosen by the
+	 * failures of the individual: 'random' or 'bandit' (learned from the
+	 * results of each operator). */
+	public static final String SETTING_OPERATOR_SELECTION = "OPERATOR_SELECTION";
+	
+	/** The setting name for the flag which ranks the source files and
+	 * methods by how suspicious they are (based on the failures of the
+	 * original program) and mutates the most suspicious locations first. */
+	public static final String SETTING_FAULT_LOCALIZATION = "FAULT_LOCALIZATION";
+	
+	/** The setting name for the number of the most suspicious files which
+	 * are mutated, or 0 to mutate every implicated file. */
+	public static final String SETTING_FAULT_LOCALIZATION_FILES =
+			"FAULT_LOCALIZATION_FILES";
+	
+	/** The setting name for the optional file listing the source files (or
+	 * {@code file#method}) covered by the failing tests. */
+	public static final String SETTING_FAULT_COVERAGE_FILE = "FAULT_COVERAGE_FILE";
+	
+	/** The setting name for the flag which uses static analysis of the
+	 * source files to supply the class, method, variable and lock arguments
+	 * of the TXL operators, which enables the targeted operators. */
+	public static final String SETTING_STATIC_ANALYSIS = "STATIC_ANALYSIS";
+	
+	/** The setting name for the maximum number of targeted invocations of an
+	 * operator on each source file. */
+	public static final String SETTING_STATIC_ANALYSIS_TARGETS =
+			"STATIC_ANALYSIS_TARGETS";
+	
+	/** The setting name for the compiler used to check if the new programs
+	 * compile: 'ant' to run the compile target with ant, or 'javax' to compile
+	 * in the ARC JVM using the javac tasks of the compile target. */
+	public static final String SETTING_COMPILER = "COMPILER";
+	
+	/** The setting name for the flag which only recompiles the source files
+	 * which changed since the previous compilation when mutants are checked,
+	 * instead of building the whole project each time. */
+	public static final String SETTING_INCREMENTAL_COMPILATION =
+			"INCREMENTAL_COMPILATION";
+	
+	/** The setting name for the maximum number of programs whose compilation
+	 * results are cached by the hash of their source files, or 0 to disable
+	 * the cache. */
+	public static final String SETTING_COMPILATION_CACHE_SIZE =
+			"COMPILATION_CACHE_SIZE";
+	
+	/** The setting name for how the test-suite is executed: 'process' to
+	 * start a new JVM for every execution, or 'worker' to run the executions
+	 * in long-lived worker JVMs, each in a fresh class loader. */
+	public static final String SETTING_TEST_BACKEND = "TEST_BACKEND";
+	
+	/** The setting name for the fitness function used to rank the
+	 * candidates for mutation: 'correctness', 'performance' or the name of
+	 * a class implementing {@link FitnessFunction}. */
+	public static final String SETTING_FITNESS_FUNCTION = "FITNESS_FUNCTION";
+	
 	/** The default directory in which a solution will be placed if one is
 	 * found by ARC. */
 	public static final String DEFAULT_OUTPUT_DIR = "${" + SETTING_ROOT +
@@ -130,6 +338,12 @@ public class ARC extends SettingsManager {
 	 * {@link #ARC_CONFIG_FILE} in the same directory. */
 	private String root;
 	
+	/** The cache of compilation results shared by all the compilers. */
+	private CompilationCache compilationCache;
+	
+	/** The test worker JVMs shared by all the test runners. */
+	private TestWorkerPool testWorkerPool;
+	
 	/**
 	 * Constructs ARC with the root as the current working directory.
 	 * @since 1.0
@@ -230,6 +444,10 @@ public class ARC extends SettingsManager {
 		setSetting("CHORD_PROPERTIES_FILE", "${CHORD_DIR}/chord.properties");
 		setSetting("PROJECT_SRC_DIR", "${ARC_DIR}/source");
 		setSetting("PROJECT_CLASS_DIR", "${ARC_DIR}/class");
+		setSetting(SETTING_WORKER_DIR, "${ARC_DIR}/workers");
+		setSetting(SETTING_ARC_DIR_SUFFIX, "");
+		setSetting(SETTING_MIGRATION_DIR, "${ROOT}/ARC-migration");
+		setSetting(SETTING_CHECKPOINT_FILE, "${ARC_DIR}/checkpoint.gz");
 		
 		// General defaults
 		setSetting(Project.PROJECT_TEST_MB, "" + DEFAULT_PROGRAM_MB);
@@ -245,6 +463,50 @@ public class ARC extends SettingsManager {
 				"" + ARCGeneticAlgorithm.DEFAULT_MAX_GENERATIONS);
 		setSetting(SETTING_RUN_COUNT,
 				"" + ARCGeneticAlgorithm.DEFAULT_RUN_COUNT);
+		setSetting(SETTING_EVALUATION_WORKERS,
+				"" + ARCGeneticAlgorithm.DEFAULT_EVALUATION_WORKERS);
+		setSetting(SETTING_COMPILE_WORKERS, "1");
+		setSetting(SETTING_CONCURRENT_TEST_RUNS,
+				"" + TestRunner.DEFAULT_CONCURRENT_TEST_RUNS);
+		setSetting(SETTING_SPRT_ALPHA, "" + SPRTStoppingRule.DEFAULT_ALPHA);
+		setSetting(SETTING_SPRT_BETA, "" + SPRTStoppingRule.DEFAULT_BETA);
+		setSetting(SETTING_SPRT_DELTA, "" + SPRTStoppingRule.DEFAULT_DELTA);
+		setSetting(SETTING_VALIDATION_CONCURRENT_RUNS, "" +
+				ARCGeneticAlgorithm.DEFAULT_VALIDATION_CONCURRENT_RUNS);
+		setSetting(SETTING_EVOLUTION_MODE, ARCGeneticAlgorithm.MODE_GENERATIONAL);
+		setSetting(SETTING_MAX_EVALUATIONS, "0");
+		setSetting(SETTING_MAX_TIME_MILLIS, "0");
+		setSetting(SETTING_ISLAND_ID, "-1");
+		setSetting(SETTING_MIGRATION_INTERVAL,
+				"" + IslandMigration.DEFAULT_MIGRATION_INTERVAL);
+		setSetting(SETTING_MIGRATION_SIZE,
+				"" + IslandMigration.DEFAULT_MIGRATION_SIZE);
+		setSetting(SETTING_CHECKPOINT_INTERVAL, "0");
+		setSetting(SETTING_RESUME, "0");
+		setSetting(SETTING_SURROGATE_MODEL, "0");
+		setSetting(SETTING_SURROGATE_MIN_SAMPLES,
+				"" + SurrogateModel.DEFAULT_MIN_SAMPLES);
+		setSetting(SETTING_SURROGATE_SKIP_FRACTION, "0");
+		setSetting(SETTING_OPTIMIZATION_PHASE, "0");
+		setSetting(SETTING_MINIMIZE_FIX, "0");
+		setSetting(SETTING_CROSSOVER_RATE, "0");
+		setSetting(SETTING_SELECTION_STRATEGY, "");
+		setSetting(SETTING_OPERATOR_SELECTION, "random");
+		setSetting(SETTING_FAULT_LOCALIZATION, "0");
+		setSetting(SETTING_FAULT_LOCALIZATION_FILES, "0");
+		setSetting(SETTING_FAULT_COVERAGE_FILE, "");
+		setSetting(SETTING_STATIC_ANALYSIS, "0");
+		setSetting(SETTING_STATIC_ANALYSIS_TARGETS,
+				"" + MutantSource.DEFAULT_MAX_TARGETS);
+		setSetting(SETTING_COMPILER, "ant");
+		setSetting(SETTING_INCREMENTAL_COMPILATION, "0");
+		setSetting(SETTING_COMPILATION_CACHE_SIZE, "0");
+		setSetting(SETTING_TEST_BACKEND, "process");
+		setSetting(SETTING_TOURNAMENT_SIZE,
+				"" + TournamentSelection.DEFAULT_TOURNAMENT_SIZE);
+		setSetting(SETTING_FITNESS_FUNCTION, CorrectnessFitness.NAME);
+		setSetting(SETTING_OPTIMIZATION_ROUNDS,
+				"" + SynchronizationOptimizer.DEFAULT_OPTIMIZATION_ROUNDS);
 		
 		loadStaticSettings();
 	}
@@ -262,7 +524,8 @@ public class ARC extends SettingsManager {
 		String slash = "${" + SETTING_DIR_SEPARATOR + "}";
 		String ad = "${" + SETTING_ARC_DIR + "}";
 		super.setSetting(SETTING_ROOT, root);
-		super.setSetting(SETTING_ARC_DIR, "${" + SETTING_ROOT + "}" + slash + "ARC");
+		super.setSetting(SETTING_ARC_DIR, "${" + SETTING_ROOT + "}" + slash +
+				"ARC${" + SETTING_ARC_DIR_SUFFIX + "}");
 		super.setSetting(SETTING_LIB_DIR, "${" + SETTING_ROOT + "}" + slash + "lib");
 		super.setSetting(SETTING_DIR_SEPARATOR,
 				System.lineSeparator().length() == 1? "/" : "\\");
@@ -282,6 +545,24 @@ public class ARC extends SettingsManager {
 		return getSetting(SETTING_ARC_DIR);
 	}
 	
+	/**
+	 * Checks if the specified flag setting is enabled. A flag is enabled if
+	 * its value is '1' or 'true' (ignoring case).
+	 * 
+	 * @param setting	the name of the setting.
+	 * @return true if and only if the setting is enabled.
+	 * 
+	 * @since 1.0
+	 */
+	public boolean isEnabled(String setting) {
+		String value = getSetting(setting);
+		if (value == null) {
+			return false;
+		}
+		value = value.trim();
+		return "1".equals(value) || "true".equalsIgnoreCase(value);
+	}
+	
 	@Override
 	public String getSetting(String setting) {
 		if (project == null || isStaticSetting(setting)) {
@@ -296,9 +577,56 @@ public class ARC extends SettingsManager {
 		if (setting == null || setting.isEmpty() || isStaticSetting(setting)) {
 			return null;
 		}
-		return super.setSetting(setting, value);
+		String old = super.setSetting(setting, value);
+		
+		// The project directory moves with the ARC directory
+		if (project != null && setting.equals(SETTING_ARC_DIR_SUFFIX)) {
+			project.setSetting(SETTING_PROJECT_DIR,
+					getSetting(SETTING_PROJECT_DIR));
+		}
+		
+		return old;
+	}
+	
+	/**
+	 * Gets the cache of compilation results shared by all the compilers. The
+	 * cache is created the first time it is requested, with the size from
+	 * {@link #SETTING_COMPILATION_CACHE_SIZE}.
+	 * 
+	 * @return the compilation cache or null if it is disabled.
+	 * @since 1.0
+	 */
+	public synchronized CompilationCache getCompilationCache() {
+		if (compilationCache == null) {
+			int size = 0;
+			try {
+				size = Integer.parseInt(getSetting(
+						SETTING_COMPILATION_CACHE_SIZE).trim());
+			} catch (Exception e) {}
+			if (size > 0) {
+				this.compilationCache = new CompilationCache(size);
+			}
+		}
+		return compilationCache;
 	}
-
+	
+	/**
+	 * Gets the test worker JVMs shared by all the test runners. The pool is
+	 * created the first time it is requested, if
+	 * {@link #SETTING_TEST_BACKEND} is {@value TestWorkerPool#NAME}.
+	 * 
+	 * @return the test worker pool or null if the test-suite is executed in
+	 * a new process every time.
+	 * @since 1.0
+	 */
+	public synchronized TestWorkerPool getTestWorkerPool() {
+		if (testWorkerPool == null && TestWorkerPool.NAME.equalsIgnoreCase(
+				getSetting(SETTING_TEST_BACKEND))) {
+			this.testWorkerPool = new TestWorkerPool();
+		}
+		return testWorkerPool;
+	}
+	
 	/**
 	 * Gets the project which ARC will attempt to fix.
 	 * 
@@ -492,6 +492,7 @@ public class ARCRunner extends Thread {
 		this.executionTime = System.currentTimeMillis() - executionTime;
 		this.isFinished = true;
 		this.shouldStop = true;
+		TestRunner.removeRunDirectories(arc);
 		if (onFinish != null) {
 			this.onFinish.onFinish(ARC_FINISHED_ID, this);
 		}
@@ -665,10 +666,16 @@ public class ARCRunner extends Thread {
 	 */
 	private boolean initializeDirectories() {
 		
-		// Check if there is an old ARC run, if so, delete it
+		// Check if there is an old ARC run, if so, delete it (unless the run
+		// will be resumed from its checkpoint)
 		File ad = new File(arc.getARCDirectory());
 		l.debug("ARC Directory: " + ad.getAbsolutePath());
-		if (ad.exists()) {
+		String checkpoint = arc.getSetting(ARC.SETTING_CHECKPOINT_FILE);
+		if (arc.isEnabled(ARC.SETTING_RESUME) && checkpoint != null &&
+				(new File(checkpoint)).isFile()) {
+			l.debug("Keeping old ARC directory to resume from checkpoint '" +
+					checkpoint + "'.");
+		} else if (ad.exists()) {
 			l.debug("Removing old ARC directory.");
 			FileUtils.remove(ad.getAbsolutePath());
 			if (ad.exists()) {
@@ -2,6 +2,7 @@ package ca.sqrlab.arc;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
@@ -10,6 +11,7 @@ import javax.swing.UIManager;
 
 import ca.sqrlab.arc.experiments.*;
 import ca.sqrlab.arc.io.FileReader;
+import ca.sqrlab.arc.io.FileUtils;
 import ca.sqrlab.arc.io.FileWriter;
 import ca.sqrlab.arc.tools.SettingsManager;
 import ca.sqrlab.arc.ui.ARCWindow;
@@ -18,7 +20,7 @@ import ca.sqrlab.arc.ui.MainView;
 public class Main {
 	
 	private static final String DEFAULT_REPORT = "arc2-report.html";
-
+	
 	private static final String ARG_NO_GUI = "-nogui";
 	
 	private static final String ARG_HELP = "-help";
@@ -30,7 +32,16 @@ public class Main {
 	private static final String ARG_EXPERIMENT = "-experiment";
 	
 	private static final String ARG_REPORT_FILE = "-report";
-
+	
+	private static final String ARG_ISLANDS = "-islands";
+	
+	private static final String ARG_ISLAND = "-island";
+	
+	private static final String ARG_RESUME = "-resume";
+	
+	/** The suffix of the ARC directory and report file of each island. */
+	private static final String ISLAND_SUFFIX = "-island-";
+	
 	public static void main(String[] args) {
 		
 		Map<String, String> argsMap = parseArguments(args);
@@ -52,6 +63,11 @@ public class Main {
 					+ "specifies the path to the experiment file.");
 			System.out.println("\t" + ARG_REPORT_FILE + " <report_file_path> "
 					+ "specifies the experiment result's report file path.");
+			System.out.println("\t" + ARG_ISLANDS + " <count> runs ARC2 "
+					+ "without a GUI as the specified number of island "
+					+ "processes, which exchange their best individuals.");
+			System.out.println("\t" + ARG_RESUME + " resumes the genetic "
+					+ "algorithm from the last checkpoint of the previous run.");
 			System.out.println("\nIf an experiment file is provided, then ARC2"
 					+ " will run with no GUI.");
 			
@@ -69,6 +85,17 @@ public class Main {
 		String arcPath = argsMap.get(ARG_ARC);
 		String projectPath = argsMap.get(ARG_PROJECT);
 		
+		// Run multiple islands, each in its own process
+		int islands = parseInt(argsMap.get(ARG_ISLANDS), 0);
+		if (islands > 1) {
+			if (!checkNoGUI(arcPath, projectPath)) {
+				System.exit(2);
+			}
+			runIslands(islands, arcPath, projectPath, reportFile,
+					"1".equals(argsMap.get(ARG_RESUME)));
+			System.exit(0);
+		}
+		
 		// No GUI, run a single experiment
 		if ("1".equals(argsMap.get(ARG_NO_GUI))) {
 			
@@ -80,6 +107,21 @@ public class Main {
 			// Create an experiment
 			Experiment e = new Experiment()
 					.setName("Command Line Argument Experiment");
+			
+			// Run as an island with its own ARC directory
+			SettingsManager s = new SettingsManager();
+			int island = parseInt(argsMap.get(ARG_ISLAND), -1);
+			if (island >= 0) {
+				s.setSetting(ARC.SETTING_ISLAND_ID, "" + island);
+				s.setSetting(ARC.SETTING_ARC_DIR_SUFFIX, ISLAND_SUFFIX + island);
+				e.setName("Island " + island);
+			}
+			
+			// Continue from the last checkpoint
+			if ("1".equals(argsMap.get(ARG_RESUME))) {
+				s.setSetting(ARC.SETTING_RESUME, "1");
+			}
+			e.setSettings(s);
 			ExperimentGroup g = new ExperimentGroup(arcPath, projectPath)
 					.setName("Command Line Argument Experiments")
 					.setRunsPerExperiment(1)
@@ -122,10 +164,13 @@ public class Main {
 		TreeMap<String, String> argsMap = new TreeMap<>();
 		argsMap.put(ARG_NO_GUI, "0");
 		argsMap.put(ARG_HELP, "0");
+		argsMap.put(ARG_RESUME, "0");
 		argsMap.put(ARG_ARC, "");
 		argsMap.put(ARG_PROJECT, "");
 		argsMap.put(ARG_EXPERIMENT, "");
 		argsMap.put(ARG_REPORT_FILE, DEFAULT_REPORT);
+		argsMap.put(ARG_ISLANDS, "");
+		argsMap.put(ARG_ISLAND, "");
 		
 		// Parse the arguments
 		int n = args == null? 0 : args.length;
@@ -135,13 +180,15 @@ public class Main {
 			String next = (i == n - 1)? "" : args[i + 1];
 			
 			// Flags
-			if (a.equals(ARG_NO_GUI) || a.equals(ARG_HELP)) {
+			if (a.equals(ARG_NO_GUI) || a.equals(ARG_HELP) ||
+					a.equals(ARG_RESUME)) {
 				argsMap.put(a, "1");
 			}
 			
 			// Key-value pairs
 			else if (a.equals(ARG_ARC) || a.equals(ARG_PROJECT) ||
-					a.equals(ARG_EXPERIMENT) || a.equals(ARG_EXPERIMENT)) {
+					a.equals(ARG_EXPERIMENT) || a.equals(ARG_REPORT_FILE) ||
+					a.equals(ARG_ISLANDS) || a.equals(ARG_ISLAND)) {
 				argsMap.put(a, next);
 				i++;
 			}
@@ -149,7 +196,7 @@ public class Main {
 		
 		return argsMap;
 	}
-
+	
 	/**
 	 * Parses an experiment file to get the experiments provided.
 	 * 
@@ -323,6 +370,93 @@ public class Main {
 		FileWriter.write(reportFile, data, false);
 	}
 	
+	/**
+	 * Runs ARC as multiple islands, where each island is a separate process
+	 * evolving its own population in its own ARC directory. The islands
+	 * exchange their best individuals through the migration directory, which
+	 * is cleared before the islands start, unless the islands are resumed.
+	 * This method waits for all the islands to finish. Each island writes
+	 * its own report file.
+	 * 
+	 * @param islands		the number of islands.
+	 * @param arcPath		the ARC path.
+	 * @param projectPath	the project path.
+	 * @param reportFile	the report file name, which is suffixed with the
+	 * 						island number for each island.
+	 * @param resume		true if each island should resume from its last
+	 * 						checkpoint.
+	 * @since 1.0
+	 */
+	private static void runIslands(int islands, String arcPath,
+			String projectPath, String reportFile, boolean resume) {
+		
+		// Clear the migrations from any previous run
+		if (!resume) {
+			ARC arc = new ARC(arcPath);
+			arc.loadSettings();
+			FileUtils.remove(arc.getSetting(ARC.SETTING_MIGRATION_DIR));
+		}
+		
+		// Start the islands
+		String java = System.getProperty("java.home") + File.separator +
+				"bin" + File.separator + "java";
+		String cp = System.getProperty("java.class.path");
+		if (reportFile == null || reportFile.isEmpty()) {
+			reportFile = DEFAULT_REPORT;
+		}
+		List<Process> processes = new ArrayList<>();
+		for (int i = 0; i < islands; i ++) {
+			List<String> cmd = new ArrayList<>();
+			Collections.addAll(cmd, java, "-cp", cp,
+					Main.class.getName(), ARG_NO_GUI, ARG_ARC, arcPath,
+					ARG_PROJECT, projectPath, ARG_ISLAND, "" + i,
+					ARG_REPORT_FILE, reportFile.replaceFirst(
+							"(\\.html)?$", ISLAND_SUFFIX + i + "$1"));
+			if (resume) {
+				cmd.add(ARG_RESUME);
+			}
+			ProcessBuilder pb = new ProcessBuilder(cmd);
+			pb.inheritIO();
+			try {
+				processes.add(pb.start());
+			} catch (Exception e) {
+				e.printStackTrace();
+				System.err.println("FATAL ERROR: unable to start island " +
+						i + ".");
+			}
+		}
+		
+		// Wait for all the islands to finish
+		for (Process p : processes) {
+			try {
+				p.waitFor();
+			} catch (InterruptedException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+	
+	/**
+	 * Parses an integer argument.
+	 * 
+	 * @param value	the argument value.
+	 * @param def	the value to use if the argument is not a valid integer.
+	 * @return the integer value of the argument.
+	 * @since 1.0
+	 */
+	private static int parseInt(String value, int def) {
+		if (value == null || value.isEmpty()) {
+			return def;
+		}
+		try {
+			return Integer.parseInt(value);
+		} catch (NumberFormatException e) {
+			System.err.println("WARNING: invalid integer argument '" + value +
+					"'.");
+			return def;
+		}
+	}
+	
 	/**
 	 * Checks if the specified paths are valid and initialized.
 	 * 
@@ -1,19 +1,30 @@
 package ca.sqrlab.arc.evolution;
 
 import java.io.File;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
 
 import ca.sqrlab.arc.ARC;
 import ca.sqrlab.arc.ARCRunner;
 import ca.sqrlab.arc.FinishListener;
+import ca.sqrlab.arc.evolution.EvaluationPool.TestedListener;
 import ca.sqrlab.arc.io.FileUtils;
 import ca.sqrlab.arc.tools.ARCUtils;
-import ca.sqrlab.arc.tools.compilation.AntCompiler;
+import ca.sqrlab.arc.tools.compilation.CachedCompiler;
+import ca.sqrlab.arc.tools.compilation.CompilationCache;
+import ca.sqrlab.arc.tools.compilation.IncrementalCompiler;
 import ca.sqrlab.arc.tools.compilation.ProjectCompiler;
 import ca.sqrlab.arc.tools.monitoring.Logger;
 import ca.sqrlab.arc.tools.monitoring.Phase;
 import ca.sqrlab.arc.tools.mutation.TXLMutation;
+import ca.sqrlab.arc.tools.testing.SPRTStoppingRule;
+import ca.sqrlab.arc.tools.testing.StoppingRule;
 import ca.sqrlab.arc.tools.testing.TestResult;
 import ca.sqrlab.arc.tools.testing.TestStatus;
 import ca.sqrlab.arc.tools.testing.TestingSummary;
@@ -48,6 +59,26 @@ public class ARCGeneticAlgorithm {
 	/** The default number of times to test each individual. */
 	public static final int DEFAULT_RUN_COUNT = 15;
 	
+	/** The default number of workers which test individuals concurrently. */
+	public static final int DEFAULT_EVALUATION_WORKERS = 1;
+	
+	/** The default number of test-suite executions to run at once during
+	 * extended validation. */
+	public static final int DEFAULT_VALIDATION_CONCURRENT_RUNS = 1;
+	
+	/** The evolution mode where the entire population is replaced by a new
+	 * generation once all of its individuals have been tested. */
+	public static final String MODE_GENERATIONAL = "generational";
+	
+	/** The evolution mode where a new individual is created as soon as an
+	 * evaluation worker is available, and replaces the worst individual of a
+	 * single, continuously maintained population. */
+	public static final String MODE_STEADY_STATE = "steady-state";
+	
+	/** The generation number of the individuals created in steady-state
+	 * mode. */
+	public static final int STEADY_STATE_GENERATION = 1;
+	
 	/** The ARC runner executing this genetic algorithm. */
 	private ARCRunner ar;
 	
@@ -57,7 +88,7 @@ public class ARCGeneticAlgorithm {
 	/** The listener which receives events when the genetic algorithm finishes
 	 * a phase. */
 	private FinishListener onFinish;
-
+	
 	/** All the generations from the last run of the genetic algorithm. */
 	private List<Generation> generations;
 	
@@ -78,8 +109,126 @@ public class ARCGeneticAlgorithm {
 	 * test-suite, even after further evaluation. */
 	private Individual solution;
 	
-	/** The list of mutant programs which have already been generated. */
-	private List<Mutant> mutants;
+	/** The mutant programs which have already been generated. */
+	private MutantRegistry mutants;
+	
+	/** The source of the mutants of the candidate individuals. */
+	private MutantSource mutantSource;
+	
+	/** The compiler which checks if the new programs compile, in the ARC
+	 * project directory. */
+	private ProjectCompiler compiler;
+	
+	/** The testing summaries of the programs which have already been tested,
+	 * by the hash of their source files. */
+	private FitnessCache fitnessCache;
+	
+	/** The number of workers which test individuals concurrently. */
+	private int evaluationWorkers;
+	
+	/** The flag indicating if the GA runs in steady-state mode. */
+	private boolean steadyState;
+	
+	/** The maximum number of individuals to evaluate in steady-state mode. */
+	private long maxEvaluations;
+	
+	/** The maximum time to spend evolving, in milliseconds, or 0. */
+	private long maxTimeMillis;
+	
+	/** The time the evolution started at, in milliseconds. */
+	private long startTime;
+	
+	/** The number of individuals evaluated in steady-state mode. */
+	private long evaluations;
+	
+	/** The exchange of individuals with other islands in island mode. */
+	private IslandMigration migration;
+	
+	/** The number of generations between migrations in island mode. */
+	private int migrationInterval;
+	
+	/** The number of individuals sent to the other islands at each
+	 * migration. */
+	private int migrationSize;
+	
+	/** The random number generator used to create individuals. */
+	private Random random;
+	
+	/** The number of individuals created in steady-state mode. */
+	private int created;
+	
+	/** The path to the checkpoint file. */
+	private String checkpointFile;
+	
+	/** The number of generations between checkpoints, or 0 if no
+	 * checkpoints are saved. */
+	private int checkpointInterval;
+	
+	/** The time spent evolving programs before the run was resumed. */
+	private long resumedMillis;
+	
+	/** The model which predicts the scores of untested individuals, or null
+	 * if individuals are tested in the order they were created. */
+	private SurrogateModel surrogate;
+	
+	/** The fraction of each generation predicted to be the worst which is
+	 * not tested. */
+	private double skipFraction;
+	
+	/** The time it took to find the first fix, or -1 if none was found. */
+	private long fixTimeMillis;
+	
+	/** The fitness function used to rank the candidates for mutation. */
+	private FitnessFunction fitness;
+	
+	/** The tested individuals of every generation after the first, ranked
+	 * by their score. */
+	private RankingIndex ranking;
+	
+	/** The mutation candidates sorted by Pareto front, which are sorted
+	 * again once per generation (or population worth of evaluations in
+	 * steady-state mode), or null if they were not sorted yet. */
+	private List<Individual> paretoCandidates;
+	
+	/** The number of generations when the Pareto candidates were sorted. */
+	private int paretoGeneration;
+	
+	/** The number of populations worth of evaluations when the Pareto
+	 * candidates were sorted. */
+	private long paretoEpoch;
+	
+	/** The strategy which chooses the candidate each new individual is
+	 * created from, or null to use the default of the evolution mode. */
+	private SelectionStrategy selection;
+	
+	/** The bandit which chooses the mutation operator to try next, or null
+	 * if operators are chosen at random. */
+	private OperatorBandit bandit;
+	
+	/** The ranking of the suspicious files and methods, or null if fault
+	 * localization is disabled. */
+	private FaultLocalizer localizer;
+	
+	/** The fraction of new individuals created by crossover. */
+	private double crossoverRate;
+	
+	/** The crossover operator which combines two candidates. */
+	private Crossover crossover;
+	
+	/** The number of generation directories used after the generations of
+	 * the genetic algorithm, by the minimization of the fix. */
+	private int extraGenerations;
+	
+	/** The pool of workers which test the individuals of a generation. */
+	private EvaluationPool pool;
+	
+	/** The pipeline which prepares the mutants of the next generation while
+	 * the current generation is tested, or null if it is disabled. */
+	private MutantPipeline pipeline;
+	
+	/** The pool of workers which check if several mutants compile at once,
+	 * or null if mutants are compiled one at a time. */
+	private CompilePool compilePool;
 	
 	/**
 	 * Creates an ARC genetic algorithm using the ARC runner executing the GA.
@@ -128,7 +277,14 @@ public class ARCGeneticAlgorithm {
 		this.generations = new ArrayList<>();
 		this.foundFix = false;
 		this.solution = null;
-		this.mutants = new ArrayList<>();
+		this.extraGenerations = 0;
+		this.mutants = new MutantRegistry();
+		this.fitnessCache = new FitnessCache(
+				isEnabled(ARC.SETTING_FITNESS_CACHE_NORMALIZE));
+		this.random = new Random();
+		this.created = 0;
+		this.resumedMillis = 0;
+		this.fixTimeMillis = -1;
 		
 		// Make sure that ARC and a project exists
 		if (arc == null) {
@@ -140,12 +296,15 @@ public class ARCGeneticAlgorithm {
 			finishPhase(l);
 			return l;
 		}
+		this.mutantSource = new MutantSource(arc);
+		this.compiler = ARCUtils.createCompiler(arc,
+				arc.getSetting(ARC.SETTING_PROJECT_DIR));
 		
 		// Get GA parameters
 		String ics = arc.getSetting(ARC.SETTING_POPULATION_COUNT);
 		String mgs = arc.getSetting(ARC.SETTING_MAX_GENERATIONS);
 		String rs = arc.getSetting(ARC.SETTING_RUN_COUNT);
-
+		
 		// Parse the population size
 		if (ics == null || ics.isEmpty()) {
 			l.warning("Missing config value for '" +
@@ -212,79 +371,153 @@ public class ARCGeneticAlgorithm {
 			return l;
 		}
 		
-		// Log some parameters
-		l.debug("# of test-suite executions per individual: " + runs);
-		l.debug("# of individuals per generation: " + individualCount);
-		l.debug("Max generation before termination: " + maxGenerations);
-		
-		// Make all the directories for generation 0
-		String dir00 = getIndividualDirectory(0, 0);
-		if (!(new File(dir00).mkdirs())) {
-			l.fatalError("Unable to create the directories for the first "
-					+ "generation.");
+		// Parse the number of evaluation workers
+		this.evaluationWorkers = getIntSetting(ARC.SETTING_EVALUATION_WORKERS,
+				DEFAULT_EVALUATION_WORKERS, l);
+		if (evaluationWorkers <= 0) {
+			l.fatalError("The value specified for '" +
+					ARC.SETTING_EVALUATION_WORKERS + "' is less than 1.");
 			finishPhase(l);
 			return l;
 		}
-		
-		// Copy the original project
-		if (!ARCUtils.copyProjectSourceFiles(
-				arc, arc.getSetting(ARC.SETTING_PROJECT_DIR), dir00, l)) {
-			l.fatalError("Unable to copy project to individual's directory.");
-			finishPhase(l);
-			return l;
+		this.evaluationWorkers = Math.min(evaluationWorkers, individualCount);
+		
+		// Parse the evolution mode and budget
+		String mode = arc.getSetting(ARC.SETTING_EVOLUTION_MODE);
+		this.steadyState = MODE_STEADY_STATE.equalsIgnoreCase(
+				mode == null? "" : mode.trim());
+		if (!steadyState && mode != null && !mode.trim().isEmpty() &&
+				!MODE_GENERATIONAL.equalsIgnoreCase(mode.trim())) {
+			l.warning("Invalid config value for '" +
+					ARC.SETTING_EVOLUTION_MODE + "' (expecting '" +
+					MODE_GENERATIONAL + "' or '" + MODE_STEADY_STATE +
+					"') - using default.");
+		}
+		this.maxEvaluations = getLongSetting(ARC.SETTING_MAX_EVALUATIONS, 0, l);
+		if (maxEvaluations <= 0) {
+			this.maxEvaluations = (long) maxGenerations * individualCount;
+		}
+		this.maxTimeMillis = Math.max(0,
+				getLongSetting(ARC.SETTING_MAX_TIME_MILLIS, 0, l));
+		this.evaluations = 0;
+		
+		// Parse the island settings
+		this.migration = new IslandMigration(arc,
+				getIntSetting(ARC.SETTING_ISLAND_ID, -1, l));
+		this.migrationInterval = Math.max(1, getIntSetting(
+				ARC.SETTING_MIGRATION_INTERVAL,
+				IslandMigration.DEFAULT_MIGRATION_INTERVAL, l));
+		this.migrationSize = Math.max(0, getIntSetting(
+				ARC.SETTING_MIGRATION_SIZE,
+				IslandMigration.DEFAULT_MIGRATION_SIZE, l));
+		
+		// Parse the checkpoint settings
+		this.checkpointFile = arc.getSetting(ARC.SETTING_CHECKPOINT_FILE);
+		this.checkpointInterval = Math.max(0,
+				getIntSetting(ARC.SETTING_CHECKPOINT_INTERVAL, 0, l));
+		if (checkpointFile == null || checkpointFile.isEmpty()) {
+			this.checkpointInterval = 0;
 		}
 		
-		// Test the original project
-		Individual original = new Individual(0, 0, dir00);
-		original.test(arc, runs);
-		Generation g0 = new Generation(original);
-		this.generations.add(g0);
+		// Create the fitness function which ranks the mutation candidates
+		this.fitness = createFitnessFunction(l);
+		this.ranking = new RankingIndex();
+		this.selection = createSelectionStrategy(l);
+		
+		// Create the bandit which learns which operators help
+		String policy = arc.getSetting(ARC.SETTING_OPERATOR_SELECTION);
+		this.bandit = OperatorBandit.NAME.equalsIgnoreCase(
+				policy == null? "" : policy.trim())? new OperatorBandit() : null;
+		
+		// Parse the crossover settings
+		this.crossoverRate = Math.min(1, Math.max(0, getDoubleSetting(
+				ARC.SETTING_CROSSOVER_RATE, 0, l)));
+		this.crossover = new Crossover(random);
+		
+		// Create the model which decides the order individuals are tested in
+		this.surrogate = null;
+		if (!steadyState && isEnabled(ARC.SETTING_SURROGATE_MODEL)) {
+			this.surrogate = new SurrogateModel(
+					arc.getProject().getSourceFiles(),
+					getIntSetting(ARC.SETTING_SURROGATE_MIN_SAMPLES,
+							SurrogateModel.DEFAULT_MIN_SAMPLES, l));
+			this.skipFraction = Math.min(1, Math.max(0, getDoubleSetting(
+					ARC.SETTING_SURROGATE_SKIP_FRACTION, 0, l)));
+		}
 		
-		// Make sure that the program is actually buggy
-		if (isFinalSolution(original, l)) {
-			l.debug("The original project was found to have no bugs.");
-			this.foundFix = true;
-			this.solution = original;
-			finishPhase(l);
-			return l;
+		// Log some parameters
+		l.debug("# of test-suite executions per individual: " + runs);
+		l.debug("# of individuals per generation: " + individualCount);
+		l.debug("Max generation before termination: " + maxGenerations);
+		l.debug("# of evaluation workers: " + evaluationWorkers);
+		if (steadyState) {
+			l.debug("Steady-state evolution with at most " + maxEvaluations +
+					" evaluations.");
+		} if (maxTimeMillis > 0) {
+			l.debug("Time limit: " + maxTimeMillis + " ms");
+		} if (migration.isEnabled()) {
+			l.debug("Island " + migration.getIsland() + ", migrating " +
+					migrationSize + " individuals every " + migrationInterval +
+					" generations.");
+		} if (checkpointInterval > 0) {
+			l.debug("Saving a checkpoint every " + checkpointInterval +
+					" generations to '" + checkpointFile + "'.");
+		} if (surrogate != null) {
+			l.debug("Using a surrogate model to order testing (skipping " +
+					(skipFraction * 100) + "% of each generation once trained).");
+		} if (bandit != null) {
+			l.debug("Choosing mutation operators with a bandit policy.");
+		} if (isEnabled(ARC.SETTING_INCREMENTAL_COMPILATION)) {
+			l.debug("Compiling the new programs incrementally.");
+		} if (arc.getCompilationCache() != null) {
+			l.debug("Caching the compilation results.");
+		} if (crossoverRate > 0) {
+			l.debug("Creating " + (crossoverRate * 100) + "% of the new " +
+					"individuals by crossover.");
 		}
 		
-		// Check if requested to stop
-		if (ar != null && ar.shouldStop()) {
-			l.fatalError("ARC was requested to stop.");
+		// Continue from the last checkpoint
+		boolean resumed = isEnabled(ARC.SETTING_RESUME) && resume(l);
+		if (l.hasFatalError()) {
 			finishPhase(l);
 			return l;
 		}
 		
-		// Add the first mutant
-		List<File> lfiles = FileUtils.find(dir00, ".+\\.java", true);
-		int n = lfiles.size();
-		String[] files = new String[n];
-		for (int i = 0; i < n; i ++) {
-			files[i] = lfiles.get(i).getAbsolutePath();
-		}
-		Mutant m00 = new Mutant(files);
-		this.mutants.add(m00);
-		original.setRepresentation(m00);
-		
-		finishPhase(l);
-		
-		// Continuously evolve until a solution is found
-		for (int i = 1; i <= maxGenerations; i ++) {
-			l.newPhase("Generation " + i);
+		if (!resumed) {
+			// Make all the directories for generation 0
+			String dir00 = getIndividualDirectory(0, 0);
+			if (!(new File(dir00).mkdirs())) {
+				l.fatalError("Unable to create the directories for the first "
+						+ "generation.");
+				finishPhase(l);
+				return l;
+			}
 			
-			// Evolve the population
-			if (evolve(l)) {
-				l.debug("Solution found.");
-				this.foundFix = true;
-				break;
+			// Copy the original project
+			if (!ARCUtils.copyProjectSourceFiles(
+					arc, arc.getSetting(ARC.SETTING_PROJECT_DIR), dir00, l)) {
+				l.fatalError("Unable to copy project to individual's directory.");
+				finishPhase(l);
+				return l;
 			}
 			
-			// Check if there was a fatal error
-			if (l.hasFatalError()) {
+			// Test the original project
+			Individual original = new Individual(0, 0, dir00);
+			original.test(arc, runs);
+			Generation g0 = new Generation(original);
+			this.generations.add(g0);
+			
+			// Make sure that the program is actually buggy
+			if (isFinalSolution(original, l)) {
+				l.debug("The original project was found to have no bugs.");
+				this.foundFix = true;
+				this.fixTimeMillis = 0;
+				this.solution = original;
 				finishPhase(l);
 				return l;
 			}
+			fitnessCache.put(fitnessCache.hash(dir00,
+					arc.getProject().getSourceFiles()), original.getTestSummary());
 			
 			// Check if requested to stop
 			if (ar != null && ar.shouldStop()) {
@@ -293,13 +526,172 @@ public class ARCGeneticAlgorithm {
 				return l;
 			}
 			
+			// Add the first mutant
+			List<File> lfiles = FileUtils.find(dir00, ".+\\.java", true);
+			int n = lfiles.size();
+			String[] files = new String[n];
+			for (int i = 0; i < n; i ++) {
+				files[i] = lfiles.get(i).getAbsolutePath();
+			}
+			Mutant m00 = new Mutant(files);
+			this.mutants.add(m00);
+			original.setRepresentation(m00);
+		}
+		
+		// Find the most suspicious locations from the original's failures
+		this.localizer = null;
+		if (isEnabled(ARC.SETTING_FAULT_LOCALIZATION)) {
+			localize(generations.get(0).getPopulation().get(0), l);
+		}
+		if (mutantSource.isAnalyzing()) {
+			l.debug("Using static analysis to target the mutation operators.");
+		}
+		
+		// Create the workers which test the individuals
+		this.pool = new EvaluationPool(ar, evaluationWorkers);
+		if (!pool.initialize(l)) {
+			pool.shutdown();
 			finishPhase(l);
+			return l;
+		}
+		
+		// Create the pipeline which prepares the next generation
+		this.pipeline = null;
+		if (!steadyState && isEnabled(ARC.SETTING_PIPELINED_GENERATIONS)) {
+			this.pipeline = new MutantPipeline(arc, mutantSource, mutants);
+			if (!pipeline.initialize(l)) {
+				pool.shutdown();
+				finishPhase(l);
+				return l;
+			}
+		}
+		
+		// Create the workers which check if mutants compile
+		this.compilePool = null;
+		int compileWorkers = getIntSetting(ARC.SETTING_COMPILE_WORKERS, 1, l);
+		if (compileWorkers > 1) {
+			this.compilePool = new CompilePool(arc, compileWorkers);
+			if (!compilePool.initialize(l)) {
+				compilePool.shutdown();
+				pool.shutdown();
+				if (pipeline != null) {
+					pipeline.stop();
+				}
+				finishPhase(l);
+				return l;
+			}
+		}
+		
+		finishPhase(l);
+		
+		// Evolve one individual at a time until a solution is found
+		this.startTime = System.currentTimeMillis() - resumedMillis;
+		if (steadyState) {
+			l.newPhase("Steady-state evolution");
+			try {
+				if (evolveSteadyState(l)) {
+					l.debug("Solution found.");
+					this.foundFix = true;
+					logTimeToFix(l);
+					migration.markSolved();
+					minimizeSolution(l);
+					optimizeSolution(l);
+				}
+			} finally {
+				pool.shutdown();
+				if (compilePool != null) {
+					compilePool.shutdown();
+				} if (arc.getTestWorkerPool() != null) {
+					arc.getTestWorkerPool().shutdown();
+				}
+			}
+			if (bandit != null) {
+				l.debug("Operator statistics: " + bandit);
+			}
+			logCompilations(l);
+			if (!foundFix && !l.hasFatalError()) {
+				l.fatalError("No fix was found after " + evaluations +
+						" evaluations.");
+			}
+			finishPhase(l);
+			return l;
 		}
 		
+		// Continuously evolve until a solution is found
+		try {
+			for (int i = generations.size(); i <= maxGenerations; i ++) {
+				
+				// Check the time limit
+				if (isOutOfTime()) {
+					l.warning("The time limit of " + maxTimeMillis +
+							" ms was reached.");
+					break;
+				}
+				
+				// Check if another island already found a fix
+				if (migration.isSolved()) {
+					l.warning("Another island found a fix.");
+					break;
+				}
+				
+				l.newPhase("Generation " + i);
+				
+				// Evolve the population
+				if (evolve(l)) {
+					l.debug("Solution found.");
+					this.foundFix = true;
+					logTimeToFix(l);
+					migration.markSolved();
+					break;
+				}
+				
+				// Check if there was a fatal error
+				if (l.hasFatalError()) {
+					finishPhase(l);
+					return l;
+				}
+				
+				// Check if requested to stop
+				if (ar != null && ar.shouldStop()) {
+					l.fatalError("ARC was requested to stop.");
+					finishPhase(l);
+					return l;
+				}
+				
+				// Save the progress
+				if (checkpointInterval > 0 && i % checkpointInterval == 0) {
+					saveCheckpoint(l);
+				}
+				
+				finishPhase(l);
+			}
+			
+			// Remove the unnecessary changes and synchronization from the fix
+			if (foundFix) {
+				minimizeSolution(l);
+				optimizeSolution(l);
+			}
+		} finally {
+			pool.shutdown();
+			if (pipeline != null) {
+				pipeline.stop();
+			} if (compilePool != null) {
+				compilePool.shutdown();
+			} if (arc.getTestWorkerPool() != null) {
+				arc.getTestWorkerPool().shutdown();
+			}
+		}
+		
+		// Report what was learned about the operators
+		if (bandit != null) {
+			l.debug("Operator statistics: " + bandit);
+		}
+		logCompilations(l);
+		
 		// If no fix was found, tell the user
 		if (!foundFix) {
-			l.fatalError("No fix was found after " + maxGenerations +
-					" generations.");
+			l.fatalError("No fix was found after " + (generations.size() - 1)
+					+ " generations.");
 			finishPhase(l);
 			return l;
 		}
@@ -352,18 +744,101 @@ public class ARCGeneticAlgorithm {
 			return false;
 		}
 		
-		// Test the population
-		int failed = 0;
+		// Order the population so the individuals predicted to be the best
+		// are tested first
+		if (surrogate != null) {
+			prioritize(g, l);
+		}
+		
+		// Find the individuals with programs which were already tested
 		List<Individual> actualPop = g.getPopulation();
-		for (Individual individual : actualPop) {
+		String[] sourceFiles = arc.getProject().getSourceFiles();
+		int n = actualPop.size();
+		String[] hashes = new String[n];
+		int[] testedAs = new int[n];
+		boolean[] cached = new boolean[n];
+		Map<String, Integer> pending = new HashMap<>();
+		List<Individual> toTest = new ArrayList<>();
+		for (int i = 0; i < n; i ++) {
+			Individual individual = actualPop.get(i);
+			String hash = fitnessCache.hash(individual.getPath(), sourceFiles);
+			TestingSummary summary = fitnessCache.get(hash);
+			hashes[i] = hash;
+			if (summary != null) {
+				individual.setTestSummary(summary);
+				cached[i] = true;
+			} else if (hash != null && pending.containsKey(hash)) {
+				testedAs[i] = pending.get(hash);
+			} else {
+				testedAs[i] = toTest.size();
+				toTest.add(individual);
+				if (hash != null) {
+					pending.put(hash, testedAs[i]);
+				}
+			}
+		}
+		
+		// Test the remaining population using the workers, while preparing
+		// the mutants of promising individuals for the next generation
+		StoppingRule rule = createStoppingRule(l);
+		TestedListener onTested = null;
+		if (pipeline != null || surrogate != null) {
+			if (pipeline != null) {
+				pipeline.start();
+			}
+			final float minScore = generations.get(0).getPopulation()
+					.get(0).getScore();
+			onTested = new TestedListener() {
+				@Override
+				public void onTested(Individual individual) {
+					if (pipeline != null && individual.getScore() >= minScore) {
+						pipeline.speculate(individual);
+					}
+					
+					// Validate a potential solution before testing the rest
+					if (surrogate != null && individual.getScore() >= 1) {
+						pool.cancel();
+					}
+				}
+			};
+			for (int i = 0; i < n; i ++) {
+				if (cached[i]) {
+					onTested.onTested(actualPop.get(i));
+				}
+			}
+		}
+		boolean[] results = evaluate(toTest, rule, onTested, l);
+		if (solution != null) {
+			return true;
+		}
+		
+		// Check the results in the order of the population
+		int failed = 0;
+		for (int i = 0; i < n; i ++) {
+			Individual individual = actualPop.get(i);
 			
 			l.debug("Generation " + individual.getGeneration() +
 					", individual " + individual.getId());
 			
-			// Test the individual
-			if (!individual.test(arc, runs)) {
+			// Use the latest results of an identical individual tested in
+			// this generation (which always comes first)
+			boolean tested = cached[i] || results[testedAs[i]];
+			Individual same = cached[i]? individual : toTest.get(testedAs[i]);
+			if (same != individual) {
+				cached[i] = true;
+				individual.setTestSummary(same.getTestSummary());
+			}
+			
+			// Check that the individual was tested
+			if (!tested) {
 				l.warning("Unable to run tests for individual " + individual);
 				failed ++;
+			} else if (cached[i]) {
+				l.debug("Reused the results of an identical program.");
+			} else if (individual.getTestSummary().getNumberOfTestsRun() < runs) {
+				l.debug("Stopped testing early after " + individual
+						.getTestSummary().getNumberOfTestsRun() + " of " +
+						runs + " test-suite executions.");
 			}
 			l.debug("Score: " + individual.getScore());
 			
@@ -373,6 +848,18 @@ public class ARCGeneticAlgorithm {
 				return true;
 			}
 			
+			// Remember the results for identical programs
+			if (tested) {
+				fitnessCache.put(hashes[i], individual.getTestSummary());
+				ranking.add(individual);
+				if (bandit != null) {
+					bandit.recordResult(individual);
+				}
+				if (surrogate != null) {
+					surrogate.train(individual);
+				}
+			}
+			
 			// Check if requested to stop
 			if (ar != null && ar.shouldStop()) {
 				l.fatalError("ARC was requested to stop.");
@@ -382,7 +869,7 @@ public class ARCGeneticAlgorithm {
 			
 			finishPhase(l);
 		}
-		if (failed == population.length) {
+		if (failed == n) {
 			l.fatalError("Unable to test any individual from the current generation.");
 			return false;
 		}
@@ -394,225 +881,768 @@ public class ARCGeneticAlgorithm {
 					best.getScore() + "): " + best);
 		}
 		
+		// Exchange individuals with the other islands
+		if (migration.isEnabled() && gen % migrationInterval == 0) {
+			return migrate(g, l);
+		}
+		
 		return false;
 	}
 	
 	/**
-	 * Generates mutants for the best individuals found so far (or the base
-	 * project). If for a given individual, the same mutation operator is
-	 * selected, then no more mutations are added for that individual. Only one
-	 * mutation operator per candidate (from {@link #getMutationCandidates()})
-	 * will be applied to the program to avoid creating thousands of files.
+	 * Orders the population of a generation so the individuals predicted by
+	 * the surrogate model to have the best scores are first. Once the model
+	 * is trained, the individuals predicted to be the worst are removed from
+	 * the generation without being tested.
 	 * 
-	 * @param g	the generation to generate mutants for.
-	 * @param l	the logger to track the mutation process.
+	 * @param g	the generation which has not been tested.
+	 * @param l	the logger to track events.
 	 * 
+	 * @see SurrogateModel
 	 * @since 1.0
 	 */
-	private void generateMutants(Generation g, Logger l) {
+	private void prioritize(Generation g, Logger l) {
 		
-		// No generation
-		if (g == null) {
+		// Predict the score of each individual
+		List<Individual> population = g.getPopulation();
+		final Map<Individual, Double> predictions = new HashMap<>();
+		for (Individual individual : population) {
+			predictions.put(individual, surrogate.predict(individual));
+		}
+		Collections.sort(population, new Comparator<Individual>() {
+			@Override
+			public int compare(Individual a, Individual b) {
+				return Double.compare(predictions.get(b), predictions.get(a));
+			}
+		});
+		
+		// Skip the individuals predicted to be the worst
+		if (!surrogate.isTrained() || skipFraction <= 0) {
 			return;
 		}
+		int skip = Math.min(population.size() - 1,
+				(int) (population.size() * skipFraction));
+		for (int i = 0; i < skip; i ++) {
+			Individual individual = population.remove(population.size() - 1);
+			FileUtils.remove(individual.getPath());
+		}
+		if (skip > 0) {
+			l.debug("Skipped " + skip + " individuals predicted to be the " +
+					"worst by the surrogate model.");
+		}
+	}
+	
+	/**
+	 * Tests the individuals using the evaluation pool. When the surrogate
+	 * model is used, testing is cancelled as soon as an individual passes
+	 * every test-suite execution, so it can be validated before the rest of
+	 * the individuals are tested. If it is the final solution, it is set as
+	 * the solution and the remaining individuals are not tested.
+	 * 
+	 * @param individuals	the individuals to test, in the order to test them.
+	 * @param rule			the rule to stop testing early, or null.
+	 * @param onTested		the listener notified after each individual is
+	 * 						tested, or null.
+	 * @param l				the logger to track events.
+	 * @return an array where each element is true if and only if tests were
+	 * run for the individual at the same index.
+	 * 
+	 * @see EvaluationPool#evaluate(List, int, StoppingRule, TestedListener)
+	 * @since 1.0
+	 */
+	private boolean[] evaluate(List<Individual> individuals, StoppingRule rule,
+			TestedListener onTested, Logger l) {
 		
-		// Determine all the possible individuals which can be mutated
-		List<Individual> candidates = getMutationCandidates();
-		int n = candidates.size();
+		// Test all the individuals at once
+		if (surrogate == null) {
+			return pool.evaluate(individuals, runs, rule, onTested);
+		}
 		
-		// Generate all the mutants for each candidate
-		TXLMutation[] allMutations = TXLMutation.getAllMutations();
-		for (Individual candidate : candidates) {
-			for (TXLMutation m : allMutations) {
-				mutateIndividual(candidate, m, l);
-				if (l.hasFatalError()) {
-					return;
+		// Test until a potential solution is found, then validate it
+		int n = individuals.size();
+		boolean[] tested = new boolean[n];
+		List<Integer> remaining = new ArrayList<>();
+		for (int i = 0; i < n; i ++) {
+			remaining.add(i);
+		}
+		while (!remaining.isEmpty()) {
+			List<Individual> batch = new ArrayList<>();
+			for (int i : remaining) {
+				batch.add(individuals.get(i));
+			}
+			boolean[] results = pool.evaluate(batch, runs, rule, onTested);
+			boolean cancelled = pool.isCancelled();
+			List<Integer> next = new ArrayList<>();
+			for (int i = 0; i < results.length; i ++) {
+				int idx = remaining.get(i);
+				tested[idx] = results[i];
+				if (results[i] && isFinalSolution(batch.get(i), l)) {
+					this.solution = batch.get(i);
+					return tested;
+				} else if (!results[i] && cancelled) {
+					next.add(idx);
 				}
 			}
+			if (ar != null && ar.shouldStop()) {
+				break;
+			}
+			remaining = next;
 		}
 		
-		// Check if requested to stop
-		if (ar != null && ar.shouldStop()) {
-			l.fatalError("ARC was requested to stop.");
-			finishPhase(l);
+		return tested;
+	}
+	
+	/**
+	 * Minimizes the changes the solution makes to the original program, if
+	 * it is enabled. The solution is replaced by the smallest set of changes
+	 * which is still correct.
+	 * 
+	 * @param l	the logger to track events.
+	 * 
+	 * @see FixMinimizer
+	 * @since 1.0
+	 */
+	private void minimizeSolution(Logger l) {
+		
+		if (solution == null || !isEnabled(ARC.SETTING_MINIMIZE_FIX)) {
 			return;
 		}
+		finishPhase(l);
+		l.newPhase("Minimization");
+		
+		// Minimize the fix
+		if (pipeline != null) {
+			pipeline.stop();
+		}
+		Individual original = generations.get(0).getPopulation().get(0);
+		FixMinimizer minimizer = new FixMinimizer(ar, pool,
+				generations.size() + extraGenerations);
+		Individual minimized = minimizer.minimize(solution, original, runs,
+				MIN_VALIDATION_TESTS, getIntSetting(
+						ARC.SETTING_VALIDATION_CONCURRENT_RUNS,
+						DEFAULT_VALIDATION_CONCURRENT_RUNS, l), l);
+		this.extraGenerations += minimizer.getGenerationsUsed();
+		if (minimized != solution) {
+			l.debug("Minimized solution: " + minimized);
+			this.solution = minimized;
+		} else {
+			l.debug("None of the changes of the solution could be removed.");
+		}
+	}
+	
+	/**
+	 * Runs the optimization phase on the solution, if it is enabled. The
+	 * solution is replaced by the fastest variant which is still correct.
+	 * 
+	 * @param l	the logger to track events.
+	 * 
+	 * @see SynchronizationOptimizer
+	 * @since 1.0
+	 */
+	private void optimizeSolution(Logger l) {
+		
+		if (solution == null || !isEnabled(ARC.SETTING_OPTIMIZATION_PHASE)) {
+			return;
+		}
+		finishPhase(l);
+		l.newPhase("Optimization");
+		
+		// Optimize the fix, removing synchronization from any file
+		if (pipeline != null) {
+			pipeline.stop();
+		}
+		mutantSource.setTargetFiles(null);
+		SynchronizationOptimizer optimizer = new SynchronizationOptimizer(
+				ar, pool, mutantSource, generations.size() + extraGenerations);
+		Individual optimized = optimizer.optimize(solution, getIntSetting(
+				ARC.SETTING_OPTIMIZATION_ROUNDS,
+				SynchronizationOptimizer.DEFAULT_OPTIMIZATION_ROUNDS, l), runs,
+				MIN_VALIDATION_TESTS, getIntSetting(
+						ARC.SETTING_VALIDATION_CONCURRENT_RUNS,
+						DEFAULT_VALIDATION_CONCURRENT_RUNS, l), l);
+		if (optimized != solution) {
+			l.debug("Optimized solution: " + optimized);
+			this.solution = optimized;
+		} else {
+			l.debug("No faster correct variant of the solution was found.");
+		}
+	}
+	
+	/**
+	 * Ranks the suspicious files and methods using the failures of the
+	 * original program and the optional coverage file. The mutants are then
+	 * only generated for the most suspicious files, and the mutants which
+	 * change the most suspicious locations are tried first.
+	 * 
+	 * @param original	the tested original program.
+	 * @param l			the logger to track events.
+	 * 
+	 * @see FaultLocalizer
+	 * @since 1.0
+	 */
+	private void localize(Individual original, Logger l) {
+		
+		this.localizer = new FaultLocalizer(arc.getProject().getSourceFiles());
+		int failures = localizer.addFailures(original.getTestSummary());
+		int covered = localizer.addCoverage(
+				arc.getSetting(ARC.SETTING_FAULT_COVERAGE_FILE));
+		l.debug("Fault localization used " + failures + " failed executions " +
+				"and " + covered + " coverage entries.");
+		
+		// Only mutate the most suspicious files
+		List<String> files = localizer.getRankedFiles();
+		if (files.isEmpty()) {
+			l.warning("No suspicious files were found - mutating every file.");
+			return;
+		}
+		String[] targets = localizer.getFilesToMutate(getIntSetting(
+				ARC.SETTING_FAULT_LOCALIZATION_FILES, 0, l));
+		mutantSource.setTargetFiles(targets);
+		for (int i = 0; i < targets.length; i ++) {
+			l.debug("Suspect " + (i + 1) + ": " + targets[i] + " (" +
+					localizer.getSuspiciousness(targets[i]) + ")");
+		}
+		List<String> methods = localizer.getRankedMethods();
+		for (int i = 0; i < methods.size() && i < targets.length; i ++) {
+			l.debug("Suspect method: " + methods.get(i));
+		}
+	}
+	
+	/**
+	 * Logs the time it took to find the first fix, since the start of the
+	 * evolution.
+	 * 
+	 * @param l	the logger to track events.
+	 * @since 1.0
+	 */
+	private void logTimeToFix(Logger l) {
+		this.fixTimeMillis = System.currentTimeMillis() - startTime;
+		l.debug("Time to first fix: " + fixTimeMillis + " ms (surrogate " +
+				"model " + (surrogate == null? "disabled" : "enabled") + ").");
+	}
+	
+	/**
+	 * Exchanges individuals with the other islands in island mode. The best
+	 * individuals of the generation are sent to the other islands, and the
+	 * individuals received from the other islands which are better than the
+	 * worst individual of the generation are tested and added to the
+	 * generation. Identical programs are not tested again.
+	 * 
+	 * @param g	the generation which was just tested.
+	 * @param l	the logger to track events.
+	 * @return true if and only if an immigrant is the final solution.
+	 * 
+	 * @see IslandMigration
+	 * @since 1.0
+	 */
+	private boolean migrate(Generation g, Logger l) {
 		
-		// Create the population
 		List<Individual> population = g.getPopulation();
-		int popSize = population == null? 0 : population.size();
-		for (int i = 0; i < popSize; i ++) {
-			
-			Individual individual = population.get(i);
-			int startIdx = (i / 3) % n;
-			
-			// Check if any mutants were generated
-			boolean foundMutant = createMutantProgram(candidates,
-					individual, startIdx, l);
+		if (population.isEmpty()) {
+			return false;
+		}
+		int gen = population.get(0).getGeneration();
+		
+		// Send the best individuals
+		List<Individual> best = new ArrayList<>();
+		for (Individual individual : population) {
+			if (individual.hasBeenTested()) {
+				best.add(individual);
+			}
+		}
+		Collections.sort(best, Collections.reverseOrder());
+		if (best.size() > migrationSize) {
+			best = best.subList(0, migrationSize);
+		}
+		int sent = migration.emigrate(best, gen, l);
+		
+		// Receive individuals better than the worst one
+		float worst = Float.POSITIVE_INFINITY;
+		int id = 0;
+		for (Individual individual : population) {
+			worst = Math.min(worst, individual.getScore());
+			id = Math.max(id, individual.getId() + 1);
+		}
+		List<Individual> immigrants = migration.immigrate(worst, l);
+		
+		// Add the immigrants to the generation
+		String[] sourceFiles = arc.getProject().getSourceFiles();
+		List<Individual> received = new ArrayList<>();
+		List<Individual> toTest = new ArrayList<>();
+		for (Individual immigrant : immigrants) {
+			String path = getIndividualDirectory(gen, id);
+			if (!(new File(path)).mkdirs() || !ARCUtils.copyProjectSourceFiles(
+					arc, immigrant.getPath(), path, null)) {
+				l.warning("Unable to copy the immigrant '" +
+						immigrant.getPath() + "'.");
+				continue;
+			}
+			Individual individual = new Individual(id ++, gen, path);
+			individual.setRepresentation(immigrant.getRepresentation());
+			this.mutants.add(individual.getRepresentation());
+			TestingSummary summary = fitnessCache.get(
+					fitnessCache.hash(path, sourceFiles));
+			if (summary != null) {
+				individual.setTestSummary(summary);
+			} else {
+				toTest.add(individual);
+			}
+			received.add(individual);
+		}
+		l.debug("Sent " + sent + " individuals to and received " +
+				received.size() + " individuals from the other islands.");
+		
+		// Test the immigrants
+		pool.evaluate(toTest, runs, createStoppingRule(l));
+		for (Individual individual : received) {
+			if (!individual.hasBeenTested()) {
+				l.warning("Unable to run tests for immigrant " + individual);
+				continue;
+			}
+			fitnessCache.put(fitnessCache.hash(individual.getPath(),
+					sourceFiles), individual.getTestSummary());
+			population.add(individual);
+			l.debug("Immigrant " + individual.getId() + " score: " +
+					individual.getScore());
+			if (isFinalSolution(individual, l)) {
+				this.solution = individual;
+				return true;
+			}
+			ranking.add(individual);
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * Runs the genetic algorithm in steady-state mode. Instead of creating
+	 * entire generations, a new individual is created from the current
+	 * population as soon as an evaluation worker is available. Once an
+	 * individual is tested, it replaces the worst individual of the
+	 * population (if it is at least as good). Evolution stops when a solution
+	 * is found or the evaluation or time budget is spent.
+	 * 
+	 * @param l	the logger to keep track of any issues/events.
+	 * @return true if and only if a valid program solution was found which
+	 * passes all the tests (and is evaluated further).
+	 * 
+	 * @see ARC#SETTING_MAX_EVALUATIONS
+	 * @see ARC#SETTING_MAX_TIME_MILLIS
+	 * @since 1.0
+	 */
+	private boolean evolveSteadyState(Logger l) {
+		
+		// Create the population, unless it was resumed from a checkpoint
+		Generation g = null;
+		if (generations.size() > STEADY_STATE_GENERATION) {
+			g = generations.get(STEADY_STATE_GENERATION);
+		} else {
+			String gd = getGenerationDirectory(STEADY_STATE_GENERATION);
+			if (gd == null || !(new File(gd)).mkdirs()) {
+				l.fatalError("Unable to create the directory for the population.");
+				return false;
+			}
+			g = new Generation(new ArrayList<Individual>());
+			this.generations.add(g);
+		}
+		List<Individual> population = g.getPopulation();
+		
+		String[] sourceFiles = arc.getProject().getSourceFiles();
+		while (true) {
 			
-			// No valid mutations, but we created at least one individual
-			if (!foundMutant && i > 0) {
-				l.warning("Not enough mutations to create the entire "
-						+ "population size (" + popSize + " mutants).");
-				
-				// Delete the extra individuals
-				for (int j = i; j < popSize; j ++) {
-					Individual toRemove = population.remove(i);
-					FileUtils.remove(toRemove.getPath());
-				}
+			// Keep every worker busy with a new individual
+			boolean exhausted = false;
+			while (pool.getPending() < evaluationWorkers &&
+					created < maxEvaluations && !isOutOfTime()) {
 				
 				// Check if requested to stop
 				if (ar != null && ar.shouldStop()) {
 					l.fatalError("ARC was requested to stop.");
-					finishPhase(l);
-					return;
+					return false;
 				}
 				
-				break;
+				// Create a new individual from the current population
+				Individual individual = breed(created, l);
+				if (l.hasFatalError()) {
+					return false;
+				} if (individual == null) {
+					exhausted = true;
+					break;
+				}
+				this.created ++;
+				
+				// Reuse the results of an identical program
+				TestingSummary summary = fitnessCache.get(
+						fitnessCache.hash(individual.getPath(), sourceFiles));
+				if (summary != null) {
+					individual.setTestSummary(summary);
+					l.debug("Reused the results of an identical program.");
+					if (replace(population, individual, l)) {
+						return true;
+					}
+				} else {
+					pool.submit(individual, runs, createStoppingRule(l));
+				}
 			}
 			
-			// No valid mutant programs
-			else if (!foundMutant) {
-				l.fatalError("Unable to find valid mutant for individual " +
-						individual.getId() + " from generation " +
-						individual.getGeneration() + ".");
-				return;
+			// Nothing left to evaluate
+			if (pool.getPending() == 0) {
+				if (exhausted) {
+					l.warning("No more mutants can be created from the " +
+							"population.");
+				} else if (isOutOfTime()) {
+					l.warning("The time limit of " + maxTimeMillis +
+							" ms was reached.");
+				}
+				break;
 			}
 			
-			// Check if requested to stop
-			if (ar != null && ar.shouldStop()) {
-				l.fatalError("ARC was requested to stop.");
-				finishPhase(l);
-				return;
+			// Wait for the next individual to finish testing
+			Individual individual = pool.take();
+			if (individual == null) {
+				if (Thread.currentThread().isInterrupted()) {
+					l.fatalError("ARC was interrupted.");
+					return false;
+				}
+				continue;
+			} if (!individual.hasBeenTested()) {
+				l.warning("Unable to run tests for individual " + individual);
+				continue;
+			}
+			fitnessCache.put(fitnessCache.hash(individual.getPath(),
+					sourceFiles), individual.getTestSummary());
+			if (replace(population, individual, l)) {
+				return true;
 			}
 		}
+		
+		// Log the best individual
+		Individual best = g.getBestIndividual();
+		if (best != null) {
+			l.debug("Best individual after " + evaluations +
+					" evaluations (with score " + best.getScore() + "): " + best);
+		}
+		
+		return false;
 	}
 	
 	/**
-	 * Creates a mutant of the specified individual using the specified
-	 * mutation operator. If this individual was already mutated using the
-	 * specified operator, this method does nothing.
+	 * Creates a new individual in steady-state mode by mutating one of the
+	 * current mutation candidates.
 	 * 
-	 * @param individual	the individual to mutate.
-	 * @param mutation		the mutation to apply to the individual.
-	 * @param l				the logger to keep track of the mutation process.
-	 * @return a string to the root directory where all the mutants are located.
+	 * @param id	the ID of the new individual.
+	 * @param l		the logger to track events.
+	 * @return the new individual or null if no valid mutant program could be
+	 * created.
 	 * 
 	 * @since 1.0
 	 */
-	private String mutateIndividual(Individual individual, TXLMutation mutation,
-			Logger l) {
+	private Individual breed(int id, Logger l) {
 		
-		// Arguments check
-		if (individual == null || mutation == null) {
+		// Create the directory for the individual
+		String path = getIndividualDirectory(STEADY_STATE_GENERATION, id);
+		if (path == null || !(new File(path)).mkdirs()) {
+			l.fatalError("Unable to create the directory for individual " +
+					id + ".");
 			return null;
-		} if (l == null) {
-			l = new Logger();
 		}
+		Individual individual = new Individual(
+				id, STEADY_STATE_GENERATION, path);
 		
-		// Make sure there are actually files to mutate
-		String[] javaFiles = arc.getProject().getSourceFiles();
-		if (javaFiles == null || javaFiles.length == 0) {
-			l.fatalError("No Java files to mutate in the project!");
+		// Create the program by crossover or by mutating a random candidate
+		List<Individual> candidates = getMutationCandidates();
+		int startIdx = 0;
+		if (!candidates.isEmpty()) {
+			startIdx = selection == null? random.nextInt(candidates.size()) :
+				selection.select(candidates.size(), id, random);
+		}
+		boolean created = random.nextDouble() < crossoverRate &&
+				createCrossoverProgram(candidates, individual, l);
+		if (!created && !createMutantProgram(
+				candidates, individual, startIdx, l)) {
+			FileUtils.remove(path);
 			return null;
 		}
 		
-		// Make sure the individual's directory actually exists
-		String individualRoot = individual.getPath();
-		if (individualRoot == null || !(new File(individualRoot)).isDirectory()) {
-			l.fatalError("The individual's specified directory does not exist: '"
-					+ individualRoot + "'.");
-			return null;
+		return individual;
+	}
+	
+	/**
+	 * Adds a tested individual to the steady-state population. If the
+	 * population is full, the individual replaces the worst individual as
+	 * long as it is at least as good. The individual is also checked to see
+	 * if it is the final solution.
+	 * 
+	 * @param population	the steady-state population.
+	 * @param individual	the tested individual.
+	 * @param l				the logger to track events.
+	 * @return true if and only if the individual is the final solution.
+	 * 
+	 * @since 1.0
+	 */
+	private boolean replace(List<Individual> population, Individual individual,
+			Logger l) {
+		
+		this.evaluations ++;
+		l.debug("Evaluation " + evaluations + ", individual " +
+				individual.getId() + " (score: " + individual.getScore() + ")");
+		if (bandit != null) {
+			bandit.recordResult(individual);
 		}
 		
-		// Get the TXL arguments
-		String txlProg = arc.getSetting(ARC.SETTING_TXL);
-		String operatorDir = arc.getSetting(ARC.SETTING_TXL_DIR);
+		// Check if it is the solution
+		if (isFinalSolution(individual, l)) {
+			this.solution = individual;
+			population.add(individual);
+			return true;
+		}
 		
-		// Build the directory path for the mutant
-		// i.e.: <mutant_dir>/<generation>/<id>/<operator>
-		String ds = arc.getSetting(ARC.SETTING_DIR_SEPARATOR);
-		String root = arc.getSetting(ARC.SETTING_MUTANT_DIR) + ds +
-				individual.getGeneration() + ds + individual.getId() +
-				ds + mutation.getMutationFile() + ds;
+		// Add the individual or replace the worst one
+		if (population.size() < individualCount) {
+			population.add(individual);
+			ranking.add(individual);
+			return false;
+		}
+		int worst = 0;
+		for (int i = 1; i < population.size(); i ++) {
+			if (population.get(i).getScore() < population.get(worst).getScore()) {
+				worst = i;
+			}
+		}
+		if (individual.getScore() >= population.get(worst).getScore()) {
+			ranking.remove(population.set(worst, individual));
+			ranking.add(individual);
+		}
 		
-		// Check if this type of mutation has been run on this individual
-		File dir = new File(root);
-		if (dir.exists()) {
-			return root;
+		// Save the progress after every few populations worth of evaluations
+		long every = (long) checkpointInterval * individualCount;
+		if (every > 0 && evaluations % every == 0) {
+			saveCheckpoint(l);
 		}
 		
-		// Create the root directory
-		if (!dir.mkdirs()) {
-			l.fatalError("Unable to create directory for mutation (path: '"
-					+ root + "').");
-			return null;
+		return false;
+	}
+	
+	/**
+	 * Saves the current state of the genetic algorithm to the checkpoint
+	 * file. The random number generator is given a new seed, which is saved
+	 * in the checkpoint, so a resumed run continues with the same sequence of
+	 * random numbers.
+	 * 
+	 * @param l	the logger to track events.
+	 * @return true if and only if the checkpoint was saved.
+	 * 
+	 * @see ARC#SETTING_CHECKPOINT_FILE
+	 * @since 1.0
+	 */
+	private boolean saveCheckpoint(Logger l) {
+		
+		long seed = random.nextLong();
+		random.setSeed(seed);
+		Checkpoint cp = new Checkpoint().setGenerations(generations)
+				.setMutants(mutants.getMutants()).setSeed(seed)
+				.setEvaluations(evaluations).setCreated(created)
+				.setElapsedMillis(System.currentTimeMillis() - startTime);
+		if (!cp.write(checkpointFile, l)) {
+			l.warning("Unable to save the checkpoint.");
+			return false;
+		}
+		l.debug("Saved checkpoint to '" + checkpointFile + "'.");
+		
+		return true;
+	}
+	
+	/**
+	 * Restores the state of the genetic algorithm from the checkpoint file.
+	 * Individuals which were created after the checkpoint was saved are
+	 * deleted, since they will be created again. The fitness cache is rebuilt
+	 * from the tested individuals, so no individual from the checkpoint is
+	 * tested again.
+	 * 
+	 * @param l	the logger to track events.
+	 * @return true if and only if the genetic algorithm was resumed.
+	 * 
+	 * @see ARC#SETTING_RESUME
+	 * @since 1.0
+	 */
+	private boolean resume(Logger l) {
+		
+		// Read the checkpoint
+		if (checkpointFile == null || !(new File(checkpointFile)).isFile()) {
+			l.warning("No checkpoint to resume from - starting over.");
+			return false;
+		}
+		Checkpoint cp = Checkpoint.read(checkpointFile, l);
+		if (cp == null || cp.getGenerations().isEmpty() || cp.getGenerations()
+				.get(0).getPopulation().isEmpty()) {
+			l.fatalError("Unable to resume from checkpoint '" +
+					checkpointFile + "'.");
+			return false;
+		}
+		this.generations = new ArrayList<>(cp.getGenerations());
+		for (Mutant m : cp.getMutants()) {
+			this.mutants.add(m);
+		}
+		this.random.setSeed(cp.getSeed());
+		this.evaluations = cp.getEvaluations();
+		this.created = cp.getCreated();
+		this.resumedMillis = cp.getElapsedMillis();
+		
+		// Delete the individuals created after the checkpoint
+		int gens = generations.size();
+		for (int i = gens; (new File(getGenerationDirectory(i))).exists(); i ++) {
+			FileUtils.remove(getGenerationDirectory(i));
+		}
+		if (steadyState) {
+			for (int i = created; (new File(getIndividualDirectory(
+					STEADY_STATE_GENERATION, i))).exists(); i ++) {
+				FileUtils.remove(getIndividualDirectory(
+						STEADY_STATE_GENERATION, i));
+			}
 		}
 		
-		// Mutate all the files using the mutation operator
-		if (!individualRoot.endsWith(ds)) {
-			individualRoot += ds;
+		// Mutants may have been partially generated, so create them again
+		String mutantDir = arc.getSetting(ARC.SETTING_MUTANT_DIR);
+		FileUtils.remove(mutantDir);
+		(new File(mutantDir)).mkdirs();
+		
+		// Remember the results of every tested program
+		String[] sourceFiles = arc.getProject().getSourceFiles();
+		int tested = 0;
+		for (Generation g : generations) {
+			for (Individual individual : g.getPopulation()) {
+				if (individual.hasBeenTested() && individual.exists()) {
+					fitnessCache.put(fitnessCache.hash(individual.getPath(),
+							sourceFiles), individual.getTestSummary());
+					if (surrogate != null) {
+						surrogate.train(individual);
+					} if (g != generations.get(0)) {
+						ranking.add(individual);
+					}
+					tested ++;
+				}
+			}
 		}
-		for (String jf : javaFiles) {
+		l.debug("Resumed from checkpoint '" + checkpointFile + "' with " +
+				(gens - 1) + " generations and " + tested +
+				" tested individuals.");
+		
+		return true;
+	}
+	
+	/**
+	 * Checks if the time limit for evolving programs has been reached.
+	 * 
+	 * @return true if there is a time limit and it was reached.
+	 * @see ARC#SETTING_MAX_TIME_MILLIS
+	 * @since 1.0
+	 */
+	private boolean isOutOfTime() {
+		return maxTimeMillis > 0 &&
+				System.currentTimeMillis() - startTime >= maxTimeMillis;
+	}
+	
+	/**
+	 * Generates mutants for the best individuals found so far (or the base
+	 * project). The mutants are generated lazily: the mutants of a candidate
+	 * for a mutation operator are only created by the {@link MutantSource}
+	 * when an individual of the population needs them, so no more mutants are
+	 * generated once the population is full.
+	 * 
+	 * @param g	the generation to generate mutants for.
+	 * @param l	the logger to track the mutation process.
+	 * 
+	 * @since 1.0
+	 */
+	private void generateMutants(Generation g, Logger l) {
+		
+		// No generation
+		if (g == null) {
+			return;
+		}
+		
+		// Determine all the possible individuals which can be mutated
+		List<Individual> candidates = getMutationCandidates();
+		int n = candidates.size();
+		
+		// Stop preparing mutants and discard the ones which will not be used
+		if (pipeline != null) {
+			pipeline.stop();
+			int discarded = pipeline.discard(candidates);
+			l.debug("Pipeline compiled " + pipeline.getCompiledCount() +
+					" mutant programs in advance and discarded the mutants of "
+					+ discarded + " individuals.");
+		}
+		
+		// Check if requested to stop
+		if (ar != null && ar.shouldStop()) {
+			l.fatalError("ARC was requested to stop.");
+			finishPhase(l);
+			return;
+		}
+		
+		// Create the population
+		List<Individual> population = g.getPopulation();
+		int popSize = population == null? 0 : population.size();
+		for (int i = 0; i < popSize; i ++) {
 			
-			// Get the argument's values for the mutation of the specific file
-			String[] args = mutation.getArguments();
-			int n = (args == null)? 0 : args.length;
-			String[] argValues = new String[n];
-			if (args != null) {
-				for (int i = 0; i < n; i ++) {
-					String arg = args[i];
-					if (arg == null || arg.isEmpty()) {
-						argValues[i] = "";
-						continue;
-					}
-					
-					// TODO: use static analysis to get the class, method, variable
-					// information
-					if (arg.equals(TXLMutation.ARG_SYNC_VAR)) {
-						argValues[i] = "this";
-					}
-				}
+			Individual individual = population.get(i);
+			int startIdx = selection == null? (i / 3) % n :
+				selection.select(n, i, random);
+			
+			// Check if any mutants were generated, trying crossover first
+			// for some of the individuals
+			boolean foundMutant = random.nextDouble() < crossoverRate &&
+					createCrossoverProgram(candidates, individual, l);
+			if (!foundMutant) {
+				foundMutant = createMutantProgram(candidates,
+						individual, startIdx, l);
 			}
 			
-			// Get the absolute path to the source file
-			String fullSrcPath = individualRoot + jf;
-			File src = new File(fullSrcPath);
-			if (!src.isFile()) {
-				l.warning("Unable to find source file: '" + fullSrcPath + "'.");
-				continue;
+			// No valid mutations, but we created at least one individual
+			if (!foundMutant && i > 0) {
+				l.warning("Not enough mutations to create the entire "
+						+ "population size (" + popSize + " mutants).");
+				
+				// Delete the extra individuals
+				for (int j = i; j < popSize; j ++) {
+					Individual toRemove = population.remove(i);
+					FileUtils.remove(toRemove.getPath());
+				}
+				
+				// Check if requested to stop
+				if (ar != null && ar.shouldStop()) {
+					l.fatalError("ARC was requested to stop.");
+					finishPhase(l);
+					return;
+				}
+				
+				break;
 			}
 			
-			// Create the parent directory, if required
-			String fullDstPath = root + jf;
-			File dstDir = (new File(fullDstPath)).getParentFile();
-			if (!dstDir.isDirectory() && !dstDir.mkdirs()) {
-				l.fatalError("Failed to make mutant output directory: '" +
-						dstDir.getAbsolutePath() + "'.");
-				return null;
+			// No valid mutant programs
+			else if (!foundMutant) {
+				l.fatalError("Unable to find valid mutant for individual " +
+						individual.getId() + " from generation " +
+						individual.getGeneration() + ".");
+				return;
 			}
 			
-			// Run TXL with the mutation operator
-			String cmd = mutation.getCommand(txlProg, operatorDir, fullSrcPath,
-					src.getName(), dstDir.getAbsolutePath(), argValues);
-			try {
-				Runtime.getRuntime().exec(cmd);
-			} catch (Exception e) {
-				e.printStackTrace();
-				l.fatalError("Failed to mutate '" + jf +
-						"' using the TXL mutation operator: " + mutation + "");
-				l.fatalError(e.getLocalizedMessage());
-				return null;
+			// Check if requested to stop
+			if (ar != null && ar.shouldStop()) {
+				l.fatalError("ARC was requested to stop.");
+				finishPhase(l);
+				return;
 			}
 		}
-		
-		return root;
 	}
 	
 	/**
 	 * Creates a mutant program for the specified individual based on the
-	 * mutated source files found in the mutant directory. If a mutant program
-	 * is found, the individual's mutation will be updated.
+	 * mutated source files found in the mutant directory. The mutants of a
+	 * candidate are requested from the {@link MutantSource} one operator at a
+	 * time, so TXL is only run for the operators which are actually tried. If
+	 * a mutant program is found, the individual's mutation will be updated.
 	 * 
 	 * @param candidates			all the candidate individuals.
 	 * @param individual			the individual to create.
@@ -643,7 +1673,6 @@ public class ARCGeneticAlgorithm {
 		
 		// Get settings used over and over again
 		String ds = arc.getSetting(ARC.SETTING_DIR_SEPARATOR);
-		String mdirs = arc.getSetting(ARC.SETTING_MUTANT_DIR);
 		String projectDir = arc.getSetting(ARC.SETTING_PROJECT_DIR);
 		if (!projectDir.endsWith(ds)) {
 			projectDir += ds;
@@ -664,104 +1693,129 @@ public class ARCGeneticAlgorithm {
 			int deadlockCount = (deadlocks == null)? 0 : deadlocks.size();
 			int total = dataraceCount + deadlockCount;
 			double dataraceChance = total == 0? 0.5 : ((double) dataraceCount) / total;
-			boolean useDataraceMutation = (Math.random() <= dataraceChance);
-			
-			// Check if any mutants were generated
-			String mutantDir = mdirs + ds + source.getGeneration()
-				+ ds + source.getId();
-			List<File> files = FileUtils.find(mutantDir, ".*\\.java.*", true);
-			if (files.isEmpty()) {
-				i = (i + startIdx) % n;
-				continue;
-			}
+			boolean useDataraceMutation = (random.nextDouble() <= dataraceChance);
 			
-			// Keep trying to create a program until successful or no files
-			while (!files.isEmpty()) {
-				
-				File mutant = files.remove((int) (Math.random() * files.size()));
-				
-				// Determine which mutation was used
-				File mdir = new File(mutantDir);
-				File f = mutant;
-				TXLMutation m = null;
-				while (!f.getParentFile().equals(mdir)) {
-					f = f.getParentFile();
-					if (f == null) {
-						break;
-					}
-				}
-				if (f != null) {
-					String dname = f.getName();
-					for (TXLMutation mutation : allMutations) {
-						if (dname.equals(mutation.getMutationFile())) {
-							m = mutation;
-							break;
-						}
-					}
-				}
-				
-				// Check if the mutant is the correct one
-				if (m == null || (useDataraceMutation && !m.fixesDataraces()) ||
-						(!useDataraceMutation && !m.fixesDeadlocks())) {
+			// Try the operators of the selected type in a random order, or in
+			// the order chosen by the bandit
+			List<TXLMutation> operators = new ArrayList<>();
+			for (TXLMutation m : allMutations) {
+				if (!mutantSource.supports(m)) {
 					continue;
+				} if ((useDataraceMutation && m.fixesDataraces()) ||
+						(!useDataraceMutation && m.fixesDeadlocks())) {
+					operators.add(m);
 				}
+			}
+			while (!operators.isEmpty()) {
 				
-				// Determine if a mutant has already been seen before
-				String apath = mutant.getAbsolutePath();
-				Mutant newRep = source.mutate(apath, javaFiles);
-				if (mutants.indexOf(newRep) >= 0) {
+				// Get the mutants for the operator, generating them if needed
+				TXLMutation m = bandit == null? operators.remove(
+						random.nextInt(operators.size())) :
+					bandit.select(operators, random);
+				operators.remove(m);
+				String mutantDir = mutantSource.get(source, m, l);
+				if (l.hasFatalError()) {
+					return false;
+				} if (mutantDir == null) {
+					if (bandit != null) {
+						bandit.recordNoMutants(m);
+					}
 					continue;
 				}
-				
-				// Reconstruct the new individual
-				if (!ARCUtils.copyProjectSourceFiles(arc,
-						srcPath, projectDir, null)) {
-					continue;
+				List<File> files = FileUtils.find(mutantDir, ".*\\.java.*", true);
+				if (localizer != null) {
+					localizer.sort(files, srcPath, random);
 				}
 				
-				// Determine which source file it is
-				String relPath = null, mname = mutant.getName();
-				for (String jf : javaFiles) {
-					if (jf == null || jf.isEmpty()) {
+				// Keep trying to create a program until successful or no files
+				List<File> batch = new ArrayList<>();
+				boolean compiledAny = false;
+				while (!files.isEmpty() || !batch.isEmpty()) {
+					
+					File mutant = !batch.isEmpty()? batch.remove(0) :
+						files.remove(localizer != null? 0 :
+							random.nextInt(files.size()));
+					
+					// Determine if a mutant has already been seen before
+					String apath = mutant.getAbsolutePath();
+					Mutant newRep = source.mutate(apath, javaFiles);
+					if (mutants.contains(newRep)) {
 						continue;
 					}
-					String name = (new File(jf)).getName();
-					if (mname.contains(name)) {
-						relPath = jf;
-						break;
+					
+					// Reconstruct the new individual
+					if (!ARCUtils.copyProjectSourceFiles(arc,
+							srcPath, projectDir, null)) {
+						continue;
 					}
-				}
-				if (relPath == null) {
-					continue;
-				}
-				
-				// Copy the mutated file and compile it
-				FileUtils.copy(mutant.getAbsolutePath(), projectDir + relPath,
-						false);
-				ProjectCompiler compiler = new AntCompiler(projectDir,
-						arc.getSetting(ARC.SETTING_PROJECT_COMPILE_CMD),
-						arc.getSetting(ARC.SETTING_ANT));
-				Logger compileLog = compiler.compile();
-				if (compileLog.hasFatalError()) {
-					try {
-						mutant.delete();
-					} catch (Exception e) {}
-				}
-				
-				// Compiled successfully
-				else {
 					
-					// Copy over the valid program
-					if (!ARCUtils.copyProjectSourceFiles(
-							arc, projectDir, individualPath, null)) {
-						continue; // failed to copy
+					// Determine which source file it is
+					String relPath = MutantSource.getSourceFile(mutant, javaFiles);
+					if (relPath == null) {
+						continue;
 					}
 					
-					individual.setRepresentation(newRep);
-					individual.setSource(source);
-					this.mutants.add(newRep);
-
-					return true;
+					// Copy the mutated file and compile it, unless it was
+					// already compiled by the pipeline or the compile pool
+					FileUtils.copy(mutant.getAbsolutePath(), projectDir + relPath,
+							false);
+					Boolean compiles = pipeline == null? null :
+						pipeline.getCompileResult(apath);
+					if (compiles == null && compilePool != null) {
+						compiles = compilePool.getCompileResult(apath);
+						
+						// Compile the next mutants along with this one
+						if (compiles == null) {
+							List<File> toCompile = new ArrayList<>(batch);
+							toCompile.add(0, mutant);
+							while (toCompile.size() < compilePool.getSize() &&
+									!files.isEmpty()) {
+								File next = files.remove(localizer != null? 0 :
+									random.nextInt(files.size()));
+								batch.add(next);
+								if (!mutants.contains(source.mutate(
+										next.getAbsolutePath(), javaFiles))) {
+									toCompile.add(next);
+								}
+							}
+							compilePool.compile(source, toCompile, javaFiles);
+							compiles = compilePool.getCompileResult(apath);
+						}
+					}
+					if (compiles == null) {
+						compiles = !compiler.compile().hasFatalError();
+					}
+					compiledAny = true;
+					if (bandit != null) {
+						bandit.recordCompile(m, compiles);
+					}
+					if (!compiles) {
+						try {
+							mutant.delete();
+						} catch (Exception e) {}
+					}
+					
+					// Compiled successfully
+					else {
+						
+						// Copy over the valid program
+						if (!ARCUtils.copyProjectSourceFiles(
+								arc, projectDir, individualPath, null)) {
+							continue; // failed to copy
+						}
+						
+						individual.setRepresentation(newRep);
+						individual.setSource(source);
+						individual.setMutation(m);
+						this.mutants.add(newRep);
+						
+						return true;
+					}
+				}
+				
+				// Penalize the operator if it produced no new mutants
+				if (bandit != null && !compiledAny) {
+					bandit.recordNoMutants(m);
 				}
 			}
 			
@@ -771,6 +1825,115 @@ public class ARCGeneticAlgorithm {
 		return false;
 	}
 	
+	/**
+	 * Logs how many of the compilations of the new programs were incremental,
+	 * if the programs are compiled incrementally, and how many compilations
+	 * were avoided by the compilation cache.
+	 * 
+	 * @param l	the logger to track events.
+	 */
+	private void logCompilations(Logger l) {
+		ProjectCompiler c = compiler;
+		if (c instanceof CachedCompiler) {
+			c = ((CachedCompiler) c).getCompiler();
+		} if (c instanceof IncrementalCompiler) {
+			IncrementalCompiler ic = (IncrementalCompiler) c;
+			l.debug("Compilations: " + ic.getFullBuilds() + " full, " +
+					ic.getIncrementalBuilds() + " incremental.");
+		}
+		CompilationCache cache = arc.getCompilationCache();
+		if (cache != null) {
+			l.debug("Compilation cache: " + cache.getHits() + " hits, " +
+					cache.getMisses() + " misses.");
+		}
+	}
+	
+	/**
+	 * Creates a program for the specified individual by crossover between two
+	 * random candidates. Each source file which differs between the parents
+	 * is taken from one of them (see {@link Crossover}), so the program only
+	 * needs to be compiled. The better of the two parents becomes the source
+	 * of the individual, and the individual has no mutation.
+	 * 
+	 * @param candidates	all the candidate individuals, from best to worst.
+	 * @param individual	the individual to create.
+	 * @param l				the logger to track events.
+	 * @return true if and only if a new program was created which can be
+	 * compiled.
+	 * 
+	 * @since 1.0
+	 */
+	private boolean createCrossoverProgram(List<Individual> candidates,
+			Individual individual, Logger l) {
+		
+		// Check arguments
+		int n = candidates == null? 0 : candidates.size();
+		if (n < 2 || individual == null) {
+			return false;
+		} if (l == null) {
+			l = new Logger();
+		}
+		
+		// Get the project files
+		String[] javaFiles = arc.getProject().getSourceFiles();
+		if (javaFiles == null || javaFiles.length < 2) {
+			return false;
+		}
+		String ds = arc.getSetting(ARC.SETTING_DIR_SEPARATOR);
+		String projectDir = arc.getSetting(ARC.SETTING_PROJECT_DIR);
+		if (!projectDir.endsWith(ds)) {
+			projectDir += ds;
+		}
+		
+		for (int attempt = 0; attempt < Crossover.MAX_ATTEMPTS; attempt ++) {
+			
+			// Choose two different parents, the first being the better one
+			int i = random.nextInt(n), j = random.nextInt(n - 1);
+			if (j >= i) {
+				j ++;
+			}
+			Individual a = candidates.get(Math.min(i, j));
+			Individual b = candidates.get(Math.max(i, j));
+			
+			// Choose the files of the child
+			boolean[] fromB = crossover.choose(a, b, javaFiles);
+			Mutant rep = Crossover.combine(a, b, javaFiles, fromB);
+			if (rep == null || mutants.contains(rep)) {
+				continue;
+			}
+			
+			// Reconstruct the child
+			if (!ARCUtils.copyProjectSourceFiles(arc, a.getPath(), projectDir,
+					null)) {
+				continue;
+			}
+			for (int k = 0; k < javaFiles.length; k ++) {
+				if (fromB[k]) {
+					FileUtils.copy(b.getPath() + ds + javaFiles[k],
+							projectDir + javaFiles[k], false);
+				}
+			}
+			
+			// Compile the child
+			this.mutants.add(rep);
+			if (compiler.compile().hasFatalError() ||
+					!ARCUtils.copyProjectSourceFiles(
+							arc, projectDir, individual.getPath(), null)) {
+				continue;
+			}
+			
+			individual.setRepresentation(rep);
+			individual.setSource(a);
+			individual.setMutation(null);
+			l.debug("Created individual " + individual.getId() +
+					" by crossover.");
+			
+			return true;
+		}
+		
+		return false;
+	}
+	
 	/**
 	 * Checks to see if an individual is the final solution (i.e. passes all
 	 * tests and passes additional test-suite executions). The individual will
@@ -813,7 +1976,9 @@ public class ARCGeneticAlgorithm {
 		final int TEST_COUNT = MIN_VALIDATION_TESTS;
 		l.debug("Evaluating potential solution: " + individual + " against " +
 				TEST_COUNT + " test-suite executions.");
-		individual.test(arc, TEST_COUNT);
+		individual.validate(arc, TEST_COUNT, getIntSetting(
+				ARC.SETTING_VALIDATION_CONCURRENT_RUNS,
+				DEFAULT_VALIDATION_CONCURRENT_RUNS, l));
 		
 		// Check the results
 		summary = individual.getTestSummary();
@@ -822,13 +1987,17 @@ public class ARCGeneticAlgorithm {
 			return false;
 		}
 		n = summary.getNumberOfTestsRun();
-		if (n != TEST_COUNT) {
-			l.debug("Failed to re-test fully. Only ran " + n + " tests.");
+		successes = summary.getResultsFor(TestStatus.SUCCESS);
+		int passed = successes == null? 0 : successes.size();
+		l.debug("Successes: " + passed + "/" + n);
+		if (passed != n) { // there were failures
+			l.debug("Validation rejected the individual after " + n + " of " +
+					TEST_COUNT + " test-suite executions (" + passed +
+					" successful).");
 			return false;
 		}
-		successes = summary.getResultsFor(TestStatus.SUCCESS);
-		l.debug("Successes: " + (successes == null? 0 : successes.size()) + "/" + n);
-		if (successes == null || successes.size() != n) { // there were failures
+		if (n != TEST_COUNT) {
+			l.debug("Failed to re-test fully. Only ran " + n + " tests.");
 			return false;
 		}
 		
@@ -838,59 +2007,274 @@ public class ARCGeneticAlgorithm {
 	/**
 	 * Gets all the individuals which performed better than the original
 	 * program. If no individuals meet that criteria, the original program is
-	 * returned.
+	 * returned. The candidates are a view of the ranking index, so they are
+	 * not copied. If the fitness function has more than one objective, the
+	 * candidates are sorted by Pareto front instead of only by score, which
+	 * is done once per generation (or population worth of evaluations in
+	 * steady-state mode).
 	 * 
-	 * @return the list of mutation candidates from best to worst.
+	 * @return the read-only list of mutation candidates from best to worst.
 	 * 
 	 * @since 1.0
 	 */
 	private List<Individual> getMutationCandidates() {
 		
 		Individual original = generations.get(0).getPopulation().get(0);
-		int n = generations.size();
 		
-		// Determine all the possible individuals which can be mutated
-		List<Individual> candidates = new ArrayList<>();
-		for (int i = n - 1; i >= 1; i --) {
-			candidates.addAll(generations.get(i).getBetter(original));
-		}
-		if (candidates.isEmpty()) { // no candidates found
+		// Determine all the possible individuals which can be mutated, which
+		// the ranking index already has from best to worst
+		float score = original.getScore();
+		int better = ranking.countBetter(score);
+		List<Individual> candidates = ranking.getRanked(better);
+		if (better == 0) { // no candidates found
 			
 			// Add the original so we can ensure all the distance 1 mutants are
-			// explored
-			candidates.add(original);
-			
-			// Try to find ones which perform the same as the original
-			for (int i = n - 1; i >= 1; i --) {
-				candidates.addAll(generations.get(i).getBetterOrSame(original));
-			}
+			// explored, followed by the ones which perform the same
+			final Individual first = original;
+			final List<Individual> same = ranking.getRanked(
+					ranking.countBetterOrSame(score));
+			candidates = new AbstractList<Individual>() {
+				@Override
+				public Individual get(int index) {
+					return index == 0? first : same.get(index - 1);
+				}
+				
+				@Override
+				public int size() {
+					return same.size() + 1;
+				}
+			};
 		}
-		
-		n = candidates.size();
-		if (n == 1) {
+		if (candidates.size() == 1 || fitness == null ||
+				fitness.getObjectiveCount() < 2) {
 			return candidates;
 		}
 		
-		// Sort the candidates from best to worst
-		for (int i = 0; i < n - 1; i ++) {
-			int bi = i;
-			float bs = candidates.get(i).getScore();
-			for (int j = i + 1; j < n; j ++) {
-				float ts = candidates.get(j).getScore();
-				if (ts > bs) {
-					bs = ts;
-					bi = j;
-				}
-			}
-			
-			if (bi != i) {
-				Individual tmp = candidates.get(i);
-				candidates.set(i, candidates.get(bi));
-				candidates.set(bi, tmp);
-			}
+		// Prefer the candidates which are not dominated by any other, sorting
+		// them again only once per generation
+		long epoch = evaluations / Math.max(1, individualCount);
+		if (paretoCandidates == null || paretoGeneration != generations.size()
+				|| paretoEpoch != epoch) {
+			List<Individual> sorted = new ArrayList<>(candidates);
+			new ParetoSorter(fitness).sort(sorted, original);
+			this.paretoCandidates = Collections.unmodifiableList(sorted);
+			this.paretoGeneration = generations.size();
+			this.paretoEpoch = epoch;
+		}
+		
+		return paretoCandidates;
+	}
+	
+	/**
+	 * Creates the fitness function specified by
+	 * {@link ARC#SETTING_FITNESS_FUNCTION}, which is either the name of a
+	 * built-in fitness function or the name of a class implementing
+	 * {@link FitnessFunction}.
+	 * 
+	 * @param l	the logger to keep track of events.
+	 * @return the fitness function.
+	 * 
+	 * @since 1.0
+	 */
+	private FitnessFunction createFitnessFunction(Logger l) {
+		
+		// Check the built-in fitness functions
+		String name = arc.getSetting(ARC.SETTING_FITNESS_FUNCTION);
+		name = name == null? "" : name.trim();
+		if (name.isEmpty() || CorrectnessFitness.NAME.equalsIgnoreCase(name)) {
+			return new CorrectnessFitness();
+		} if (PerformanceFitness.NAME.equalsIgnoreCase(name)) {
+			return new PerformanceFitness();
+		}
+		
+		// Load the custom fitness function
+		try {
+			return Class.forName(name).asSubclass(FitnessFunction.class)
+					.getDeclaredConstructor().newInstance();
+		} catch (ReflectiveOperationException | ClassCastException e) {
+			l.warning("Invalid config value for '" +
+					ARC.SETTING_FITNESS_FUNCTION + "' (expecting '" +
+					CorrectnessFitness.NAME + "', '" + PerformanceFitness.NAME +
+					"' or a class name) - using default.");
+			return new CorrectnessFitness();
+		}
+	}
+	
+	/**
+	 * Creates the strategy which chooses the candidate each new individual
+	 * is created from, based on {@link ARC#SETTING_SELECTION_STRATEGY}.
+	 * 
+	 * @param l	the logger to track events.
+	 * @return the selection strategy or null to use the default of the
+	 * evolution mode.
+	 * 
+	 * @since 1.0
+	 */
+	private SelectionStrategy createSelectionStrategy(Logger l) {
+		
+		String name = arc.getSetting(ARC.SETTING_SELECTION_STRATEGY);
+		name = name == null? "" : name.trim();
+		if (name.isEmpty()) {
+			return null;
+		} if (ElitistSelection.NAME.equalsIgnoreCase(name)) {
+			return new ElitistSelection();
+		} if (TournamentSelection.NAME.equalsIgnoreCase(name)) {
+			return new TournamentSelection(getIntSetting(
+					ARC.SETTING_TOURNAMENT_SIZE,
+					TournamentSelection.DEFAULT_TOURNAMENT_SIZE, l));
+		} if (RankSelection.NAME.equalsIgnoreCase(name)) {
+			return new RankSelection();
+		}
+		
+		l.warning("Invalid config value for '" +
+				ARC.SETTING_SELECTION_STRATEGY + "' (expecting '" +
+				ElitistSelection.NAME + "', '" + TournamentSelection.NAME +
+				"' or '" + RankSelection.NAME + "') - using default.");
+		return null;
+	}
+	
+	/**
+	 * Creates the rule which stops testing an individual once it is known
+	 * how the individual compares to the original program and the best
+	 * individual found so far. If early stopping is not enabled, null is
+	 * returned.
+	 * 
+	 * @param l	the logger to keep track of events.
+	 * @return the stopping rule or null to use all the test-suite executions.
+	 * 
+	 * @see ARC#SETTING_EARLY_STOPPING
+	 * @since 1.0
+	 */
+	private StoppingRule createStoppingRule(Logger l) {
+		
+		// Not enabled
+		if (!isEnabled(ARC.SETTING_EARLY_STOPPING)) {
+			return null;
+		}
+		
+		// Find the scores to compare against
+		Individual original = generations.get(0).getPopulation().get(0);
+		float best = original.getScore();
+		Individual b = ranking.getBest();
+		if (b != null && b.getScore() > best) {
+			best = b.getScore();
+		}
+		
+		return new SPRTStoppingRule(
+				getDoubleSetting(ARC.SETTING_SPRT_ALPHA,
+						SPRTStoppingRule.DEFAULT_ALPHA, l),
+				getDoubleSetting(ARC.SETTING_SPRT_BETA,
+						SPRTStoppingRule.DEFAULT_BETA, l),
+				getDoubleSetting(ARC.SETTING_SPRT_DELTA,
+						SPRTStoppingRule.DEFAULT_DELTA, l),
+				original.getScore(), best);
+	}
+	
+	/**
+	 * Gets the double value of the specified setting. If the setting is
+	 * missing or is not a number, the default value is returned.
+	 * 
+	 * @param setting	the name of the setting.
+	 * @param def		the default value of the setting.
+	 * @param l			the logger to keep track of events.
+	 * @return the double value of the setting.
+	 * 
+	 * @since 1.0
+	 */
+	private double getDoubleSetting(String setting, double def, Logger l) {
+		
+		// Missing value
+		String value = arc == null? null : arc.getSetting(setting);
+		if (value == null || value.isEmpty()) {
+			return def;
+		}
+		
+		// Parse the value
+		try {
+			return Double.parseDouble(value.trim());
+		} catch (NumberFormatException e) {
+			l.warning("Invalid config value for '" + setting +
+					"' (expecting number) - using default.");
+		}
+		
+		return def;
+	}
+	
+	/**
+	 * Gets the integer value of the specified setting. If the setting is
+	 * missing or is not an integer, a warning is logged and the default value
+	 * is returned.
+	 * 
+	 * @param setting	the name of the setting.
+	 * @param def		the default value of the setting.
+	 * @param l			the logger to keep track of events.
+	 * @return the integer value of the setting.
+	 * 
+	 * @since 1.0
+	 */
+	private int getIntSetting(String setting, int def, Logger l) {
+		
+		// Missing value
+		String value = arc.getSetting(setting);
+		if (value == null || value.isEmpty()) {
+			l.warning("Missing config value for '" + setting +
+					"' - using default.");
+			return def;
+		}
+		
+		// Parse the value
+		try {
+			return Integer.parseInt(value.trim());
+		} catch (NumberFormatException e) {
+			l.warning("Invalid config value for '" + setting +
+					"' (expecting int) - using default.");
+		}
+		
+		return def;
+	}
+	
+	/**
+	 * Gets the long value of the specified setting. If the setting is missing
+	 * or is not a long, the default value is returned.
+	 * 
+	 * @param setting	the name of the setting.
+	 * @param def		the default value of the setting.
+	 * @param l			the logger to keep track of events.
+	 * @return the long value of the setting.
+	 * 
+	 * @since 1.0
+	 */
+	private long getLongSetting(String setting, long def, Logger l) {
+		
+		// Missing value
+		String value = arc == null? null : arc.getSetting(setting);
+		if (value == null || value.isEmpty()) {
+			return def;
+		}
+		
+		// Parse the value
+		try {
+			return Long.parseLong(value.trim());
+		} catch (NumberFormatException e) {
+			l.warning("Invalid config value for '" + setting +
+					"' (expecting long) - using default.");
 		}
 		
-		return candidates;
+		return def;
+	}
+	
+	/**
+	 * Checks if the specified boolean setting is enabled. Boolean settings
+	 * are enabled if they are present without a value (i.e. "1") or have the
+	 * value "true".
+	 * 
+	 * @param setting	the name of the setting.
+	 * @return true if and only if the setting is enabled.
+	 * 
+	 * @since 1.0
+	 */
+	private boolean isEnabled(String setting) {
+		return arc != null && arc.isEnabled(setting);
 	}
 	
 	/**
@@ -970,7 +2354,7 @@ public class ARCGeneticAlgorithm {
 	public FinishListener getOnFinish() {
 		return onFinish;
 	}
-
+	
 	/**
 	 * Sets the listener which receives events when a phase in the genetic
 	 * algorithm is finished.
@@ -983,7 +2367,7 @@ public class ARCGeneticAlgorithm {
 	public void setOnFinish(FinishListener onFinish) {
 		this.onFinish = onFinish;
 	}
-
+	
 	/**
 	 * Gets the value of the flag which indicates if the genetic algorithm
 	 * found a fix for the program.
@@ -1019,7 +2403,31 @@ public class ARCGeneticAlgorithm {
 	public List<Generation> getGenerations() {
 		return generations;
 	}
-
+	
+	/**
+	 * Gets the number of individuals which were evaluated during the last
+	 * run in steady-state mode.
+	 * 
+	 * @return the number of evaluated individuals.
+	 * @see #MODE_STEADY_STATE
+	 * @since 1.0
+	 */
+	public long getEvaluations() {
+		return evaluations;
+	}
+	
+	/**
+	 * Gets the time it took to find the first fix during the last run, from
+	 * the start of the evolution.
+	 * 
+	 * @return the time in milliseconds or -1 if no fix was found.
+	 * @see #foundFix()
+	 * @since 1.0
+	 */
+	public long getTimeToFix() {
+		return fixTimeMillis;
+	}
+	
 	/**
 	 * Gets the max number of individuals allowed in a single generation.
 	 * 
@@ -1029,7 +2437,7 @@ public class ARCGeneticAlgorithm {
 	public int getIndividualCount() {
 		return individualCount;
 	}
-
+	
 	/**
 	 * Gets the maximum number of generations allowed before ARC determines
 	 * that a solution cannot be found.
@@ -1040,7 +2448,7 @@ public class ARCGeneticAlgorithm {
 	public int getMaxGenerations() {
 		return maxGenerations;
 	}
-
+	
 	/**
 	 * Gets the number of test-suite executions which will be performed on
 	 * any given individual.
@@ -1051,7 +2459,7 @@ public class ARCGeneticAlgorithm {
 	public int getRuns() {
 		return runs;
 	}
-
+	
 	/**
 	 * Gets the directory for a generation.
 	 * 
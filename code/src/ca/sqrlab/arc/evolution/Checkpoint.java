@@ -0,0 +1,499 @@
+package ca.sqrlab.arc.evolution;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import ca.sqrlab.arc.tools.monitoring.Logger;
+import ca.sqrlab.arc.tools.mutation.TXLMutation;
+import ca.sqrlab.arc.tools.testing.TestResult;
+import ca.sqrlab.arc.tools.testing.TestStatus;
+import ca.sqrlab.arc.tools.testing.TestingSummary;
+
+/**
+ * The {@code Checkpoint} class stores the state of the genetic algorithm, so
+ * a run can be resumed after ARC stops. A checkpoint contains all the
+ * generations (including the representation, mutation operator and test
+ * results of each individual), the registry of generated mutants, the state
+ * of the random number generator and the progress of the run.
+ * 
+ * <p>Checkpoints are written to a compact binary file compressed with GZIP.
+ * The file is first written to a temporary file and then renamed, so an
+ * existing checkpoint is never left partially written. Only the data needed
+ * to score individuals is kept from the test results (i.e. the output of the
+ * test processes is not stored).
+ * 
+ * @author Devon McGrath
+ * @see ARCGeneticAlgorithm
+ * @since 1.0
+ */
+public class Checkpoint {
+	
+	/** The value at the start of every checkpoint file. */
+	public static final int MAGIC = 0x41524332;
+	
+	/** The version of the checkpoint file format. */
+	public static final int VERSION = 1;
+	
+	/** The generations of the genetic algorithm. */
+	private List<Generation> generations;
+	
+	/** The mutants which were already generated. */
+	private List<Mutant> mutants;
+	
+	/** The seed of the random number generator to continue with. */
+	private long seed;
+	
+	/** The number of individuals evaluated in steady-state mode. */
+	private long evaluations;
+	
+	/** The number of individuals created in steady-state mode. */
+	private int created;
+	
+	/** The time spent evolving programs, in milliseconds. */
+	private long elapsedMillis;
+	
+	/**
+	 * Creates an empty checkpoint.
+	 * 
+	 * @since 1.0
+	 */
+	public Checkpoint() {
+		this.generations = new ArrayList<>();
+		this.mutants = new ArrayList<>();
+	}
+	
+	/**
+	 * Writes this checkpoint to the specified file, replacing any existing
+	 * checkpoint.
+	 * 
+	 * @param path	the path to the checkpoint file.
+	 * @param l		the logger to track events.
+	 * @return true if and only if the checkpoint was written.
+	 * @since 1.0
+	 */
+	public boolean write(String path, Logger l) {
+		
+		if (l == null) {
+			l = new Logger();
+		} if (path == null || path.isEmpty()) {
+			l.warning("No path to write the checkpoint to.");
+			return false;
+		}
+		
+		// Write the checkpoint to a temporary file
+		File file = new File(path);
+		File tmp = new File(path + ".tmp");
+		File dir = file.getAbsoluteFile().getParentFile();
+		if (dir != null && !dir.isDirectory() && !dir.mkdirs()) {
+			l.warning("Unable to create the directory for checkpoint '" +
+					path + "'.");
+			return false;
+		}
+		try (DataOutputStream out = new DataOutputStream(
+				new BufferedOutputStream(new GZIPOutputStream(
+						new FileOutputStream(tmp))))) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeLong(seed);
+			out.writeLong(evaluations);
+			out.writeInt(created);
+			out.writeLong(elapsedMillis);
+			
+			// Generations
+			out.writeInt(generations.size());
+			for (Generation g : generations) {
+				List<Individual> population = g.getPopulation();
+				out.writeInt(population.size());
+				for (Individual individual : population) {
+					writeIndividual(out, individual);
+				}
+			}
+			
+			// Mutants
+			out.writeInt(mutants.size());
+			for (Mutant m : mutants) {
+				writeMutant(out, m);
+			}
+		} catch (IOException e) {
+			e.printStackTrace();
+			l.warning("Unable to write checkpoint '" + path + "': " +
+					e.getLocalizedMessage());
+			tmp.delete();
+			return false;
+		}
+		
+		// Replace the old checkpoint
+		if (file.exists() && !file.delete()) {
+			l.warning("Unable to replace checkpoint '" + path + "'.");
+			return false;
+		}
+		if (!tmp.renameTo(file)) {
+			l.warning("Unable to rename checkpoint '" + tmp + "'.");
+			return false;
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * Reads a checkpoint from the specified file.
+	 * 
+	 * @param path	the path to the checkpoint file.
+	 * @param l		the logger to track events.
+	 * @return the checkpoint or null if it could not be read.
+	 * @since 1.0
+	 */
+	public static Checkpoint read(String path, Logger l) {
+		
+		if (l == null) {
+			l = new Logger();
+		} if (path == null || !(new File(path)).isFile()) {
+			l.warning("No checkpoint found at '" + path + "'.");
+			return null;
+		}
+		
+		Checkpoint cp = new Checkpoint();
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+				new GZIPInputStream(new FileInputStream(path))))) {
+			if (in.readInt() != MAGIC) {
+				l.warning("'" + path + "' is not a checkpoint file.");
+				return null;
+			}
+			int version = in.readInt();
+			if (version != VERSION) {
+				l.warning("Unsupported checkpoint version " + version + ".");
+				return null;
+			}
+			cp.seed = in.readLong();
+			cp.evaluations = in.readLong();
+			cp.created = in.readInt();
+			cp.elapsedMillis = in.readLong();
+			
+			// Generations
+			Map<String, Individual> byId = new HashMap<>();
+			Map<Individual, String> sources = new HashMap<>();
+			int gens = in.readInt();
+			for (int i = 0; i < gens; i ++) {
+				int n = in.readInt();
+				List<Individual> population = new ArrayList<>();
+				for (int j = 0; j < n; j ++) {
+					Individual individual = readIndividual(in, sources);
+					population.add(individual);
+					byId.put(individual.getGeneration() + ":" +
+							individual.getId(), individual);
+				}
+				cp.generations.add(new Generation(population));
+			}
+			
+			// Link the individuals to the individuals they came from
+			for (Map.Entry<Individual, String> e : sources.entrySet()) {
+				e.getKey().setSource(byId.get(e.getValue()));
+			}
+			
+			// Mutants
+			int n = in.readInt();
+			for (int i = 0; i < n; i ++) {
+				cp.mutants.add(readMutant(in));
+			}
+		} catch (IOException e) {
+			e.printStackTrace();
+			l.warning("Unable to read checkpoint '" + path + "': " +
+					e.getLocalizedMessage());
+			return null;
+		}
+		
+		return cp;
+	}
+	
+	/**
+	 * Writes an individual to a checkpoint.
+	 * 
+	 * @param out			the checkpoint output.
+	 * @param individual	the individual to write.
+	 * @throws IOException if an error occurs while writing.
+	 */
+	private static void writeIndividual(DataOutputStream out,
+			Individual individual) throws IOException {
+		out.writeInt(individual.getId());
+		out.writeInt(individual.getGeneration());
+		out.writeUTF(individual.getPath() == null? "" : individual.getPath());
+		
+		// The individual it was created from
+		Individual source = individual.getSource();
+		out.writeBoolean(source != null);
+		if (source != null) {
+			out.writeInt(source.getGeneration());
+			out.writeInt(source.getId());
+		}
+		
+		// The mutation operator
+		TXLMutation m = individual.getMutation();
+		out.writeUTF(m == null? "" : m.getMutationFile());
+		
+		// The representation
+		Mutant rep = individual.getRepresentation();
+		out.writeBoolean(rep != null);
+		if (rep != null) {
+			writeMutant(out, rep);
+		}
+		
+		// The test results
+		TestingSummary summary = individual.getTestSummary();
+		TestResult[] results = summary == null? null : summary.getResults();
+		out.writeInt(results == null? -1 : results.length);
+		if (results != null) {
+			for (TestResult tr : results) {
+				out.writeInt(tr.tests);
+				out.writeInt(tr.failures);
+				out.writeInt(tr.successes);
+				out.writeLong(tr.getExecutionTimeMillis());
+				out.writeLong(tr.getProgramTimeMillis());
+				TestStatus status = tr.getStatus();
+				out.writeUTF(status == null? "" : status.name());
+				String[] failed = tr.getFailedMethods();
+				out.writeInt(failed == null? 0 : failed.length);
+				if (failed != null) {
+					for (String f : failed) {
+						out.writeUTF(f == null? "" : f);
+					}
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Reads an individual from a checkpoint.
+	 * 
+	 * @param in		the checkpoint input.
+	 * @param sources	the map to add the ID of the individual's source to.
+	 * @return the individual.
+	 * @throws IOException if an error occurs while reading.
+	 */
+	private static Individual readIndividual(DataInputStream in,
+			Map<Individual, String> sources) throws IOException {
+		int id = in.readInt();
+		int generation = in.readInt();
+		Individual individual = new Individual(id, generation, in.readUTF());
+		
+		// The individual it was created from
+		if (in.readBoolean()) {
+			sources.put(individual, in.readInt() + ":" + in.readInt());
+		}
+		
+		// The mutation operator
+		String mutationFile = in.readUTF();
+		for (TXLMutation m : TXLMutation.getAllMutations()) {
+			if (m.getMutationFile().equals(mutationFile)) {
+				individual.setMutation(m);
+				break;
+			}
+		}
+		
+		// The representation
+		if (in.readBoolean()) {
+			individual.setRepresentation(readMutant(in));
+		}
+		
+		// The test results
+		int n = in.readInt();
+		if (n >= 0) {
+			TestResult[] results = new TestResult[n];
+			for (int i = 0; i < n; i ++) {
+				TestResult tr = new TestResult();
+				tr.tests = in.readInt();
+				tr.failures = in.readInt();
+				tr.successes = in.readInt();
+				tr.setExecutionTimeMillis(in.readLong());
+				tr.setProgramTimeMillis(in.readLong());
+				String status = in.readUTF();
+				tr.setStatus(status.isEmpty()? TestStatus.UNKNOWN :
+					TestStatus.valueOf(status));
+				String[] failed = new String[in.readInt()];
+				for (int j = 0; j < failed.length; j ++) {
+					failed[j] = in.readUTF();
+				}
+				tr.setFailedMethods(failed);
+				results[i] = tr;
+			}
+			individual.setTestSummary(new TestingSummary(results));
+		}
+		
+		return individual;
+	}
+	
+	/**
+	 * Writes a mutant representation to a checkpoint.
+	 * 
+	 * @param out	the checkpoint output.
+	 * @param m		the mutant to write.
+	 * @throws IOException if an error occurs while writing.
+	 */
+	private static void writeMutant(DataOutputStream out, Mutant m)
+			throws IOException {
+		String[] files = m.getFiles();
+		out.writeInt(files.length);
+		for (String f : files) {
+			out.writeUTF(f == null? "" : f);
+		}
+	}
+	
+	/**
+	 * Reads a mutant representation from a checkpoint.
+	 * 
+	 * @param in	the checkpoint input.
+	 * @return the mutant.
+	 * @throws IOException if an error occurs while reading.
+	 */
+	private static Mutant readMutant(DataInputStream in) throws IOException {
+		String[] files = new String[in.readInt()];
+		for (int i = 0; i < files.length; i ++) {
+			files[i] = in.readUTF();
+		}
+		return new Mutant(files);
+	}
+	
+	/**
+	 * Gets the generations of the genetic algorithm.
+	 * 
+	 * @return the generations.
+	 * @since 1.0
+	 */
+	public List<Generation> getGenerations() {
+		return generations;
+	}
+	
+	/**
+	 * Sets the generations of the genetic algorithm.
+	 * 
+	 * @param generations	the generations.
+	 * @return a reference to this checkpoint.
+	 * @since 1.0
+	 */
+	public Checkpoint setGenerations(List<Generation> generations) {
+		this.generations = generations == null?
+				new ArrayList<Generation>() : generations;
+		return this;
+	}
+	
+	/**
+	 * Gets the mutants which were already generated.
+	 * 
+	 * @return the mutants.
+	 * @since 1.0
+	 */
+	public List<Mutant> getMutants() {
+		return mutants;
+	}
+	
+	/**
+	 * Sets the mutants which were already generated.
+	 * 
+	 * @param mutants	the mutants.
+	 * @return a reference to this checkpoint.
+	 * @since 1.0
+	 */
+	public Checkpoint setMutants(List<Mutant> mutants) {
+		this.mutants = mutants == null? new ArrayList<Mutant>() : mutants;
+		return this;
+	}
+	
+	/**
+	 * Gets the seed for the random number generator to continue with.
+	 * 
+	 * @return the seed.
+	 * @since 1.0
+	 */
+	public long getSeed() {
+		return seed;
+	}
+	
+	/**
+	 * Sets the seed for the random number generator to continue with.
+	 * 
+	 * @param seed	the seed.
+	 * @return a reference to this checkpoint.
+	 * @since 1.0
+	 */
+	public Checkpoint setSeed(long seed) {
+		this.seed = seed;
+		return this;
+	}
+	
+	/**
+	 * Gets the number of individuals evaluated in steady-state mode.
+	 * 
+	 * @return the number of evaluations.
+	 * @since 1.0
+	 */
+	public long getEvaluations() {
+		return evaluations;
+	}
+	
+	/**
+	 * Sets the number of individuals evaluated in steady-state mode.
+	 * 
+	 * @param evaluations	the number of evaluations.
+	 * @return a reference to this checkpoint.
+	 * @since 1.0
+	 */
+	public Checkpoint setEvaluations(long evaluations) {
+		this.evaluations = evaluations;
+		return this;
+	}
+	
+	/**
+	 * Gets the number of individuals created in steady-state mode.
+	 * 
+	 * @return the number of individuals created.
+	 * @since 1.0
+	 */
+	public int getCreated() {
+		return created;
+	}
+	
+	/**
+	 * Sets the number of individuals created in steady-state mode.
+	 * 
+	 * @param created	the number of individuals created.
+	 * @return a reference to this checkpoint.
+	 * @since 1.0
+	 */
+	public Checkpoint setCreated(int created) {
+		this.created = created;
+		return this;
+	}
+	
+	/**
+	 * Gets the time spent evolving programs before the checkpoint.
+	 * 
+	 * @return the elapsed time in milliseconds.
+	 * @since 1.0
+	 */
+	public long getElapsedMillis() {
+		return elapsedMillis;
+	}
+	
+	/**
+	 * Sets the time spent evolving programs before the checkpoint.
+	 * 
+	 * @param elapsedMillis	the elapsed time in milliseconds.
+	 * @return a reference to this checkpoint.
+	 * @since 1.0
+	 */
+	public Checkpoint setElapsedMillis(long elapsedMillis) {
+		this.elapsedMillis = elapsedMillis;
+		return this;
+	}
+}
@@ -0,0 +1,249 @@
+package ca.sqrlab.arc.evolution;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import ca.sqrlab.arc.ARC;
+import ca.sqrlab.arc.io.FileUtils;
+import ca.sqrlab.arc.tools.ARCUtils;
+import ca.sqrlab.arc.tools.compilation.ProjectCompiler;
+import ca.sqrlab.arc.tools.monitoring.Logger;
+
+/**
+ * The {@code CompilePool} class checks if several mutants compile at once.
+ * Each worker has its own scratch copy of the project in
+ * {@link ARC#SETTING_WORKER_DIR} and its own compiler, so the mutants never
+ * share a directory. When the genetic algorithm needs a mutant which
+ * compiles, it compiles the next few candidate mutants together, then uses
+ * the results in the same order it would have tried the mutants one at a
+ * time.
+ * 
+ * <p>The results are kept by the path of the mutant file, so a mutant which
+ * compiled but was not used is not compiled again.
+ * 
+ * @author Devon McGrath
+ * @see ARC#SETTING_COMPILE_WORKERS
+ * @since 1.0
+ */
+public class CompilePool {
+	
+	/** The prefix of the name of each scratch project directory in the
+	 * worker directory. */
+	public static final String SCRATCH_DIR_PREFIX = "compile";
+	
+	/** The current instance of ARC. */
+	private ARC arc;
+	
+	/** The number of workers. */
+	private int size;
+	
+	/** The workers which are not compiling. */
+	private BlockingQueue<Worker> workers;
+	
+	/** The results of the compilations, by mutant path. */
+	private Map<String, Boolean> compiled;
+	
+	/** The executor which runs the compilations. */
+	private ExecutorService executor;
+	
+	/**
+	 * Creates a compile pool with the specified number of workers.
+	 * 
+	 * @param arc	the current instance of ARC.
+	 * @param size	the number of workers, which is at least 1.
+	 * @since 1.0
+	 */
+	public CompilePool(ARC arc, int size) {
+		this.arc = arc;
+		this.size = Math.max(1, size);
+		this.workers = new LinkedBlockingQueue<>();
+		this.compiled = new ConcurrentHashMap<>();
+	}
+	
+	/**
+	 * Creates the scratch project directory of each worker by copying the ARC
+	 * project directory.
+	 * 
+	 * @param l	the logger to keep track of events.
+	 * @return true if and only if all the workers were initialized.
+	 * @since 1.0
+	 */
+	public boolean initialize(Logger l) {
+		
+		if (l == null) {
+			l = new Logger();
+		} if (arc == null) {
+			l.fatalError("There is no reference to ARC.");
+			return false;
+		}
+		
+		// Create a private copy of the project for each worker
+		workers.clear();
+		String wd = arc.getSetting(ARC.SETTING_WORKER_DIR);
+		String ds = arc.getSetting(ARC.SETTING_DIR_SEPARATOR);
+		for (int i = 0; i < size; i ++) {
+			String dir = wd + ds + SCRATCH_DIR_PREFIX + i;
+			File f = new File(dir);
+			if ((!f.isDirectory() && !f.mkdirs()) || !ARCUtils.copyProject(
+					arc.getSetting(ARC.SETTING_PROJECT_DIR), dir, l)) {
+				l.fatalError("Unable to initialize compile worker " + i + ".");
+				return false;
+			}
+			workers.add(new Worker(dir + ds,
+					ARCUtils.createCompiler(arc, dir)));
+		}
+		this.executor = Executors.newFixedThreadPool(size);
+		l.debug("Created " + size + " compile workers in '" + wd + "'.");
+		
+		return true;
+	}
+	
+	/**
+	 * Checks if each of the specified mutants of an individual compiles. This
+	 * method blocks until all the mutants have been compiled, and the results
+	 * are available from {@link #getCompileResult(String)}.
+	 * 
+	 * @param source		the individual the mutants were created from.
+	 * @param mutantFiles	the mutated source files.
+	 * @param javaFiles		the relative paths of the project source files.
+	 * @since 1.0
+	 */
+	public void compile(Individual source, List<File> mutantFiles,
+			final String[] javaFiles) {
+		
+		if (executor == null || source == null || mutantFiles == null) {
+			return;
+		}
+		
+		// Compile each mutant with the first available worker
+		final String srcPath = source.getPath();
+		List<Future<?>> futures = new ArrayList<>();
+		for (final File mutant : mutantFiles) {
+			if (compiled.containsKey(mutant.getAbsolutePath())) {
+				continue;
+			}
+			futures.add(executor.submit(new Runnable() {
+				@Override
+				public void run() {
+					Worker worker = null;
+					try {
+						worker = workers.take();
+						Boolean result = worker.compile(srcPath, mutant,
+								javaFiles);
+						if (result != null) {
+							compiled.put(mutant.getAbsolutePath(), result);
+						}
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					} finally {
+						if (worker != null) {
+							workers.add(worker);
+						}
+					}
+				}
+			}));
+		}
+		
+		// Wait for all of them
+		for (Future<?> future : futures) {
+			try {
+				future.get();
+			} catch (Exception e) {}
+		}
+	}
+	
+	/**
+	 * Gets the result of compiling the specified mutant.
+	 * 
+	 * @param mutantPath	the absolute path to the mutated source file.
+	 * @return true if the mutant compiled, false if it did not or null if it
+	 * has not been compiled by this pool.
+	 * @since 1.0
+	 */
+	public Boolean getCompileResult(String mutantPath) {
+		return mutantPath == null? null : compiled.get(mutantPath);
+	}
+	
+	/**
+	 * Gets the number of workers, which is the number of mutants compiled at
+	 * once.
+	 * 
+	 * @return the number of workers.
+	 * @since 1.0
+	 */
+	public int getSize() {
+		return size;
+	}
+	
+	/**
+	 * Stops the workers and forgets the results.
+	 * 
+	 * @since 1.0
+	 */
+	public void shutdown() {
+		if (executor != null) {
+			executor.shutdownNow();
+			this.executor = null;
+		}
+		workers.clear();
+		compiled.clear();
+	}
+	
+	/**
+	 * The {@code Worker} class compiles mutants in a scratch copy of the
+	 * project, using a compiler which is kept for all of its compilations.
+	 * 
+	 * @author Devon McGrath
+	 * @since 1.0
+	 */
+	private class Worker {
+		
+		/** The path to the scratch project directory, ending with the
+		 * directory separator. */
+		private String dir;
+		
+		/** The compiler for the scratch project directory. */
+		private ProjectCompiler compiler;
+		
+		/**
+		 * Creates a worker for the specified scratch directory.
+		 * 
+		 * @param dir		the scratch project directory.
+		 * @param compiler	the compiler for the directory.
+		 */
+		public Worker(String dir, ProjectCompiler compiler) {
+			this.dir = dir;
+			this.compiler = compiler;
+		}
+		
+		/**
+		 * Creates the program for a mutant in the scratch directory and
+		 * compiles it.
+		 * 
+		 * @param srcPath	the path to the individual the mutant was created
+		 * 					from.
+		 * @param mutant	the mutated source file.
+		 * @param javaFiles	the relative paths of the project source files.
+		 * @return true if the mutant compiled, false if it did not or null if
+		 * the program could not be created.
+		 */
+		public Boolean compile(String srcPath, File mutant,
+				String[] javaFiles) {
+			String relPath = MutantSource.getSourceFile(mutant, javaFiles);
+			if (relPath == null || !ARCUtils.copyProjectSourceFiles(
+					arc, srcPath, dir, null)) {
+				return null;
+			}
+			FileUtils.copy(mutant.getAbsolutePath(), dir + relPath, false);
+			return !compiler.compile().hasFatalError();
+		}
+	}
+}
@@ -0,0 +1,24 @@
+package ca.sqrlab.arc.evolution;
+
+/**
+ * The {@code CorrectnessFitness} class is the default fitness function, which
+ * only uses the ratio of unit tests which passed ({@link Individual#getScore()}).
+ * 
+ * @author Devon McGrath
+ * @since 1.0
+ */
+public class CorrectnessFitness implements FitnessFunction {
+	
+	/** The name used to select this fitness function. */
+	public static final String NAME = "correctness";
+	
+	@Override
+	public double[] getObjectives(Individual individual, Individual original) {
+		return new double[] {individual.getScore()};
+	}
+	
+	@Override
+	public int getObjectiveCount() {
+		return 1;
+	}
+}
@@ -0,0 +1,171 @@
+package ca.sqrlab.arc.evolution;
+
+import java.util.Random;
+
+import ca.sqrlab.arc.ARC;
+
+/**
+ * The {@code Crossover} class combines two parent individuals into a child
+ * using a file-level uniform crossover. For each project source file, the
+ * child takes the version of the file from one of the two parents, chosen
+ * at random. This allows a fix to one file (e.g. for a data race) and a fix
+ * to a different file (e.g. for a deadlock), found in different
+ * individuals, to be combined in a single generation.
+ * 
+ * <p>The {@link Mutant} representation of the child is built from the
+ * representations of the parents, so no TXL mutation is needed to create a
+ * child: the source files only need to be copied and compiled.
+ * 
+ * @author Devon McGrath
+ * @see ARC#SETTING_CROSSOVER_RATE
+ * @since 1.0
+ */
+public class Crossover {
+	
+	/** The number of random choices of files to try before giving up on
+	 * finding a child which differs from both parents. */
+	public static final int MAX_ATTEMPTS = 10;
+	
+	/** The random number generator used to choose the files. */
+	private Random random;
+	
+	/**
+	 * Creates a crossover operator.
+	 * 
+	 * @param random	the random number generator used to choose the files.
+	 * @since 1.0
+	 */
+	public Crossover(Random random) {
+		this.random = random == null? new Random() : random;
+	}
+	
+	/**
+	 * Chooses, for each project source file, which parent the child takes
+	 * the file from. The choices are only made for the files which differ
+	 * between the parents, and the child always differs from both parents.
+	 * 
+	 * @param a			the first parent.
+	 * @param b			the second parent.
+	 * @param javaFiles	the relative paths of the project source files.
+	 * @return true at index i if the child takes file i from the second
+	 * parent, or null if the parents do not differ in at least two files.
+	 * 
+	 * @since 1.0
+	 */
+	public boolean[] choose(Individual a, Individual b, String[] javaFiles) {
+		
+		// Check the arguments
+		if (a == null || b == null || javaFiles == null) {
+			return null;
+		}
+		Mutant ra = a.getRepresentation(), rb = b.getRepresentation();
+		if (ra == null || rb == null) {
+			return null;
+		}
+		
+		// Find the files which differ between the parents
+		int n = javaFiles.length, differ = 0;
+		boolean[] different = new boolean[n];
+		for (int i = 0; i < n; i ++) {
+			String fa = getFile(ra, javaFiles[i]);
+			String fb = getFile(rb, javaFiles[i]);
+			different[i] = fa == null? fb != null : !fa.equals(fb);
+			if (different[i]) {
+				differ ++;
+			}
+		}
+		if (differ < 2) {
+			return null;
+		}
+		
+		// Choose each file uniformly, until the child is new
+		boolean[] fromB = new boolean[n];
+		for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt ++) {
+			int taken = 0;
+			for (int i = 0; i < n; i ++) {
+				fromB[i] = different[i] && random.nextBoolean();
+				if (fromB[i]) {
+					taken ++;
+				}
+			}
+			if (taken > 0 && taken < differ) {
+				return fromB;
+			}
+		}
+		
+		return null;
+	}
+	
+	/**
+	 * Creates the representation of the child for the specified choice of
+	 * files.
+	 * 
+	 * @param a			the first parent.
+	 * @param b			the second parent.
+	 * @param javaFiles	the relative paths of the project source files.
+	 * @param fromB		which files are taken from the second parent.
+	 * @return the child's representation or null if a parent does not have a
+	 * representation.
+	 * 
+	 * @see #choose(Individual, Individual, String[])
+	 * @since 1.0
+	 */
+	public static Mutant combine(Individual a, Individual b,
+			String[] javaFiles, boolean[] fromB) {
+		
+		if (a == null || b == null || javaFiles == null || fromB == null ||
+				a.getRepresentation() == null ||
+				b.getRepresentation() == null) {
+			return null;
+		}
+		
+		// Take each file from the chosen parent
+		Mutant ra = a.getRepresentation(), rb = b.getRepresentation();
+		String[] files = new String[javaFiles.length];
+		int n = 0;
+		for (int i = 0; i < javaFiles.length; i ++) {
+			String f = getFile(i < fromB.length && fromB[i]? rb : ra,
+					javaFiles[i]);
+			if (f != null) {
+				files[n ++] = f;
+			}
+		}
+		String[] result = new String[n];
+		System.arraycopy(files, 0, result, 0, n);
+		
+		return new Mutant(result);
+	}
+	
+	/**
+	 * Gets the file of the representation which is a version of the
+	 * specified project source file. Mutated files are named after the file
+	 * they are a mutation of (e.g. {@code Main.java_3.java}).
+	 * 
+	 * @param rep		the representation.
+	 * @param javaFile	the relative path of the project source file.
+	 * @return the absolute path of the version of the file or null if the
+	 * representation does not contain it.
+	 * 
+	 * @since 1.0
+	 */
+	public static String getFile(Mutant rep, String javaFile) {
+		if (rep == null || javaFile == null || javaFile.isEmpty()) {
+			return null;
+		}
+		int n = javaFile.length();
+		for (String f : rep.getFiles()) {
+			if (f == null) {
+				continue;
+			}
+			
+			// Match whole path components only
+			String p = f.replaceAll("\\.java_[0-9]+", "");
+			int i = p.length() - n - 1;
+			if (p.endsWith(javaFile) && (i < 0 || p.charAt(i) == '/' ||
+					p.charAt(i) == '\\')) {
+				return f;
+			}
+		}
+		return null;
+	}
+}
@@ -0,0 +1,25 @@
+package ca.sqrlab.arc.evolution;
+
+import java.util.Random;
+
+/**
+ * The {@code ElitistSelection} class creates the individuals of a generation
+ * from the best candidates first, with three individuals per candidate
+ * before moving on to the next best candidate.
+ * 
+ * @author Devon McGrath
+ * @since 1.0
+ */
+public class ElitistSelection implements SelectionStrategy {
+	
+	/** The name used to select this strategy. */
+	public static final String NAME = "elitist";
+	
+	/** The number of individuals created from each candidate. */
+	public static final int INDIVIDUALS_PER_CANDIDATE = 3;
+	
+	@Override
+	public int select(int count, int index, Random random) {
+		return (index / INDIVIDUALS_PER_CANDIDATE) % count;
+	}
+}
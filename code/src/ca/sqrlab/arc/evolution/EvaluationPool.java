@@ -0,0 +1,415 @@
+package ca.sqrlab.arc.evolution;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import ca.sqrlab.arc.ARC;
+import ca.sqrlab.arc.ARCRunner;
+import ca.sqrlab.arc.tools.monitoring.Logger;
+import ca.sqrlab.arc.tools.testing.StoppingRule;
+
+/**
+ * The {@code EvaluationPool} class tests individuals concurrently using a
+ * fixed number of {@link EvaluationWorker}s. Each worker tests one individual
+ * at a time in its own copy of the project directory, so individuals never
+ * share a working directory or compiled classes.
+ * 
+ * <p>If the pool only has one worker, the worker uses the ARC project
+ * directory directly and individuals are tested one after another.
+ * 
+ * @author Devon McGrath
+ * @see ARC#SETTING_EVALUATION_WORKERS
+ * @since 1.0
+ */
+public class EvaluationPool {
+	
+	/** The ARC runner which is executing the genetic algorithm. */
+	private ARCRunner ar;
+	
+	/** The current instance of ARC. */
+	private ARC arc;
+	
+	/** The number of workers in the pool. */
+	private int size;
+	
+	/** The workers which are not currently testing an individual. */
+	private BlockingQueue<EvaluationWorker> workers;
+	
+	/** The executor which runs the tests on separate threads. */
+	private ExecutorService executor;
+	
+	/** The tests submitted individually which have completed, in the order
+	 * they completed. */
+	private BlockingQueue<Future<Individual>> completed;
+	
+	/** The number of tests submitted individually which have not been
+	 * taken from the pool. */
+	private int pending;
+	
+	/** The flag set when the remaining individuals of the current call to
+	 * {@link #evaluate(List, int, StoppingRule, TestedListener)} should not
+	 * be tested. */
+	private AtomicBoolean cancelled;
+	
+	/**
+	 * Creates an evaluation pool with the specified number of workers.
+	 * 
+	 * @param ar	the ARC runner executing the genetic algorithm.
+	 * @param size	the number of workers, which is at least 1.
+	 * @since 1.0
+	 */
+	public EvaluationPool(ARCRunner ar, int size) {
+		this.ar = ar;
+		this.arc = ar == null? null : ar.getArc();
+		this.size = Math.max(1, size);
+		this.workers = new LinkedBlockingQueue<>();
+		this.completed = new LinkedBlockingQueue<>();
+		this.cancelled = new AtomicBoolean();
+	}
+	
+	/**
+	 * Creates all the workers and their private project directories. The
+	 * directories are created in {@link ARC#SETTING_WORKER_DIR}.
+	 * 
+	 * @param l	the logger to keep track of events.
+	 * @return true if and only if all the workers were initialized.
+	 * @since 1.0
+	 */
+	public boolean initialize(Logger l) {
+		
+		if (l == null) {
+			l = new Logger();
+		} if (arc == null) {
+			l.fatalError("There is no reference to ARC.");
+			return false;
+		}
+		
+		// Only one worker, so use the project directory
+		workers.clear();
+		if (size == 1) {
+			workers.add(new EvaluationWorker(0,
+					arc.getSetting(ARC.SETTING_PROJECT_DIR)));
+			return true;
+		}
+		
+		// Create a private copy of the project for each worker
+		String wd = arc.getSetting(ARC.SETTING_WORKER_DIR);
+		String ds = arc.getSetting(ARC.SETTING_DIR_SEPARATOR);
+		for (int i = 0; i < size; i ++) {
+			EvaluationWorker worker = new EvaluationWorker(i, wd + ds + i);
+			if (!worker.initialize(arc, l)) {
+				l.fatalError("Unable to initialize evaluation worker " + i + ".");
+				return false;
+			}
+			workers.add(worker);
+		}
+		this.executor = Executors.newFixedThreadPool(size);
+		l.debug("Created " + size + " evaluation workers in '" + wd + "'.");
+		
+		return true;
+	}
+	
+	/**
+	 * Tests each of the specified individuals using the available workers.
+	 * This method blocks until all the individuals have been tested. The
+	 * results are returned in the same order as the individuals, regardless
+	 * of the order in which the tests finished.
+	 * 
+	 * @param individuals	the individuals to test.
+	 * @param runs			the number of test-suite executions for each.
+	 * @return an array where each element is true if and only if tests were
+	 * run for the individual at the same index.
+	 * 
+	 * @see Individual#test(ARC, int, String)
+	 * @since 1.0
+	 */
+	public boolean[] evaluate(List<Individual> individuals, int runs) {
+		return evaluate(individuals, runs, null);
+	}
+	
+	/**
+	 * Tests each of the specified individuals using the available workers,
+	 * where testing an individual stops once the stopping rule decides the
+	 * results are conclusive. The results are returned in the same order as
+	 * the individuals.
+	 * 
+	 * @param individuals	the individuals to test.
+	 * @param runs			the maximum number of test-suite executions for
+	 * 						each.
+	 * @param rule			the rule to stop testing early, or null.
+	 * @return an array where each element is true if and only if tests were
+	 * run for the individual at the same index.
+	 * 
+	 * @see Individual#test(ARC, int, String, StoppingRule)
+	 * @since 1.0
+	 */
+	public boolean[] evaluate(List<Individual> individuals, final int runs,
+			final StoppingRule rule) {
+		return evaluate(individuals, runs, rule, null);
+	}
+	
+	/**
+	 * Tests each of the specified individuals using the available workers,
+	 * where testing an individual stops once the stopping rule decides the
+	 * results are conclusive. The listener is notified as soon as each
+	 * individual has been tested. The listener may be called from multiple
+	 * threads at the same time. If {@link #cancel()} is called, the individuals which
+	 * have not started testing yet are not tested.
+	 * 
+	 * @param individuals	the individuals to test.
+	 * @param runs			the maximum number of test-suite executions for
+	 * 						each.
+	 * @param rule			the rule to stop testing early, or null.
+	 * @param onTested		the listener notified after each individual is
+	 * 						tested, or null.
+	 * @return an array where each element is true if and only if tests were
+	 * run for the individual at the same index.
+	 * 
+	 * @see Individual#test(ARC, int, String, StoppingRule)
+	 * @since 1.0
+	 */
+	public boolean[] evaluate(List<Individual> individuals, final int runs,
+			final StoppingRule rule, final TestedListener onTested) {
+		
+		int n = individuals == null? 0 : individuals.size();
+		boolean[] tested = new boolean[n];
+		cancelled.set(false);
+		if (n == 0 || workers.isEmpty()) {
+			return tested;
+		}
+		
+		// Test sequentially
+		if (executor == null) {
+			EvaluationWorker worker = workers.peek();
+			for (int i = 0; i < n; i ++) {
+				if (shouldStop() || cancelled.get()) {
+					break;
+				}
+				tested[i] = worker.test(arc, individuals.get(i), runs, rule);
+				if (tested[i] && onTested != null) {
+					onTested.onTested(individuals.get(i));
+				}
+			}
+			return tested;
+		}
+		
+		// Submit a task for each individual
+		List<Future<Boolean>> results = new ArrayList<>();
+		for (int i = 0; i < n; i ++) {
+			final Individual individual = individuals.get(i);
+			results.add(executor.submit(new Callable<Boolean>() {
+				@Override
+				public Boolean call() throws Exception {
+					if (shouldStop() || cancelled.get()) {
+						return false;
+					}
+					EvaluationWorker worker = workers.take();
+					boolean tested = false;
+					try {
+						tested = worker.test(arc, individual, runs, rule);
+					} finally {
+						workers.put(worker);
+					}
+					if (tested && onTested != null) {
+						onTested.onTested(individual);
+					}
+					return tested;
+				}
+			}));
+		}
+		
+		// Wait for the results, in population order
+		for (int i = 0; i < n; i ++) {
+			try {
+				tested[i] = results.get(i).get();
+			} catch (Exception e) {
+				e.printStackTrace();
+				tested[i] = false;
+			}
+		}
+		
+		return tested;
+	}
+	
+	/**
+	 * Submits the specified individual to be tested by the next available
+	 * worker, without waiting for the test to finish. The tested individual
+	 * can be retrieved with {@link #take()} once it is done. If the pool only
+	 * has one worker, the individual is tested before this method returns.
+	 * 
+	 * @param individual	the individual to test.
+	 * @param runs			the maximum number of test-suite executions.
+	 * @param rule			the rule to stop testing early, or null.
+	 * 
+	 * @see #take()
+	 * @since 1.0
+	 */
+	public void submit(final Individual individual, final int runs,
+			final StoppingRule rule) {
+		if (individual == null || workers.isEmpty()) {
+			return;
+		}
+		
+		// Create the task to test the individual
+		final FutureTask<Individual> task = new FutureTask<Individual>(
+				new Callable<Individual>() {
+			@Override
+			public Individual call() throws Exception {
+				if (shouldStop()) {
+					return individual;
+				}
+				EvaluationWorker worker = workers.take();
+				try {
+					worker.test(arc, individual, runs, rule);
+				} finally {
+					workers.put(worker);
+				}
+				return individual;
+			}
+		}) {
+			@Override
+			protected void done() {
+				completed.add(this);
+			}
+		};
+		
+		// Test the individual
+		this.pending ++;
+		if (executor == null) {
+			task.run();
+		} else {
+			executor.execute(task);
+		}
+	}
+	
+	/**
+	 * Waits for the next individual submitted with
+	 * {@link #submit(Individual, int, StoppingRule)} to finish testing. The
+	 * individuals are returned in the order they finished, which is not
+	 * necessarily the order they were submitted in.
+	 * 
+	 * @return the tested individual, which may not have any test results if
+	 * testing failed, or null if no individuals are pending.
+	 * 
+	 * @see Individual#hasBeenTested()
+	 * @since 1.0
+	 */
+	public Individual take() {
+		if (pending <= 0) {
+			return null;
+		}
+		try {
+			Future<Individual> result = completed.take();
+			this.pending --;
+			return result.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (Exception e) {
+			e.printStackTrace();
+		}
+		return null;
+	}
+	
+	/**
+	 * Gets the number of individuals which were submitted and have not been
+	 * taken from the pool yet.
+	 * 
+	 * @return the number of pending individuals.
+	 * @see #submit(Individual, int, StoppingRule)
+	 * @since 1.0
+	 */
+	public int getPending() {
+		return pending;
+	}
+	
+	/**
+	 * Cancels testing the individuals of the current call to
+	 * {@link #evaluate(List, int, StoppingRule, TestedListener)} which have
+	 * not started testing yet. Individuals which are being tested are not
+	 * interrupted. This method can be called from the listener of the
+	 * evaluation.
+	 * 
+	 * @see #isCancelled()
+	 * @since 1.0
+	 */
+	public void cancel() {
+		cancelled.set(true);
+	}
+	
+	/**
+	 * Checks if the last evaluation was cancelled, in which case some of the
+	 * individuals may not have been tested.
+	 * 
+	 * @return true if {@link #cancel()} was called during the last
+	 * evaluation.
+	 * @since 1.0
+	 */
+	public boolean isCancelled() {
+		return cancelled.get();
+	}
+	
+	/**
+	 * Stops all the threads used by the workers. The pool cannot be used to
+	 * test individuals after it has been shutdown.
+	 * 
+	 * @since 1.0
+	 */
+	public void shutdown() {
+		if (executor != null) {
+			executor.shutdownNow();
+			this.executor = null;
+		}
+		workers.clear();
+		completed.clear();
+		this.pending = 0;
+	}
+	
+	/**
+	 * Checks if ARC was requested to stop.
+	 * 
+	 * @return true if the ARC runner should stop.
+	 * @see ARCRunner#shouldStop()
+	 * @since 1.0
+	 */
+	private boolean shouldStop() {
+		return ar != null && ar.shouldStop();
+	}
+	
+	/**
+	 * Gets the number of workers in the pool.
+	 * 
+	 * @return the number of workers.
+	 * @since 1.0
+	 */
+	public int getSize() {
+		return size;
+	}
+	
+	/**
+	 * The {@code TestedListener} interface is notified by an evaluation pool
+	 * each time an individual has been tested.
+	 * 
+	 * @author Devon McGrath
+	 * @see EvaluationPool#evaluate(List, int, StoppingRule, TestedListener)
+	 * @since 1.0
+	 */
+	public interface TestedListener {
+		
+		/**
+		 * Called after the specified individual has been tested, from the
+		 * thread which tested it.
+		 * 
+		 * @param individual	the individual which was tested.
+		 * @since 1.0
+		 */
+		void onTested(Individual individual);
+	}
+}
@@ -0,0 +1,123 @@
+package ca.sqrlab.arc.evolution;
+
+import java.io.File;
+
+import ca.sqrlab.arc.ARC;
+import ca.sqrlab.arc.tools.ARCUtils;
+import ca.sqrlab.arc.tools.monitoring.Logger;
+import ca.sqrlab.arc.tools.testing.StoppingRule;
+
+/**
+ * The {@code EvaluationWorker} class represents a worker which tests
+ * individuals in its own private copy of the project directory. Since each
+ * worker has its own directory, the project source files, compiled classes
+ * and any files written by the test-suite into the working directory are not
+ * shared with any other worker.
+ * 
+ * @author Devon McGrath
+ * @see EvaluationPool
+ * @since 1.0
+ */
+public class EvaluationWorker {
+	
+	/** The unique ID of the worker within the pool. */
+	private int id;
+	
+	/** The path to the private project directory of this worker. */
+	private String projectDir;
+	
+	/**
+	 * Creates a worker with the specified ID and project directory.
+	 * 
+	 * @param id			the unique ID of the worker.
+	 * @param projectDir	the path to the private project directory.
+	 * @since 1.0
+	 */
+	public EvaluationWorker(int id, String projectDir) {
+		this.id = id;
+		this.projectDir = projectDir;
+	}
+	
+	/**
+	 * Initializes the private project directory of this worker by copying the
+	 * ARC project directory. The ARC project directory should already contain
+	 * the compiled project.
+	 * 
+	 * @param arc	the current instance of ARC.
+	 * @param l		the logger to keep track of events.
+	 * @return true if and only if the project was copied successfully.
+	 * 
+	 * @see ARC#SETTING_PROJECT_DIR
+	 * @since 1.0
+	 */
+	public boolean initialize(ARC arc, Logger l) {
+		
+		// Nothing to initialize
+		if (arc == null || projectDir == null) {
+			return false;
+		}
+		String src = arc.getSetting(ARC.SETTING_PROJECT_DIR);
+		if (projectDir.equals(src)) {
+			return true;
+		}
+		
+		// Create the directory and copy the project
+		File dir = new File(projectDir);
+		if (!dir.isDirectory() && !dir.mkdirs()) {
+			if (l != null) {
+				l.fatalError("Unable to create the directory for worker " +
+						id + ".");
+			}
+			return false;
+		}
+		
+		return ARCUtils.copyProject(src, projectDir, l);
+	}
+	
+	/**
+	 * Tests the specified individual in the private project directory of this
+	 * worker.
+	 * 
+	 * @param arc			the current instance of ARC.
+	 * @param individual	the individual to test.
+	 * @param runs			the maximum number of test-suite executions.
+	 * @param rule			the rule to stop testing early, or null.
+	 * @return true if and only if tests were run.
+	 * 
+	 * @see Individual#test(ARC, int, String, StoppingRule)
+	 * @since 1.0
+	 */
+	public boolean test(ARC arc, Individual individual, int runs,
+			StoppingRule rule) {
+		if (individual == null) {
+			return false;
+		}
+		return individual.test(arc, runs, projectDir, rule);
+	}
+	
+	/**
+	 * Gets the unique ID of this worker.
+	 * 
+	 * @return the worker ID.
+	 * @since 1.0
+	 */
+	public int getId() {
+		return id;
+	}
+	
+	/**
+	 * Gets the path to the private project directory of this worker.
+	 * 
+	 * @return the project directory path.
+	 * @since 1.0
+	 */
+	public String getProjectDirectory() {
+		return projectDir;
+	}
+	
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + "[id=" + id + ", projectDir='" +
+				projectDir + "']";
+	}
+}
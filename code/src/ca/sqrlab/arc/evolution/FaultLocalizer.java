@@ -0,0 +1,417 @@
+package ca.sqrlab.arc.evolution;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import ca.sqrlab.arc.ARC;
+import ca.sqrlab.arc.io.FileReader;
+import ca.sqrlab.arc.io.ProcessResult;
+import ca.sqrlab.arc.tools.testing.TestResult;
+import ca.sqrlab.arc.tools.testing.TestStatus;
+import ca.sqrlab.arc.tools.testing.TestingSummary;
+
+/**
+ * The {@code FaultLocalizer} class ranks the project source files and
+ * methods by how likely they are to contain the bugs, so the mutation,
+ * compilation and testing effort can go to the most suspicious locations
+ * first. The suspiciousness of a location is based on:
+ * <ul>
+ * <li>the stack traces in the output of the failed test-suite executions
+ * (e.g. from failed assertions, exceptions and Java-level deadlock thread
+ * dumps), where each failed execution counts a frame once;</li>
+ * <li>the names of the failed unit tests (e.g. {@code testX(BankTest)}
+ * implicates {@code Bank.java});</li>
+ * <li>an optional coverage file, listing the files (or
+ * {@code file#method}) covered by the failing tests.</li>
+ * </ul>
+ * 
+ * @author Devon McGrath
+ * @see ARC#SETTING_FAULT_LOCALIZATION
+ * @since 1.0
+ */
+public class FaultLocalizer {
+	
+	/** The suspiciousness added to a file by the name of a failed unit
+	 * test. */
+	public static final double FAILED_TEST_WEIGHT = 0.5;
+	
+	/** The suspiciousness added to a location by the coverage file. */
+	public static final double COVERAGE_WEIGHT = 0.25;
+	
+	/** The pattern of a stack frame: the class, method, file name and
+	 * line. */
+	private static final Pattern FRAME = Pattern.compile(
+			"at\\s+([\\w\\$\\.]+)\\.([\\w\\$<>]+)\\(([\\w\\$]+\\.java):\\d+\\)");
+	
+	/** The pattern of a failed unit test: the test method and class. */
+	private static final Pattern FAILED_TEST = Pattern.compile(
+			"([\\w\\$]+)\\(([\\w\\$\\.]+)\\)");
+	
+	/** The pattern of a line which declares a method. */
+	private static final Pattern METHOD_DECLARATION = Pattern.compile(
+			"^\\s*(?:(?:public|protected|private|static|final|synchronized|" +
+			"abstract|native)\\s+)*[\\w<>\\[\\],.?]+\\s+(\\w+)\\s*\\(");
+	
+	/** The words which can precede a parenthesis without declaring a
+	 * method. */
+	private static final Set<String> KEYWORDS = new HashSet<>();
+	static {
+		for (String k : new String[] {"if", "for", "while", "switch", "catch",
+				"return", "new", "else", "synchronized", "throw"}) {
+			KEYWORDS.add(k);
+		}
+	}
+	
+	/** The relative paths of the project source files. */
+	private String[] sourceFiles;
+	
+	/** The suspiciousness of each file. */
+	private Map<String, Double> fileScores;
+	
+	/** The suspiciousness of each method, by {@code file#method}. */
+	private Map<String, Double> methodScores;
+	
+	/**
+	 * Creates a fault localizer without any suspects.
+	 * 
+	 * @param sourceFiles	the relative paths of the project source files.
+	 * @since 1.0
+	 */
+	public FaultLocalizer(String[] sourceFiles) {
+		this.sourceFiles = sourceFiles == null? new String[0] : sourceFiles;
+		this.fileScores = new HashMap<>();
+		this.methodScores = new HashMap<>();
+	}
+	
+	/**
+	 * Adds the evidence from the failed test-suite executions of the
+	 * summary. Each failed execution adds at most
+	 * {@code 1 / (number of failed executions)} to each location in its
+	 * output, so the suspiciousness from the stack traces is the fraction of
+	 * failed executions which implicate the location.
+	 * 
+	 * @param summary	the testing summary of a buggy program.
+	 * @return the number of failed executions used.
+	 * @since 1.0
+	 */
+	public int addFailures(TestingSummary summary) {
+		
+		if (summary == null || summary.getResults() == null) {
+			return 0;
+		}
+		
+		// Find the failed executions
+		List<TestResult> failed = new ArrayList<>();
+		for (TestResult r : summary.getResults()) {
+			if (r != null && r.getStatus() != TestStatus.SUCCESS) {
+				failed.add(r);
+			}
+		}
+		
+		// Count each location once per failed execution
+		double weight = failed.isEmpty()? 0 : 1.0 / failed.size();
+		for (TestResult r : failed) {
+			ProcessResult pr = r.getProcessResult();
+			if (pr == null) {
+				continue;
+			}
+			Set<String> files = new HashSet<>(), methods = new HashSet<>();
+			for (String out : new String[] {pr.getSTDOUT(), pr.getSTDERR()}) {
+				if (out == null) {
+					continue;
+				}
+				Matcher m = FRAME.matcher(out);
+				while (m.find()) {
+					String file = getSourceFile(m.group(1), m.group(3));
+					if (file != null) {
+						files.add(file);
+						methods.add(file + "#" + m.group(2));
+					}
+				}
+			}
+			for (String file : files) {
+				add(fileScores, file, weight);
+			}
+			for (String method : methods) {
+				add(methodScores, method, weight);
+			}
+		}
+		
+		// The classes under test of the failed unit tests
+		String[] failedMethods = summary.getFailedMethods();
+		Set<String> tested = new HashSet<>();
+		for (int i = 0; failedMethods != null && i < failedMethods.length; i ++) {
+			Matcher m = failedMethods[i] == null? null :
+				FAILED_TEST.matcher(failedMethods[i]);
+			if (m == null || !m.find()) {
+				continue;
+			}
+			String cls = m.group(2);
+			cls = cls.substring(cls.lastIndexOf('.') + 1);
+			cls = cls.replaceAll("^Test|Tests?$", "");
+			String file = getSourceFile(cls, cls + ".java");
+			if (file != null && tested.add(file)) {
+				add(fileScores, file, FAILED_TEST_WEIGHT);
+			}
+		}
+		
+		return failed.size();
+	}
+	
+	/**
+	 * Adds the evidence from a coverage file. Each line of the file is the
+	 * relative path of a project source file covered by the failing tests,
+	 * optionally followed by {@code #} and the name of a covered method.
+	 * 
+	 * @param path	the path to the coverage file.
+	 * @return the number of lines which matched a project source file.
+	 * @since 1.0
+	 */
+	public int addCoverage(String path) {
+		if (path == null || path.isEmpty() || !(new File(path)).isFile()) {
+			return 0;
+		}
+		int matched = 0;
+		for (String line : FileReader.read(path)) {
+			line = line.trim();
+			int idx = line.indexOf('#');
+			String name = idx < 0? line : line.substring(0, idx);
+			String file = findSourceFile(name.replace('\\', '/'));
+			if (file == null) {
+				continue;
+			}
+			if (idx < 0) {
+				add(fileScores, file, COVERAGE_WEIGHT);
+			} else {
+				add(methodScores, file + line.substring(idx), COVERAGE_WEIGHT);
+			}
+			matched ++;
+		}
+		return matched;
+	}
+	
+	/**
+	 * Gets the suspiciousness of the specified file.
+	 * 
+	 * @param file	the relative path of the source file.
+	 * @return the suspiciousness, which is 0 if the file was not implicated.
+	 * @since 1.0
+	 */
+	public double getSuspiciousness(String file) {
+		Double score = file == null? null : fileScores.get(file);
+		return score == null? 0 : score;
+	}
+	
+	/**
+	 * Gets the suspiciousness of the specified method.
+	 * 
+	 * @param file		the relative path of the source file.
+	 * @param method	the name of the method.
+	 * @return the suspiciousness, which is 0 if the method was not
+	 * implicated.
+	 * 
+	 * @since 1.0
+	 */
+	public double getSuspiciousness(String file, String method) {
+		Double score = method == null? null :
+			methodScores.get(file + "#" + method);
+		return score == null? 0 : score;
+	}
+	
+	/**
+	 * Gets the implicated source files, from the most to the least
+	 * suspicious.
+	 * 
+	 * @return the ranked source files.
+	 * @since 1.0
+	 */
+	public List<String> getRankedFiles() {
+		return rank(fileScores);
+	}
+	
+	/**
+	 * Gets the implicated methods (as {@code file#method}), from the most to
+	 * the least suspicious.
+	 * 
+	 * @return the ranked methods.
+	 * @since 1.0
+	 */
+	public List<String> getRankedMethods() {
+		return rank(methodScores);
+	}
+	
+	/**
+	 * Gets the source files which should be mutated: the specified number of
+	 * the most suspicious files, or every implicated file if the number is
+	 * not positive. If no file was implicated, every source file is
+	 * returned.
+	 * 
+	 * @param count	the maximum number of files.
+	 * @return the relative paths of the files to mutate.
+	 * @since 1.0
+	 */
+	public String[] getFilesToMutate(int count) {
+		List<String> files = getRankedFiles();
+		if (files.isEmpty()) {
+			return sourceFiles;
+		} if (count > 0 && files.size() > count) {
+			files = files.subList(0, count);
+		}
+		return files.toArray(new String[files.size()]);
+	}
+	
+	/**
+	 * Orders the mutant files so the mutants which change the most
+	 * suspicious locations come first. The suspiciousness of a mutant is the
+	 * suspiciousness of the file it mutates plus that of the method
+	 * containing its first change. Mutants which are equally suspicious are
+	 * in a random order.
+	 * 
+	 * @param mutants	the mutant files to order.
+	 * @param srcPath	the directory of the individual which was mutated.
+	 * @param random	the random number generator used to break ties.
+	 * @since 1.0
+	 */
+	public void sort(List<File> mutants, String srcPath, Random random) {
+		
+		if (mutants == null || mutants.size() < 2) {
+			return;
+		}
+		
+		// Score each mutant, reading each mutated file only once
+		final Map<File, Double> scores = new HashMap<>();
+		Map<String, List<String>> originals = new HashMap<>();
+		for (File mutant : mutants) {
+			String file = MutantSource.getSourceFile(mutant, sourceFiles);
+			double score = getSuspiciousness(file);
+			if (file != null && score > 0 && srcPath != null) {
+				List<String> lines = originals.get(file);
+				if (lines == null) {
+					lines = FileReader.read(
+							new File(srcPath, file).getAbsolutePath());
+					originals.put(file, lines);
+				}
+				List<SourceDiff.Hunk> hunks = SourceDiff.diff(lines,
+						FileReader.read(mutant.getAbsolutePath()));
+				if (!hunks.isEmpty()) {
+					score += getSuspiciousness(file, getEnclosingMethod(
+							lines, hunks.get(0).getStart()));
+				}
+			}
+			scores.put(mutant, score);
+		}
+		
+		// Most suspicious first
+		Collections.shuffle(mutants, random);
+		Collections.sort(mutants, new Comparator<File>() {
+			@Override
+			public int compare(File a, File b) {
+				return Double.compare(scores.get(b), scores.get(a));
+			}
+		});
+	}
+	
+	/**
+	 * Gets the name of the method which contains the specified line, by
+	 * finding the closest method declaration before it.
+	 * 
+	 * @param lines	the lines of the source file.
+	 * @param line	the index of the line.
+	 * @return the name of the method or null if none was found.
+	 */
+	private static String getEnclosingMethod(List<String> lines, int line) {
+		for (int i = Math.min(line, lines.size() - 1); i >= 0; i --) {
+			String l = lines.get(i);
+			if (l.trim().endsWith(";")) {
+				continue;
+			}
+			Matcher m = METHOD_DECLARATION.matcher(l);
+			if (m.find() && !KEYWORDS.contains(m.group(1))) {
+				return m.group(1);
+			}
+		}
+		return null;
+	}
+	
+	/**
+	 * Gets the project source file which defines the specified class.
+	 * 
+	 * @param cls		the fully qualified or simple name of the class.
+	 * @param fileName	the name of the file the class is in.
+	 * @return the relative path of the source file or null if it is not a
+	 * project source file.
+	 */
+	private String getSourceFile(String cls, String fileName) {
+		
+		// Use the package to build the path
+		int idx = cls.lastIndexOf('.');
+		String path = idx < 0? fileName :
+			cls.substring(0, idx).replace('.', '/') + "/" + fileName;
+		String file = findSourceFile(path);
+		
+		// The frame may not have a package (e.g. in a thread dump)
+		return file != null || idx < 0? file : findSourceFile(fileName);
+	}
+	
+	/**
+	 * Finds the project source file with a path ending with the specified
+	 * path.
+	 * 
+	 * @param path	the end of the path, using '/' as the separator.
+	 * @return the relative path of the source file or null if none match.
+	 */
+	private String findSourceFile(String path) {
+		if (path == null || path.isEmpty()) {
+			return null;
+		}
+		for (String sf : sourceFiles) {
+			String p = sf == null? "" : sf.replace('\\', '/');
+			int i = p.length() - path.length() - 1;
+			if (p.endsWith(path) && (i < 0 || p.charAt(i) == '/')) {
+				return sf;
+			}
+		}
+		return null;
+	}
+	
+	/**
+	 * Adds to the score of a location.
+	 * 
+	 * @param scores	the scores of the locations.
+	 * @param key		the location.
+	 * @param value		the value to add.
+	 */
+	private static void add(Map<String, Double> scores, String key,
+			double value) {
+		Double score = scores.get(key);
+		scores.put(key, (score == null? 0 : score) + value);
+	}
+	
+	/**
+	 * Ranks the locations from the highest to the lowest score.
+	 * 
+	 * @param scores	the scores of the locations.
+	 * @return the ranked locations.
+	 */
+	private static List<String> rank(final Map<String, Double> scores) {
+		List<String> ranked = new ArrayList<>(scores.keySet());
+		Collections.sort(ranked, new Comparator<String>() {
+			@Override
+			public int compare(String a, String b) {
+				int c = Double.compare(scores.get(b), scores.get(a));
+				return c != 0? c : a.compareTo(b);
+			}
+		});
+		return ranked;
+	}
+}
@@ -0,0 +1,262 @@
+package ca.sqrlab.arc.evolution;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import ca.sqrlab.arc.tools.testing.TestingSummary;
+
+/**
+ * The {@code FitnessCache} class stores the testing summaries of programs
+ * based on a hash of the contents of their source files. Different
+ * individuals which are made up of the exact same source code will have the
+ * same hash, so the testing summary of one can be reused for the others
+ * instead of testing the same program again.
+ * 
+ * <p>If normalization is enabled, comments are removed and whitespace is
+ * collapsed before the source is hashed. This allows programs which only
+ * differ in formatting to share a testing summary.
+ * 
+ * @author Devon McGrath
+ * @see ARCGeneticAlgorithm
+ * @since 1.0
+ */
+public class FitnessCache {
+	
+	/** The algorithm used to hash the source files. */
+	public static final String HASH_ALGORITHM = "SHA-256";
+	
+	/** The testing summaries mapped by the hash of the program source. */
+	private Map<String, TestingSummary> summaries;
+	
+	/** The flag indicating if comments and whitespace are normalized. */
+	private boolean normalize;
+	
+	/** The number of times a testing summary was found in the cache. */
+	private int hits;
+	
+	/**
+	 * Creates an empty fitness cache which hashes the source files exactly
+	 * as they are.
+	 * 
+	 * @since 1.0
+	 */
+	public FitnessCache() {
+		this(false);
+	}
+	
+	/**
+	 * Creates an empty fitness cache.
+	 * 
+	 * @param normalize	if true, comments and whitespace are normalized
+	 * 					before the source files are hashed.
+	 * @since 1.0
+	 */
+	public FitnessCache(boolean normalize) {
+		this.summaries = new HashMap<>();
+		this.normalize = normalize;
+	}
+	
+	/**
+	 * Computes the hash of the source files of a program. The files are
+	 * hashed in order of their relative path, so the hash does not depend on
+	 * the order of the source files.
+	 * 
+	 * @param root			the root directory of the program.
+	 * @param sourceFiles	the relative paths of the source files.
+	 * @return the hash of the source files or null if a file could not be
+	 * read.
+	 * 
+	 * @since 1.0
+	 */
+	public String hash(String root, String[] sourceFiles) {
+		
+		// Nothing to hash
+		if (root == null || sourceFiles == null) {
+			return null;
+		}
+		
+		MessageDigest md = null;
+		try {
+			md = MessageDigest.getInstance(HASH_ALGORITHM);
+		} catch (NoSuchAlgorithmException e) {
+			e.printStackTrace();
+			return null;
+		}
+		
+		// Hash each file with its path
+		String[] files = Arrays.copyOf(sourceFiles, sourceFiles.length);
+		Arrays.sort(files);
+		for (String relPath : files) {
+			if (relPath == null || relPath.isEmpty()) {
+				continue;
+			}
+			File f = new File(root, relPath);
+			String src = null;
+			try {
+				src = new String(Files.readAllBytes(f.toPath()),
+						StandardCharsets.UTF_8);
+			} catch (Exception e) {
+				return null;
+			}
+			if (normalize) {
+				src = normalize(src);
+			}
+			md.update(relPath.getBytes(StandardCharsets.UTF_8));
+			md.update((byte) 0);
+			md.update(src.getBytes(StandardCharsets.UTF_8));
+			md.update((byte) 0);
+		}
+		
+		// Convert the hash to hex
+		byte[] digest = md.digest();
+		StringBuilder sb = new StringBuilder();
+		for (byte b : digest) {
+			sb.append(String.format("%02x", b & 0xFF));
+		}
+		
+		return sb.toString();
+	}
+	
+	/**
+	 * Removes all the comments from the Java source code and replaces each
+	 * sequence of whitespace characters with a single space. String and
+	 * character literals are not modified.
+	 * 
+	 * @param src	the Java source code.
+	 * @return the normalized source code.
+	 * 
+	 * @since 1.0
+	 */
+	public static String normalize(String src) {
+		
+		StringBuilder sb = new StringBuilder();
+		int n = src.length();
+		boolean space = false;
+		for (int i = 0; i < n; i ++) {
+			char c = src.charAt(i);
+			char next = i + 1 < n? src.charAt(i + 1) : 0;
+			
+			// Line comment
+			if (c == '/' && next == '/') {
+				while (i < n && src.charAt(i) != '\n') {
+					i ++;
+				}
+				space = true;
+				continue;
+			}
+			
+			// Block comment
+			if (c == '/' && next == '*') {
+				i += 2;
+				while (i < n && !(src.charAt(i) == '*' && i + 1 < n &&
+						src.charAt(i + 1) == '/')) {
+					i ++;
+				}
+				i ++;
+				space = true;
+				continue;
+			}
+			
+			// Whitespace
+			if (Character.isWhitespace(c)) {
+				space = true;
+				continue;
+			}
+			if (space && sb.length() > 0) {
+				sb.append(' ');
+			}
+			space = false;
+			
+			// String or character literal
+			if (c == '"' || c == '\'') {
+				sb.append(c);
+				for (i ++; i < n; i ++) {
+					char lc = src.charAt(i);
+					sb.append(lc);
+					if (lc == '\\' && i + 1 < n) {
+						sb.append(src.charAt(++ i));
+					} else if (lc == c) {
+						break;
+					}
+				}
+				continue;
+			}
+			
+			sb.append(c);
+		}
+		
+		return sb.toString();
+	}
+	
+	/**
+	 * Gets the testing summary of the program with the specified hash.
+	 * 
+	 * @param hash	the hash of the program source.
+	 * @return the testing summary or null if the program has not been tested.
+	 * 
+	 * @see #hash(String, String[])
+	 * @since 1.0
+	 */
+	public synchronized TestingSummary get(String hash) {
+		if (hash == null) {
+			return null;
+		}
+		TestingSummary summary = summaries.get(hash);
+		if (summary != null) {
+			this.hits ++;
+		}
+		return summary;
+	}
+	
+	/**
+	 * Stores the testing summary for the program with the specified hash. If
+	 * the program was already tested, the previous summary is replaced.
+	 * 
+	 * @param hash		the hash of the program source.
+	 * @param summary	the testing summary of the program.
+	 * 
+	 * @see #hash(String, String[])
+	 * @since 1.0
+	 */
+	public synchronized void put(String hash, TestingSummary summary) {
+		if (hash != null && summary != null) {
+			this.summaries.put(hash, summary);
+		}
+	}
+	
+	/**
+	 * Gets the number of programs which have a testing summary in the cache.
+	 * 
+	 * @return the number of cached testing summaries.
+	 * @since 1.0
+	 */
+	public synchronized int size() {
+		return summaries.size();
+	}
+	
+	/**
+	 * Gets the number of times a testing summary was reused.
+	 * 
+	 * @return the number of cache hits.
+	 * @since 1.0
+	 */
+	public synchronized int getHits() {
+		return hits;
+	}
+	
+	/**
+	 * Checks if comments and whitespace are normalized before hashing.
+	 * 
+	 * @return true if the source is normalized.
+	 * @since 1.0
+	 */
+	public boolean isNormalized() {
+		return normalize;
+	}
+}
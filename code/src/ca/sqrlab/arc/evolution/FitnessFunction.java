@@ -0,0 +1,41 @@
+package ca.sqrlab.arc.evolution;
+
+import ca.sqrlab.arc.ARC;
+
+/**
+ * The {@code FitnessFunction} interface measures how good a tested individual
+ * is using one or more objectives. Every objective is maximized. The first
+ * objective is always the correctness of the individual (i.e.
+ * {@link Individual#getScore()}), which decides if an individual is better
+ * than the original program. The remaining objectives are only used to
+ * decide which of the candidates for mutation are preferred.
+ * 
+ * <p>Implementations must have a public constructor without arguments, so
+ * they can be selected by class name with {@link ARC#SETTING_FITNESS_FUNCTION}.
+ * 
+ * @author Devon McGrath
+ * @see ParetoSorter
+ * @since 1.0
+ */
+public interface FitnessFunction {
+	
+	/**
+	 * Gets the values of the objectives for the specified individual,
+	 * relative to the original program.
+	 * 
+	 * @param individual	the tested individual.
+	 * @param original		the tested original program.
+	 * @return the value of each objective, where higher is better.
+	 * @since 1.0
+	 */
+	public double[] getObjectives(Individual individual, Individual original);
+	
+	/**
+	 * Gets the number of objectives returned by
+	 * {@link #getObjectives(Individual, Individual)}.
+	 * 
+	 * @return the number of objectives, which is at least 1.
+	 * @since 1.0
+	 */
+	public int getObjectiveCount();
+}
@@ -0,0 +1,372 @@
+package ca.sqrlab.arc.evolution;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import ca.sqrlab.arc.ARC;
+import ca.sqrlab.arc.ARCRunner;
+import ca.sqrlab.arc.io.FileReader;
+import ca.sqrlab.arc.io.FileWriter;
+import ca.sqrlab.arc.tools.ARCUtils;
+import ca.sqrlab.arc.tools.monitoring.Logger;
+
+/**
+ * The {@code FixMinimizer} class removes the changes of a fix which are not
+ * needed to fix the bugs. The fix is compared to the original program, and
+ * each hunk of each changed source file is one change. Delta debugging
+ * (ddmin) is used to find a minimal set of changes which still fixes the
+ * program: the changes are split into subsets, and the subsets and their
+ * complements are tested in parallel using the evaluation workers. The
+ * smallest candidates which pass every test-suite execution are validated
+ * with the same extended testing used to accept a fix, and the first one
+ * which passes validation replaces the current set of changes.
+ * 
+ * <p>The candidates of each step are placed in their own generation
+ * directory, after the generations of the genetic algorithm.
+ * 
+ * @author Devon McGrath
+ * @see ARC#SETTING_MINIMIZE_FIX
+ * @since 1.0
+ */
+public class FixMinimizer {
+	
+	/**
+	 * The {@code Change} class is a single hunk of a changed source file.
+	 */
+	private static class Change {
+		
+		/** The relative path of the changed source file. */
+		private String file;
+		
+		/** The change to the file. */
+		private SourceDiff.Hunk hunk;
+		
+		/**
+		 * Creates a change.
+		 * 
+		 * @param file	the relative path of the changed source file.
+		 * @param hunk	the change to the file.
+		 */
+		private Change(String file, SourceDiff.Hunk hunk) {
+			this.file = file;
+			this.hunk = hunk;
+		}
+		
+		@Override
+		public String toString() {
+			return file + " " + hunk;
+		}
+	}
+	
+	/** The ARC runner which is executing the genetic algorithm. */
+	private ARCRunner ar;
+	
+	/** The current instance of ARC. */
+	private ARC arc;
+	
+	/** The workers which test the candidates. */
+	private EvaluationPool pool;
+	
+	/** The generation number of the candidates of the first step. */
+	private int firstGeneration;
+	
+	/** The number of generation directories used by the last minimization. */
+	private int generationsUsed;
+	
+	/** The original lines of each changed source file. */
+	private Map<String, List<String>> originals;
+	
+	/**
+	 * Creates a minimizer which uses the same workers as the genetic
+	 * algorithm.
+	 * 
+	 * @param ar				the ARC runner executing the genetic algorithm.
+	 * @param pool				the initialized pool of workers.
+	 * @param firstGeneration	the generation number of the first step,
+	 * 							which must be after the generations of the
+	 * 							genetic algorithm.
+	 * @since 1.0
+	 */
+	public FixMinimizer(ARCRunner ar, EvaluationPool pool,
+			int firstGeneration) {
+		this.ar = ar;
+		this.arc = ar == null? null : ar.getArc();
+		this.pool = pool;
+		this.firstGeneration = firstGeneration;
+		this.originals = new HashMap<>();
+	}
+	
+	/**
+	 * Minimizes the changes the fix makes to the original program, as long as
+	 * the program stays correct.
+	 * 
+	 * @param fix				the validated fix.
+	 * @param original			the original program.
+	 * @param runs				the number of test-suite executions used to
+	 * 							check each candidate.
+	 * @param validationRuns	the number of test-suite executions to
+	 * 							validate a smaller candidate with.
+	 * @param concurrentRuns	the number of validation runs to execute at
+	 * 							once.
+	 * @param l					the logger to track events.
+	 * @return the smallest correct program, which is the fix itself if none
+	 * of its changes could be removed.
+	 * 
+	 * @since 1.0
+	 */
+	public Individual minimize(Individual fix, Individual original, int runs,
+			int validationRuns, int concurrentRuns, Logger l) {
+		
+		this.generationsUsed = 0;
+		if (l == null) {
+			l = new Logger();
+		} if (fix == null || original == null || arc == null || pool == null) {
+			return fix;
+		}
+		
+		// Find the changes made by the fix
+		List<Change> changes = getChanges(original.getPath(), fix.getPath());
+		l.debug("The fix makes " + changes.size() + " changes.");
+		if (changes.size() < 2) {
+			return fix;
+		}
+		
+		// Delta debugging
+		Individual best = fix;
+		List<Change> current = changes;
+		int n = 2;
+		while (current.size() >= 2) {
+			
+			// Check if requested to stop
+			if (ar != null && ar.shouldStop()) {
+				l.warning("ARC was requested to stop.");
+				break;
+			}
+			
+			// Create a candidate for each subset and complement
+			int gen = firstGeneration + generationsUsed;
+			this.generationsUsed ++;
+			List<List<Change>> subsets = split(current, n);
+			List<List<Change>> sets = new ArrayList<>(subsets);
+			if (n > 2) {
+				for (List<Change> subset : subsets) {
+					List<Change> complement = new ArrayList<>(current);
+					complement.removeAll(subset);
+					sets.add(complement);
+				}
+			}
+			List<Individual> candidates = new ArrayList<>();
+			Map<Individual, List<Change>> setOf = new HashMap<>();
+			for (List<Change> set : sets) {
+				Individual candidate = createCandidate(original, fix, set, gen,
+						candidates.size(), l);
+				if (candidate != null) {
+					candidates.add(candidate);
+					setOf.put(candidate, set);
+				}
+			}
+			
+			// Test all the candidates at once
+			pool.evaluate(candidates, runs);
+			List<Individual> passed = new ArrayList<>();
+			for (Individual candidate : candidates) {
+				if (SynchronizationOptimizer.passes(candidate, runs)) {
+					passed.add(candidate);
+				}
+			}
+			final Map<Individual, List<Change>> sizes = setOf;
+			Collections.sort(passed, new Comparator<Individual>() {
+				@Override
+				public int compare(Individual a, Individual b) {
+					return Integer.compare(sizes.get(a).size(),
+							sizes.get(b).size());
+				}
+			});
+			
+			// Validate the smallest candidates first
+			Individual next = null;
+			for (Individual candidate : passed) {
+				candidate.validate(arc, validationRuns, concurrentRuns);
+				if (SynchronizationOptimizer.passes(candidate, validationRuns)) {
+					next = candidate;
+					break;
+				}
+				l.debug("Validation rejected candidate " + candidate + " with " +
+						setOf.get(candidate).size() + " changes.");
+				if (ar != null && ar.shouldStop()) {
+					break;
+				}
+			}
+			
+			// Reduce to the accepted candidate
+			if (next != null) {
+				int index = sets.indexOf(setOf.get(next));
+				current = setOf.get(next);
+				best = next;
+				n = index < subsets.size()? 2 : Math.max(n - 1, 2);
+				l.debug("Reduced the fix to " + current.size() + " changes.");
+				continue;
+			}
+			
+			// Try smaller subsets
+			if (n >= current.size()) {
+				break;
+			}
+			n = Math.min(n * 2, current.size());
+		}
+		
+		if (best != fix) {
+			l.debug("Minimal changes:");
+			for (Change c : current) {
+				l.debug("  " + c);
+			}
+		}
+		
+		return best;
+	}
+	
+	/**
+	 * Gets the number of generation directories used by the last call to
+	 * {@link #minimize(Individual, Individual, int, int, int, Logger)}.
+	 * 
+	 * @return the number of generations used.
+	 * @since 1.0
+	 */
+	public int getGenerationsUsed() {
+		return generationsUsed;
+	}
+	
+	/**
+	 * Gets every hunk of every project source file which differs between the
+	 * original program and the fix. The original lines of each changed file
+	 * are kept to create the candidates.
+	 * 
+	 * @param originalDir	the directory of the original program.
+	 * @param fixDir		the directory of the fix.
+	 * @return the changes.
+	 */
+	private List<Change> getChanges(String originalDir, String fixDir) {
+		
+		List<Change> changes = new ArrayList<>();
+		String[] javaFiles = arc.getProject().getSourceFiles();
+		if (javaFiles == null || originalDir == null || fixDir == null) {
+			return changes;
+		}
+		String ds = arc.getSetting(ARC.SETTING_DIR_SEPARATOR);
+		for (String jf : javaFiles) {
+			File src = new File(originalDir + ds + jf);
+			File dst = new File(fixDir + ds + jf);
+			if (!src.isFile() || !dst.isFile()) {
+				continue;
+			}
+			List<String> a = FileReader.read(src.getAbsolutePath());
+			List<String> b = FileReader.read(dst.getAbsolutePath());
+			List<SourceDiff.Hunk> hunks = SourceDiff.diff(a, b);
+			if (hunks.isEmpty()) {
+				continue;
+			}
+			originals.put(jf, a);
+			for (SourceDiff.Hunk h : hunks) {
+				changes.add(new Change(jf, h));
+			}
+		}
+		
+		return changes;
+	}
+	
+	/**
+	 * Creates a candidate which applies the specified changes to the original
+	 * program. The representation of the candidate is the one of the fix,
+	 * with the files changed by the fix replaced by the candidate's files.
+	 * 
+	 * @param original	the original program.
+	 * @param fix		the fix being minimized.
+	 * @param changes	the changes to apply.
+	 * @param gen		the generation number of the candidate.
+	 * @param id		the ID of the candidate.
+	 * @param l			the logger to track events.
+	 * @return the candidate, which has not been tested, or null if it could
+	 * not be created.
+	 */
+	private Individual createCandidate(Individual original, Individual fix,
+			List<Change> changes, int gen, int id, Logger l) {
+		
+		// Copy the original program
+		String path = ARCGeneticAlgorithm.getIndividualDirectory(arc, gen, id);
+		if (!(new File(path)).mkdirs() || !ARCUtils.copyProjectSourceFiles(
+				arc, original.getPath(), path, null)) {
+			l.warning("Unable to create the directory for candidate '" +
+					path + "'.");
+			return null;
+		}
+		
+		// Group the changes by file
+		Map<String, List<SourceDiff.Hunk>> byFile = new HashMap<>();
+		for (Change c : changes) {
+			List<SourceDiff.Hunk> hunks = byFile.get(c.file);
+			if (hunks == null) {
+				hunks = new ArrayList<>();
+				byFile.put(c.file, hunks);
+			}
+			hunks.add(c.hunk);
+		}
+		
+		// Apply the changes
+		String ds = arc.getSetting(ARC.SETTING_DIR_SEPARATOR);
+		for (Map.Entry<String, List<SourceDiff.Hunk>> e : byFile.entrySet()) {
+			List<String> lines = SourceDiff.apply(
+					originals.get(e.getKey()), e.getValue());
+			if (!FileWriter.write(path + ds + e.getKey(), lines, false)) {
+				l.warning("Unable to write candidate file '" + path + ds +
+						e.getKey() + "'.");
+				return null;
+			}
+		}
+		
+		Individual candidate = new Individual(id, gen, path);
+		candidate.setSource(fix);
+		
+		// Replace each file changed by the fix with the candidate's file
+		Mutant rep = fix.getRepresentation();
+		if (rep != null) {
+			String[] files = rep.getFiles();
+			for (String f : originals.keySet()) {
+				for (int i = 0; i < files.length; i ++) {
+					if (files[i].replaceAll("\\.java_[0-9]+", "").endsWith(f)) {
+						files[i] = (new File(path + ds + f)).getAbsolutePath();
+						break;
+					}
+				}
+			}
+			candidate.setRepresentation(new Mutant(files));
+		}
+		
+		return candidate;
+	}
+	
+	/**
+	 * Splits the changes into the specified number of subsets of about the
+	 * same size.
+	 * 
+	 * @param changes	the changes to split.
+	 * @param n			the number of subsets.
+	 * @return the subsets.
+	 */
+	private static List<List<Change>> split(List<Change> changes, int n) {
+		List<List<Change>> subsets = new ArrayList<>();
+		int size = changes.size(), start = 0;
+		for (int i = 0; i < n; i ++) {
+			int end = start + (size - start) / (n - i);
+			if (end > start) {
+				subsets.add(new ArrayList<>(changes.subList(start, end)));
+			}
+			start = end;
+		}
+		return subsets;
+	}
+}
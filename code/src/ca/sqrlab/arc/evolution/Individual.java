@@ -11,9 +11,11 @@ import ca.sqrlab.arc.tools.instrumentation.CFlashInstrumentor;
 import ca.sqrlab.arc.tools.instrumentation.Instrumentor;
 import ca.sqrlab.arc.tools.monitoring.Logger;
 import ca.sqrlab.arc.tools.mutation.TXLMutation;
+import ca.sqrlab.arc.tools.testing.StoppingRule;
 import ca.sqrlab.arc.tools.testing.TestResult;
 import ca.sqrlab.arc.tools.testing.TestRunner;
 import ca.sqrlab.arc.tools.testing.TestingSummary;
+import ca.sqrlab.arc.tools.testing.ValidationStoppingRule;
 
 /**
  * The {@code Individual} class represents an individual, which is a unique
@@ -83,11 +85,115 @@ public class Individual implements Comparable<Individual> {
 	 * @since 1.0
 	 */
 	public boolean test(ARC arc, int runs) {
+		if (arc == null) {
+			return false;
+		}
+		return test(arc, runs, arc.getSetting(ARC.SETTING_PROJECT_DIR));
+	}
+	
+	/**
+	 * Tests this individual by using it's test-suite in the specified
+	 * project directory. The project directory must already contain a copy of
+	 * the project (e.g. a private copy owned by an {@link EvaluationWorker}).
+	 * The individual's source files are copied into the directory,
+	 * instrumented and compiled before the tests are run.
+	 * 
+	 * @param arc			the current ARC with all the settings.
+	 * @param runs			the number of runs to test with.
+	 * @param projectDir	the project directory to test in.
+	 * @return true if and only if tests were run.
+	 * 
+	 * @see #test(ARC, int)
+	 * @see #hasBeenTested()
+	 * @since 1.0
+	 */
+	public boolean test(ARC arc, int runs, String projectDir) {
+		return test(arc, runs, projectDir, null);
+	}
+	
+	/**
+	 * Tests this individual by using it's test-suite in the specified
+	 * project directory, at most the specified number of times. The stopping
+	 * rule can end testing once the results are conclusive, in which case
+	 * {@link #getTestSummary()} will have fewer test-suite executions.
+	 * 
+	 * @param arc			the current ARC with all the settings.
+	 * @param runs			the maximum number of runs to test with.
+	 * @param projectDir	the project directory to test in.
+	 * @param rule			the rule to stop testing early or null to always
+	 * 						use all the runs.
+	 * @return true if and only if tests were run.
+	 * 
+	 * @see #test(ARC, int, String)
+	 * @since 1.0
+	 */
+	public boolean test(ARC arc, int runs, String projectDir,
+			StoppingRule rule) {
+		
+		// Check the arguments
+		if (runs < 1 || !prepare(arc, projectDir)) {
+			return false;
+		}
+		
+		// Run the program test-suite the specified number of times
+		TestRunner runner = new TestRunner(arc, projectDir);
+		this.testSummary = runner.execute(runs, false, rule);
+		
+		return true;
+	}
+	
+	/**
+	 * Validates this individual with the specified number of test-suite
+	 * executions, which are run concurrently in the ARC project directory.
+	 * Validation is aborted as soon as one test-suite execution is not
+	 * successful, so {@link #getTestSummary()} will only contain the
+	 * executions which completed before validation was aborted.
+	 * 
+	 * @param arc				the current ARC with all the settings.
+	 * @param runs				the number of runs to validate with.
+	 * @param concurrentRuns	the number of runs to execute at once.
+	 * @return true if and only if tests were run.
+	 * 
+	 * @see ValidationStoppingRule
+	 * @since 1.0
+	 */
+	public boolean validate(ARC arc, int runs, int concurrentRuns) {
 		
 		// Check the arguments
 		if (arc == null || runs < 1) {
 			return false;
 		}
+		String projectDir = arc.getSetting(ARC.SETTING_PROJECT_DIR);
+		if (!prepare(arc, projectDir)) {
+			return false;
+		}
+		
+		// Run the test-suite until the first failure
+		TestRunner runner = new TestRunner(arc, projectDir);
+		runner.setConcurrentRuns(Math.max(1, concurrentRuns));
+		this.testSummary = runner.execute(runs, false,
+				new ValidationStoppingRule());
+		
+		return true;
+	}
+	
+	/**
+	 * Prepares the specified project directory to test this individual. The
+	 * individual's source files are copied into the directory, instrumented
+	 * and compiled.
+	 * 
+	 * @param arc			the current ARC with all the settings.
+	 * @param projectDir	the project directory to test in.
+	 * @return true if and only if the project directory is ready to test.
+	 * 
+	 * @since 1.0
+	 */
+	private boolean prepare(ARC arc, String projectDir) {
+		
+		// Check the arguments
+		if (arc == null || projectDir == null) {
+			return false;
+		}
 		
 		// Check that the path exists
 		if (path == null || !(new File(path)).isDirectory()) {
@@ -95,8 +201,7 @@ public class Individual implements Comparable<Individual> {
 		}
 		
 		// Copy over the project
-		if (!ARCUtils.copyProjectSourceFiles(arc, path,
-				arc.getSetting(ARC.SETTING_PROJECT_DIR), null)) {
+		if (!ARCUtils.copyProjectSourceFiles(arc, path, projectDir, null)) {
 			return false;
 		}
 		
@@ -104,16 +209,13 @@ public class Individual implements Comparable<Individual> {
 		Instrumentor instrumentor = new CFlashInstrumentor(
 				arc.getSetting(ARC.SETTING_CFLASH_TXL_DIR),
 				arc.getSetting(ARC.SETTING_TXL));
-		Logger ip = instrumentor.instrument(arc.getProject());
+		Logger ip = instrumentor.instrument(arc.getProject(), projectDir);
 		if (ip.hasFatalError()) {
 			return false;
 		}
 		
-		// Run the program test-suite the specified number of times
-		TestRunner runner = new TestRunner(arc);
-		this.testSummary = runner.execute(runs, false);
-		
-		return true;
+		// Compile the instrumented project so the tests use its classes
+		return ARCUtils.compile(arc, projectDir, null);
 	}
 	
 	/**
@@ -379,6 +481,21 @@ public class Individual implements Comparable<Individual> {
 	public TestingSummary getTestSummary() {
 		return testSummary;
 	}
+	
+	/**
+	 * Sets the testing summary of this individual. This can be used to reuse
+	 * the results of testing an identical program instead of testing this
+	 * individual.
+	 * 
+	 * @param testSummary	the test results.
+	 * @return a reference to this individual.
+	 * @see #getTestSummary()
+	 * @since 1.0
+	 */
+	public Individual setTestSummary(TestingSummary testSummary) {
+		this.testSummary = testSummary;
+		return this;
+	}
 
 	/**
 	 * Gets a list of all the mutations applied the original project to reach
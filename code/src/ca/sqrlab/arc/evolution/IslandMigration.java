@@ -0,0 +1,275 @@
+package ca.sqrlab.arc.evolution;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import ca.sqrlab.arc.ARC;
+import ca.sqrlab.arc.io.FileReader;
+import ca.sqrlab.arc.io.FileUtils;
+import ca.sqrlab.arc.io.FileWriter;
+import ca.sqrlab.arc.tools.ARCUtils;
+import ca.sqrlab.arc.tools.monitoring.Logger;
+
+/**
+ * The {@code IslandMigration} class exchanges individuals between islands in
+ * island mode, where multiple ARC processes on the same machine each evolve
+ * their own population in their own ARC directory. The islands communicate
+ * through a shared migration directory
+ * ({@link ARC#SETTING_MIGRATION_DIR}).
+ * 
+ * <p>When an island emigrates individuals, each individual is written to
+ * {@code <migration_dir>/<island>/<generation>-<rank>}. The directory
+ * contains the source files of the individual, along with a
+ * {@value #INFO_FILE} file with the score and the mutant representation of
+ * the individual. The directory is written under a temporary name first, so
+ * other islands never see a partially written individual. When an island
+ * finds a fix, it creates the {@value #SOLVED_FILE} file so the other islands
+ * can stop.
+ * 
+ * @author Devon McGrath
+ * @see ARCGeneticAlgorithm
+ * @since 1.0
+ */
+public class IslandMigration {
+	
+	/** The default number of generations between migrations. */
+	public static final int DEFAULT_MIGRATION_INTERVAL = 5;
+	
+	/** The default number of individuals sent at each migration. */
+	public static final int DEFAULT_MIGRATION_SIZE = 2;
+	
+	/** The name of the file which describes an emigrated individual. */
+	public static final String INFO_FILE = "individual.txt";
+	
+	/** The name of the file created when an island finds a fix. */
+	public static final String SOLVED_FILE = "solved";
+	
+	/** The prefix of the score line in the {@value #INFO_FILE} file. */
+	private static final String SCORE_PREFIX = "SCORE=";
+	
+	/** The prefix of the mutant file lines in the {@value #INFO_FILE}
+	 * file. */
+	private static final String FILE_PREFIX = "FILE=";
+	
+	/** The suffix of directories which are still being written. */
+	private static final String TMP_SUFFIX = ".tmp";
+	
+	/** The current instance of ARC. */
+	private ARC arc;
+	
+	/** The ID of this island or a negative number if not in island mode. */
+	private int island;
+	
+	/** The path to the shared migration directory. */
+	private String migrationDir;
+	
+	/** The directory separator. */
+	private String ds;
+	
+	/** The paths of the individuals which were already immigrated. */
+	private Set<String> imported;
+	
+	/**
+	 * Creates the migration for an island, using the settings from ARC.
+	 * 
+	 * @param arc		the current instance of ARC.
+	 * @param island	the ID of this island, which is negative if ARC is not
+	 * 					running in island mode.
+	 * @since 1.0
+	 */
+	public IslandMigration(ARC arc, int island) {
+		this.arc = arc;
+		this.island = island;
+		this.imported = new HashSet<>();
+		if (arc != null) {
+			this.migrationDir = arc.getSetting(ARC.SETTING_MIGRATION_DIR);
+			this.ds = arc.getSetting(ARC.SETTING_DIR_SEPARATOR);
+		}
+	}
+	
+	/**
+	 * Checks if ARC is running in island mode.
+	 * 
+	 * @return true if this is an island.
+	 * @since 1.0
+	 */
+	public boolean isEnabled() {
+		return island >= 0 && arc != null && migrationDir != null &&
+				!migrationDir.isEmpty();
+	}
+	
+	/**
+	 * Sends the specified individuals to the other islands.
+	 * 
+	 * @param individuals	the individuals to send, from best to worst.
+	 * @param generation	the current generation number.
+	 * @param l				the logger to track events.
+	 * @return the number of individuals sent.
+	 * @since 1.0
+	 */
+	public int emigrate(List<Individual> individuals, int generation,
+			Logger l) {
+		
+		if (!isEnabled() || individuals == null) {
+			return 0;
+		}
+		
+		// Create the directory for this island
+		String islandDir = migrationDir + ds + island;
+		File dir = new File(islandDir);
+		if (!dir.isDirectory() && !dir.mkdirs()) {
+			l.warning("Unable to create the migration directory '" +
+					islandDir + "'.");
+			return 0;
+		}
+		
+		// Write each individual
+		int sent = 0, n = individuals.size();
+		for (int i = 0; i < n; i ++) {
+			Individual individual = individuals.get(i);
+			String dst = islandDir + ds + generation + "-" + i;
+			String tmp = dst + TMP_SUFFIX;
+			File tmpDir = new File(tmp);
+			if (!tmpDir.isDirectory() && !tmpDir.mkdirs()) {
+				continue;
+			}
+			if (!ARCUtils.copyProjectSourceFiles(
+					arc, individual.getPath(), tmp, null)) {
+				FileUtils.remove(tmp);
+				continue;
+			}
+			
+			// Describe the individual
+			List<String> info = new ArrayList<>();
+			info.add(SCORE_PREFIX + individual.getScore());
+			Mutant rep = individual.getRepresentation();
+			if (rep != null) {
+				for (String f : rep.getFiles()) {
+					info.add(FILE_PREFIX + f);
+				}
+			}
+			FileWriter.write(tmp + ds + INFO_FILE, info, false);
+			
+			// Make the individual visible to the other islands
+			if (tmpDir.renameTo(new File(dst))) {
+				sent ++;
+			} else {
+				FileUtils.remove(tmp);
+			}
+		}
+		
+		return sent;
+	}
+	
+	/**
+	 * Gets the individuals sent by the other islands which have not been
+	 * received yet and have a score better than the specified score. The
+	 * paths of the returned individuals are the directories in the migration
+	 * directory, so the source files must be copied before they are used.
+	 * 
+	 * @param minScore	the score the individuals need to be better than.
+	 * @param l			the logger to track events.
+	 * @return the new immigrants, which have not been tested.
+	 * @since 1.0
+	 */
+	public List<Individual> immigrate(float minScore, Logger l) {
+		
+		List<Individual> immigrants = new ArrayList<>();
+		if (!isEnabled()) {
+			return immigrants;
+		}
+		File[] islands = new File(migrationDir).listFiles();
+		if (islands == null) {
+			return immigrants;
+		}
+		
+		// Check each of the other islands
+		for (File islandDir : islands) {
+			if (!islandDir.isDirectory() ||
+					islandDir.getName().equals("" + island)) {
+				continue;
+			}
+			File[] sent = islandDir.listFiles();
+			if (sent == null) {
+				continue;
+			}
+			for (File dir : sent) {
+				String path = dir.getAbsolutePath();
+				if (!dir.isDirectory() || path.endsWith(TMP_SUFFIX) ||
+						!imported.add(path)) {
+					continue;
+				}
+				
+				// Read the score and representation
+				List<String> info = FileReader.read(path + ds + INFO_FILE);
+				if (info == null) {
+					continue;
+				}
+				float score = Float.NEGATIVE_INFINITY;
+				List<String> files = new ArrayList<>();
+				for (String line : info) {
+					if (line.startsWith(SCORE_PREFIX)) {
+						try {
+							score = Float.parseFloat(
+									line.substring(SCORE_PREFIX.length()));
+						} catch (NumberFormatException e) {
+							l.warning("Invalid score for immigrant '" +
+									path + "'.");
+						}
+					} else if (line.startsWith(FILE_PREFIX)) {
+						files.add(line.substring(FILE_PREFIX.length()));
+					}
+				}
+				if (!(score > minScore)) {
+					continue;
+				}
+				
+				Individual immigrant = new Individual();
+				immigrant.setPath(path);
+				immigrant.setRepresentation(new Mutant(
+						files.toArray(new String[files.size()])));
+				immigrants.add(immigrant);
+			}
+		}
+		
+		return immigrants;
+	}
+	
+	/**
+	 * Tells the other islands that this island found a fix.
+	 * 
+	 * @since 1.0
+	 */
+	public void markSolved() {
+		if (!isEnabled()) {
+			return;
+		}
+		List<String> data = new ArrayList<>();
+		data.add("" + island);
+		FileWriter.write(migrationDir + ds + SOLVED_FILE, data, false);
+	}
+	
+	/**
+	 * Checks if any island found a fix.
+	 * 
+	 * @return true if an island found a fix.
+	 * @since 1.0
+	 */
+	public boolean isSolved() {
+		return isEnabled() &&
+				new File(migrationDir + ds + SOLVED_FILE).isFile();
+	}
+	
+	/**
+	 * Gets the ID of this island.
+	 * 
+	 * @return the island ID or a negative number if not in island mode.
+	 * @since 1.0
+	 */
+	public int getIsland() {
+		return island;
+	}
+}
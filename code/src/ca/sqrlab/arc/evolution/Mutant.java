@@ -16,6 +16,10 @@ public class Mutant {
 	/** The paths to all of the Java files which create this mutant. */
 	private String[] files;
 	
+	/** The cached hash code of the files, which is 0 if it needs to be
+	 * computed again. */
+	private int hash;
+	
 	public Mutant() {
 		setFiles(null);
 	}
@@ -37,15 +41,23 @@ public class Mutant {
 		return copy;
 	}
 
+	/**
+	 * Gets the paths to the Java files of this mutant. The array is a copy,
+	 * since changing the paths would change the hash code of a mutant which
+	 * may already be in a {@link MutantRegistry}.
+	 * 
+	 * @return a copy of the sorted file paths.
+	 */
 	public String[] getFiles() {
-		return files;
+		return Arrays.copyOf(files, files.length);
 	}
 
 	public Mutant setFiles(String[] files) {
 		if (files == null) {
 			files = new String[0];
 		}
-		this.files = files;
+		this.files = Arrays.copyOf(files, files.length);
+		this.hash = 0;
 		sortFiles();
 		return this;
 	}
@@ -80,11 +92,24 @@ public class Mutant {
 		}
 	}
 
+	/**
+	 * Gets the hash code of this mutant. The hash code is only computed once
+	 * and is cached until {@link #setFiles(String[])} is called. Since
+	 * {@link #getFiles()} returns a copy, modifying that array does not
+	 * change the mutant; only {@link #setFiles(String[])} does.
+	 * 
+	 * @return the hash code of the mutant files.
+	 * @since 1.0
+	 */
 	@Override
 	public int hashCode() {
-		final int prime = 31;
-		int result = 1;
-		result = prime * result + Arrays.hashCode(files);
+		int result = hash;
+		if (result == 0) {
+			final int prime = 31;
+			result = 1;
+			result = prime * result + Arrays.hashCode(files);
+			this.hash = result;
+		}
 		return result;
 	}
 
@@ -97,6 +122,8 @@ public class Mutant {
 		if (getClass() != obj.getClass())
 			return false;
 		Mutant other = (Mutant) obj;
+		if (hashCode() != other.hashCode())
+			return false;
 		if (!Arrays.equals(files, other.files))
 			return false;
 		return true;
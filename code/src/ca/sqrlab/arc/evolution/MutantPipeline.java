@@ -0,0 +1,302 @@
+package ca.sqrlab.arc.evolution;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import ca.sqrlab.arc.ARC;
+import ca.sqrlab.arc.io.FileUtils;
+import ca.sqrlab.arc.tools.ARCUtils;
+import ca.sqrlab.arc.tools.compilation.ProjectCompiler;
+import ca.sqrlab.arc.tools.monitoring.Logger;
+import ca.sqrlab.arc.tools.mutation.TXLMutation;
+
+/**
+ * The {@code MutantPipeline} class speculatively prepares the mutants of the
+ * next generation while the current generation is still being tested. When
+ * an individual has been tested and is likely to be a mutation candidate for
+ * the next generation, its mutants are generated through the
+ * {@link MutantSource} and compiled in a private scratch copy of the project.
+ * The results of the compilations are then used when the next generation is
+ * created, instead of compiling the mutants again.
+ * 
+ * <p>Speculative work is done on a single background thread, since testing
+ * already uses the processor. The work is stopped before the next generation
+ * is created, and the mutants of individuals which did not become candidates
+ * are discarded.
+ * 
+ * @author Devon McGrath
+ * @see ARC#SETTING_PIPELINED_GENERATIONS
+ * @since 1.0
+ */
+public class MutantPipeline {
+	
+	/** The name of the scratch project directory in the worker directory. */
+	public static final String SCRATCH_DIR_NAME = "pipeline";
+	
+	/** The current instance of ARC. */
+	private ARC arc;
+	
+	/** The source of the mutants to prepare. */
+	private MutantSource source;
+	
+	/** The mutants which were already generated, which are not compiled. */
+	private MutantRegistry registry;
+	
+	/** The path to the scratch project directory. */
+	private String scratchDir;
+	
+	/** The compiler for the scratch project directory. */
+	private ProjectCompiler compiler;
+	
+	/** The results of the speculative compilations, by mutant path. */
+	private Map<String, Boolean> compiled;
+	
+	/** The individuals which were speculated on since {@link #start()}. */
+	private Set<Individual> speculated;
+	
+	/** The individuals which mutants were speculatively generated for, whose
+	 * mutants are deleted if they are discarded. */
+	private Set<Individual> prepared;
+	
+	/** The executor which runs the speculative work. */
+	private ExecutorService executor;
+	
+	/** The flag set when the speculative work should stop. */
+	private AtomicBoolean stopped;
+	
+	/**
+	 * Creates a pipeline which prepares mutants from the specified source.
+	 * 
+	 * @param arc		the current instance of ARC.
+	 * @param source	the source of mutants.
+	 * @param registry	the registry of mutants which were already generated.
+	 * @since 1.0
+	 */
+	public MutantPipeline(ARC arc, MutantSource source,
+			MutantRegistry registry) {
+		this.arc = arc;
+		this.source = source;
+		this.registry = registry;
+		this.compiled = new ConcurrentHashMap<>();
+		this.speculated = ConcurrentHashMap.newKeySet();
+		this.prepared = ConcurrentHashMap.newKeySet();
+		this.stopped = new AtomicBoolean();
+	}
+	
+	/**
+	 * Creates the scratch project directory in {@link ARC#SETTING_WORKER_DIR}
+	 * by copying the ARC project directory.
+	 * 
+	 * @param l	the logger to keep track of events.
+	 * @return true if and only if the scratch directory was created.
+	 * @since 1.0
+	 */
+	public boolean initialize(Logger l) {
+		
+		if (l == null) {
+			l = new Logger();
+		} if (arc == null) {
+			l.fatalError("There is no reference to ARC.");
+			return false;
+		}
+		
+		// Copy the project
+		String ds = arc.getSetting(ARC.SETTING_DIR_SEPARATOR);
+		this.scratchDir = arc.getSetting(ARC.SETTING_WORKER_DIR) + ds +
+				SCRATCH_DIR_NAME;
+		File dir = new File(scratchDir);
+		if (!dir.isDirectory() && !dir.mkdirs()) {
+			l.fatalError("Unable to create the pipeline directory '" +
+					scratchDir + "'.");
+			return false;
+		}
+		if (!ARCUtils.copyProject(arc.getSetting(ARC.SETTING_PROJECT_DIR),
+				scratchDir, l)) {
+			return false;
+		}
+		if (!scratchDir.endsWith(ds)) {
+			this.scratchDir += ds;
+		}
+		this.compiler = ARCUtils.createCompiler(arc, scratchDir);
+		
+		return true;
+	}
+	
+	/**
+	 * Starts accepting speculative work. Any results from the previous
+	 * generation are cleared, so the individuals which survived into this
+	 * generation can be speculated on again.
+	 * 
+	 * @since 1.0
+	 */
+	public void start() {
+		stop();
+		compiled.clear();
+		speculated.clear();
+		stopped.set(false);
+		this.executor = Executors.newSingleThreadExecutor();
+	}
+	
+	/**
+	 * Speculatively generates and compiles the mutants of the specified
+	 * individual in the background. This method returns immediately.
+	 * 
+	 * @param individual	the individual which is likely to be mutated.
+	 * @since 1.0
+	 */
+	public void speculate(final Individual individual) {
+		if (individual == null || executor == null || stopped.get() ||
+				!speculated.add(individual)) {
+			return;
+		}
+		try {
+			executor.execute(new Runnable() {
+				@Override
+				public void run() {
+					prepare(individual);
+				}
+			});
+			prepared.add(individual);
+		} catch (Exception e) {
+			speculated.remove(individual);
+		}
+	}
+	
+	/**
+	 * Stops the speculative work and waits for the current step (i.e. a TXL
+	 * run or a compilation) to finish. The results of the work done so far
+	 * are kept until {@link #start()} is called again.
+	 * 
+	 * @since 1.0
+	 */
+	public void stop() {
+		stopped.set(true);
+		if (executor == null) {
+			return;
+		}
+		executor.shutdown();
+		try {
+			executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		this.executor = null;
+	}
+	
+	/**
+	 * Discards the speculative work for all the individuals which are not
+	 * mutation candidates. The mutants of these individuals are deleted.
+	 * 
+	 * @param candidates	the individuals which are mutation candidates.
+	 * @return the number of individuals whose mutants were discarded.
+	 * @since 1.0
+	 */
+	public int discard(Collection<Individual> candidates) {
+		List<Individual> unused = new ArrayList<>(prepared);
+		if (candidates != null) {
+			unused.removeAll(candidates);
+		}
+		for (Individual individual : unused) {
+			source.remove(individual);
+			prepared.remove(individual);
+			speculated.remove(individual);
+		}
+		return unused.size();
+	}
+	
+	/**
+	 * Gets the result of the speculative compilation of the program with the
+	 * specified mutant file.
+	 * 
+	 * @param mutantPath	the absolute path to the mutant file.
+	 * @return true if the program compiled, false if it did not, or null if
+	 * it was not compiled speculatively.
+	 * 
+	 * @since 1.0
+	 */
+	public Boolean getCompileResult(String mutantPath) {
+		return mutantPath == null? null : compiled.get(mutantPath);
+	}
+	
+	/**
+	 * Gets the number of mutant programs which were compiled speculatively
+	 * since the last call to {@link #start()}.
+	 * 
+	 * @return the number of compiled mutant programs.
+	 * @since 1.0
+	 */
+	public int getCompiledCount() {
+		return compiled.size();
+	}
+	
+	/**
+	 * Generates all the mutants of the specified individual and compiles
+	 * each mutant program in the scratch directory, until the pipeline is
+	 * stopped.
+	 * 
+	 * @param individual	the individual to mutate.
+	 */
+	private void prepare(Individual individual) {
+		
+		// Speculative failures should not stop the genetic algorithm
+		Logger l = new Logger();
+		String[] javaFiles = arc.getProject().getSourceFiles();
+		if (javaFiles == null || javaFiles.length == 0) {
+			return;
+		}
+		
+		// Generate the mutants for all the supported operators first, since
+		// TXL is needed for every candidate
+		List<String> roots = new ArrayList<>();
+		for (TXLMutation m : TXLMutation.getAllMutations()) {
+			if (stopped.get()) {
+				return;
+			} if (!source.supports(m)) {
+				continue;
+			}
+			String root = source.get(individual, m, l);
+			if (root != null) {
+				roots.add(root);
+			}
+		}
+		
+		// Compile the programs
+		String srcPath = individual.getPath();
+		for (String root : roots) {
+			List<File> files = FileUtils.find(root, ".*\\.java.*", true);
+			for (File mutant : files) {
+				if (stopped.get()) {
+					return;
+				}
+				
+				// Skip mutants which were already generated
+				String apath = mutant.getAbsolutePath();
+				if (compiled.containsKey(apath) || registry.contains(
+						individual.mutate(apath, javaFiles))) {
+					continue;
+				}
+				String relPath = MutantSource.getSourceFile(mutant, javaFiles);
+				if (relPath == null) {
+					continue;
+				}
+				
+				// Create the program and compile it
+				if (!ARCUtils.copyProjectSourceFiles(arc,
+						srcPath, scratchDir, null)) {
+					continue;
+				}
+				FileUtils.copy(apath, scratchDir + relPath, false);
+				compiled.put(apath, !compiler.compile().hasFatalError());
+			}
+		}
+	}
+}
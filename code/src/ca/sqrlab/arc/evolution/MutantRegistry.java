@@ -0,0 +1,87 @@
+package ca.sqrlab.arc.evolution;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@code MutantRegistry} class keeps track of all the mutant
+ * representations which have already been generated. The representations
+ * are stored in a hash set, so checking if a mutant was already generated
+ * does not depend on the number of mutants. The registry can be safely
+ * queried and updated by multiple threads.
+ * 
+ * @author Devon McGrath
+ * @see Mutant
+ * @since 1.0
+ */
+public class MutantRegistry {
+	
+	/** The mutants which have been registered. */
+	private Set<Mutant> mutants;
+	
+	/**
+	 * Creates an empty registry.
+	 * 
+	 * @since 1.0
+	 */
+	public MutantRegistry() {
+		this.mutants = ConcurrentHashMap.newKeySet();
+	}
+	
+	/**
+	 * Checks if the specified mutant representation has already been
+	 * registered.
+	 * 
+	 * @param mutant	the mutant representation.
+	 * @return true if and only if the mutant is in the registry.
+	 * 
+	 * @see #add(Mutant)
+	 * @since 1.0
+	 */
+	public boolean contains(Mutant mutant) {
+		if (mutant == null) {
+			return false;
+		}
+		return mutants.contains(mutant);
+	}
+	
+	/**
+	 * Registers the specified mutant representation. If multiple threads add
+	 * the same representation, only one of them will succeed.
+	 * 
+	 * @param mutant	the mutant representation.
+	 * @return true if the mutant was added or false if it was already in the
+	 * registry.
+	 * 
+	 * @see #contains(Mutant)
+	 * @since 1.0
+	 */
+	public boolean add(Mutant mutant) {
+		if (mutant == null) {
+			return false;
+		}
+		return mutants.add(mutant);
+	}
+	
+	/**
+	 * Gets the number of mutants in the registry.
+	 * 
+	 * @return the number of mutants.
+	 * @since 1.0
+	 */
+	public int size() {
+		return mutants.size();
+	}
+	
+	/**
+	 * Gets a copy of all the mutants in the registry, in no particular order.
+	 * 
+	 * @return the list of mutants.
+	 * @since 1.0
+	 */
+	public List<Mutant> getMutants() {
+		return new ArrayList<>(mutants);
+	}
+}
@@ -0,0 +1,425 @@
+package ca.sqrlab.arc.evolution;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import ca.sqrlab.arc.ARC;
+import ca.sqrlab.arc.io.FileUtils;
+import ca.sqrlab.arc.io.ProcessResult;
+import ca.sqrlab.arc.java.StaticAnalyzer;
+import ca.sqrlab.arc.tools.monitoring.Logger;
+import ca.sqrlab.arc.tools.mutation.TXLMutation;
+
+/**
+ * The {@code MutantSource} class creates the mutants of individuals lazily.
+ * The mutants of an individual for a specific mutation operator are only
+ * generated (by running TXL on each of the individual's source files) the
+ * first time they are requested. If multiple threads request the same
+ * mutants at once, TXL is only run once and all the threads wait for it to
+ * finish.
+ * 
+ * <p>The mutants are placed in
+ * {@code <mutant_dir>/<generation>/<id>/<operator>}, with the same relative
+ * paths as the source files of the individual.
+ * 
+ * @author Devon McGrath
+ * @see ARCGeneticAlgorithm
+ * @since 1.0
+ */
+public class MutantSource {
+	
+	/** The default maximum number of targeted invocations of an operator on
+	 * each source file. */
+	public static final int DEFAULT_MAX_TARGETS = 16;
+	
+	/** The current instance of ARC. */
+	private ARC arc;
+	
+	/** The tasks which generate the mutants, by individual and operator. */
+	private Map<String, FutureTask<String>> tasks;
+	
+	/** The number of times TXL mutants were generated for an individual and
+	 * operator. */
+	private AtomicInteger generated;
+	
+	/** The relative paths of the source files to mutate, or null to mutate
+	 * every project source file. */
+	private volatile String[] targetFiles;
+	
+	/** The flag indicating if static analysis supplies the arguments of the
+	 * operators. */
+	private boolean staticAnalysis;
+	
+	/** The maximum number of targeted invocations of an operator on each
+	 * source file. */
+	private int maxTargets;
+	
+	/**
+	 * Creates a mutant source which uses the settings from ARC.
+	 * 
+	 * @param arc	the current instance of ARC.
+	 * @since 1.0
+	 */
+	public MutantSource(ARC arc) {
+		this.arc = arc;
+		this.tasks = new ConcurrentHashMap<>();
+		this.generated = new AtomicInteger();
+		this.staticAnalysis = arc != null &&
+				arc.isEnabled(ARC.SETTING_STATIC_ANALYSIS);
+		this.maxTargets = DEFAULT_MAX_TARGETS;
+		String max = arc == null? null :
+			arc.getSetting(ARC.SETTING_STATIC_ANALYSIS_TARGETS);
+		try {
+			if (max != null && !max.trim().isEmpty()) {
+				this.maxTargets = Integer.parseInt(max.trim());
+			}
+		} catch (NumberFormatException e) {}
+	}
+	
+	/**
+	 * Gets the directory containing the mutants of the individual for the
+	 * specified mutation operator. If the mutants have not been generated
+	 * yet, they are generated before this method returns.
+	 * 
+	 * @param individual	the individual to mutate.
+	 * @param mutation		the mutation to apply to the individual.
+	 * @param l				the logger to keep track of the mutation process.
+	 * @return the root directory where all the mutants are located or null if
+	 * the mutants could not be generated.
+	 * 
+	 * @since 1.0
+	 */
+	public String get(final Individual individual,
+			final TXLMutation mutation, final Logger l) {
+		
+		// Arguments check
+		if (individual == null || mutation == null) {
+			return null;
+		}
+		
+		// Get the task which generates the mutants
+		String key = individual.getGeneration() + ":" + individual.getId() +
+				":" + mutation.getMutationFile();
+		FutureTask<String> task = tasks.get(key);
+		if (task == null) {
+			FutureTask<String> newTask = new FutureTask<>(
+					new Callable<String>() {
+				@Override
+				public String call() throws Exception {
+					return mutate(individual, mutation, l);
+				}
+			});
+			task = tasks.putIfAbsent(key, newTask);
+			if (task == null) {
+				task = newTask;
+				task.run();
+			}
+		}
+		
+		// Wait for the mutants
+		String root = null;
+		try {
+			root = task.get();
+		} catch (Exception e) {
+			e.printStackTrace();
+		}
+		
+		// Allow the mutants to be generated again if they failed
+		if (root == null) {
+			tasks.remove(key, task);
+		}
+		
+		return root;
+	}
+	
+	/**
+	 * Discards all the mutants of the specified individual, including the
+	 * mutants on disk. If the mutants of the individual are requested again,
+	 * they are generated again.
+	 * 
+	 * @param individual	the individual to discard the mutants of.
+	 * @since 1.0
+	 */
+	public void remove(Individual individual) {
+		if (individual == null) {
+			return;
+		}
+		
+		// Forget the generated mutants
+		String prefix = individual.getGeneration() + ":" +
+				individual.getId() + ":";
+		for (String key : tasks.keySet()) {
+			if (key.startsWith(prefix)) {
+				tasks.remove(key);
+			}
+		}
+		
+		// Delete the mutants
+		String ds = arc.getSetting(ARC.SETTING_DIR_SEPARATOR);
+		FileUtils.remove(arc.getSetting(ARC.SETTING_MUTANT_DIR) + ds +
+				individual.getGeneration() + ds + individual.getId());
+	}
+	
+	/**
+	 * Checks if the mutants of the individual for the specified mutation
+	 * operator have been requested.
+	 * 
+	 * @param individual	the individual.
+	 * @param mutation		the mutation operator.
+	 * @return true if the mutants have been (or are being) generated.
+	 * @since 1.0
+	 */
+	public boolean isRequested(Individual individual, TXLMutation mutation) {
+		if (individual == null || mutation == null) {
+			return false;
+		}
+		return tasks.containsKey(individual.getGeneration() + ":" +
+				individual.getId() + ":" + mutation.getMutationFile());
+	}
+	
+	/**
+	 * Sets the source files which are mutated when mutants are generated
+	 * from now on. Mutants which were already generated are not affected.
+	 * 
+	 * @param targetFiles	the relative paths of the files to mutate, or null
+	 * 						to mutate every project source file.
+	 * @see FaultLocalizer#getFilesToMutate(int)
+	 * @since 1.0
+	 */
+	public void setTargetFiles(String[] targetFiles) {
+		this.targetFiles = targetFiles;
+	}
+	
+	/**
+	 * Gets the source files which are mutated when mutants are generated.
+	 * 
+	 * @return the relative paths of the files to mutate, or null if every
+	 * project source file is mutated.
+	 * @since 1.0
+	 */
+	public String[] getTargetFiles() {
+		return targetFiles;
+	}
+	
+	/**
+	 * Checks if static analysis supplies the arguments of the operators.
+	 * 
+	 * @return true if the operators are targeted using static analysis.
+	 * @see StaticAnalyzer
+	 * @since 1.0
+	 */
+	public boolean isAnalyzing() {
+		return staticAnalysis;
+	}
+	
+	/**
+	 * Checks if the mutants of the specified operator can be generated. The
+	 * targeted operators can only be used with static analysis.
+	 * 
+	 * @param mutation	the mutation operator.
+	 * @return true if the operator can be used.
+	 * @see TXLMutation#isTargeted()
+	 * @since 1.0
+	 */
+	public boolean supports(TXLMutation mutation) {
+		return mutation != null && (staticAnalysis || !mutation.isTargeted());
+	}
+	
+	/**
+	 * Gets the number of times TXL was used to generate the mutants of an
+	 * individual for a mutation operator.
+	 * 
+	 * @return the number of mutant sets generated.
+	 * @since 1.0
+	 */
+	public int getGeneratedCount() {
+		return generated.get();
+	}
+	
+	/**
+	 * Determines which of the project source files the mutant file is a
+	 * mutation of. TXL names the mutants after the file it mutated (e.g.
+	 * {@code Main.java_3.java} is a mutant of {@code Main.java}).
+	 * 
+	 * @param mutant	the mutant file.
+	 * @param javaFiles	the relative paths of the project source files.
+	 * @return the relative path of the mutated source file or null if it
+	 * could not be determined.
+	 * 
+	 * @since 1.0
+	 */
+	public static String getSourceFile(File mutant, String[] javaFiles) {
+		if (mutant == null || javaFiles == null) {
+			return null;
+		}
+		String mname = mutant.getName();
+		for (String jf : javaFiles) {
+			if (jf == null || jf.isEmpty()) {
+				continue;
+			}
+			String name = (new File(jf)).getName();
+			if (mname.contains(name)) {
+				return jf;
+			}
+		}
+		return null;
+	}
+	
+	/**
+	 * Creates the mutants of the specified individual using the specified
+	 * mutation operator. If this individual was already mutated using the
+	 * specified operator, this method does nothing. This method waits for
+	 * TXL to finish mutating each file.
+	 * 
+	 * <p>With static analysis, the operator is invoked once for each target
+	 * found in a file (see {@link StaticAnalyzer}). The mutants of the first
+	 * invocation are placed in the root directory, and the mutants of
+	 * invocation {@code k} in the {@code t<k>} subdirectory, so the
+	 * invocations do not overwrite each other's mutants.
+	 * 
+	 * @param individual	the individual to mutate.
+	 * @param mutation		the mutation to apply to the individual.
+	 * @param l				the logger to keep track of the mutation process.
+	 * @return a string to the root directory where all the mutants are located.
+	 * 
+	 * @since 1.0
+	 */
+	private String mutate(Individual individual, TXLMutation mutation,
+			Logger l) {
+		
+		if (l == null) {
+			l = new Logger();
+		}
+		
+		// Make sure there are actually files to mutate
+		String[] javaFiles = targetFiles;
+		if (javaFiles == null) {
+			javaFiles = arc.getProject().getSourceFiles();
+		}
+		if (javaFiles == null || javaFiles.length == 0) {
+			l.fatalError("No Java files to mutate in the project!");
+			return null;
+		}
+		
+		// Make sure the individual's directory actually exists
+		String individualRoot = individual.getPath();
+		if (individualRoot == null || !(new File(individualRoot)).isDirectory()) {
+			l.fatalError("The individual's specified directory does not exist: '"
+					+ individualRoot + "'.");
+			return null;
+		}
+		
+		// Get the TXL arguments
+		String txlProg = arc.getSetting(ARC.SETTING_TXL);
+		String operatorDir = arc.getSetting(ARC.SETTING_TXL_DIR);
+		
+		// Build the directory path for the mutant
+		// i.e.: <mutant_dir>/<generation>/<id>/<operator>
+		String ds = arc.getSetting(ARC.SETTING_DIR_SEPARATOR);
+		String root = arc.getSetting(ARC.SETTING_MUTANT_DIR) + ds +
+				individual.getGeneration() + ds + individual.getId() +
+				ds + mutation.getMutationFile() + ds;
+		
+		// Check if this type of mutation has been run on this individual
+		File dir = new File(root);
+		if (dir.exists()) {
+			return root;
+		}
+		
+		// Create the root directory
+		if (!dir.mkdirs()) {
+			l.fatalError("Unable to create directory for mutation (path: '"
+					+ root + "').");
+			return null;
+		}
+		
+		// Mutate all the files using the mutation operator
+		if (!individualRoot.endsWith(ds)) {
+			individualRoot += ds;
+		}
+		generated.incrementAndGet();
+		for (String jf : javaFiles) {
+			
+			// Get the absolute path to the source file
+			String fullSrcPath = individualRoot + jf;
+			File src = new File(fullSrcPath);
+			if (!src.isFile()) {
+				l.warning("Unable to find source file: '" + fullSrcPath + "'.");
+				continue;
+			}
+			
+			// Get the argument values of each invocation on the file
+			List<String[]> invocations = getArguments(mutation, fullSrcPath);
+			for (int k = 0; k < invocations.size(); k ++) {
+				
+				// Create the parent directory, if required
+				String fullDstPath = (k == 0? root : root + "t" + k + ds) + jf;
+				File dstDir = (new File(fullDstPath)).getParentFile();
+				if (!dstDir.isDirectory() && !dstDir.mkdirs()) {
+					l.fatalError("Failed to make mutant output directory: '" +
+							dstDir.getAbsolutePath() + "'.");
+					return null;
+				}
+				
+				// Run TXL with the mutation operator and wait for it to finish
+				String cmd = mutation.getCommand(txlProg, operatorDir,
+						fullSrcPath, src.getName(), dstDir.getAbsolutePath(),
+						invocations.get(k));
+				try {
+					Process p = Runtime.getRuntime().exec(cmd);
+					new ProcessResult(p).readStreams();
+					p.waitFor();
+				} catch (Exception e) {
+					e.printStackTrace();
+					l.fatalError("Failed to mutate '" + jf +
+							"' using the TXL mutation operator: " + mutation + "");
+					l.fatalError(e.getLocalizedMessage());
+					return null;
+				}
+			}
+		}
+		
+		return root;
+	}
+	
+	/**
+	 * Gets the argument values of each invocation of the operator on the
+	 * source file. Without static analysis, there is a single invocation
+	 * which synchronizes on {@code this}, and the targeted operators are
+	 * not invoked at all.
+	 * 
+	 * @param mutation	the mutation operator.
+	 * @param path		the absolute path to the source file.
+	 * @return the argument values of each invocation.
+	 */
+	private List<String[]> getArguments(TXLMutation mutation, String path) {
+		
+		// Use the targets found in the file
+		if (staticAnalysis) {
+			return StaticAnalyzer.analyze(path).getArguments(
+					mutation, maxTargets);
+		}
+		
+		List<String[]> invocations = new ArrayList<>();
+		if (mutation.isTargeted()) {
+			return invocations;
+		}
+		String[] args = mutation.getArguments();
+		int n = (args == null)? 0 : args.length;
+		String[] argValues = new String[n];
+		for (int i = 0; i < n; i ++) {
+			String arg = args[i];
+			argValues[i] = TXLMutation.ARG_SYNC_VAR.equals(arg)?
+					StaticAnalyzer.THIS : "";
+		}
+		invocations.add(argValues);
+		
+		return invocations;
+	}
+}
@@ -0,0 +1,220 @@
+package ca.sqrlab.arc.evolution;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import ca.sqrlab.arc.ARC;
+import ca.sqrlab.arc.tools.mutation.TXLMutation;
+
+/**
+ * The {@code OperatorBandit} class chooses which mutation operator to try
+ * next using the UCB1 multi-armed bandit policy. Each operator is an arm,
+ * and the reward of an operator is estimated from the statistics collected
+ * during the current run: the fraction of its mutants which compiled and
+ * the fraction of its tested mutants which scored better than the
+ * individual they were created from. Operators which never help for the
+ * project are tried less and less often, which saves the time spent
+ * generating, compiling and testing their mutants. The arms offered on
+ * each selection are only the operators which fix the bug type chosen for
+ * the individual being mutated.
+ * 
+ * @author Devon McGrath
+ * @see ARC#SETTING_OPERATOR_SELECTION
+ * @since 1.0
+ */
+public class OperatorBandit {
+	
+	/** The name used to select this operator selection policy. */
+	public static final String NAME = "bandit";
+	
+	/**
+	 * The {@code Arm} class holds the statistics of a single operator.
+	 */
+	private static class Arm {
+		
+		/** The number of mutants of the operator which were compiled. */
+		private int attempts;
+		
+		/** The number of mutants of the operator which compiled. */
+		private int compiled;
+		
+		/** The number of mutants of the operator which were tested. */
+		private int tested;
+		
+		/** The number of tested mutants which were better than their
+		 * source. */
+		private int improved;
+	}
+	
+	/** The statistics of each operator. */
+	private Map<TXLMutation, Arm> arms;
+	
+	/** The total number of mutants which were compiled. */
+	private int attempts;
+	
+	/**
+	 * Creates a bandit without any statistics.
+	 * 
+	 * @since 1.0
+	 */
+	public OperatorBandit() {
+		this.arms = new HashMap<>();
+	}
+	
+	/**
+	 * Chooses the operator to try next, from the specified operators. Each
+	 * operator is tried at least once before the statistics are used.
+	 * 
+	 * @param operators	the operators which can be chosen.
+	 * @param random	the random number generator used to break ties.
+	 * @return the chosen operator or null if there are no operators.
+	 * @since 1.0
+	 */
+	public synchronized TXLMutation select(List<TXLMutation> operators,
+			Random random) {
+		
+		if (operators == null || operators.isEmpty()) {
+			return null;
+		}
+		
+		// Find the operator with the highest upper confidence bound
+		TXLMutation best = null;
+		double bestValue = Double.NEGATIVE_INFINITY;
+		int ties = 0;
+		for (TXLMutation m : operators) {
+			double value = getUpperBound(m);
+			if (value > bestValue) {
+				best = m;
+				bestValue = value;
+				ties = 1;
+			} else if (value == bestValue && random.nextInt(++ ties) == 0) {
+				best = m;
+			}
+		}
+		
+		return best;
+	}
+	
+	/**
+	 * Records whether a mutant of the operator compiled.
+	 * 
+	 * @param mutation	the operator which created the mutant.
+	 * @param compiled	true if the mutant compiled.
+	 * @since 1.0
+	 */
+	public synchronized void recordCompile(TXLMutation mutation,
+			boolean compiled) {
+		if (mutation == null) {
+			return;
+		}
+		Arm arm = getArm(mutation);
+		arm.attempts ++;
+		if (compiled) {
+			arm.compiled ++;
+		}
+		this.attempts ++;
+	}
+	
+	/**
+	 * Records that the operator was tried but produced no new mutants to
+	 * compile, which counts as a mutant which did not compile. Otherwise an
+	 * operator which never produces a new mutant would never have an attempt
+	 * recorded, so it would keep being chosen first.
+	 * 
+	 * @param mutation	the operator which was tried.
+	 * @since 1.0
+	 */
+	public synchronized void recordNoMutants(TXLMutation mutation) {
+		recordCompile(mutation, false);
+	}
+	
+	/**
+	 * Records the result of testing the specified individual, if it was
+	 * created by a mutation operator from a tested individual.
+	 * 
+	 * @param individual	the tested individual.
+	 * @return true if and only if the result was recorded.
+	 * @since 1.0
+	 */
+	public synchronized boolean recordResult(Individual individual) {
+		if (individual == null || !individual.hasBeenTested() ||
+				individual.getMutation() == null) {
+			return false;
+		}
+		Individual source = individual.getSource();
+		if (source == null || !source.hasBeenTested()) {
+			return false;
+		}
+		Arm arm = getArm(individual.getMutation());
+		arm.tested ++;
+		if (individual.getScore() > source.getScore()) {
+			arm.improved ++;
+		}
+		return true;
+	}
+	
+	/**
+	 * Gets the estimated reward of the operator, which is the rate its
+	 * mutants compile multiplied by the rate they improve on their source.
+	 * The improvement rate starts at one half and is updated as mutants of
+	 * the operator are tested.
+	 * 
+	 * @param mutation	the operator.
+	 * @return the estimated reward, between 0 and 1.
+	 * @since 1.0
+	 */
+	public synchronized double getReward(TXLMutation mutation) {
+		Arm arm = arms.get(mutation);
+		if (arm == null || arm.attempts == 0) {
+			return 0;
+		}
+		double compileRate = (double) arm.compiled / arm.attempts;
+		double improveRate = (arm.improved + 0.5) / (arm.tested + 1);
+		return compileRate * improveRate;
+	}
+	
+	/**
+	 * Gets the UCB1 upper confidence bound of the reward of the operator.
+	 * 
+	 * @param mutation	the operator.
+	 * @return the upper bound or {@link Double#POSITIVE_INFINITY} if the
+	 * operator was never tried.
+	 */
+	private double getUpperBound(TXLMutation mutation) {
+		Arm arm = arms.get(mutation);
+		if (arm == null || arm.attempts == 0) {
+			return Double.POSITIVE_INFINITY;
+		}
+		return getReward(mutation) +
+				Math.sqrt(2 * Math.log(attempts) / arm.attempts);
+	}
+	
+	/**
+	 * Gets the statistics of the operator, creating them if needed.
+	 * 
+	 * @param mutation	the operator.
+	 * @return the statistics.
+	 */
+	private Arm getArm(TXLMutation mutation) {
+		Arm arm = arms.get(mutation);
+		if (arm == null) {
+			arm = new Arm();
+			arms.put(mutation, arm);
+		}
+		return arm;
+	}
+	
+	@Override
+	public synchronized String toString() {
+		String out = "";
+		for (Map.Entry<TXLMutation, Arm> e : arms.entrySet()) {
+			Arm arm = e.getValue();
+			out += e.getKey().getMutationName() + ": " + arm.compiled + "/" +
+					arm.attempts + " compiled, " + arm.improved + "/" +
+					arm.tested + " improved; ";
+		}
+		return getClass().getSimpleName() + "[" + out.trim() + "]";
+	}
+}
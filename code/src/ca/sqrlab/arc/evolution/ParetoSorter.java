@@ -0,0 +1,133 @@
+package ca.sqrlab.arc.evolution;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@code ParetoSorter} class sorts individuals using non-dominated
+ * sorting. An individual dominates another if it is at least as good for
+ * every objective of the fitness function and better for at least one. The
+ * individuals which are not dominated by any other individual form the first
+ * front, the individuals only dominated by the first front form the second
+ * front, and so on. Individuals in the same front are ordered by their
+ * objectives, in order.
+ * 
+ * @author Devon McGrath
+ * @see FitnessFunction
+ * @since 1.0
+ */
+public class ParetoSorter {
+	
+	/** The fitness function which gives the objectives of individuals. */
+	private FitnessFunction fitness;
+	
+	/**
+	 * Creates a sorter which uses the objectives of the fitness function.
+	 * 
+	 * @param fitness	the fitness function.
+	 * @since 1.0
+	 */
+	public ParetoSorter(FitnessFunction fitness) {
+		this.fitness = fitness;
+	}
+	
+	/**
+	 * Sorts the individuals from the best front to the worst.
+	 * 
+	 * @param individuals	the tested individuals to sort.
+	 * @param original		the tested original program.
+	 * @since 1.0
+	 */
+	public void sort(List<Individual> individuals, Individual original) {
+		
+		int n = individuals == null? 0 : individuals.size();
+		if (n < 2) {
+			return;
+		}
+		
+		// Get the objectives of each individual
+		final Map<Individual, double[]> objectives = new HashMap<>();
+		List<double[]> values = new ArrayList<>();
+		for (Individual individual : individuals) {
+			double[] o = fitness.getObjectives(individual, original);
+			objectives.put(individual, o);
+			values.add(o);
+		}
+		
+		// Count how many individuals dominate each individual
+		int[] dominatedBy = new int[n];
+		List<List<Integer>> dominates = new ArrayList<>();
+		for (int i = 0; i < n; i ++) {
+			dominates.add(new ArrayList<Integer>());
+		}
+		for (int i = 0; i < n; i ++) {
+			for (int j = i + 1; j < n; j ++) {
+				if (dominates(values.get(i), values.get(j))) {
+					dominates.get(i).add(j);
+					dominatedBy[j] ++;
+				} else if (dominates(values.get(j), values.get(i))) {
+					dominates.get(j).add(i);
+					dominatedBy[i] ++;
+				}
+			}
+		}
+		
+		// Peel off the fronts
+		final Map<Individual, Integer> ranks = new HashMap<>();
+		List<Integer> front = new ArrayList<>();
+		for (int i = 0; i < n; i ++) {
+			if (dominatedBy[i] == 0) {
+				front.add(i);
+			}
+		}
+		for (int rank = 0; !front.isEmpty(); rank ++) {
+			List<Integer> next = new ArrayList<>();
+			for (int i : front) {
+				ranks.put(individuals.get(i), rank);
+				for (int j : dominates.get(i)) {
+					if (-- dominatedBy[j] == 0) {
+						next.add(j);
+					}
+				}
+			}
+			front = next;
+		}
+		
+		// Sort by front, then by the objectives
+		Collections.sort(individuals, new Comparator<Individual>() {
+			@Override
+			public int compare(Individual a, Individual b) {
+				int c = Integer.compare(ranks.get(a), ranks.get(b));
+				double[] oa = objectives.get(a), ob = objectives.get(b);
+				for (int i = 0; c == 0 && i < oa.length; i ++) {
+					c = Double.compare(ob[i], oa[i]);
+				}
+				return c;
+			}
+		});
+	}
+	
+	/**
+	 * Checks if the first objectives dominate the second.
+	 * 
+	 * @param a	the first objectives.
+	 * @param b	the second objectives.
+	 * @return true if the first objectives are at least as good for every
+	 * objective and better for at least one.
+	 */
+	private static boolean dominates(double[] a, double[] b) {
+		boolean better = false;
+		for (int i = 0; i < a.length; i ++) {
+			if (a[i] < b[i]) {
+				return false;
+			} else if (a[i] > b[i]) {
+				better = true;
+			}
+		}
+		return better;
+	}
+}
@@ -0,0 +1,58 @@
+package ca.sqrlab.arc.evolution;
+
+import ca.sqrlab.arc.tools.testing.TestResult;
+import ca.sqrlab.arc.tools.testing.TestingSummary;
+
+/**
+ * The {@code PerformanceFitness} class is a fitness function which prefers
+ * repairs that keep the program fast. In addition to the correctness of the
+ * individual, it uses the mean and 95th percentile of the test-suite
+ * execution time ({@link TestResult#getProgramTimeMillis()}), relative to the
+ * original program. A relative time objective is the original time divided
+ * by the time of the individual, so an individual which takes twice as long
+ * as the original program has a value of 0.5.
+ * 
+ * @author Devon McGrath
+ * @since 1.0
+ */
+public class PerformanceFitness implements FitnessFunction {
+	
+	/** The name used to select this fitness function. */
+	public static final String NAME = "performance";
+	
+	/** The percentile of the execution time used as the tail latency. */
+	public static final double TAIL_PERCENTILE = 95;
+	
+	@Override
+	public double[] getObjectives(Individual individual, Individual original) {
+		TestingSummary s = individual.getTestSummary();
+		TestingSummary os = original == null? null : original.getTestSummary();
+		if (s == null || os == null) {
+			return new double[] {individual.getScore(), 0, 0};
+		}
+		return new double[] {individual.getScore(),
+				relative(os.getAverageTime(), s.getAverageTime()),
+				relative(os.getPercentileTime(TAIL_PERCENTILE),
+						s.getPercentileTime(TAIL_PERCENTILE))};
+	}
+	
+	@Override
+	public int getObjectiveCount() {
+		return 3;
+	}
+	
+	/**
+	 * Gets the time of the original program relative to the time of an
+	 * individual.
+	 * 
+	 * @param original	the time of the original program.
+	 * @param time		the time of the individual.
+	 * @return the relative time, where higher is faster.
+	 */
+	private static double relative(long original, long time) {
+		if (original <= 0 || time <= 0) {
+			return 1;
+		}
+		return (double) original / time;
+	}
+}
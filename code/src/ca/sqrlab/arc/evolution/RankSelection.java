@@ -0,0 +1,31 @@
+package ca.sqrlab.arc.evolution;
+
+import java.util.Random;
+
+/**
+ * The {@code RankSelection} class chooses a candidate with a probability
+ * which decreases linearly with its rank. The best candidate is chosen
+ * {@link #PRESSURE} times more often than the average candidate, and the
+ * worst candidate {@code 2 - PRESSURE} times as often.
+ * 
+ * @author Devon McGrath
+ * @since 1.0
+ */
+public class RankSelection implements SelectionStrategy {
+	
+	/** The name used to select this strategy. */
+	public static final String NAME = "rank";
+	
+	/** The selection pressure, which is between 1 (uniform) and 2. */
+	public static final double PRESSURE = 1.5;
+	
+	@Override
+	public int select(int count, int index, Random random) {
+		
+		// Invert the cumulative distribution of the linear ranking
+		double u = random.nextDouble(), s = PRESSURE;
+		double x = (s - Math.sqrt(s * s - 4 * (s - 1) * u)) / (2 * (s - 1));
+		
+		return Math.min(count - 1, (int) (x * count));
+	}
+}
@@ -0,0 +1,448 @@
+package ca.sqrlab.arc.evolution;
+
+import java.util.AbstractList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * The {@code RankingIndex} class keeps the tested individuals of every
+ * generation ordered by their fitness score, so the candidates for mutation
+ * can be found without scanning and sorting every generation again. The
+ * score of an individual is computed once, when it is added, so an
+ * individual should only be added once its testing (including any
+ * validation) is complete.
+ * 
+ * <p>The individuals are kept in a treap (a randomized binary search tree)
+ * where each node knows the size of its subtree. Adding and removing an
+ * individual, getting the individual at a rank and counting the individuals
+ * better than a score all take O(log n) expected time. Individuals with the
+ * same score are ordered from the most recently added to the least recently
+ * added.
+ * 
+ * @author Devon McGrath
+ * @see SelectionStrategy
+ * @since 1.0
+ */
+public class RankingIndex {
+	
+	/**
+	 * The {@code Entry} class is an individual along with its cached score.
+	 */
+	private static class Entry {
+		
+		/** The ranked individual. */
+		private Individual individual;
+		
+		/** The score of the individual when it was added. */
+		private float score;
+		
+		/** The order the individual was added in. */
+		private long sequence;
+		
+		/**
+		 * Creates an entry.
+		 * 
+		 * @param individual	the ranked individual.
+		 * @param sequence		the order the individual was added in.
+		 */
+		private Entry(Individual individual, long sequence) {
+			this.individual = individual;
+			this.score = individual.getScore();
+			this.sequence = sequence;
+		}
+	}
+	
+	/**
+	 * The {@code Node} class is a node of the treap.
+	 */
+	private static class Node {
+		
+		/** The entry of the node. */
+		private Entry entry;
+		
+		/** The random heap priority of the node. */
+		private int priority;
+		
+		/** The number of nodes in the subtree of this node. */
+		private int size;
+		
+		/** The subtree of the better entries. */
+		private Node left;
+		
+		/** The subtree of the worse entries. */
+		private Node right;
+		
+		/**
+		 * Creates a node without any children.
+		 * 
+		 * @param entry		the entry of the node.
+		 * @param priority	the random heap priority of the node.
+		 */
+		private Node(Entry entry, int priority) {
+			this.entry = entry;
+			this.priority = priority;
+			this.size = 1;
+		}
+	}
+	
+	/** The order of the entries, from the best score to the worst. */
+	private static final Comparator<Entry> ORDER = new Comparator<Entry>() {
+		@Override
+		public int compare(Entry a, Entry b) {
+			int c = Float.compare(b.score, a.score);
+			return c != 0? c : Long.compare(b.sequence, a.sequence);
+		}
+	};
+	
+	/** The root of the treap, or null if the index is empty. */
+	private Node root;
+	
+	/** The entry of each individual in the index. */
+	private Map<Individual, Entry> entryOf;
+	
+	/** The sequence number of the next individual added. */
+	private long next;
+	
+	/** The random number generator of the node priorities, which only
+	 * affects the shape of the treap. */
+	private Random random;
+	
+	/**
+	 * Creates an empty ranking index.
+	 * 
+	 * @since 1.0
+	 */
+	public RankingIndex() {
+		this.entryOf = new HashMap<>();
+		this.random = new Random(0);
+	}
+	
+	/**
+	 * Adds the tested individual to the index. If the individual is already
+	 * in the index, it is ranked again using its current score.
+	 * 
+	 * @param individual	the individual to add.
+	 * @return true if and only if the individual was added.
+	 * @since 1.0
+	 */
+	public synchronized boolean add(Individual individual) {
+		if (individual == null || !individual.hasBeenTested()) {
+			return false;
+		}
+		remove(individual);
+		Entry e = new Entry(individual, next ++);
+		this.root = insert(root, new Node(e, random.nextInt()));
+		entryOf.put(individual, e);
+		return true;
+	}
+	
+	/**
+	 * Removes the individual from the index.
+	 * 
+	 * @param individual	the individual to remove.
+	 * @return true if and only if the individual was in the index.
+	 * @since 1.0
+	 */
+	public synchronized boolean remove(Individual individual) {
+		Entry e = individual == null? null : entryOf.remove(individual);
+		if (e == null) {
+			return false;
+		}
+		this.root = delete(root, e);
+		return true;
+	}
+	
+	/**
+	 * Gets the individual at the specified rank.
+	 * 
+	 * @param rank	the rank, from 0 (the best) to {@link #size()} - 1.
+	 * @return the individual.
+	 * @throws IndexOutOfBoundsException if the rank is not in the index.
+	 * @since 1.0
+	 */
+	public synchronized Individual get(int rank) {
+		if (rank < 0 || rank >= size(root)) {
+			throw new IndexOutOfBoundsException("Rank: " + rank +
+					", size: " + size(root));
+		}
+		Node t = root;
+		while (true) {
+			int before = size(t.left);
+			if (rank < before) {
+				t = t.left;
+			} else if (rank > before) {
+				rank -= before + 1;
+				t = t.right;
+			} else {
+				return t.entry.individual;
+			}
+		}
+	}
+	
+	/**
+	 * Gets the rank of the individual.
+	 * 
+	 * @param individual	the individual.
+	 * @return the rank, from 0 (the best), or -1 if the individual is not in
+	 * the index.
+	 * @since 1.0
+	 */
+	public synchronized int getRank(Individual individual) {
+		Entry e = individual == null? null : entryOf.get(individual);
+		if (e == null) {
+			return -1;
+		}
+		int rank = 0;
+		Node t = root;
+		while (t != null) {
+			int c = ORDER.compare(e, t.entry);
+			if (c < 0) {
+				t = t.left;
+			} else if (c > 0) {
+				rank += size(t.left) + 1;
+				t = t.right;
+			} else {
+				return rank + size(t.left);
+			}
+		}
+		return -1;
+	}
+	
+	/**
+	 * Counts the individuals with a score better than the specified score.
+	 * They are the individuals with the ranks 0 to the count - 1.
+	 * 
+	 * @param score	the score the individuals need to be better than.
+	 * @return the number of individuals.
+	 * @since 1.0
+	 */
+	public synchronized int countBetter(float score) {
+		int count = 0;
+		Node t = root;
+		while (t != null) {
+			if (t.entry.score > score) {
+				count += size(t.left) + 1;
+				t = t.right;
+			} else {
+				t = t.left;
+			}
+		}
+		return count;
+	}
+	
+	/**
+	 * Counts the individuals with a score better than or the same as the
+	 * specified score. They are the individuals with the ranks 0 to the
+	 * count - 1.
+	 * 
+	 * @param score	the score the individuals need to be at least.
+	 * @return the number of individuals.
+	 * @since 1.0
+	 */
+	public synchronized int countBetterOrSame(float score) {
+		int count = 0;
+		Node t = root;
+		while (t != null) {
+			if (t.entry.score >= score) {
+				count += size(t.left) + 1;
+				t = t.right;
+			} else {
+				t = t.left;
+			}
+		}
+		return count;
+	}
+	
+	/**
+	 * Gets a read-only view of the best individuals in the index, from best
+	 * to worst. The individuals are not copied, so the view reflects any
+	 * later changes to the index and each individual is found in O(log n)
+	 * time.
+	 * 
+	 * @param count	the maximum number of individuals in the view.
+	 * @return the view of the individuals.
+	 * @see #countBetter(float)
+	 * @see #countBetterOrSame(float)
+	 * @since 1.0
+	 */
+	public List<Individual> getRanked(final int count) {
+		return new AbstractList<Individual>() {
+			@Override
+			public Individual get(int index) {
+				if (index >= size()) {
+					throw new IndexOutOfBoundsException("Index: " + index +
+							", size: " + size());
+				}
+				return RankingIndex.this.get(index);
+			}
+			
+			@Override
+			public int size() {
+				return Math.max(0, Math.min(count, RankingIndex.this.size()));
+			}
+			
+			@Override
+			public boolean contains(Object o) {
+				int rank = o instanceof Individual?
+						getRank((Individual) o) : -1;
+				return rank >= 0 && rank < count;
+			}
+		};
+	}
+	
+	/**
+	 * Gets the individual with the best score.
+	 * 
+	 * @return the best individual or null if the index is empty.
+	 * @since 1.0
+	 */
+	public synchronized Individual getBest() {
+		return root == null? null : get(0);
+	}
+	
+	/**
+	 * Gets the number of individuals in the index.
+	 * 
+	 * @return the number of ranked individuals.
+	 * @since 1.0
+	 */
+	public synchronized int size() {
+		return size(root);
+	}
+	
+	/**
+	 * Removes every individual from the index.
+	 * 
+	 * @since 1.0
+	 */
+	public synchronized void clear() {
+		this.root = null;
+		entryOf.clear();
+	}
+	
+	/**
+	 * Inserts the node in the subtree, keeping the nodes with a higher
+	 * priority above the nodes with a lower priority.
+	 * 
+	 * @param t		the root of the subtree.
+	 * @param node	the node to insert.
+	 * @return the new root of the subtree.
+	 */
+	private static Node insert(Node t, Node node) {
+		if (t == null) {
+			return node;
+		}
+		if (ORDER.compare(node.entry, t.entry) < 0) {
+			t.left = insert(t.left, node);
+			if (t.left.priority > t.priority) {
+				t = rotateRight(t);
+			}
+		} else {
+			t.right = insert(t.right, node);
+			if (t.right.priority > t.priority) {
+				t = rotateLeft(t);
+			}
+		}
+		update(t);
+		return t;
+	}
+	
+	/**
+	 * Deletes the node of the entry from the subtree.
+	 * 
+	 * @param t	the root of the subtree.
+	 * @param e	the entry to delete.
+	 * @return the new root of the subtree.
+	 */
+	private static Node delete(Node t, Entry e) {
+		if (t == null) {
+			return null;
+		}
+		int c = ORDER.compare(e, t.entry);
+		if (c < 0) {
+			t.left = delete(t.left, e);
+		} else if (c > 0) {
+			t.right = delete(t.right, e);
+		} else {
+			return merge(t.left, t.right);
+		}
+		update(t);
+		return t;
+	}
+	
+	/**
+	 * Merges two subtrees, where every entry of the first subtree comes
+	 * before every entry of the second.
+	 * 
+	 * @param a	the root of the first subtree.
+	 * @param b	the root of the second subtree.
+	 * @return the root of the merged subtree.
+	 */
+	private static Node merge(Node a, Node b) {
+		if (a == null) {
+			return b;
+		} if (b == null) {
+			return a;
+		}
+		if (a.priority > b.priority) {
+			a.right = merge(a.right, b);
+			update(a);
+			return a;
+		}
+		b.left = merge(a, b.left);
+		update(b);
+		return b;
+	}
+	
+	/**
+	 * Rotates the subtree to the right, making the left child the root.
+	 * 
+	 * @param t	the root of the subtree.
+	 * @return the new root of the subtree.
+	 */
+	private static Node rotateRight(Node t) {
+		Node l = t.left;
+		t.left = l.right;
+		update(t);
+		l.right = t;
+		update(l);
+		return l;
+	}
+	
+	/**
+	 * Rotates the subtree to the left, making the right child the root.
+	 * 
+	 * @param t	the root of the subtree.
+	 * @return the new root of the subtree.
+	 */
+	private static Node rotateLeft(Node t) {
+		Node r = t.right;
+		t.right = r.left;
+		update(t);
+		r.left = t;
+		update(r);
+		return r;
+	}
+	
+	/**
+	 * Updates the size of the subtree of the node from its children.
+	 * 
+	 * @param t	the node.
+	 */
+	private static void update(Node t) {
+		t.size = 1 + size(t.left) + size(t.right);
+	}
+	
+	/**
+	 * Gets the size of the subtree.
+	 * 
+	 * @param t	the root of the subtree, or null.
+	 * @return the number of nodes in the subtree.
+	 */
+	private static int size(Node t) {
+		return t == null? 0 : t.size;
+	}
+}
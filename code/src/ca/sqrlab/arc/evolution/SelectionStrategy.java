@@ -0,0 +1,33 @@
+package ca.sqrlab.arc.evolution;
+
+import java.util.Random;
+
+import ca.sqrlab.arc.ARC;
+
+/**
+ * The {@code SelectionStrategy} interface chooses which of the candidates for
+ * mutation a new individual is created from. The candidates are ranked from
+ * best to worst (see {@link RankingIndex}), so a strategy only needs to
+ * choose a rank. If the chosen candidate cannot be mutated, the next
+ * candidates are tried in order.
+ * 
+ * @author Devon McGrath
+ * @see ARC#SETTING_SELECTION_STRATEGY
+ * @since 1.0
+ */
+public interface SelectionStrategy {
+	
+	/**
+	 * Chooses the rank of the candidate to create the specified individual
+	 * from.
+	 * 
+	 * @param count		the number of candidates, which is at least 1.
+	 * @param index		the index of the new individual in its generation
+	 * 					(or the number of individuals created so far in
+	 * 					steady-state mode).
+	 * @param random	the random number generator of the genetic algorithm.
+	 * @return the rank of the candidate, from 0 (the best) to count - 1.
+	 * @since 1.0
+	 */
+	public int select(int count, int index, Random random);
+}
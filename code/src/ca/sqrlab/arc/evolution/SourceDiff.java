@@ -0,0 +1,224 @@
+package ca.sqrlab.arc.evolution;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The {@code SourceDiff} class computes the line-based differences between
+ * two versions of a source file, as a list of independent hunks. Any subset
+ * of the hunks can be applied to the original version, which is used to
+ * minimize a fix.
+ * 
+ * <p>The differences are found with the longest common subsequence of the
+ * lines. If the files are too large for it, the entire file is treated as a
+ * single hunk.
+ * 
+ * @author Devon McGrath
+ * @see FixMinimizer
+ * @since 1.0
+ */
+public class SourceDiff {
+	
+	/** The maximum number of cells of the longest common subsequence table
+	 * before the files are treated as a single hunk. */
+	public static final long MAX_TABLE_SIZE = 4000000;
+	
+	/**
+	 * The {@code Hunk} class represents a contiguous change to the original
+	 * lines of a file: a number of lines are deleted at a position and
+	 * replaced by new lines.
+	 * 
+	 * @author Devon McGrath
+	 * @since 1.0
+	 */
+	public static class Hunk {
+		
+		/** The index of the first original line changed by this hunk. */
+		private int start;
+		
+		/** The number of original lines deleted. */
+		private int deleted;
+		
+		/** The lines inserted in place of the deleted lines. */
+		private List<String> inserted;
+		
+		/**
+		 * Creates a hunk.
+		 * 
+		 * @param start		the index of the first original line changed.
+		 * @param deleted	the number of original lines deleted.
+		 * @param inserted	the lines inserted in place of the deleted lines.
+		 * @since 1.0
+		 */
+		public Hunk(int start, int deleted, List<String> inserted) {
+			this.start = start;
+			this.deleted = deleted;
+			this.inserted = inserted == null?
+					new ArrayList<String>() : inserted;
+		}
+		
+		/**
+		 * Gets the index of the first original line changed by this hunk.
+		 * 
+		 * @return the start index.
+		 * @since 1.0
+		 */
+		public int getStart() {
+			return start;
+		}
+		
+		/**
+		 * Gets the number of original lines deleted by this hunk.
+		 * 
+		 * @return the number of deleted lines.
+		 * @since 1.0
+		 */
+		public int getDeleted() {
+			return deleted;
+		}
+		
+		/**
+		 * Gets the lines inserted in place of the deleted lines.
+		 * 
+		 * @return the inserted lines.
+		 * @since 1.0
+		 */
+		public List<String> getInserted() {
+			return inserted;
+		}
+		
+		@Override
+		public String toString() {
+			return "@" + (start + 1) + " -" + deleted + " +" + inserted.size();
+		}
+	}
+	
+	/**
+	 * Computes the hunks which change the original lines into the modified
+	 * lines.
+	 * 
+	 * @param original	the lines of the original file.
+	 * @param modified	the lines of the modified file.
+	 * @return the hunks, ordered by their position in the original file.
+	 * @since 1.0
+	 */
+	public static List<Hunk> diff(List<String> original,
+			List<String> modified) {
+		
+		List<Hunk> hunks = new ArrayList<>();
+		if (original == null) {
+			original = new ArrayList<>();
+		} if (modified == null) {
+			modified = new ArrayList<>();
+		}
+		
+		// Skip the common lines at the start and end
+		int n = original.size(), m = modified.size(), prefix = 0, suffix = 0;
+		while (prefix < n && prefix < m &&
+				original.get(prefix).equals(modified.get(prefix))) {
+			prefix ++;
+		}
+		while (suffix < n - prefix && suffix < m - prefix &&
+				original.get(n - suffix - 1).equals(
+						modified.get(m - suffix - 1))) {
+			suffix ++;
+		}
+		int a = n - prefix - suffix, b = m - prefix - suffix;
+		if (a == 0 && b == 0) {
+			return hunks;
+		}
+		
+		// Too large to compare line by line
+		if ((long) a * b > MAX_TABLE_SIZE) {
+			hunks.add(new Hunk(prefix, a, new ArrayList<>(
+					modified.subList(prefix, prefix + b))));
+			return hunks;
+		}
+		
+		// Build the longest common subsequence table (from the end)
+		int[][] lcs = new int[a + 1][b + 1];
+		for (int i = a - 1; i >= 0; i --) {
+			for (int j = b - 1; j >= 0; j --) {
+				if (original.get(prefix + i).equals(modified.get(prefix + j))) {
+					lcs[i][j] = lcs[i + 1][j + 1] + 1;
+				} else {
+					lcs[i][j] = Math.max(lcs[i + 1][j], lcs[i][j + 1]);
+				}
+			}
+		}
+		
+		// Walk the table, grouping consecutive changes into hunks
+		int i = 0, j = 0, start = -1, deleted = 0;
+		List<String> inserted = null;
+		while (i < a || j < b) {
+			boolean same = i < a && j < b && original.get(prefix + i).equals(
+					modified.get(prefix + j));
+			if (same) {
+				if (start >= 0) {
+					hunks.add(new Hunk(start, deleted, inserted));
+					start = -1;
+				}
+				i ++;
+				j ++;
+				continue;
+			}
+			if (start < 0) {
+				start = prefix + i;
+				deleted = 0;
+				inserted = new ArrayList<>();
+			}
+			if (j < b && (i >= a || lcs[i][j + 1] >= lcs[i + 1][j])) {
+				inserted.add(modified.get(prefix + j));
+				j ++;
+			} else {
+				deleted ++;
+				i ++;
+			}
+		}
+		if (start >= 0) {
+			hunks.add(new Hunk(start, deleted, inserted));
+		}
+		
+		return hunks;
+	}
+	
+	/**
+	 * Applies a subset of the hunks of a diff to the original lines. The
+	 * hunks must come from the same call to {@link #diff(List, List)}, so
+	 * they do not overlap.
+	 * 
+	 * @param original	the lines of the original file.
+	 * @param hunks		the hunks to apply.
+	 * @return the changed lines.
+	 * @since 1.0
+	 */
+	public static List<String> apply(List<String> original, List<Hunk> hunks) {
+		
+		List<String> lines = new ArrayList<>();
+		if (original != null) {
+			lines.addAll(original);
+		}
+		if (hunks == null || hunks.isEmpty()) {
+			return lines;
+		}
+		
+		// Apply from the end, so the start of each hunk is still valid
+		List<Hunk> sorted = new ArrayList<>(hunks);
+		Collections.sort(sorted, new Comparator<Hunk>() {
+			@Override
+			public int compare(Hunk a, Hunk b) {
+				return Integer.compare(b.start, a.start);
+			}
+		});
+		for (Hunk h : sorted) {
+			int start = Math.min(h.start, lines.size());
+			int end = Math.min(start + h.deleted, lines.size());
+			lines.subList(start, end).clear();
+			lines.addAll(start, h.inserted);
+		}
+		
+		return lines;
+	}
+}
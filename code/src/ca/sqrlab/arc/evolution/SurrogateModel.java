@@ -0,0 +1,223 @@
+package ca.sqrlab.arc.evolution;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import ca.sqrlab.arc.ARC;
+import ca.sqrlab.arc.tools.mutation.TXLMutation;
+import ca.sqrlab.arc.tools.testing.TestResult;
+import ca.sqrlab.arc.tools.testing.TestStatus;
+import ca.sqrlab.arc.tools.testing.TestingSummary;
+
+/**
+ * The {@code SurrogateModel} class predicts the fitness score of an untested
+ * individual, so the individuals which are likely to be the best can be
+ * tested first. The model is a linear regression trained online (using
+ * stochastic gradient descent) from the individuals tested during the
+ * current run.
+ * 
+ * <p>The features of an individual are based on how it was created: the
+ * score of the individual it was mutated from, the fraction of the test-suite
+ * executions of that individual which had a data race or a deadlock, the
+ * mutation operator applied and the source file which was mutated.
+ * 
+ * @author Devon McGrath
+ * @see ARC#SETTING_SURROGATE_MODEL
+ * @since 1.0
+ */
+public class SurrogateModel {
+	
+	/** The default number of tested individuals required before the
+	 * predictions are used to skip individuals. */
+	public static final int DEFAULT_MIN_SAMPLES = 20;
+	
+	/** The learning rate of the gradient descent. */
+	public static final double LEARNING_RATE = 0.05;
+	
+	/** The number of features which do not depend on the operators or
+	 * files: the bias, the source score, the data race fraction and the
+	 * deadlock fraction. */
+	private static final int BASE_FEATURES = 4;
+	
+	/** The mutation operators, in the order of their features. */
+	private TXLMutation[] operators;
+	
+	/** The paths of the project source files, relative to the project
+	 * root, in the order of their features. */
+	private String[] sourceFiles;
+	
+	/** The weight of each feature. */
+	private double[] weights;
+	
+	/** The number of individuals the model was trained with. */
+	private int samples;
+	
+	/** The number of samples required before the model is trained. */
+	private int minSamples;
+	
+	/**
+	 * Creates an untrained surrogate model.
+	 * 
+	 * @param sourceFiles	the relative paths of the project source files.
+	 * @param minSamples	the number of tested individuals required before
+	 * 						the model is considered trained.
+	 * @since 1.0
+	 */
+	public SurrogateModel(String[] sourceFiles, int minSamples) {
+		this.operators = TXLMutation.getAllMutations();
+		this.sourceFiles = sourceFiles == null? new String[0] : sourceFiles;
+		this.minSamples = Math.max(1, minSamples);
+		this.weights = new double[BASE_FEATURES + operators.length +
+				this.sourceFiles.length];
+	}
+	
+	/**
+	 * Predicts the fitness score of the specified individual.
+	 * 
+	 * @param individual	the individual which has not been tested.
+	 * @return the predicted score or {@link Float#NEGATIVE_INFINITY} if the
+	 * individual was not created from a tested individual.
+	 * 
+	 * @see Individual#getScore()
+	 * @since 1.0
+	 */
+	public synchronized double predict(Individual individual) {
+		double[] x = getFeatures(individual);
+		if (x == null) {
+			return Float.NEGATIVE_INFINITY;
+		}
+		return dot(x);
+	}
+	
+	/**
+	 * Trains the model with the actual score of the specified tested
+	 * individual. Individuals which were not tested or were not created from
+	 * a tested individual are ignored.
+	 * 
+	 * @param individual	the tested individual.
+	 * @return true if and only if the model was trained with the individual.
+	 * @since 1.0
+	 */
+	public synchronized boolean train(Individual individual) {
+		if (individual == null || !individual.hasBeenTested()) {
+			return false;
+		}
+		double[] x = getFeatures(individual);
+		if (x == null) {
+			return false;
+		}
+		
+		// Move the weights against the gradient of the squared error
+		double error = dot(x) - individual.getScore();
+		for (int i = 0; i < x.length; i ++) {
+			weights[i] -= LEARNING_RATE * error * x[i];
+		}
+		this.samples ++;
+		
+		return true;
+	}
+	
+	/**
+	 * Checks if the model has been trained with enough individuals for its
+	 * predictions to be trusted.
+	 * 
+	 * @return true if the model has enough samples.
+	 * @since 1.0
+	 */
+	public synchronized boolean isTrained() {
+		return samples >= minSamples;
+	}
+	
+	/**
+	 * Gets the number of individuals the model was trained with.
+	 * 
+	 * @return the number of samples.
+	 * @since 1.0
+	 */
+	public synchronized int getSampleCount() {
+		return samples;
+	}
+	
+	/**
+	 * Calculates the prediction for the features using the current weights.
+	 * 
+	 * @param x	the features.
+	 * @return the predicted score.
+	 */
+	private double dot(double[] x) {
+		double y = 0;
+		for (int i = 0; i < x.length; i ++) {
+			y += weights[i] * x[i];
+		}
+		return y;
+	}
+	
+	/**
+	 * Gets the features of the specified individual.
+	 * 
+	 * @param individual	the individual.
+	 * @return the features or null if the individual was not created from a
+	 * tested individual.
+	 */
+	private double[] getFeatures(Individual individual) {
+		
+		// The individual needs to come from a tested individual
+		if (individual == null) {
+			return null;
+		}
+		Individual source = individual.getSource();
+		if (source == null || !source.hasBeenTested()) {
+			return null;
+		}
+		double[] x = new double[weights.length];
+		x[0] = 1;
+		x[1] = source.getScore();
+		
+		// How the source failed
+		TestingSummary summary = source.getTestSummary();
+		int runs = summary.getNumberOfTestsRun();
+		if (runs > 0) {
+			List<TestResult> dataraces = summary.getResultsFor(
+					TestStatus.DATA_RACE);
+			List<TestResult> deadlocks = summary.getResultsFor(
+					TestStatus.DEADLOCK);
+			x[2] = (dataraces == null? 0 : dataraces.size()) / (double) runs;
+			x[3] = (deadlocks == null? 0 : deadlocks.size()) / (double) runs;
+		}
+		
+		// The mutation operator
+		TXLMutation m = individual.getMutation();
+		for (int i = 0; m != null && i < operators.length; i ++) {
+			if (operators[i].equals(m)) {
+				x[BASE_FEATURES + i] = 1;
+				break;
+			}
+		}
+		
+		// The mutated file, which is the only path that is not in the
+		// source's representation
+		Mutant rep = individual.getRepresentation();
+		Mutant srcRep = source.getRepresentation();
+		if (rep != null && srcRep != null) {
+			Set<String> srcFiles = new HashSet<>(Arrays.asList(
+					srcRep.getFiles()));
+			for (String f : rep.getFiles()) {
+				if (f == null || srcFiles.contains(f)) {
+					continue;
+				}
+				String relPath = MutantSource.getSourceFile(new File(f),
+						sourceFiles);
+				int idx = Arrays.asList(sourceFiles).indexOf(relPath);
+				if (idx >= 0) {
+					x[BASE_FEATURES + operators.length + idx] = 1;
+				}
+				break;
+			}
+		}
+		
+		return x;
+	}
+}
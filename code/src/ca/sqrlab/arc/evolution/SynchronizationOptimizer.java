@@ -0,0 +1,269 @@
+package ca.sqrlab.arc.evolution;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import ca.sqrlab.arc.ARC;
+import ca.sqrlab.arc.ARCRunner;
+import ca.sqrlab.arc.io.FileUtils;
+import ca.sqrlab.arc.tools.ARCUtils;
+import ca.sqrlab.arc.tools.monitoring.Logger;
+import ca.sqrlab.arc.tools.mutation.TXLMutation;
+import ca.sqrlab.arc.tools.testing.TestStatus;
+import ca.sqrlab.arc.tools.testing.TestingSummary;
+
+/**
+ * The {@code SynchronizationOptimizer} class implements the optimization
+ * phase of ARC-OPT. Once a fix is found, the fix often contains
+ * synchronization which is not needed to fix the bugs but makes the program
+ * slower. The optimizer repeatedly applies the operators which remove or
+ * shrink synchronization to the fastest correct program found so far. Each
+ * variant is tested, and the variants which are faster than the current
+ * program (based on {@link TestingSummary#getAverageTime()}) are validated
+ * with the same extended testing used to accept a fix. The fastest variant
+ * which passes validation becomes the current program for the next round.
+ * 
+ * <p>The variants of each round are placed in their own generation
+ * directory, after the generations of the genetic algorithm.
+ * 
+ * @author Devon McGrath
+ * @see ARC#SETTING_OPTIMIZATION_PHASE
+ * @since 1.0
+ */
+public class SynchronizationOptimizer {
+	
+	/** The default maximum number of optimization rounds. */
+	public static final int DEFAULT_OPTIMIZATION_ROUNDS = 5;
+	
+	/** The mutation operators which remove or shrink synchronization. */
+	public static final TXLMutation[] OPTIMIZATION_MUTATIONS = {
+			TXLMutation.MUTATION_RSAS, TXLMutation.MUTATION_RSAV,
+			TXLMutation.MUTATION_RSIM, TXLMutation.MUTATION_RSM,
+			TXLMutation.MUTATION_SHSA, TXLMutation.MUTATION_SHSB};
+	
+	/** The ARC runner which is executing the genetic algorithm. */
+	private ARCRunner ar;
+	
+	/** The current instance of ARC. */
+	private ARC arc;
+	
+	/** The workers which test the variants. */
+	private EvaluationPool pool;
+	
+	/** The source of the mutants of each program. */
+	private MutantSource source;
+	
+	/** The generation number of the variants of the first round. */
+	private int firstGeneration;
+	
+	/**
+	 * Creates an optimizer which uses the same workers and mutants as the
+	 * genetic algorithm.
+	 * 
+	 * @param ar				the ARC runner executing the genetic algorithm.
+	 * @param pool				the initialized pool of workers.
+	 * @param source			the source of mutants.
+	 * @param firstGeneration	the generation number of the first round,
+	 * 							which must be after the generations of the
+	 * 							genetic algorithm.
+	 * @since 1.0
+	 */
+	public SynchronizationOptimizer(ARCRunner ar, EvaluationPool pool,
+			MutantSource source, int firstGeneration) {
+		this.ar = ar;
+		this.arc = ar == null? null : ar.getArc();
+		this.pool = pool;
+		this.source = source;
+		this.firstGeneration = firstGeneration;
+	}
+	
+	/**
+	 * Optimizes the specified fix by removing or shrinking its
+	 * synchronization, as long as the program stays correct.
+	 * 
+	 * @param fix				the validated fix.
+	 * @param rounds			the maximum number of optimization rounds.
+	 * @param runs				the number of test-suite executions used to
+	 * 							measure each variant.
+	 * @param validationRuns	the number of test-suite executions to
+	 * 							validate a faster variant with.
+	 * @param concurrentRuns	the number of validation runs to execute at
+	 * 							once.
+	 * @param l					the logger to track events.
+	 * @return the fastest correct program, which is the fix itself if no
+	 * faster variant was found.
+	 * 
+	 * @since 1.0
+	 */
+	public Individual optimize(Individual fix, int rounds, int runs,
+			int validationRuns, int concurrentRuns, Logger l) {
+		
+		if (l == null) {
+			l = new Logger();
+		} if (fix == null || arc == null || pool == null || source == null) {
+			return fix;
+		}
+		String[] javaFiles = arc.getProject().getSourceFiles();
+		if (javaFiles == null || javaFiles.length == 0) {
+			return fix;
+		}
+		
+		Individual best = fix;
+		Set<Mutant> seen = new HashSet<>();
+		if (fix.getRepresentation() != null) {
+			seen.add(fix.getRepresentation());
+		}
+		for (int r = 0; r < rounds; r ++) {
+			
+			// Check if requested to stop
+			if (ar != null && ar.shouldStop()) {
+				l.warning("ARC was requested to stop.");
+				break;
+			}
+			
+			// Create the variants of the current program
+			int gen = firstGeneration + r;
+			List<Individual> variants = createVariants(best, gen, javaFiles,
+					seen, l);
+			if (variants.isEmpty()) {
+				l.debug("No more synchronization to remove or shrink.");
+				break;
+			}
+			
+			// Measure the current program under the same conditions
+			Individual baseline = new Individual(variants.size(), gen,
+					best.getPath());
+			List<Individual> toTest = new ArrayList<>(variants);
+			toTest.add(baseline);
+			pool.evaluate(toTest, runs);
+			if (!passes(baseline, runs)) {
+				l.warning("Unable to measure the current program.");
+				break;
+			}
+			long bestTime = baseline.getTestSummary().getAverageTime();
+			l.debug("Round " + (r + 1) + ": " + variants.size() +
+					" variants of a program which takes " + bestTime +
+					" ms on average.");
+			
+			// Validate the faster variants, fastest first
+			List<Individual> faster = new ArrayList<>();
+			for (Individual variant : variants) {
+				if (passes(variant, runs) && variant.getTestSummary()
+						.getAverageTime() < bestTime) {
+					faster.add(variant);
+				}
+			}
+			Collections.sort(faster, new Comparator<Individual>() {
+				@Override
+				public int compare(Individual a, Individual b) {
+					return Long.compare(a.getTestSummary().getAverageTime(),
+							b.getTestSummary().getAverageTime());
+				}
+			});
+			Individual next = null;
+			for (Individual variant : faster) {
+				long time = variant.getTestSummary().getAverageTime();
+				variant.validate(arc, validationRuns, concurrentRuns);
+				if (passes(variant, validationRuns)) {
+					l.debug("Accepted " + variant.getMutation() + " variant " +
+							variant + " (" + bestTime + " ms -> " + time +
+							" ms).");
+					next = variant;
+					break;
+				}
+				l.debug("Validation rejected " + variant.getMutation() +
+						" variant " + variant + ".");
+				if (ar != null && ar.shouldStop()) {
+					break;
+				}
+			}
+			
+			// No faster variant is correct
+			if (next == null) {
+				break;
+			}
+			best = next;
+		}
+		
+		return best;
+	}
+	
+	/**
+	 * Creates a variant of the program for each mutant of the optimization
+	 * operators. Variants which were already created are skipped.
+	 * 
+	 * @param program	the program to optimize.
+	 * @param gen		the generation number of the variants.
+	 * @param javaFiles	the relative paths of the project source files.
+	 * @param seen		the representations of the variants already created.
+	 * @param l			the logger to track events.
+	 * @return the new variants, which have not been compiled or tested.
+	 */
+	private List<Individual> createVariants(Individual program, int gen,
+			String[] javaFiles, Set<Mutant> seen, Logger l) {
+		
+		List<Individual> variants = new ArrayList<>();
+		String srcPath = program.getPath();
+		for (TXLMutation m : OPTIMIZATION_MUTATIONS) {
+			String root = source.get(program, m, l);
+			if (root == null) {
+				continue;
+			}
+			List<File> files = FileUtils.find(root, ".*\\.java.*", true);
+			for (File mutant : files) {
+				
+				// Skip the variants which were already created
+				String apath = mutant.getAbsolutePath();
+				Mutant rep = program.mutate(apath, javaFiles);
+				if (rep != null && !seen.add(rep)) {
+					continue;
+				}
+				String relPath = MutantSource.getSourceFile(mutant, javaFiles);
+				if (relPath == null) {
+					continue;
+				}
+				
+				// Create the variant
+				int id = variants.size();
+				String path = ARCGeneticAlgorithm.getIndividualDirectory(
+						arc, gen, id);
+				if (!(new File(path)).mkdirs() ||
+						!ARCUtils.copyProjectSourceFiles(arc, srcPath, path, null)) {
+					l.warning("Unable to create the directory for variant '" +
+							path + "'.");
+					continue;
+				}
+				String ds = arc.getSetting(ARC.SETTING_DIR_SEPARATOR);
+				FileUtils.copy(apath, path + ds + relPath, false);
+				Individual variant = new Individual(id, gen, path);
+				variant.setRepresentation(rep);
+				variant.setSource(program);
+				variant.setMutation(m);
+				variants.add(variant);
+			}
+		}
+		
+		return variants;
+	}
+	
+	/**
+	 * Checks if every test-suite execution of the individual was successful.
+	 * 
+	 * @param individual	the tested individual.
+	 * @param runs			the number of executions which should have run.
+	 * @return true if and only if all the executions were run and passed.
+	 */
+	static boolean passes(Individual individual, int runs) {
+		TestingSummary summary = individual.getTestSummary();
+		if (summary == null || summary.getNumberOfTestsRun() != runs) {
+			return false;
+		}
+		List<?> successes = summary.getResultsFor(TestStatus.SUCCESS);
+		return successes != null && successes.size() == runs;
+	}
+}
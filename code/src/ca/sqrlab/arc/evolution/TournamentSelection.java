@@ -0,0 +1,52 @@
+package ca.sqrlab.arc.evolution;
+
+import java.util.Random;
+
+/**
+ * The {@code TournamentSelection} class chooses a number of candidates at
+ * random and creates the individual from the best one. Since the candidates
+ * are ranked, the best candidate of the tournament is the one with the
+ * lowest rank.
+ * 
+ * @author Devon McGrath
+ * @since 1.0
+ */
+public class TournamentSelection implements SelectionStrategy {
+	
+	/** The name used to select this strategy. */
+	public static final String NAME = "tournament";
+	
+	/** The default number of candidates in a tournament. */
+	public static final int DEFAULT_TOURNAMENT_SIZE = 3;
+	
+	/** The number of candidates in a tournament. */
+	private int size;
+	
+	/**
+	 * Creates a tournament selection with the default tournament size.
+	 * 
+	 * @since 1.0
+	 */
+	public TournamentSelection() {
+		this(DEFAULT_TOURNAMENT_SIZE);
+	}
+	
+	/**
+	 * Creates a tournament selection.
+	 * 
+	 * @param size	the number of candidates in a tournament.
+	 * @since 1.0
+	 */
+	public TournamentSelection(int size) {
+		this.size = Math.max(1, size);
+	}
+	
+	@Override
+	public int select(int count, int index, Random random) {
+		int best = random.nextInt(count);
+		for (int i = 1; i < size; i ++) {
+			best = Math.min(best, random.nextInt(count));
+		}
+		return best;
+	}
+}
@@ -30,6 +30,7 @@ public class Experiment {
 		// Get the results
 		ARCGeneticAlgorithm ga = runner.getGeneticAlgorithm();
 		int gens = 0, inCreated = 0, inEvaluated = 0, tsExes = 0;
+		long timeToFix = -1;
 		if (ga != null) {
 			List<Generation> generations = ga.getGenerations();
 			gens = generations.size();
@@ -61,6 +62,7 @@ public class Experiment {
 				List<Individual> pop = last.getPopulation();
 				inEvaluated -= (pop.size() - (pop.indexOf(fix) + 1));
 			}
+			timeToFix = ga.getTimeToFix();
 		}
 		
 		// Get any fatal errors
@@ -84,6 +86,7 @@ public class Experiment {
 				.setARCExecutionTime(runner.getExecutionTime())
 				.setGAExecutionTime(runner.getGAExecutionTime())
 				.setFoundFix(runner.foundFix())
+				.setTimeToFix(timeToFix)
 				.setGenerationCount(gens)
 				.setIndividualsEvaluatedCount(inEvaluated)
 				.setIndividualsGeneratedCount(inCreated)
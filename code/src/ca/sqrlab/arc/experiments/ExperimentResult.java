@@ -18,6 +18,8 @@ public class ExperimentResult {
 	
 	private boolean foundFix;
 	
+	private long timeToFix = -1;
+	
 	private List<String> errors;
 
 	public long getARCExecutionTime() {
@@ -76,6 +78,15 @@ public class ExperimentResult {
 		return this;
 	}
 
+	public long getTimeToFix() {
+		return timeToFix;
+	}
+
+	public ExperimentResult setTimeToFix(long timeToFix) {
+		this.timeToFix = timeToFix;
+		return this;
+	}
+
 	public int getTestSuiteExecutions() {
 		return testSuiteExecutions;
 	}
@@ -101,6 +112,7 @@ public class ExperimentResult {
 				+ ", generationCount=" + generationCount + ", individualsGeneratedCount="
 				+ individualsGeneratedCount + ", individualsEvaluatedCount=" +
 				individualsEvaluatedCount + ", testSuiteExecutions="
-				+ testSuiteExecutions + ", foundFix=" + foundFix + ", errors=" + errors + "]";
+				+ testSuiteExecutions + ", foundFix=" + foundFix + ", timeToFix="
+				+ timeToFix + ", errors=" + errors + "]";
 	}
 }
@@ -57,7 +57,7 @@ public class ReportBuilder {
 				+ "Runs per Experiment: " + runs + "</p>";
 		
 		String tr = "<tr><td>%s</td><td>%s</td>"
-				+ "<td>%d</td><td>%dms</td><td>%dms</td><td>%d</td>"
+				+ "<td>%d</td><td>%dms</td><td>%dms</td><td>%s</td><td>%d</td>"
 				+ "<td>%d</td><td>%d</td></tr>";
 		
 		// Add all the experiment HTML
@@ -68,11 +68,11 @@ public class ReportBuilder {
 					+ n + ": " + e.getName() + "</h3><table style=\"min-width: 100%;"
 					+ "overflow: auto;\"><tr><th>Run</th><th>Fixed?</th><th>"
 					+ "Generations</th><th>ARC Time</th><th>GA Time</th><th>"
-					+ "Test-Suite Runs</th><th>Created</th><th>Evaluated</th></tr>";
+					+ "Time to Fix</th><th>Test-Suite Runs</th><th>Created</th><th>Evaluated</th></tr>";
 			
 			// Add each run's HTML
 			double count = 0, tInEval = 0, tInCreated = 0, tGens = 0, tFixed = 0;
-			double tTSE = 0, tTime = 0, tGATime = 0;
+			double tTSE = 0, tTime = 0, tGATime = 0, tFixTime = 0;
 			for (int j = 0; j < runs; j ++) {
 				
 				ExperimentResult r = results[i][j];
@@ -81,8 +81,8 @@ public class ReportBuilder {
 				}
 				count ++;
 				
-				// Run | Fixed | Generations | ARC Time | GA Time | Test-Suite
-				// ... Runs | Created | Evaluated
+				// Run | Fixed | Generations | ARC Time | GA Time | Time to
+				// ... Fix | Test-Suite Runs | Created | Evaluated
 				
 				// Add to the totals
 				tInEval += r.getIndividualsEvaluatedCount();
@@ -91,6 +91,7 @@ public class ReportBuilder {
 				boolean fixed = r.foundFix();
 				if (fixed) {
 					tFixed ++;
+					tFixTime += Math.max(0, r.getTimeToFix());
 				}
 				tTime += r.getARCExecutionTime();
 				tGATime += r.getGAExecutionTime();
@@ -99,7 +100,9 @@ public class ReportBuilder {
 				// Add the row
 				this.body += String.format(tr, "" + (j + 1), fixed? "Yes" : "No",
 								r.getGenerationCount(), r.getARCExecutionTime(),
-								r.getGAExecutionTime(), r.getTestSuiteExecutions(),
+								r.getGAExecutionTime(), fixed && r.getTimeToFix() >= 0?
+								r.getTimeToFix() + "ms" : "-",
+								r.getTestSuiteExecutions(),
 								r.getIndividualsGeneratedCount(),
 								r.getIndividualsEvaluatedCount());
 				
@@ -123,10 +126,13 @@ public class ReportBuilder {
 			
 			// Add the total column
 			this.body += String.format(tr, "<b>Total:</b>", "" + tFixed,
-					(int) tGens, (int) tTime, (int) tGATime, (int) tTSE,
+					(int) tGens, (int) tTime, (int) tGATime,
+					(int) tFixTime + "ms", (int) tTSE,
 					(int) tInCreated, (int) tInEval);
 			
-			// Add the average column
+			// Add the average column (the time to fix is only averaged over
+			// the runs which found a fix)
+			tFixTime = tFixed == 0? 0 : tFixTime / tFixed;
 			tFixed /= count;
 			tGens /= count;
 			tTime /= count;
@@ -135,7 +141,8 @@ public class ReportBuilder {
 			tInCreated /= count;
 			tInEval /= count;
 			this.body += String.format(tr, "<b>Average:</b>", (tFixed * 100) + "%",
-					(int) tGens, (int) tTime, (int) tGATime, (int) tTSE,
+					(int) tGens, (int) tTime, (int) tGATime,
+					tFixed == 0? "-" : (int) tFixTime + "ms", (int) tTSE,
 					(int) tInCreated, (int) tInEval) + "</table>";
 			
 			// Add the HTML after the table
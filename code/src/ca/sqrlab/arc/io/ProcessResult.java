@@ -75,7 +75,15 @@ public class ProcessResult {
 		return stdout;
 	}
 	
+	public void setSTDOUT(String stdout) {
+		this.stdout = stdout;
+	}
+	
 	public String getSTDERR() {
 		return stderr;
 	}
+	
+	public void setSTDERR(String stderr) {
+		this.stderr = stderr;
+	}
 }
@@ -0,0 +1,631 @@
+package ca.sqrlab.arc.java;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import ca.sqrlab.arc.io.FileReader;
+import ca.sqrlab.arc.tools.compilation.CompilationCache;
+import ca.sqrlab.arc.tools.mutation.TXLMutation;
+
+/**
+ * The {@code StaticAnalyzer} class finds the shared fields of a Java source
+ * file, the locks which can guard them, and the classes and methods which
+ * access them. The results are used to target the TXL mutation operators
+ * (i.e. the values of the {@code -class}, {@code -method}, {@code -var} and
+ * {@code -syncvar} arguments), which produces far fewer and more precise
+ * mutants than applying the operators everywhere.
+ * 
+ * <p>The analysis is lexical: comments and literals are removed, and the
+ * braces are tracked to know the class and method each identifier is in.
+ * A field is shared if it is not a constant and is accessed by a method. The
+ * locks of a class are the expressions it synchronizes on, {@code this} and
+ * its fields which are only used as locks (e.g. {@code Object} or
+ * {@code Lock} fields).
+ * 
+ * @author Devon McGrath
+ * @see TXLMutation#isTargeted()
+ * @since 1.0
+ */
+public class StaticAnalyzer {
+	
+	/** The lock which is always available in an instance method. */
+	public static final String THIS = "this";
+	
+	/** The maximum number of analyzed source files kept in the cache. */
+	public static final int CACHE_SIZE = 256;
+	
+	/** The analyzers of the source files analyzed most recently, by the hash
+	 * of their contents. Most files are the same in every individual, so they
+	 * only need to be analyzed once. */
+	private static final Map<String, StaticAnalyzer> CACHE =
+			new LinkedHashMap<String, StaticAnalyzer>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+		
+		@Override
+		protected boolean removeEldestEntry(
+				Map.Entry<String, StaticAnalyzer> e) {
+			return size() > CACHE_SIZE;
+		}
+	};
+	
+	/** The pattern of the header of a class, interface or enum. */
+	private static final Pattern CLASS_HEADER = Pattern.compile(
+			"\\b(?:class|interface|enum)\\s+([\\w\\$]+)");
+	
+	/** The pattern of the header of an anonymous class. */
+	private static final Pattern ANONYMOUS_HEADER = Pattern.compile(
+			"\\bnew\\s+[\\w\\$.<>, ]+\\([^;]*\\)\\s*$");
+	
+	/** The pattern of the header of a method or constructor. */
+	private static final Pattern METHOD_HEADER = Pattern.compile(
+			"([\\w\\$]+)\\s*\\([^;]*\\)\\s*(?:throws\\s+[\\w\\$.,\\s]+)?$");
+	
+	/** The pattern of a synchronized block. */
+	private static final Pattern SYNC_HEADER = Pattern.compile(
+			"\\bsynchronized\\s*\\(\\s*([\\w\\$.]+)\\s*\\)\\s*$");
+	
+	/** The pattern of a field declaration: the type and the name. */
+	private static final Pattern FIELD = Pattern.compile(
+			"([\\w\\$.<>\\[\\]?, ]+?)\\s+([\\w\\$]+)\\s*(?:=.*)?$");
+	
+	/** The types of fields which are used as locks. */
+	private static final Pattern LOCK_TYPE = Pattern.compile(
+			"^(?:Object|(?:java\\.util\\.concurrent\\.locks\\.)?" +
+			"(?:Reentrant)?(?:ReadWrite)?Lock)$");
+	
+	/** The pattern of an annotation, with its arguments. */
+	private static final String ANNOTATION =
+			"@[\\w\\$.]+(\\s*\\([^)]*\\))?";
+	
+	/** The pattern of an identifier. */
+	private static final Pattern IDENTIFIER = Pattern.compile(
+			"[A-Za-z_\\$][\\w\\$]*");
+	
+	/** The keywords which can precede a parenthesis and a block. */
+	private static final Set<String> KEYWORDS = new HashSet<>();
+	static {
+		for (String k : new String[] {"if", "for", "while", "switch", "catch",
+				"synchronized", "try", "do", "else", "return", "new", "throw"}) {
+			KEYWORDS.add(k);
+		}
+	}
+	
+	/**
+	 * The {@code ClassInfo} class holds what was found in a single class.
+	 */
+	private static class ClassInfo {
+		
+		/** The fields, by name, with their types. */
+		private Map<String, String> fields = new LinkedHashMap<>();
+		
+		/** The names of the constant fields. */
+		private Set<String> constants = new HashSet<>();
+		
+		/** The expressions synchronized on. */
+		private Set<String> locks = new LinkedHashSet<>();
+		
+		/** The identifiers used in each method. */
+		private Map<String, Set<String>> methods = new LinkedHashMap<>();
+	}
+	
+	/** The classes found, by name. */
+	private Map<String, ClassInfo> classes;
+	
+	/**
+	 * Creates an analyzer without any results.
+	 * 
+	 * @since 1.0
+	 */
+	public StaticAnalyzer() {
+		this.classes = new LinkedHashMap<>();
+	}
+	
+	/**
+	 * Analyzes the Java source file at the specified path. If a file with
+	 * the same contents was analyzed recently, the same results are returned
+	 * without analyzing the file again.
+	 * 
+	 * @param path	the path to the source file.
+	 * @return the analyzer with the results.
+	 * @since 1.0
+	 */
+	public static StaticAnalyzer analyze(String path) {
+		List<String> lines = FileReader.read(path);
+		StringBuilder data = new StringBuilder();
+		for (String line : lines) {
+			data.append(line).append('\n');
+		}
+		
+		// Check the cache
+		String src = data.toString(), hash = hash(src);
+		synchronized (CACHE) {
+			StaticAnalyzer cached = CACHE.get(hash);
+			if (cached != null) {
+				return cached;
+			}
+		}
+		
+		StaticAnalyzer analyzer = new StaticAnalyzer();
+		analyzer.parse(src);
+		synchronized (CACHE) {
+			CACHE.put(hash, analyzer);
+		}
+		return analyzer;
+	}
+	
+	/**
+	 * Computes the hash of the contents of a source file.
+	 * 
+	 * @param data	the contents of the file.
+	 * @return the hash, or the contents themselves if the hash algorithm is
+	 * not available.
+	 */
+	private static String hash(String data) {
+		MessageDigest md = null;
+		try {
+			md = MessageDigest.getInstance(CompilationCache.HASH_ALGORITHM);
+		} catch (NoSuchAlgorithmException e) {
+			return data;
+		}
+		StringBuilder sb = new StringBuilder();
+		for (byte b : md.digest(data.getBytes(StandardCharsets.UTF_8))) {
+			sb.append(String.format("%02x", b & 0xFF));
+		}
+		return sb.toString();
+	}
+	
+	/**
+	 * Gets the names of the classes found.
+	 * 
+	 * @return the class names, in the order they were declared.
+	 * @since 1.0
+	 */
+	public List<String> getClasses() {
+		return new ArrayList<>(classes.keySet());
+	}
+	
+	/**
+	 * Gets the shared fields of the specified class: the fields which are
+	 * not constants and are accessed by at least one method.
+	 * 
+	 * @param cls	the name of the class.
+	 * @return the shared fields, the ones accessed by the most methods first.
+	 * @since 1.0
+	 */
+	public List<String> getSharedFields(String cls) {
+		final ClassInfo info = classes.get(cls);
+		List<String> shared = new ArrayList<>();
+		if (info == null) {
+			return shared;
+		}
+		final Map<String, Integer> counts = new LinkedHashMap<>();
+		for (String field : info.fields.keySet()) {
+			if (info.constants.contains(field) || isLockField(info, field)) {
+				continue;
+			}
+			int n = getMethodsAccessing(cls, field).size();
+			if (n > 0) {
+				counts.put(field, n);
+				shared.add(field);
+			}
+		}
+		Collections.sort(shared, new Comparator<String>() {
+			@Override
+			public int compare(String a, String b) {
+				return Integer.compare(counts.get(b), counts.get(a));
+			}
+		});
+		return shared;
+	}
+	
+	/**
+	 * Gets the methods of the specified class which access the field.
+	 * 
+	 * @param cls	the name of the class.
+	 * @param field	the name of the field.
+	 * @return the names of the methods.
+	 * @since 1.0
+	 */
+	public List<String> getMethodsAccessing(String cls, String field) {
+		List<String> methods = new ArrayList<>();
+		ClassInfo info = classes.get(cls);
+		if (info == null) {
+			return methods;
+		}
+		for (Map.Entry<String, Set<String>> e : info.methods.entrySet()) {
+			if (e.getValue().contains(field)) {
+				methods.add(e.getKey());
+			}
+		}
+		return methods;
+	}
+	
+	/**
+	 * Gets the locks which can be used in the specified class: the
+	 * expressions it already synchronizes on, {@code this} and its fields
+	 * which are only used as locks.
+	 * 
+	 * @param cls	the name of the class.
+	 * @return the locks, the ones already used first.
+	 * @since 1.0
+	 */
+	public List<String> getLocks(String cls) {
+		Set<String> locks = new LinkedHashSet<>();
+		ClassInfo info = classes.get(cls);
+		if (info != null) {
+			locks.addAll(info.locks);
+			locks.add(THIS);
+			for (String field : info.fields.keySet()) {
+				if (isLockField(info, field)) {
+					locks.add(field);
+				}
+			}
+		} else {
+			locks.add(THIS);
+		}
+		return new ArrayList<>(locks);
+	}
+	
+	/**
+	 * Gets the argument values for the invocations of the mutation operator
+	 * on the analyzed file. Each invocation has one value for each argument
+	 * of the operator, in the same order as
+	 * {@link TXLMutation#getArguments()}. For example, an operator with the
+	 * {@code -class}, {@code -method}, {@code -var} and {@code -syncvar}
+	 * arguments gets one invocation for each shared field, method accessing
+	 * the field and lock of each class.
+	 * 
+	 * @param mutation	the mutation operator.
+	 * @param max		the maximum number of invocations.
+	 * @return the argument values of each invocation, which has a single
+	 * invocation if the operator has no arguments.
+	 * 
+	 * @since 1.0
+	 */
+	public List<String[]> getArguments(TXLMutation mutation, int max) {
+		
+		List<String[]> invocations = new ArrayList<>();
+		String[] args = mutation == null? null : mutation.getArguments();
+		if (args == null || args.length == 0) {
+			invocations.add(new String[0]);
+			return invocations;
+		}
+		
+		// Find which arguments are needed
+		boolean needsClass = false, needsMethod = false, needsVar = false;
+		for (String arg : args) {
+			needsClass |= TXLMutation.ARG_CLASS.equals(arg);
+			needsMethod |= TXLMutation.ARG_METHOD.equals(arg);
+			needsVar |= TXLMutation.ARG_VAR.equals(arg);
+		}
+		
+		// Untargeted operators only need a lock from anywhere in the file
+		Set<String> seen = new HashSet<>();
+		if (!needsClass && !needsMethod && !needsVar) {
+			List<String> locks = new ArrayList<>();
+			for (String cls : classes.keySet()) {
+				locks.addAll(getLocks(cls));
+			}
+			if (locks.isEmpty()) {
+				locks.add(THIS);
+			}
+			for (String lock : locks) {
+				add(invocations, seen, args, null, null, null, lock, max);
+			}
+			return invocations;
+		}
+		
+		// Target each class
+		for (String cls : classes.keySet()) {
+			List<String> locks = getLocks(cls);
+			List<String> fields = getSharedFields(cls);
+			if (needsVar) {
+				for (String field : fields) {
+					List<String> methods = needsMethod?
+							getMethodsAccessing(cls, field) : single(null);
+					for (String method : methods) {
+						for (String lock : locks) {
+							add(invocations, seen, args, cls, method, field,
+									lock, max);
+						}
+					}
+				}
+			} else if (needsMethod) {
+				Set<String> methods = new LinkedHashSet<>();
+				for (String field : fields) {
+					methods.addAll(getMethodsAccessing(cls, field));
+				}
+				for (String method : methods) {
+					for (String lock : locks) {
+						add(invocations, seen, args, cls, method, null, lock,
+								max);
+					}
+				}
+			} else {
+				for (String lock : locks) {
+					add(invocations, seen, args, cls, null, null, lock, max);
+				}
+			}
+		}
+		
+		return invocations;
+	}
+	
+	/**
+	 * Parses the source code.
+	 * 
+	 * @param data	the source code.
+	 */
+	private void parse(String data) {
+		
+		String src = strip(data);
+		
+		// The class and method of each open scope (method is null in the
+		// body of a class)
+		List<String> classStack = new ArrayList<>();
+		List<String> methodStack = new ArrayList<>();
+		StringBuilder header = new StringBuilder();
+		String cls = null, method = null;
+		int n = src.length();
+		for (int i = 0; i < n; i ++) {
+			char c = src.charAt(i);
+			
+			// Record the identifiers used in methods
+			if (method != null && Character.isJavaIdentifierStart(c)) {
+				int j = i + 1;
+				while (j < n && Character.isJavaIdentifierPart(src.charAt(j))) {
+					j ++;
+				}
+				classes.get(cls).methods.get(method).add(src.substring(i, j));
+				header.append(src, i, j);
+				i = j - 1;
+				continue;
+			}
+			
+			// Skip the braces of a field initializer (e.g. an array), so the
+			// field is still found at the semicolon
+			if (c == '{' && cls != null && method == null &&
+					isInitializer(header.toString())) {
+				int depth = 0;
+				for (; i < n; i ++) {
+					if (src.charAt(i) == '{') {
+						depth ++;
+					} else if (src.charAt(i) == '}' && -- depth == 0) {
+						break;
+					}
+				}
+				header.append("{}");
+				continue;
+			}
+			
+			// Open a scope
+			if (c == '{') {
+				String h = header.toString().replaceAll(ANNOTATION, "").trim();
+				header.setLength(0);
+				Matcher m = CLASS_HEADER.matcher(h);
+				Matcher s = SYNC_HEADER.matcher(h);
+				Matcher mh = METHOD_HEADER.matcher(h);
+				if (m.find()) {
+					cls = m.group(1);
+					method = null;
+					if (!classes.containsKey(cls)) {
+						classes.put(cls, new ClassInfo());
+					}
+				} else if (cls != null && ANONYMOUS_HEADER.matcher(h).find()) {
+					
+					// Anonymous classes are part of the enclosing class
+					method = null;
+				} else if (cls != null && s.find()) {
+					classes.get(cls).locks.add(s.group(1));
+				} else if (cls != null && method == null && mh.find() &&
+						!KEYWORDS.contains(mh.group(1))) {
+					method = mh.group(1);
+					if (!classes.get(cls).methods.containsKey(method)) {
+						classes.get(cls).methods.put(method,
+								new HashSet<String>());
+					}
+				}
+				classStack.add(cls);
+				methodStack.add(method);
+			}
+			
+			// Close a scope
+			else if (c == '}') {
+				header.setLength(0);
+				int last = classStack.size() - 1;
+				if (last >= 0) {
+					classStack.remove(last);
+					methodStack.remove(last);
+				}
+				cls = last > 0? classStack.get(last - 1) : null;
+				method = last > 0? methodStack.get(last - 1) : null;
+			}
+			
+			// Fields are declared directly in a class
+			else if (c == ';') {
+				String h = header.toString().replaceAll(ANNOTATION, "").trim();
+				header.setLength(0);
+				int eq = h.indexOf('=');
+				if (cls != null && method == null &&
+						!(eq < 0? h : h.substring(0, eq)).contains("(")) {
+					addField(classes.get(cls), h);
+				}
+			} else {
+				header.append(c);
+			}
+		}
+	}
+	
+	/**
+	 * Checks if a brace after the specified text in the body of a class opens
+	 * the initializer of a field, rather than a class, method or anonymous
+	 * class.
+	 * 
+	 * @param header	the text since the end of the previous statement.
+	 * @return true if the brace is part of a field initializer.
+	 */
+	private static boolean isInitializer(String header) {
+		String h = header.replaceAll(ANNOTATION, "").trim();
+		return h.contains("=") && !ANONYMOUS_HEADER.matcher(h).find();
+	}
+	
+	/**
+	 * Adds the field declared by the statement to the class.
+	 * 
+	 * @param info		the class.
+	 * @param statement	the declaration, without the semicolon.
+	 */
+	private static void addField(ClassInfo info, String statement) {
+		
+		// Separate the modifiers from the declaration
+		String decl = statement.trim();
+		boolean isStatic = false, isFinal = false;
+		while (true) {
+			Matcher m = IDENTIFIER.matcher(decl);
+			if (!m.lookingAt()) {
+				break;
+			}
+			String word = m.group();
+			if (word.equals("static")) {
+				isStatic = true;
+			} else if (word.equals("final")) {
+				isFinal = true;
+			} else if (!word.matches("public|protected|private|volatile|" +
+					"transient")) {
+				break;
+			}
+			decl = decl.substring(m.end()).trim();
+		}
+		
+		// Find the type and name
+		Matcher m = FIELD.matcher(decl);
+		if (!m.matches() || decl.startsWith("import") ||
+				decl.startsWith("package")) {
+			return;
+		}
+		String type = m.group(1).trim(), name = m.group(2);
+		info.fields.put(name, type);
+		if (isStatic && isFinal) {
+			info.constants.add(name);
+		}
+	}
+	
+	/**
+	 * Checks if the field is of a type which is used as a lock.
+	 * 
+	 * @param info	the class.
+	 * @param field	the field.
+	 * @return true if the field is a lock.
+	 */
+	private static boolean isLockField(ClassInfo info, String field) {
+		String type = info.fields.get(field);
+		return (type != null && LOCK_TYPE.matcher(type).matches()) ||
+				info.locks.contains(field);
+	}
+	
+	/**
+	 * Adds an invocation if it was not already added.
+	 * 
+	 * @param invocations	the invocations.
+	 * @param seen			the invocations already added.
+	 * @param args			the arguments of the operator.
+	 * @param cls			the class or null.
+	 * @param method		the method or null.
+	 * @param var			the variable or null.
+	 * @param lock			the lock or null.
+	 * @param max			the maximum number of invocations.
+	 */
+	private static void add(List<String[]> invocations, Set<String> seen,
+			String[] args, String cls, String method, String var, String lock,
+			int max) {
+		if (max > 0 && invocations.size() >= max) {
+			return;
+		}
+		String[] values = new String[args.length];
+		for (int i = 0; i < args.length; i ++) {
+			String v = null;
+			if (TXLMutation.ARG_CLASS.equals(args[i])) {
+				v = cls;
+			} else if (TXLMutation.ARG_METHOD.equals(args[i])) {
+				v = method;
+			} else if (TXLMutation.ARG_VAR.equals(args[i])) {
+				v = var;
+			} else if (TXLMutation.ARG_SYNC_VAR.equals(args[i])) {
+				v = lock;
+			}
+			values[i] = v == null? "" : v;
+		}
+		if (seen.add(String.join(" ", values))) {
+			invocations.add(values);
+		}
+	}
+	
+	/**
+	 * Creates a list with a single value.
+	 * 
+	 * @param value	the value.
+	 * @return the list.
+	 */
+	private static List<String> single(String value) {
+		List<String> list = new ArrayList<>();
+		list.add(value);
+		return list;
+	}
+	
+	/**
+	 * Removes the comments and the string and character literals from the
+	 * source code, keeping the line breaks.
+	 * 
+	 * @param data	the source code.
+	 * @return the stripped source code.
+	 */
+	private static String strip(String data) {
+		StringBuilder out = new StringBuilder(data.length());
+		int n = data.length();
+		for (int i = 0; i < n; i ++) {
+			char c = data.charAt(i);
+			char next = i + 1 < n? data.charAt(i + 1) : 0;
+			if (c == '/' && next == '/') {
+				while (i < n && data.charAt(i) != '\n') {
+					i ++;
+				}
+				out.append('\n');
+			} else if (c == '/' && next == '*') {
+				i += 2;
+				while (i + 1 < n && !(data.charAt(i) == '*' &&
+						data.charAt(i + 1) == '/')) {
+					if (data.charAt(i) == '\n') {
+						out.append('\n');
+					}
+					i ++;
+				}
+				i ++;
+				out.append(' ');
+			} else if (c == '"' || c == '\'') {
+				i ++;
+				while (i < n && data.charAt(i) != c) {
+					if (data.charAt(i) == '\\') {
+						i ++;
+					}
+					i ++;
+				}
+				out.append(c).append(c);
+			} else {
+				out.append(c);
+			}
+		}
+		return out.toString();
+	}
+}
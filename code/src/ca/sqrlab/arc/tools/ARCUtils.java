@@ -8,6 +8,10 @@ import ca.sqrlab.arc.ARC;
 import ca.sqrlab.arc.Project;
 import ca.sqrlab.arc.io.FileUtils;
 import ca.sqrlab.arc.tools.compilation.AntCompiler;
+import ca.sqrlab.arc.tools.compilation.CachedCompiler;
+import ca.sqrlab.arc.tools.compilation.CompilationCache;
+import ca.sqrlab.arc.tools.compilation.IncrementalCompiler;
+import ca.sqrlab.arc.tools.compilation.JavaToolsCompiler;
 import ca.sqrlab.arc.tools.compilation.ProjectCompiler;
 import ca.sqrlab.arc.tools.monitoring.Logger;
 
@@ -33,12 +37,29 @@ public class ARCUtils {
 	 * @since 1.0
 	 */
 	public static boolean compile(ARC arc, Logger l) {
+		return compile(arc, arc.getSetting(ARC.SETTING_PROJECT_DIR), l);
+	}
+	
+	/**
+	 * Compiles the copy of the program located in the specified project root
+	 * directory. This allows copies of the project outside of the ARC
+	 * project directory (e.g. in a worker directory) to be compiled.
+	 * 
+	 * @param arc			the current instance of ARC.
+	 * @param projectRoot	the root directory of the copy of the project.
+	 * @param l				the logger to document the process.
+	 * @return true if and only if the program was successfully compiled.
+	 * 
+	 * @see #compile(ARC, Logger)
+	 * @since 1.0
+	 */
+	public static boolean compile(ARC arc, String projectRoot, Logger l) {
 		
 		// Create the compiler
-		String projectRoot = arc.getSetting(ARC.SETTING_PROJECT_DIR);
 		String compileTarget = arc.getSetting(ARC.SETTING_PROJECT_COMPILE_CMD);
 		String antPath = arc.getSetting(ARC.SETTING_ANT);
 		ProjectCompiler compiler = new AntCompiler(projectRoot, compileTarget, antPath);
+		compiler = useCache(arc, compiler, true);
 		
 		// Try to compile
 		Logger result = compiler.compile();
@@ -50,6 +71,73 @@ public class ARCUtils {
 		return !result.hasFatalError();
 	}
 	
+	/**
+	 * Creates the compiler for a copy of the program which is compiled over
+	 * and over again, such as the ARC project directory while mutants are
+	 * checked. If {@link ARC#SETTING_COMPILER} is 'javax' and ARC is running
+	 * on a JDK, the program is compiled in memory inside the ARC JVM.
+	 * Otherwise, if {@link ARC#SETTING_INCREMENTAL_COMPILATION} is enabled,
+	 * the compiler only recompiles the source files which changed since its
+	 * last compilation. Either way, the same compiler should be used for every
+	 * compilation of the directory. If the compilation cache is enabled, the
+	 * compiler only checks if each program compiles once.
+	 * 
+	 * @param arc			the current instance of ARC.
+	 * @param projectRoot	the root directory of the copy of the project.
+	 * @return the compiler.
+	 * 
+	 * @see IncrementalCompiler
+	 * @see JavaToolsCompiler
+	 * @since 1.0
+	 */
+	public static ProjectCompiler createCompiler(ARC arc, String projectRoot) {
+		
+		// Compile in-process, if possible
+		String compileTarget = arc.getSetting(ARC.SETTING_PROJECT_COMPILE_CMD);
+		String backend = arc.getSetting(ARC.SETTING_COMPILER);
+		if (JavaToolsCompiler.NAME.equalsIgnoreCase(
+				backend == null? "" : backend.trim()) &&
+				JavaToolsCompiler.isAvailable()) {
+			return useCache(arc, new JavaToolsCompiler(
+					projectRoot, compileTarget), false);
+		}
+		
+		// Create the compiler for full builds
+		String antPath = arc.getSetting(ARC.SETTING_ANT);
+		ProjectCompiler compiler = new AntCompiler(projectRoot, compileTarget, antPath);
+		if (!arc.isEnabled(ARC.SETTING_INCREMENTAL_COMPILATION)) {
+			return useCache(arc, compiler, false);
+		}
+		
+		return useCache(arc, new IncrementalCompiler(projectRoot,
+				arc.getProject().getSourceFiles(), compiler,
+				arc.getSetting(ARC.SETTING_JAVAC),
+				arc.getSetting(ARC.SETTING_PROJECT_CLASSPATH)), false);
+	}
+	
+	/**
+	 * Wraps the compiler so the compilation cache of ARC is checked before
+	 * the compiler is used, if the cache is enabled.
+	 * 
+	 * @param arc				the current instance of ARC.
+	 * @param compiler			the compiler.
+	 * @param restoreClasses	if true, the class files are cached and
+	 * 							restored, instead of only whether the program
+	 * 							compiles.
+	 * @return the compiler which uses the cache, or the specified compiler if
+	 * the cache is disabled.
+	 */
+	private static ProjectCompiler useCache(ARC arc, ProjectCompiler compiler,
+			boolean restoreClasses) {
+		CompilationCache cache = arc.getCompilationCache();
+		if (cache == null || arc.getProject() == null) {
+			return compiler;
+		}
+		return new CachedCompiler(compiler, cache,
+				arc.getProject().getSourceFiles(),
+				arc.getSetting(ARC.SETTING_PROJECT_CLASSPATH), restoreClasses);
+	}
+	
 	/**
 	 * Attempts to copy the original project to the working project directory.
 	 * 
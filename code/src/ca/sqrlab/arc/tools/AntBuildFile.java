@@ -201,6 +201,20 @@ public class AntBuildFile {
 					this.targets.add(target);
 				}
 				
+				// Check if a javac task
+				else if (l.indexOf("<javac ") >= 0) {
+					AntJavac javac = new AntJavac();
+					String[] parts = l.split("srcdir=\"", 2);
+					if (parts.length >= 2) {
+						javac.srcDir = parts[1].split("\"", 2)[0];
+					}
+					parts = l.split("destdir=\"", 2);
+					if (parts.length >= 2) {
+						javac.destDir = parts[1].split("\"", 2)[0];
+					}
+					target.javacs.add(javac);
+				}
+				
 				// Check if classpath
 				else if (l.indexOf("<classpath ") >= 0) {
 					String[] parts = l.split("refid=\"", 2);
@@ -463,6 +477,75 @@ public class AntBuildFile {
 		return cp;
 	}
 	
+	/**
+	 * Gets the javac tasks which are executed by the target of the specified
+	 * name, in the order ant executes them. The tasks of the targets it
+	 * depends on come first. Any property names in the source and destination
+	 * directories are replaced with the actual values found in the
+	 * properties.
+	 * 
+	 * @param targetName	the name of the target.
+	 * @return the javac tasks of the target.
+	 * @see #getClassPath(String)
+	 * @since 1.0
+	 */
+	public List<AntJavac> getJavacTasks(String targetName) {
+		
+		List<AntJavac> tasks = new ArrayList<>();
+		addJavacTasks(targetName, tasks, new ArrayList<String>());
+		
+		return tasks;
+	}
+	
+	/**
+	 * Adds the javac tasks of the specified target and the targets it depends
+	 * on to the list.
+	 * 
+	 * @param targetName	the name of the target.
+	 * @param tasks			the tasks found so far.
+	 * @param visited		the names of the targets already visited.
+	 */
+	private void addJavacTasks(String targetName, List<AntJavac> tasks,
+			List<String> visited) {
+		
+		// No target
+		if (targetName == null || targetName.trim().isEmpty() ||
+				targets == null || visited.contains(targetName.trim())) {
+			return;
+		}
+		targetName = targetName.trim();
+		visited.add(targetName);
+		AntTarget t = null;
+		for (AntTarget tmp : targets) {
+			if (tmp != null && targetName.equals(tmp.name)) {
+				t = tmp;
+				break;
+			}
+		}
+		if (t == null) {
+			return;
+		}
+		
+		// Add the tasks of the dependencies first
+		if (t.depends != null) {
+			for (String d : t.depends.split(",")) {
+				addJavacTasks(d, tasks, visited);
+			}
+		}
+		
+		// Add the tasks of this target
+		for (AntJavac javac : t.javacs) {
+			AntJavac task = new AntJavac();
+			task.srcDir = javac.srcDir;
+			task.destDir = javac.destDir;
+			if (properties != null) {
+				task.srcDir = properties.formatWithSettings(task.srcDir);
+				task.destDir = properties.formatWithSettings(task.destDir);
+			}
+			tasks.add(task);
+		}
+	}
+	
 	/**
 	 * Finds all targets with names matching the regular expression provided.
 	 * If the pattern is null/empty/ or a single '*', all targets are matched
@@ -663,6 +746,9 @@ public class AntBuildFile {
 		/** The list of path IDs which make up the classpath. */
 		private List<String> refs;
 		
+		/** The javac tasks in the target. */
+		private List<AntJavac> javacs;
+		
 		/**
 		 * Constructs an empty target.
 		 * @since 1.0
@@ -670,6 +756,7 @@ public class AntBuildFile {
 		public AntTarget() {
 			this.paths = new ArrayList<>();
 			this.refs = new ArrayList<>();
+			this.javacs = new ArrayList<>();
 		}
 		
 		/**
@@ -715,10 +802,68 @@ public class AntBuildFile {
 			return refs;
 		}
 
+		/**
+		 * Gets the javac tasks which are directly part of the target.
+		 * 
+		 * @return the javac tasks.
+		 * @since 1.0
+		 */
+		public List<AntJavac> getJavacTasks() {
+			return javacs;
+		}
+
 		@Override
 		public String toString() {
 			return getClass().getSimpleName() + "[name=" + name + ", depends="
-					+ depends + ", paths=" + paths + ", refs=" + refs + "]";
+					+ depends + ", paths=" + paths + ", refs=" + refs +
+					", javacs=" + javacs + "]";
+		}
+	}
+	
+	/**
+	 * The {@code AntJavac} class represents a javac task in a target of the
+	 * ant build file. It contains the directory with the source files to
+	 * compile and the directory the class files are written to.
+	 * 
+	 * @author Devon McGrath
+	 * @see AntTarget
+	 * @since 1.0
+	 */
+	public static class AntJavac {
+		
+		/** The directory with the source files. */
+		private String srcDir;
+		
+		/** The directory the class files are written to, or null if they are
+		 * written next to the source files. */
+		private String destDir;
+		
+		/**
+		 * Gets the directory with the source files to compile.
+		 * 
+		 * @return the source directory.
+		 * @since 1.0
+		 */
+		public String getSourceDir() {
+			return srcDir;
+		}
+		
+		/**
+		 * Gets the directory the class files are written to. If there is no
+		 * destination directory, ant writes the class files next to the
+		 * source files.
+		 * 
+		 * @return the destination directory or null if there is none.
+		 * @since 1.0
+		 */
+		public String getDestDir() {
+			return destDir;
+		}
+
+		@Override
+		public String toString() {
+			return getClass().getSimpleName() + "[srcDir=" + srcDir +
+					", destDir=" + destDir + "]";
 		}
 	}
 	
@@ -0,0 +1,188 @@
+package ca.sqrlab.arc.tools.compilation;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import ca.sqrlab.arc.io.FileUtils;
+import ca.sqrlab.arc.tools.monitoring.Logger;
+
+/**
+ * The {@code CachedCompiler} class compiles a project using another compiler,
+ * unless the result of compiling the exact same source is in a
+ * {@link CompilationCache}. A program which is known not to compile fails
+ * right away. A program which is known to compile succeeds right away, and
+ * if the compiler restores class files, its class files are written back to
+ * the project instead of compiling it again.
+ * 
+ * @author Devon McGrath
+ * @see ca.sqrlab.arc.ARC#SETTING_COMPILATION_CACHE_SIZE
+ * @since 1.0
+ */
+public class CachedCompiler extends ProjectCompiler {
+	
+	/** The compiler used when the result is not in the cache. */
+	private ProjectCompiler compiler;
+	
+	/** The cache of compilation results. */
+	private CompilationCache cache;
+	
+	/** The paths of the source files, relative to the project root. */
+	private String[] sourceFiles;
+	
+	/** The classpath the project is compiled with. */
+	private String classpath;
+	
+	/** The flag indicating if the class files are kept in the cache and
+	 * restored to the project. */
+	private boolean restoreClasses;
+	
+	/**
+	 * Creates a compiler which uses the cache before the specified compiler.
+	 * 
+	 * @param compiler			the compiler used when the result is not in
+	 * 							the cache.
+	 * @param cache				the cache of compilation results.
+	 * @param sourceFiles		the paths of the project source files, relative
+	 * 							to the project root.
+	 * @param classpath			the classpath the project is compiled with.
+	 * @param restoreClasses	if true, the class files of the project are
+	 * 							kept in the cache and written back to the
+	 * 							project when the result is found.
+	 * @since 1.0
+	 */
+	public CachedCompiler(ProjectCompiler compiler, CompilationCache cache,
+			String[] sourceFiles, String classpath, boolean restoreClasses) {
+		super(compiler == null? null : compiler.getProjectRoot());
+		this.compiler = compiler;
+		this.cache = cache;
+		this.sourceFiles = sourceFiles;
+		this.classpath = classpath;
+		this.restoreClasses = restoreClasses;
+	}
+	
+	/**
+	 * Checks that there is a compiler and a cache.
+	 */
+	@Override
+	protected void checkDependencies(Logger result) {
+		if (compiler == null) {
+			result.fatalError("Error: no compiler to use on a cache miss.");
+		} if (cache == null) {
+			result.fatalError("Error: no compilation cache.");
+		}
+	}
+	
+	/**
+	 * Uses the result in the cache, or compiles the project and stores the
+	 * result in the cache.
+	 */
+	@Override
+	protected void runCompiler(Logger result) {
+		
+		// Check the cache
+		String hash = CompilationCache.hash(projectRoot, sourceFiles,
+				classpath);
+		CompilationCache.Result cached = cache.get(hash);
+		if (cached != null && !cached.compiles()) {
+			result.fatalError("Error: build failed (cached result).");
+			return;
+		} if (cached != null && !restoreClasses) {
+			result.debug("The program is known to compile (cached result).");
+			return;
+		} if (cached != null && cached.getClasses() != null &&
+				restore(cached.getClasses(), result)) {
+			result.debug("Restored " + cached.getClasses().size() +
+					" class files from the cache.");
+			return;
+		}
+		
+		// Compile the project
+		compiler.setProjectRoot(projectRoot);
+		Logger build = compiler.compile();
+		result.getPhases().addAll(build.getPhases());
+		if (build.hasFatalError()) {
+			cache.put(hash, new CompilationCache.Result(false, null));
+			result.fatalError("Error: build failed.");
+			return;
+		}
+		cache.put(hash, new CompilationCache.Result(true,
+				restoreClasses? read() : null));
+	}
+	
+	/**
+	 * Reads all the class files in the project.
+	 * 
+	 * @return the contents of the class files by their path relative to the
+	 * project root, or null if a class file could not be read.
+	 */
+	private Map<String, byte[]> read() {
+		String root = new File(projectRoot).getAbsolutePath();
+		Map<String, byte[]> classes = new HashMap<>();
+		for (File f : FileUtils.find(root, ".+\\.class", true)) {
+			String path = f.getAbsolutePath();
+			if (!path.startsWith(root)) {
+				continue;
+			}
+			try {
+				classes.put(path.substring(root.length()),
+						Files.readAllBytes(f.toPath()));
+			} catch (IOException e) {
+				return null;
+			}
+		}
+		return classes;
+	}
+	
+	/**
+	 * Replaces the class files in the project with the specified class files.
+	 * 
+	 * @param classes	the contents of the class files by their path
+	 * 					relative to the project root.
+	 * @param result	the current status of the compilation process.
+	 * @return true if and only if all the class files were written.
+	 */
+	private boolean restore(Map<String, byte[]> classes, Logger result) {
+		
+		// Remove the old class files
+		String root = new File(projectRoot).getAbsolutePath();
+		List<File> old = FileUtils.find(root, ".+\\.class", true);
+		for (File f : old) {
+			f.delete();
+		}
+		
+		// Write the cached class files
+		for (Map.Entry<String, byte[]> e : classes.entrySet()) {
+			File f = new File(root + e.getKey());
+			File dir = f.getParentFile();
+			if (!dir.isDirectory() && !dir.mkdirs()) {
+				result.warning("Unable to create '" + dir + "'.");
+				return false;
+			}
+			try (OutputStream os = new FileOutputStream(f)) {
+				os.write(e.getValue());
+			} catch (IOException ex) {
+				result.warning("Unable to write '" + f + "'. " +
+						ex.getLocalizedMessage());
+				return false;
+			}
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * Gets the compiler used when the result is not in the cache.
+	 * 
+	 * @return the compiler.
+	 * @since 1.0
+	 */
+	public ProjectCompiler getCompiler() {
+		return compiler;
+	}
+}
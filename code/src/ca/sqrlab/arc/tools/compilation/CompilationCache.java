@@ -0,0 +1,255 @@
+package ca.sqrlab.arc.tools.compilation;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The {@code CompilationCache} class stores the results of compilations
+ * based on a hash of the contents of the source files and a fingerprint of
+ * the classpath. Programs made up of the exact same source code compile the
+ * same way, so a program which is known not to compile can be rejected
+ * without running the compiler, and the class files of a program which was
+ * already compiled can be restored instead of compiling it again.
+ * 
+ * <p>The cache holds a limited number of programs. When it is full, the
+ * program which was used the longest time ago is removed.
+ * 
+ * @author Devon McGrath
+ * @see CachedCompiler
+ * @since 1.0
+ */
+public class CompilationCache {
+	
+	/** The algorithm used to hash the source files. */
+	public static final String HASH_ALGORITHM = "SHA-256";
+	
+	/** The results mapped by the hash of the program source. */
+	private Map<String, Result> results;
+	
+	/** The number of times a result was found in the cache. */
+	private int hits;
+	
+	/** The number of times a result was not found in the cache. */
+	private int misses;
+	
+	/**
+	 * Creates an empty cache which holds up to the specified number of
+	 * programs.
+	 * 
+	 * @param maxSize	the maximum number of programs in the cache.
+	 * @since 1.0
+	 */
+	public CompilationCache(final int maxSize) {
+		this.results = new LinkedHashMap<String, Result>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+			
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Result> e) {
+				return size() > maxSize;
+			}
+		};
+	}
+	
+	/**
+	 * Computes the hash of the source files of a program along with the
+	 * fingerprint of the classpath. The files are hashed in order of their
+	 * relative path, so the hash does not depend on the order of the source
+	 * files.
+	 * 
+	 * @param root			the root directory of the program.
+	 * @param sourceFiles	the relative paths of the source files.
+	 * @param classpath		the classpath the program is compiled with.
+	 * @return the hash or null if a file could not be read.
+	 * @since 1.0
+	 */
+	public static String hash(String root, String[] sourceFiles,
+			String classpath) {
+		
+		// Nothing to hash
+		if (root == null || sourceFiles == null) {
+			return null;
+		}
+		
+		MessageDigest md = null;
+		try {
+			md = MessageDigest.getInstance(HASH_ALGORITHM);
+		} catch (NoSuchAlgorithmException e) {
+			e.printStackTrace();
+			return null;
+		}
+		
+		// Hash each file with its path
+		String[] files = Arrays.copyOf(sourceFiles, sourceFiles.length);
+		Arrays.sort(files);
+		for (String relPath : files) {
+			if (relPath == null || relPath.isEmpty()) {
+				continue;
+			}
+			try {
+				md.update(relPath.getBytes(StandardCharsets.UTF_8));
+				md.update((byte) 0);
+				md.update(Files.readAllBytes(new File(root, relPath).toPath()));
+				md.update((byte) 0);
+			} catch (Exception e) {
+				return null;
+			}
+		}
+		md.update(getFingerprint(classpath).getBytes(StandardCharsets.UTF_8));
+		
+		// Convert the hash to hex
+		byte[] digest = md.digest();
+		StringBuilder sb = new StringBuilder();
+		for (byte b : digest) {
+			sb.append(String.format("%02x", b & 0xFF));
+		}
+		
+		return sb.toString();
+	}
+	
+	/**
+	 * Gets the fingerprint of a classpath. The fingerprint changes if the
+	 * classpath changes or if any of the files on it (such as JAR files) are
+	 * modified. The directories on the classpath are only identified by their
+	 * path, since they normally contain the classes being compiled.
+	 * 
+	 * @param classpath	the classpath.
+	 * @return the fingerprint.
+	 * @since 1.0
+	 */
+	public static String getFingerprint(String classpath) {
+		if (classpath == null || classpath.isEmpty()) {
+			return "";
+		}
+		StringBuilder sb = new StringBuilder();
+		for (String entry : classpath.split(File.pathSeparator)) {
+			File f = new File(entry);
+			sb.append(entry);
+			if (f.isFile()) {
+				sb.append(':').append(f.length()).append(':')
+					.append(f.lastModified());
+			}
+			sb.append(File.pathSeparatorChar);
+		}
+		return sb.toString();
+	}
+	
+	/**
+	 * Gets the result of compiling the program with the specified hash.
+	 * 
+	 * @param hash	the hash of the program.
+	 * @return the result or null if the program is not in the cache.
+	 * @see #hash(String, String[], String)
+	 * @since 1.0
+	 */
+	public synchronized Result get(String hash) {
+		Result result = hash == null? null : results.get(hash);
+		if (result != null) {
+			this.hits ++;
+		} else {
+			this.misses ++;
+		}
+		return result;
+	}
+	
+	/**
+	 * Stores the result of compiling the program with the specified hash.
+	 * 
+	 * @param hash		the hash of the program.
+	 * @param result	the result of the compilation.
+	 * @since 1.0
+	 */
+	public synchronized void put(String hash, Result result) {
+		if (hash != null && result != null) {
+			results.put(hash, result);
+		}
+	}
+	
+	/**
+	 * Gets the number of programs in the cache.
+	 * 
+	 * @return the size of the cache.
+	 * @since 1.0
+	 */
+	public synchronized int size() {
+		return results.size();
+	}
+	
+	/**
+	 * Gets the number of compilations which were avoided because their result
+	 * was in the cache.
+	 * 
+	 * @return the number of cache hits.
+	 * @since 1.0
+	 */
+	public synchronized int getHits() {
+		return hits;
+	}
+	
+	/**
+	 * Gets the number of compilations which were not in the cache.
+	 * 
+	 * @return the number of cache misses.
+	 * @since 1.0
+	 */
+	public synchronized int getMisses() {
+		return misses;
+	}
+	
+	/**
+	 * The {@code Result} class is the result of compiling a program: whether
+	 * it compiled and, if it did, optionally the class files which were
+	 * produced.
+	 * 
+	 * @author Devon McGrath
+	 * @since 1.0
+	 */
+	public static class Result {
+		
+		/** The flag indicating if the program compiled. */
+		private boolean compiles;
+		
+		/** The contents of the class files by their path relative to the
+		 * project root, or null if they were not kept. */
+		private Map<String, byte[]> classes;
+		
+		/**
+		 * Creates a compilation result.
+		 * 
+		 * @param compiles	true if the program compiled.
+		 * @param classes	the contents of the class files by their path
+		 * 					relative to the project root, which may be null.
+		 * @since 1.0
+		 */
+		public Result(boolean compiles, Map<String, byte[]> classes) {
+			this.compiles = compiles;
+			this.classes = classes;
+		}
+		
+		/**
+		 * Checks if the program compiled.
+		 * 
+		 * @return true if the program compiled.
+		 * @since 1.0
+		 */
+		public boolean compiles() {
+			return compiles;
+		}
+		
+		/**
+		 * Gets the class files produced by the compilation.
+		 * 
+		 * @return the contents of the class files by their path relative to
+		 * the project root, or null if they were not kept.
+		 * @since 1.0
+		 */
+		public Map<String, byte[]> getClasses() {
+			return classes;
+		}
+	}
+}
@@ -0,0 +1,429 @@
+package ca.sqrlab.arc.tools.compilation;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import ca.sqrlab.arc.io.FileReader;
+import ca.sqrlab.arc.io.FileUtils;
+import ca.sqrlab.arc.io.ProcessResult;
+import ca.sqrlab.arc.tools.monitoring.Logger;
+
+/**
+ * The {@code IncrementalCompiler} class compiles a project which is
+ * repeatedly changed in place, such as the ARC project directory when each
+ * mutant is checked. The first compilation is a full build using another
+ * compiler (normally an {@link AntCompiler}), which records the source of
+ * every compiled file and where its class files were placed. Each following
+ * compilation only recompiles the source files which differ from the last
+ * successful compilation, along with the files which refer to the classes
+ * declared in them, using javac directly with the existing class files on
+ * the classpath.
+ * 
+ * <p>The recompiled classes are written to a temporary directory first, so a
+ * mutant which does not compile leaves the existing class files untouched.
+ * A full build is used again whenever the class files of a changed file
+ * cannot be found or were changed by something else.
+ * 
+ * @author Devon McGrath
+ * @since 1.0
+ */
+public class IncrementalCompiler extends ProjectCompiler {
+	
+	/** The suffix of the temporary directory the classes are compiled to,
+	 * which is next to the project root. */
+	public static final String OUTPUT_SUFFIX = ".javac";
+	
+	/** The pattern to find the package of a source file. */
+	private static final Pattern PACKAGE_PATTERN = Pattern.compile(
+			"^\\s*package\\s+([\\w.]+)\\s*;", Pattern.MULTILINE);
+	
+	/** The pattern to find the classes declared in a source file. */
+	private static final Pattern TYPE_PATTERN = Pattern.compile(
+			"\\b(?:class|interface|enum)\\s+(\\w+)");
+	
+	/** The compiler used for full builds. */
+	private ProjectCompiler fallback;
+	
+	/** The path to the javac executable. */
+	private String javacPath;
+	
+	/** The classpath of the project, used along with the class directories
+	 * of the compiled source files. */
+	private String classpath;
+	
+	/** The paths of the source files, relative to the project root. */
+	private String[] sourceFiles;
+	
+	/** The source of each file at the last successful compilation, or null
+	 * if a full build is required. */
+	private Map<String, String> compiled;
+	
+	/** The directory which contains the class files of each source file. */
+	private Map<String, File> classDirs;
+	
+	/** The last modified time of the main class file of each source file. */
+	private Map<String, Long> stamps;
+	
+	/** The number of full builds. */
+	private int fullBuilds;
+	
+	/** The number of incremental builds. */
+	private int incrementalBuilds;
+	
+	/**
+	 * Creates an incremental compiler for the specified project.
+	 * 
+	 * @param projectRoot	the project root directory path.
+	 * @param sourceFiles	the paths of the project source files, relative to
+	 * 						the project root.
+	 * @param fallback		the compiler used for full builds.
+	 * @param javacPath		the path to the javac executable.
+	 * @param classpath		the classpath of the project, which may be null.
+	 * @since 1.0
+	 */
+	public IncrementalCompiler(String projectRoot, String[] sourceFiles,
+			ProjectCompiler fallback, String javacPath, String classpath) {
+		super(projectRoot);
+		this.sourceFiles = sourceFiles;
+		this.fallback = fallback;
+		this.javacPath = javacPath;
+		this.classpath = classpath;
+	}
+	
+	/**
+	 * Checks that there is a compiler for full builds and that the source
+	 * files are known.
+	 */
+	@Override
+	protected void checkDependencies(Logger result) {
+		if (fallback == null) {
+			result.fatalError("Error: no compiler for full builds.");
+		} if (sourceFiles == null || sourceFiles.length == 0) {
+			result.fatalError("Error: no project source files to compile.");
+		}
+	}
+	
+	/**
+	 * Recompiles the source files which changed since the last successful
+	 * compilation, or builds the whole project if that is not possible.
+	 */
+	@Override
+	protected synchronized void runCompiler(Logger result) {
+		
+		// Read the current source files
+		String ds = "" + FileUtils.getDirectorySeparator(projectRoot);
+		String root = projectRoot.endsWith(ds)? projectRoot : projectRoot + ds;
+		Map<String, String> current = new HashMap<>();
+		for (String f : sourceFiles) {
+			String text = read(root + f);
+			if (text == null) {
+				result.fatalError("Error: unable to read '" + f + "'.");
+				return;
+			}
+			current.put(f, text);
+		}
+		
+		// Find the files to recompile
+		Set<String> units = getUnitsToCompile(current);
+		if (units == null) {
+			fullBuild(current, result);
+			return;
+		} if (units.isEmpty()) {
+			result.debug("No source files changed since the last compilation.");
+			return;
+		}
+		
+		// Compile them to a temporary directory
+		File out = new File(new File(projectRoot).getAbsolutePath() +
+				OUTPUT_SUFFIX);
+		FileUtils.remove(out.getAbsolutePath());
+		if (!out.mkdirs()) {
+			fullBuild(current, result);
+			return;
+		}
+		Boolean success = javac(units, out, result);
+		if (success == null) {
+			FileUtils.remove(out.getAbsolutePath());
+			fullBuild(current, result);
+			return;
+		} if (!success) {
+			FileUtils.remove(out.getAbsolutePath());
+			result.fatalError("Error: build failed.");
+			return;
+		}
+		
+		// Remove the class files of the recompiled files
+		Map<File, String> packages = new HashMap<>();
+		for (String f : units) {
+			File classDir = classDirs.get(f);
+			String name = getName(f);
+			File[] old = classDir.listFiles();
+			for (int i = 0; old != null && i < old.length; i ++) {
+				String n = old[i].getName();
+				if (n.equals(name + ".class") || n.startsWith(name + "$")) {
+					old[i].delete();
+				}
+			}
+			packages.put(classDir, getPackage(current.get(f)));
+		}
+		
+		// Copy the new class files of each package
+		for (Map.Entry<File, String> e : packages.entrySet()) {
+			File[] classes = new File(out, e.getValue().replace(
+					".", File.separator)).listFiles();
+			for (int i = 0; classes != null && i < classes.length; i ++) {
+				if (classes[i].getName().endsWith(".class")) {
+					FileUtils.copy(classes[i].getAbsolutePath(), new File(
+							e.getKey(), classes[i].getName()).getAbsolutePath(),
+							false);
+				}
+			}
+		}
+		for (String f : units) {
+			compiled.put(f, current.get(f));
+			stamps.put(f, new File(classDirs.get(f), getName(f) + ".class")
+					.lastModified());
+		}
+		FileUtils.remove(out.getAbsolutePath());
+		this.incrementalBuilds ++;
+		result.debug("Recompiled " + units.size() + " of " +
+				sourceFiles.length + " source files incrementally.");
+	}
+	
+	/**
+	 * Gets the source files which need to be recompiled: the files which
+	 * changed since the last successful compilation and the files which
+	 * refer to the classes declared in them.
+	 * 
+	 * @param current	the current source of each file.
+	 * @return the files to recompile or null if a full build is required.
+	 */
+	private Set<String> getUnitsToCompile(Map<String, String> current) {
+		
+		if (compiled == null) {
+			return null;
+		}
+		
+		// Find the changed files and the classes declared in them
+		Set<String> units = new LinkedHashSet<>();
+		Set<String> types = new HashSet<>();
+		for (String f : sourceFiles) {
+			String text = current.get(f);
+			if (text.equals(compiled.get(f))) {
+				continue;
+			}
+			units.add(f);
+			types.add(getName(f));
+			Matcher m = TYPE_PATTERN.matcher(text);
+			while (m.find()) {
+				types.add(m.group(1));
+			}
+		}
+		if (units.isEmpty()) {
+			return units;
+		}
+		
+		// Add the files which refer to those classes
+		for (String f : sourceFiles) {
+			if (units.contains(f)) {
+				continue;
+			}
+			String text = current.get(f);
+			for (String type : types) {
+				if (Pattern.compile("\\b" + Pattern.quote(type) + "\\b")
+						.matcher(text).find()) {
+					units.add(f);
+					break;
+				}
+			}
+		}
+		
+		// The class files of each file must be unchanged
+		for (String f : units) {
+			File classDir = classDirs.get(f);
+			Long stamp = stamps.get(f);
+			if (classDir == null || stamp == null || stamp != new File(
+					classDir, getName(f) + ".class").lastModified()) {
+				return null;
+			}
+		}
+		
+		return units;
+	}
+	
+	/**
+	 * Compiles the specified source files with javac.
+	 * 
+	 * @param units		the paths of the source files, relative to the
+	 * 					project root.
+	 * @param out		the directory to write the class files to.
+	 * @param result	the current status of the compilation process.
+	 * @return true if the files compiled, false if they did not or null if
+	 * javac could not be run.
+	 */
+	private Boolean javac(Set<String> units, File out, Logger result) {
+		
+		List<String> cmd = new ArrayList<>();
+		cmd.add(javacPath);
+		cmd.add("-nowarn");
+		cmd.add("-implicit:none");
+		cmd.add("-d");
+		cmd.add(out.getAbsolutePath());
+		cmd.add("-cp");
+		
+		// The existing classes come first so they are used over any copy
+		// of the classes in the project classpath
+		String path = "";
+		for (String entry : getClassRoots()) {
+			path += (path.isEmpty()? "" : File.pathSeparator) + entry;
+		} if (classpath != null && !classpath.isEmpty()) {
+			path += (path.isEmpty()? "" : File.pathSeparator) + classpath;
+		}
+		cmd.add(path.isEmpty()? "." : path);
+		cmd.addAll(units);
+		
+		// Run javac
+		try {
+			ProcessBuilder pb = new ProcessBuilder(cmd);
+			pb.directory(new File(projectRoot));
+			Process p = pb.start();
+			ProcessResult pr = new ProcessResult(p);
+			pr.readStreams();
+			int code = p.waitFor();
+			result.debug("Executed command '" + String.join(" ", cmd) + "'.");
+			if (code != 0) {
+				result.debug("STDERR='" + pr.getSTDERR() + "'");
+			}
+			return code == 0;
+		} catch (Exception e) {
+			result.warning("Unable to compile incrementally using '" +
+					javacPath + "'. " + e.getLocalizedMessage());
+			return null;
+		}
+	}
+	
+	/**
+	 * Builds the whole project using the fallback compiler. If the build is
+	 * successful, the source and class files of each source file are
+	 * recorded for the next incremental compilation.
+	 * 
+	 * @param current	the current source of each file.
+	 * @param result	the current status of the compilation process.
+	 */
+	private void fullBuild(Map<String, String> current, Logger result) {
+		
+		// Build the project
+		this.compiled = null;
+		fallback.setProjectRoot(projectRoot);
+		Logger build = fallback.compile();
+		result.getPhases().addAll(build.getPhases());
+		this.fullBuilds ++;
+		if (build.hasFatalError()) {
+			result.fatalError("Error: build failed.");
+			return;
+		}
+		
+		// Find the class files of each source file
+		List<File> classes = FileUtils.find(projectRoot, ".+\\.class", true);
+		this.classDirs = new HashMap<>();
+		this.stamps = new HashMap<>();
+		for (String f : sourceFiles) {
+			String pkg = getPackage(current.get(f));
+			String suffix = File.separator + (pkg.isEmpty()? "" :
+				pkg.replace(".", File.separator) + File.separator) +
+					getName(f) + ".class";
+			for (File c : classes) {
+				if (c.getAbsolutePath().endsWith(suffix)) {
+					classDirs.put(f, c.getParentFile());
+					stamps.put(f, c.lastModified());
+					break;
+				}
+			}
+		}
+		this.compiled = new HashMap<>(current);
+	}
+	
+	/**
+	 * Gets the root directories of the compiled classes, which contain the
+	 * package directories.
+	 * 
+	 * @return the class root directories.
+	 */
+	private Set<String> getClassRoots() {
+		Set<String> roots = new LinkedHashSet<>();
+		for (Map.Entry<String, File> e : classDirs.entrySet()) {
+			String pkg = getPackage(compiled.get(e.getKey()));
+			File dir = e.getValue();
+			for (int i = 0; !pkg.isEmpty() && i <= pkg.length() -
+					pkg.replace(".", "").length() && dir != null; i ++) {
+				dir = dir.getParentFile();
+			}
+			if (dir != null) {
+				roots.add(dir.getAbsolutePath());
+			}
+		}
+		return roots;
+	}
+	
+	/**
+	 * Reads the source file at the specified path.
+	 * 
+	 * @param path	the path to the source file.
+	 * @return the source or null if it could not be read.
+	 */
+	private static String read(String path) {
+		List<String> lines = FileReader.read(path);
+		return lines == null? null : String.join("\n", lines);
+	}
+	
+	/**
+	 * Gets the package declared in the specified source.
+	 * 
+	 * @param text	the source.
+	 * @return the package name or an empty string for the default package.
+	 */
+	private static String getPackage(String text) {
+		Matcher m = PACKAGE_PATTERN.matcher(text == null? "" : text);
+		return m.find()? m.group(1) : "";
+	}
+	
+	/**
+	 * Gets the name of the main class of the specified source file.
+	 * 
+	 * @param f	the path to the source file.
+	 * @return the file name without the extension.
+	 */
+	private static String getName(String f) {
+		String name = new File(f).getName();
+		int idx = name.lastIndexOf('.');
+		return idx < 0? name : name.substring(0, idx);
+	}
+	
+	/**
+	 * Gets the number of full builds done by this compiler.
+	 * 
+	 * @return the number of full builds.
+	 * @since 1.0
+	 */
+	public synchronized int getFullBuilds() {
+		return fullBuilds;
+	}
+	
+	/**
+	 * Gets the number of incremental builds done by this compiler.
+	 * 
+	 * @return the number of incremental builds.
+	 * @since 1.0
+	 */
+	public synchronized int getIncrementalBuilds() {
+		return incrementalBuilds;
+	}
+}
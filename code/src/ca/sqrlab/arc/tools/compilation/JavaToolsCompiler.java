@@ -0,0 +1,266 @@
+package ca.sqrlab.arc.tools.compilation;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import ca.sqrlab.arc.io.FileUtils;
+import ca.sqrlab.arc.tools.AntBuildFile;
+import ca.sqrlab.arc.tools.monitoring.Logger;
+
+/**
+ * The {@code JavaToolsCompiler} class compiles a program inside the ARC JVM
+ * using the {@link JavaCompiler} from {@code javax.tools}, instead of
+ * starting ant and javac processes. The source directories and the classpath
+ * are taken from the javac tasks of the compile target in the ant build file
+ * ({@value AntCompiler#BUILD_FILE}), and all the source files are compiled
+ * together.
+ * 
+ * <p>The class files are kept in memory, so checking if a program compiles
+ * does not touch the class files on disk. The file manager of the compiler
+ * is kept between compilations, so the same compiler should be used for
+ * every compilation of a project.
+ * 
+ * @author Devon McGrath
+ * @see ca.sqrlab.arc.ARC#SETTING_COMPILER
+ * @since 1.0
+ */
+public class JavaToolsCompiler extends ProjectCompiler {
+	
+	/** The name of the compiler in {@link ca.sqrlab.arc.ARC#SETTING_COMPILER}. */
+	public static final String NAME = "javax";
+	
+	/** The Java compiler, which is null if ARC is not running on a JDK. */
+	private static final JavaCompiler COMPILER =
+			ToolProvider.getSystemJavaCompiler();
+	
+	/** The javac tasks of the compile target. */
+	private List<AntBuildFile.AntJavac> tasks;
+	
+	/** The classpath of the compile target. */
+	private String classpath;
+	
+	/** The file manager of the compiler, which is kept between
+	 * compilations. */
+	private StandardJavaFileManager fileManager;
+	
+	/**
+	 * Creates a compiler for the specified project, using the javac tasks and
+	 * classpath of the specified target in the project's build file.
+	 * 
+	 * @param projectRoot	the project root directory path.
+	 * @param compileTarget	the name of the target to compile the project.
+	 * @since 1.0
+	 */
+	public JavaToolsCompiler(String projectRoot, String compileTarget) {
+		super(projectRoot);
+		if (compileTarget == null || compileTarget.isEmpty()) {
+			compileTarget = AntCompiler.DEFAULT_ANT_COMPILE_TARGET;
+		}
+		
+		// Get the source directories and classpath from the build file
+		char ds = FileUtils.getDirectorySeparator(projectRoot);
+		AntBuildFile bf = new AntBuildFile(projectRoot + ds +
+				AntCompiler.BUILD_FILE);
+		this.tasks = bf.getJavacTasks(compileTarget);
+		this.classpath = bf.getClassPath(compileTarget);
+	}
+	
+	/**
+	 * Checks if ARC is running on a JDK, which is required to compile
+	 * programs in-process.
+	 * 
+	 * @return true if the Java compiler is available.
+	 * @since 1.0
+	 */
+	public static boolean isAvailable() {
+		return COMPILER != null;
+	}
+	
+	/**
+	 * Checks that the Java compiler is available and that the build file has
+	 * javac tasks to compile.
+	 */
+	@Override
+	protected void checkDependencies(Logger result) {
+		if (COMPILER == null) {
+			result.fatalError("Error: no Java compiler is available (ARC " +
+					"must be run with a JDK).");
+		} if (tasks == null || tasks.isEmpty()) {
+			result.fatalError("Error: no javac tasks were found in the build " +
+					"file '" + AntCompiler.BUILD_FILE + "'.");
+		}
+	}
+	
+	/**
+	 * Compiles the source files of every javac task in memory.
+	 */
+	@Override
+	protected synchronized void runCompiler(Logger result) {
+		
+		// Find the source files of each task
+		List<File> sources = new ArrayList<>();
+		for (AntBuildFile.AntJavac task : tasks) {
+			File srcDir = resolve(task.getSourceDir());
+			if (srcDir == null || !srcDir.isDirectory()) {
+				result.warning("Skipping missing source directory '" +
+						task.getSourceDir() + "'.");
+				continue;
+			}
+			sources.addAll(FileUtils.find(srcDir.getAbsolutePath(),
+					".+\\.java", true));
+		}
+		if (sources.isEmpty()) {
+			result.fatalError("Error: no source files to compile.");
+			return;
+		}
+		
+		// Create the file manager once, so it is warm for later compilations
+		if (fileManager == null) {
+			fileManager = COMPILER.getStandardFileManager(null, null, null);
+		}
+		
+		// Compile everything in memory
+		List<String> options = new ArrayList<>();
+		options.add("-nowarn");
+		options.add("-cp");
+		options.add(getClasspath());
+		DiagnosticCollector<JavaFileObject> dc = new DiagnosticCollector<>();
+		MemoryFileManager fm = new MemoryFileManager(fileManager);
+		boolean success;
+		try {
+			success = COMPILER.getTask(null, fm, dc, options, null,
+					fileManager.getJavaFileObjectsFromFiles(sources)).call();
+		} catch (RuntimeException e) {
+			result.fatalError("Error: the compiler failed. " +
+					e.getLocalizedMessage());
+			return;
+		}
+		result.debug("Compiled " + sources.size() + " source files in-process.");
+		
+		// Report the errors
+		if (!success) {
+			for (Diagnostic<? extends JavaFileObject> d : dc.getDiagnostics()) {
+				if (d.getKind() == Diagnostic.Kind.ERROR) {
+					JavaFileObject src = d.getSource();
+					result.debug((src == null? "" : src.getName() + ":" +
+							d.getLineNumber() + ": ") + d.getMessage(null));
+				}
+			}
+			result.fatalError("Error: build failed.");
+		}
+	}
+	
+	/**
+	 * Gets the classpath of the compile target, with the relative path
+	 * elements resolved against the project root.
+	 * 
+	 * @return the classpath.
+	 */
+	private String getClasspath() {
+		String cp = "";
+		if (classpath != null) {
+			for (String entry : classpath.split(File.pathSeparator)) {
+				File f = resolve(entry);
+				if (f != null) {
+					cp += (cp.isEmpty()? "" : File.pathSeparator) +
+							f.getAbsolutePath();
+				}
+			}
+		}
+		return cp.isEmpty()? new File(projectRoot).getAbsolutePath() : cp;
+	}
+	
+	/**
+	 * Resolves a path from the build file against the project root.
+	 * 
+	 * @param path	the path, which may be relative.
+	 * @return the file or null if the path is empty.
+	 */
+	private File resolve(String path) {
+		if (path == null || path.trim().isEmpty()) {
+			return null;
+		}
+		File f = new File(path.trim());
+		return f.isAbsolute()? f : new File(projectRoot, path.trim());
+	}
+	
+	/**
+	 * The {@code ClassFile} class is a class file produced by the compiler,
+	 * which is kept in memory.
+	 * 
+	 * @author Devon McGrath
+	 * @since 1.0
+	 */
+	private static class ClassFile extends SimpleJavaFileObject {
+		
+		/** The contents of the class file. */
+		private ByteArrayOutputStream bytes;
+		
+		/**
+		 * Creates an empty class file.
+		 * 
+		 * @param className	the binary name of the class.
+		 */
+		public ClassFile(String className) {
+			super(URI.create("mem:///" + className.replace('.', '/') +
+					Kind.CLASS.extension), Kind.CLASS);
+			this.bytes = new ByteArrayOutputStream();
+		}
+		
+		@Override
+		public OutputStream openOutputStream() {
+			return bytes;
+		}
+	}
+	
+	/**
+	 * The {@code MemoryFileManager} class keeps the class files produced by
+	 * the compiler in memory, so they are discarded after the compilation,
+	 * and uses the standard file manager for everything else.
+	 * 
+	 * @author Devon McGrath
+	 * @since 1.0
+	 */
+	private static class MemoryFileManager
+			extends ForwardingJavaFileManager<JavaFileManager> {
+		
+		/**
+		 * Creates a file manager which keeps the class files in memory.
+		 * 
+		 * @param fileManager	the standard file manager.
+		 */
+		public MemoryFileManager(JavaFileManager fileManager) {
+			super(fileManager);
+		}
+		
+		@Override
+		public JavaFileObject getJavaFileForOutput(Location location,
+				String className, JavaFileObject.Kind kind, FileObject sibling)
+						throws IOException {
+			if (kind != JavaFileObject.Kind.CLASS) {
+				return super.getJavaFileForOutput(location, className, kind,
+						sibling);
+			}
+			return new ClassFile(className);
+		}
+		
+		@Override
+		public void close() {}
+	}
+}
@@ -2,7 +2,6 @@ package ca.sqrlab.arc.tools.instrumentation;
 
 import java.io.File;
 
-import ca.sqrlab.arc.ARC;
 import ca.sqrlab.arc.Project;
 import ca.sqrlab.arc.io.ProcessResult;
 import ca.sqrlab.arc.tools.monitoring.Logger;
@@ -88,7 +87,8 @@ public class CFlashInstrumentor extends Instrumentor {
 	}
 
 	@Override
-	protected void runInstrumentation(Logger result, Project project) {
+	protected void runInstrumentation(Logger result, Project project,
+			String projectRoot) {
 		
 		// Check if the project has any source files
 		String[] sourceFiles = project.getSourceFiles();
@@ -99,7 +99,6 @@ public class CFlashInstrumentor extends Instrumentor {
 		
 		// Build the paths
 		String ds = File.pathSeparatorChar == ':'? "/" : "\\";
-		String projectRoot = project.getSetting(ARC.SETTING_PROJECT_DIR);
 		String base = txlFileDir;
 		if (!base.endsWith(ds)) {
 			base += ds;
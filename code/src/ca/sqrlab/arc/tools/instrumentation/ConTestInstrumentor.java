@@ -3,7 +3,6 @@ package ca.sqrlab.arc.tools.instrumentation;
 import java.io.File;
 import java.util.List;
 
-import ca.sqrlab.arc.ARC;
 import ca.sqrlab.arc.Project;
 import ca.sqrlab.arc.io.FileUtils;
 import ca.sqrlab.arc.io.ProcessResult;
@@ -38,12 +37,12 @@ public class ConTestInstrumentor extends Instrumentor {
 	}
 
 	@Override
-	protected void runInstrumentation(Logger result, Project project) {
+	protected void runInstrumentation(Logger result, Project project,
+			String projectRoot) {
 		
 		File dir = new File(projectClassDir);
 		
 		// Get all the files
-		String projectRoot = project.getSetting(ARC.SETTING_PROJECT_DIR);
 		JavaProject jp = new JavaProject(projectRoot);
 		List<JavaFile> files = jp.getJavaFiles();
 		String classes = "";
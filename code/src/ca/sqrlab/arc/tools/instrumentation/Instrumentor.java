@@ -57,6 +57,25 @@ public abstract class Instrumentor {
 	 * @since 1.0
 	 */
 	public final Logger instrument(Project project) {
+		return instrument(project, project == null? null :
+			project.getSetting(ARC.SETTING_PROJECT_DIR));
+	}
+	
+	/**
+	 * Attempts to instrument the project's source files which are located in
+	 * the specified project root, instead of the working project directory.
+	 * If the process fails, the logger returned will have a fatal error.
+	 * 
+	 * @param project		the project to instrument.
+	 * @param projectRoot	the directory containing the copy of the project
+	 * 						to instrument.
+	 * @return the logger which tracked the instrumentation process.
+	 * 
+	 * @see #instrument(Project)
+	 * @see Logger#hasFatalError()
+	 * @since 1.0
+	 */
+	public final Logger instrument(Project project, String projectRoot) {
 		
 		// Check the project
 		Logger result = new Logger("Instrumentation");
@@ -65,7 +84,6 @@ public abstract class Instrumentor {
 			result.fatalError("Invalid project.");
 			return result;
 		}
-		String projectRoot = project.getSetting(ARC.SETTING_PROJECT_DIR);
 		result.debug("Project root: " + projectRoot);
 		
 		// Call the actual instrumentation process if valid
@@ -76,7 +94,7 @@ public abstract class Instrumentor {
 			
 			// No fatal error, so instrument
 			if (!result.hasFatalError()) {
-				runInstrumentation(result, project);
+				runInstrumentation(result, project, projectRoot);
 			}
 		}
 		
@@ -92,7 +110,7 @@ public abstract class Instrumentor {
 	/**
 	 * Checks for required dependencies such as files, directories, processes
 	 * etc. If a dependency is missing which is required in the
-	 * {@link #runInstrumentation(Logger, Project)} step, a fatal error should
+	 * {@link #runInstrumentation(Logger, Project, String)} step, a fatal error should
 	 * be logged in the logger.
 	 * 
 	 * @param result	the logger to keep track of the instrumentation process.
@@ -106,11 +124,14 @@ public abstract class Instrumentor {
 	 * Attempts to instrument the source files in the project. If any part of
 	 * the process fails, a fatal error should be logged.
 	 * 
-	 * @param result	the logger to keep track of the instrumentation process.
-	 * @param project	the project to instrument.
+	 * @param result		the logger to keep track of the instrumentation
+	 * 						process.
+	 * @param project		the project to instrument.
+	 * @param projectRoot	the directory containing the project files.
 	 * 
 	 * @see Logger#fatalError(String)
 	 * @since 1.0
 	 */
-	protected abstract void runInstrumentation(Logger result, Project project);
+	protected abstract void runInstrumentation(Logger result, Project project,
+			String projectRoot);
 }
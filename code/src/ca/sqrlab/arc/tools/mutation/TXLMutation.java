@@ -55,6 +55,18 @@ public class TXLMutation {
 	public static final TXLMutation MUTATION_SHSB =
 			new TXLMutation("SHSB.Txl", "SHSB", false, true);
 	
+	public static final TXLMutation MUTATION_ASAT_CMV =
+			new TXLMutation("ASAT_CMV.Txl", "ASAT_CMV", true, true, ARG_CLASS,
+					ARG_METHOD, ARG_VAR, ARG_SYNC_VAR);
+	
+	public static final TXLMutation MUTATION_ASIM_CM =
+			new TXLMutation("ASIM_CM.Txl", "ASIM_CM", true, true, ARG_CLASS,
+					ARG_METHOD);
+	
+	public static final TXLMutation MUTATION_ASM_CV =
+			new TXLMutation("ASM_CV.Txl", "ASM_CV", true, true, ARG_CLASS,
+					ARG_SYNC_VAR);
+	
 	private String mutationFile;
 	
 	private String mutationName;
@@ -128,6 +140,24 @@ public class TXLMutation {
 	public boolean fixesDeadlocks() {
 		return fixesDeadlocks;
 	}
+	
+	/**
+	 * Checks if this operator targets a specific class, method or variable,
+	 * which requires static analysis to supply the argument values.
+	 * 
+	 * @return true if the operator has a class, method or variable argument.
+	 * @see ca.sqrlab.arc.java.StaticAnalyzer
+	 * @since 1.0
+	 */
+	public boolean isTargeted() {
+		for (String arg : arguments) {
+			if (ARG_CLASS.equals(arg) || ARG_METHOD.equals(arg) ||
+					ARG_VAR.equals(arg)) {
+				return true;
+			}
+		}
+		return false;
+	}
 
 	/**
 	 * Gets the command to execute this TXL mutation operator.
@@ -0,0 +1,143 @@
+package ca.sqrlab.arc.tools.testing;
+
+/**
+ * The {@code SPRTStoppingRule} class stops testing a program once the
+ * sequential probability ratio test (SPRT) decides on which side of each
+ * threshold the pass rate of the program is. The pass rate is the ratio of
+ * unit tests which passed over the unit tests which ran, which is the same
+ * value as the fitness score of an individual.
+ * 
+ * <p>For each threshold {@code p}, the test compares the hypothesis that the
+ * pass rate is at most {@code p - delta} against the hypothesis that it is
+ * at least {@code p + delta}. Testing stops once every threshold has been
+ * decided, with the error probabilities {@code alpha} and {@code beta}.
+ * 
+ * @author Devon McGrath
+ * @since 1.0
+ */
+public class SPRTStoppingRule implements StoppingRule {
+	
+	/** The default probability of deciding a program is better than a
+	 * threshold when it is not. */
+	public static final double DEFAULT_ALPHA = 0.05;
+	
+	/** The default probability of deciding a program is worse than a
+	 * threshold when it is not. */
+	public static final double DEFAULT_BETA = 0.05;
+	
+	/** The default half-width of the indifference region around each
+	 * threshold. */
+	public static final double DEFAULT_DELTA = 0.1;
+	
+	/** The smallest distance of a hypothesis from 0 or 1. */
+	private static final double EPSILON = 0.001;
+	
+	/** The upper log-likelihood ratio bound (above a threshold). */
+	private double upper;
+	
+	/** The lower log-likelihood ratio bound (below a threshold). */
+	private double lower;
+	
+	/** The half-width of the indifference region. */
+	private double delta;
+	
+	/** The pass rates which the program is compared against. */
+	private double[] thresholds;
+	
+	/**
+	 * Creates a stopping rule for the specified thresholds.
+	 * 
+	 * @param alpha			the probability of deciding the pass rate is above
+	 * 						a threshold when it is not.
+	 * @param beta			the probability of deciding the pass rate is below
+	 * 						a threshold when it is not.
+	 * @param delta			the half-width of the indifference region.
+	 * @param thresholds	the pass rates to compare against (e.g. the
+	 * 						score of the original program and the best score).
+	 * @since 1.0
+	 */
+	public SPRTStoppingRule(double alpha, double beta, double delta,
+			double... thresholds) {
+		if (alpha <= 0 || alpha >= 1) {
+			alpha = DEFAULT_ALPHA;
+		} if (beta <= 0 || beta >= 1) {
+			beta = DEFAULT_BETA;
+		} if (delta <= 0 || delta >= 0.5) {
+			delta = DEFAULT_DELTA;
+		}
+		this.upper = Math.log((1 - beta) / alpha);
+		this.lower = Math.log(beta / (1 - alpha));
+		this.delta = delta;
+		this.thresholds = thresholds == null? new double[0] : thresholds;
+	}
+	
+	@Override
+	public boolean shouldStop(TestResult[] results, int count) {
+		
+		// Nothing to decide on
+		if (results == null || count <= 0 || thresholds.length == 0) {
+			return false;
+		}
+		
+		// Count the passed and failed unit tests
+		int passes = 0, failures = 0;
+		for (int i = 0; i < count && i < results.length; i ++) {
+			TestResult tr = results[i];
+			if (tr == null) {
+				return false;
+			}
+			passes += tr.successes;
+			failures += Math.max(0, tr.tests - tr.successes);
+		}
+		if (passes + failures == 0) {
+			return false;
+		}
+		
+		// Check that each threshold is decided
+		for (double p : thresholds) {
+			if (Double.isNaN(p) || Double.isInfinite(p)) {
+				continue;
+			}
+			double p0 = clamp(p - delta), p1 = clamp(p + delta);
+			if (p0 >= p1) { // the threshold cannot be crossed
+				continue;
+			}
+			double llr = passes * Math.log(p1 / p0) +
+					failures * Math.log((1 - p1) / (1 - p0));
+			if (llr > lower && llr < upper) {
+				return false;
+			}
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * The sequential probability ratio test always needs the earlier results,
+	 * so a single result never aborts testing.
+	 */
+	@Override
+	public boolean shouldAbort(TestResult result) {
+		return false;
+	}
+	
+	/**
+	 * Keeps a probability strictly between 0 and 1.
+	 * 
+	 * @param p	the probability.
+	 * @return the probability, at least {@value #EPSILON} away from 0 and 1.
+	 */
+	private static double clamp(double p) {
+		return Math.min(1 - EPSILON, Math.max(EPSILON, p));
+	}
+	
+	/**
+	 * Gets the pass rates which the program is compared against.
+	 * 
+	 * @return the thresholds.
+	 * @since 1.0
+	 */
+	public double[] getThresholds() {
+		return thresholds;
+	}
+}
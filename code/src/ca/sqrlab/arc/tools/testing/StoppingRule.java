@@ -0,0 +1,41 @@
+package ca.sqrlab.arc.tools.testing;
+
+/**
+ * The {@code StoppingRule} interface decides if a program has been tested
+ * enough, before all the requested test-suite executions have been run. The
+ * {@link TestRunner} checks the rule after each test-suite execution, in the
+ * order the executions were started.
+ * 
+ * <p>Implementations must not keep any state between calls, since the same
+ * rule may be used to test multiple programs at the same time.
+ * 
+ * @author Devon McGrath
+ * @see TestRunner#execute(int, boolean, StoppingRule)
+ * @since 1.0
+ */
+public interface StoppingRule {
+	
+	/**
+	 * Checks if testing should stop, based on the first test results.
+	 * 
+	 * @param results	the test results, in the order the test-suite
+	 * 					executions were started.
+	 * @param count		the number of test results which are complete, from
+	 * 					the start of the array.
+	 * @return true if no more test-suite executions are needed.
+	 * @since 1.0
+	 */
+	public boolean shouldStop(TestResult[] results, int count);
+	
+	/**
+	 * Checks if a single test result is enough to stop testing immediately,
+	 * without waiting for the test-suite executions started before it. When
+	 * test-suite executions run concurrently, the executions which are still
+	 * running are cancelled.
+	 * 
+	 * @param result	a completed test result.
+	 * @return true if testing should be aborted.
+	 * @since 1.0
+	 */
+	public boolean shouldAbort(TestResult result);
+}
@@ -2,8 +2,22 @@ package ca.sqrlab.arc.tools.testing;
 
 import java.io.File;
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -11,16 +25,47 @@ import ca.sqrlab.arc.ARC;
 import ca.sqrlab.arc.Project;
 import ca.sqrlab.arc.io.FileUtils;
 import ca.sqrlab.arc.io.ProcessResult;
+import ca.sqrlab.arc.tools.ARCUtils;
 
 public class TestRunner {
 	
+	/** The default number of test-suite executions to run at once. */
+	public static final int DEFAULT_CONCURRENT_TEST_RUNS = 1;
+	
+	/** The suffix of the directories which concurrent test-suite executions
+	 * are run in, followed by the slot number. */
+	public static final String RUN_DIR_SUFFIX = "-run-";
+	
+	/** The copies of the project directories for concurrent test-suite
+	 * executions which were created by this JVM. */
+	private static final Set<String> RUN_DIRS = Collections.newSetFromMap(
+			new ConcurrentHashMap<String, Boolean>());
+	
 	private ARC arc;
 	
+	/** The directory to run the tests in, or null to use the ARC project
+	 * directory. */
+	private String projectDir;
+	
+	/** The number of test-suite executions to run at once, or 0 to use
+	 * {@link ARC#SETTING_CONCURRENT_TEST_RUNS}. */
+	private int concurrentRuns;
+	
 	public TestRunner(ARC arc) {
 		setARC(arc);
 	}
 	
+	public TestRunner(ARC arc, String projectDir) {
+		setARC(arc);
+		setProjectDirectory(projectDir);
+	}
+	
 	private TestResult execute(boolean isFunctional) {
+		return execute(isFunctional, getProjectDirectory(), null);
+	}
+	
+	private TestResult execute(boolean isFunctional, String pd,
+			AtomicBoolean cancel) {
 		
 		long t = System.currentTimeMillis();
 		TestResult tr = new TestResult();
@@ -31,7 +76,6 @@ public class TestRunner {
 		}
 		
 		// Get some arguments
-		String pd = arc.getSetting(ARC.SETTING_PROJECT_DIR);
 		String java = arc.getSetting(ARC.SETTING_JAVA);
 		String mems = arc.getSetting(Project.PROJECT_TEST_MB);
 		String cp = arc.getSetting(ARC.SETTING_PROJECT_CLASSPATH);
@@ -45,14 +89,18 @@ public class TestRunner {
 		}
 		if (cp == null) {
 			cp = pd;
+		} else {
+			cp = rebaseClasspath(cp, pd);
 		}
 		
 		// Add some extra dependencies to the classpath
 		String[] toAdd = {ARC.SETTING_JUNIT_JAR, ARC.SETTING_HAMCREST_JAR};
+		String projectCp = cp, libs = "";
 		for (String setting : toAdd) {
 			String sv = arc.getSetting(setting);
 			if (sv != null && !sv.isEmpty()) {
 				cp += File.pathSeparatorChar + sv;
+				libs += (libs.isEmpty()? "" : File.pathSeparator) + sv;
 			}
 		}
 		
@@ -78,6 +126,20 @@ public class TestRunner {
 		}
 		mems = "-Xmx" + mem + "m";
 		
+		// Run the test-suite in a test worker JVM, if they are used
+		TestWorkerPool pool = arc.getTestWorkerPool();
+		if (pool != null && pool.isEnabled()) {
+			Boolean done = runWorker(pool, java, mems, libs, projectCp, pd, ts,
+					tr, isFunctional, cancel);
+			if (done != null && !done) {
+				return null;
+			} if (done != null) {
+				tr.setCommand(TestWorker.class.getName() + " " + ts);
+				tr.setExecutionTimeMillis(System.currentTimeMillis() - t);
+				return tr;
+			}
+		}
+		
 		// Build the command
 		String cmd = java + " " + mems + " -cp " + cp +
 				" org.junit.runner.JUnitCore " + ts;
@@ -86,9 +148,11 @@ public class TestRunner {
 		// Start the process
 		ProcessBuilder pb = new ProcessBuilder(java, mems, "-cp", cp,
 				"org.junit.runner.JUnitCore", ts);
-		pb.directory(new File(arc.getSetting(ARC.SETTING_PROJECT_DIR)));
+		pb.directory(new File(pd));
 		try {
-			runProcess(pb, tr, isFunctional);
+			if (!runProcess(pb, tr, isFunctional, cancel)) {
+				return null;
+			}
 		} catch (IOException e) {
 			tr.setStatus(TestStatus.INVALID);
 			tr.addError("Error: execution of the process failed. " +
@@ -102,6 +166,22 @@ public class TestRunner {
 	}
 	
 	public TestingSummary execute(int runs, boolean isFunctional) {
+		return execute(runs, isFunctional, null);
+	}
+	
+	/**
+	 * Executes the test-suite up to the specified number of times. After each
+	 * test-suite execution, the stopping rule is checked to determine if the
+	 * remaining executions are needed.
+	 * 
+	 * @param runs			the maximum number of test-suite executions.
+	 * @param isFunctional	true if the tests are functional tests.
+	 * @param rule			the rule which can stop testing early, or null
+	 * 						to run all the test-suite executions.
+	 * @return the summary of the test-suite executions which were run.
+	 */
+	public TestingSummary execute(int runs, boolean isFunctional,
+			StoppingRule rule) {
 		
 		// Invalid number of runs or no ARC
 		if (runs <= 0 || arc == null) {
@@ -124,31 +204,288 @@ public class TestRunner {
 			TestResult[] err = {results[0]};
 			return new TestingSummary(err);
 		}
-		for (int i = 1; i < runs; i ++) {
-			results[i] = execute(isFunctional);
+		int count = 1;
+		int slots = getConcurrentRuns(runs - 1);
+		if (rule == null || !(rule.shouldAbort(results[0]) ||
+				rule.shouldStop(results, count))) {
+			if (slots > 1) {
+				results = executeConcurrently(results, slots, isFunctional, rule);
+				count = results.length;
+			} else {
+				while (count < runs) {
+					results[count] = execute(isFunctional);
+					count ++;
+					if (rule != null && (rule.shouldAbort(results[count - 1]) ||
+							rule.shouldStop(results, count))) {
+						break;
+					}
+				}
+			}
+		}
+		
+		// Stopped early
+		if (count < results.length) {
+			TestResult[] completed = new TestResult[count];
+			System.arraycopy(results, 0, completed, 0, count);
+			results = completed;
 		}
 		
 		return new TestingSummary(results);
 	}
 	
-	private void runProcess(ProcessBuilder pb, TestResult tr, boolean isFunctional)
-			throws IOException {
+	/**
+	 * Runs the test-suite for every empty index of the results at the same
+	 * time, using the specified number of slots. Each slot runs its
+	 * test-suite executions in its own copy of the project directory, since
+	 * the tests may write files into the working directory. The copies are
+	 * created the first time they are needed and kept until
+	 * {@link #removeRunDirectories(ARC)}, so later calls only synchronize the
+	 * files which change between programs (see
+	 * {@link #syncRunDirectory(String, String)}). The results are
+	 * placed at the index they were started for, so the order is the same as
+	 * if the test-suite was executed sequentially.
+	 * 
+	 * <p>If the stopping rule decides to stop, the executions which have not
+	 * started are cancelled and the results after the last result checked by
+	 * the rule are discarded. If the rule aborts on a result, all the other
+	 * executions are cancelled (killing any running processes) and only the
+	 * completed results are kept.
+	 * 
+	 * @param results		the test results, where the first is already set.
+	 * @param slots			the number of test-suite executions to run at once.
+	 * @param isFunctional	true if the tests are functional tests.
+	 * @param rule			the rule which can stop testing early, or null.
+	 * @return the completed test results, in the order they were started.
+	 */
+	private TestResult[] executeConcurrently(TestResult[] results, int slots,
+			final boolean isFunctional, final StoppingRule rule) {
 		
-		// Start the process
-		final int SLEEP_INTERVAL = 150;
-		Process p = pb.start();
-		long t = System.currentTimeMillis();
-		String tms = arc.getSetting(ARC.SETTING_TIMEOUT_MILLIS);
-		int millisRemaining = 300000;
-		if (tms != null && !tms.isEmpty()) {
+		// Create the directory for each slot
+		String pd = getProjectDirectory();
+		final BlockingQueue<String> dirs = new LinkedBlockingQueue<>();
+		dirs.add(pd);
+		for (int i = 1; i < slots; i ++) {
+			String dir = pd + RUN_DIR_SUFFIX + i;
+			if (RUN_DIRS.contains(dir) && new File(dir).isDirectory()) {
+				if (syncRunDirectory(pd, dir)) {
+					dirs.add(dir);
+				}
+				continue;
+			}
+			FileUtils.remove(dir);
+			if (!(new File(dir)).mkdirs()) {
+				continue;
+			}
+			FileUtils.copy(pd, dir, true);
+			RUN_DIRS.add(dir);
+			dirs.add(dir);
+		}
+		
+		// Run the test-suite executions
+		int runs = results.length;
+		final AtomicBoolean cancel = new AtomicBoolean(false);
+		ExecutorService executor = Executors.newFixedThreadPool(dirs.size());
+		List<Future<TestResult>> futures = new ArrayList<>();
+		for (int i = 1; i < runs; i ++) {
+			futures.add(executor.submit(new Callable<TestResult>() {
+				@Override
+				public TestResult call() throws Exception {
+					if (cancel.get()) {
+						return null;
+					}
+					String dir = dirs.take();
+					try {
+						TestResult tr = execute(isFunctional, dir, cancel);
+						if (tr != null && rule != null && rule.shouldAbort(tr)) {
+							cancel.set(true);
+						}
+						return tr;
+					} finally {
+						dirs.put(dir);
+					}
+				}
+			}));
+		}
+		
+		// Get the results in order
+		int count = runs;
+		for (int i = 1; i < runs; i ++) {
+			TestResult tr = null;
 			try {
-				millisRemaining = Integer.parseInt(tms);
+				tr = futures.get(i - 1).get();
 			} catch (Exception e) {
 				e.printStackTrace();
-				tr.addWarning("Warning: value for '" + ARC.SETTING_TIMEOUT_MILLIS +
-						"' could not be parsed to an integer.");
+				tr = new TestResult();
+				tr.setStatus(TestStatus.INVALID);
+				tr.addError("Error: execution of the process failed. " +
+						e.getLocalizedMessage());
+			}
+			results[i] = tr;
+			
+			// Cancel the remaining executions if the results are conclusive
+			if (tr != null && !cancel.get() && rule != null && i + 1 < runs &&
+					rule.shouldStop(results, i + 1)) {
+				count = i + 1;
+				cancel.set(true);
+				for (int j = i; j < runs - 1; j ++) {
+					futures.get(j).cancel(false);
+				}
+				break;
+			}
+		}
+		executor.shutdown();
+		try {
+			executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			e.printStackTrace();
+		}
+		
+		// Only keep the completed results
+		List<TestResult> completed = new ArrayList<>();
+		for (int i = 0; i < count; i ++) {
+			if (results[i] != null) {
+				completed.add(results[i]);
+			}
+		}
+		
+		return completed.toArray(new TestResult[completed.size()]);
+	}
+	
+	/**
+	 * Updates a copy of the project directory made for concurrent test-suite
+	 * executions. Only the project source files and the class files differ
+	 * between programs, so the source files are copied again and the class
+	 * files are copied if their size or modification time changed. Class
+	 * files which are no longer in the project directory are removed.
+	 * 
+	 * @param pd	the project directory.
+	 * @param dir	the copy of the project directory.
+	 * @return true if and only if the copy was updated.
+	 */
+	private boolean syncRunDirectory(String pd, String dir) {
+		
+		// Copy the source files
+		if (!ARCUtils.copyProjectSourceFiles(arc, pd, dir, null)) {
+			return false;
+		}
+		
+		// Copy the class files which changed
+		String root = new File(pd).getAbsolutePath();
+		String copy = new File(dir).getAbsolutePath();
+		Set<String> classes = new HashSet<>();
+		for (File f : FileUtils.find(root, ".+\\.class", true)) {
+			String relPath = f.getAbsolutePath().substring(root.length());
+			classes.add(relPath);
+			File c = new File(copy + relPath);
+			if (c.isFile() && c.length() == f.length() &&
+					c.lastModified() == f.lastModified()) {
+				continue;
+			}
+			File parent = c.getParentFile();
+			if (!parent.isDirectory() && !parent.mkdirs()) {
+				return false;
+			}
+			FileUtils.copy(f.getPath(), c.getPath(), false);
+			c.setLastModified(f.lastModified());
+		}
+		
+		// Remove the class files of classes which no longer exist
+		for (File f : FileUtils.find(copy, ".+\\.class", true)) {
+			if (!classes.contains(f.getAbsolutePath().substring(copy.length()))) {
+				f.delete();
+			}
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * Removes the copies of the project directories which were created for
+	 * concurrent test-suite executions, and stops any test workers running
+	 * in them.
+	 * 
+	 * @param arc	the current instance of ARC.
+	 * @since 1.0
+	 */
+	public static void removeRunDirectories(ARC arc) {
+		TestWorkerPool pool = arc == null? null : arc.getTestWorkerPool();
+		for (String dir : new ArrayList<>(RUN_DIRS)) {
+			if (pool != null) {
+				pool.retire(dir);
 			}
+			FileUtils.remove(dir);
+			RUN_DIRS.remove(dir);
 		}
+	}
+	
+	/**
+	 * Determines the number of test-suite executions to run at once. The
+	 * value of {@link ARC#SETTING_CONCURRENT_TEST_RUNS} is bounded by the
+	 * number of processors and the free physical memory. Both are shared
+	 * evenly by the evaluation workers ({@link ARC#SETTING_EVALUATION_WORKERS}),
+	 * since each of them may be testing at the same time. If the number of
+	 * concurrent runs was set explicitly, the processors and memory are not
+	 * shared.
+	 * 
+	 * @param runs	the number of test-suite executions left to run.
+	 * @return the number of test-suite executions to run at once.
+	 */
+	private int getConcurrentRuns(int runs) {
+		
+		int k = concurrentRuns, workers = 1;
+		if (k <= 0) {
+			k = parseInt(ARC.SETTING_CONCURRENT_TEST_RUNS,
+					DEFAULT_CONCURRENT_TEST_RUNS);
+			workers = Math.max(1, parseInt(ARC.SETTING_EVALUATION_WORKERS, 1));
+		}
+		if (k <= 1 || runs <= 1) {
+			return 1;
+		}
+		
+		// Bound by the number of processors
+		int cores = Runtime.getRuntime().availableProcessors();
+		k = Math.min(k, Math.max(1, cores / workers));
+		
+		// Bound by the free memory, since each run uses a JVM
+		OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+		if (os instanceof com.sun.management.OperatingSystemMXBean) {
+			long freeMB = ((com.sun.management.OperatingSystemMXBean) os)
+					.getFreePhysicalMemorySize() / (1024 * 1024);
+			long mem = Math.max(1, parseInt(Project.PROJECT_TEST_MB,
+					ARC.DEFAULT_PROGRAM_MB));
+			k = (int) Math.min(k, Math.max(1, freeMB / workers / mem));
+		}
+		
+		return Math.min(k, runs);
+	}
+	
+	/**
+	 * Gets the integer value of a setting.
+	 * 
+	 * @param setting	the setting name.
+	 * @param def		the value to use if the setting is not an integer.
+	 * @return the value of the setting.
+	 */
+	private int parseInt(String setting, int def) {
+		String value = arc.getSetting(setting);
+		if (value == null || value.isEmpty()) {
+			return def;
+		}
+		try {
+			return Integer.parseInt(value.trim());
+		} catch (NumberFormatException e) {
+			return def;
+		}
+	}
+	
+	private boolean runProcess(ProcessBuilder pb, TestResult tr,
+			boolean isFunctional, AtomicBoolean cancel) throws IOException {
+		
+		// Start the process
+		final int SLEEP_INTERVAL = 150;
+		Process p = pb.start();
+		long t = System.currentTimeMillis();
+		int millisRemaining = getTimeoutMillis(tr);
 		tr.addInfo("Max program execution time: " + millisRemaining + "ms");
 		
 		// Wait for the program to finish or run out of time
@@ -160,6 +497,12 @@ public class TestRunner {
 				t = System.currentTimeMillis() - t - SLEEP_INTERVAL / 2;
 				break;
 			}
+			
+			// The result is no longer needed
+			if (cancel != null && cancel.get()) {
+				p.destroy();
+				return false;
+			}
 			millisRemaining -= SLEEP_INTERVAL;
 		}
 		
@@ -179,12 +522,117 @@ public class TestRunner {
 		tr.addInfo("STDOUT='" + stdout + "'");
 		tr.addError("STDERR='" + pr.getSTDERR() + "'");
 		tr.addInfo("Exit code: " + p.exitValue());
+		evaluate(tr, stdout, millisRemaining > 0, isFunctional);
+		
+		return true;
+	}
+	
+	/**
+	 * Runs the test-suite in a test worker JVM, loading the project in a
+	 * fresh class loader. If the worker cannot be used, or the test-suite
+	 * broke the worker, the pool of workers is no longer used and the
+	 * test-suite is run in new processes from then on.
+	 * 
+	 * @param pool			the test worker JVMs.
+	 * @param java			the Java executable.
+	 * @param mems			the maximum heap size argument of the JVM.
+	 * @param libs			the classpath of JUnit and Hamcrest.
+	 * @param cp			the classpath of the project.
+	 * @param pd			the directory the tests run in.
+	 * @param ts			the name of the test-suite class.
+	 * @param tr			the test result to set.
+	 * @param isFunctional	true if the tests are functional tests.
+	 * @param cancel		the flag which cancels the execution, or null.
+	 * @return true if the result was set, false if the execution was
+	 * cancelled or null if the test-suite must be run in a new process.
+	 */
+	private Boolean runWorker(TestWorkerPool pool, String java, String mems,
+			String libs, String cp, String pd, String ts, TestResult tr,
+			boolean isFunctional, AtomicBoolean cancel) {
+		
+		// The worker is not in the directory, so resolve the classpath
+		String classpath = "";
+		for (String entry : cp.split(Pattern.quote("" + File.pathSeparatorChar))) {
+			if (entry.isEmpty()) {
+				continue;
+			}
+			File f = new File(entry);
+			classpath += (classpath.isEmpty()? "" : File.pathSeparator) +
+					(f.isAbsolute()? f : new File(pd, entry)).getAbsolutePath();
+		}
+		
+		// Run the test-suite
+		int timeout = getTimeoutMillis(tr);
+		TestWorkerPool.Result r = pool.run(pd, java, mems, libs, classpath, ts,
+				timeout, cancel);
+		if (cancel != null && cancel.get()) {
+			return false;
+		} if (r == null) {
+			tr.addWarning("Warning: test worker not used (" +
+					pool.getFallbackReason() + "), running the test-suite " +
+					"in a new process.");
+			return null;
+		}
+		tr.addInfo("Max program execution time: " + timeout + "ms");
+		tr.setProgramTimeMillis(r.getTimeMillis());
+		
+		// Get the info
+		ProcessResult pr = new ProcessResult();
+		pr.setSTDOUT(r.getSTDOUT());
+		pr.setSTDERR(r.getSTDERR());
+		tr.setProcessResult(pr);
+		tr.addInfo("STDOUT='" + r.getSTDOUT() + "'");
+		tr.addError("STDERR='" + r.getSTDERR() + "'");
+		tr.addInfo("Test worker status: " + r.getStatus());
+		if (r.getProblem() != null) {
+			tr.addWarning("Warning: " + r.getProblem() + ", the next " +
+					"test-suite executions will run in new processes.");
+		}
+		evaluate(tr, r.getSTDOUT(), r.isFinished(), isFunctional);
+		
+		return true;
+	}
+	
+	/**
+	 * Gets the number of milliseconds the test-suite has to finish, from
+	 * {@link ARC#SETTING_TIMEOUT_MILLIS}.
+	 * 
+	 * @param tr	the test result to add a warning to if the setting is
+	 * 				invalid.
+	 * @return the timeout in milliseconds.
+	 */
+	private int getTimeoutMillis(TestResult tr) {
+		String tms = arc.getSetting(ARC.SETTING_TIMEOUT_MILLIS);
+		int timeout = 300000;
+		if (tms != null && !tms.isEmpty()) {
+			try {
+				timeout = Integer.parseInt(tms);
+			} catch (Exception e) {
+				e.printStackTrace();
+				tr.addWarning("Warning: value for '" + ARC.SETTING_TIMEOUT_MILLIS +
+						"' could not be parsed to an integer.");
+			}
+		}
+		return timeout;
+	}
+	
+	/**
+	 * Sets the number of tests, failures and the status of a test result from
+	 * the JUnit output of the test-suite.
+	 * 
+	 * @param tr			the test result.
+	 * @param stdout		the output of the test-suite.
+	 * @param finished		true if the test-suite finished in time.
+	 * @param isFunctional	true if the tests are functional tests.
+	 */
+	private void evaluate(TestResult tr, String stdout, boolean finished,
+			boolean isFunctional) {
 		if (stdout == null) {
 			stdout = "";
 		}
 		
 		// Process finished
-		if (millisRemaining > 0) {
+		if (finished) {
 		
 			// Find the number of tests and failures
 			Pattern pattern = Pattern.compile("Tests run: (\\d+),\\s+Failures: (\\d+)");
@@ -309,6 +757,37 @@ public class TestRunner {
 		}
 	}
 	
+	/**
+	 * Rewrites any absolute classpath entries which point into the ARC
+	 * project directory so that they point into the specified directory
+	 * instead. Relative entries are resolved against the working directory of
+	 * the test process, so they are left as-is.
+	 * 
+	 * @param cp	the classpath of the project.
+	 * @param pd	the directory the tests will run in.
+	 * @return the classpath for the directory.
+	 */
+	private String rebaseClasspath(String cp, String pd) {
+		
+		// Nothing to rebase
+		String shared = arc.getSetting(ARC.SETTING_PROJECT_DIR);
+		if (shared == null || shared.isEmpty() || shared.equals(pd)) {
+			return cp;
+		}
+		
+		// Replace the shared project directory prefix of each entry
+		String[] entries = cp.split(Pattern.quote("" + File.pathSeparatorChar));
+		String result = "";
+		for (String entry : entries) {
+			if (entry.equals(shared) || entry.startsWith(shared + File.separator)) {
+				entry = pd + entry.substring(shared.length());
+			}
+			result += (result.isEmpty()? "" : File.pathSeparator) + entry;
+		}
+		
+		return result;
+	}
+	
 	public ARC getARC() {
 		return arc;
 	}
@@ -316,4 +795,23 @@ public class TestRunner {
 	public void setARC(ARC arc) {
 		this.arc = arc;
 	}
+	
+	public String getProjectDirectory() {
+		if (projectDir == null && arc != null) {
+			return arc.getSetting(ARC.SETTING_PROJECT_DIR);
+		}
+		return projectDir;
+	}
+	
+	public void setProjectDirectory(String projectDir) {
+		this.projectDir = projectDir;
+	}
+	
+	public int getConcurrentRuns() {
+		return concurrentRuns;
+	}
+	
+	public void setConcurrentRuns(int concurrentRuns) {
+		this.concurrentRuns = concurrentRuns;
+	}
 }
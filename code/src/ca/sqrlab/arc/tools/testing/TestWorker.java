@@ -0,0 +1,422 @@
+package ca.sqrlab.arc.tools.testing;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * The {@code TestWorker} class is the main class of a long-lived JVM which
+ * runs the JUnit test-suite of a project many times, instead of starting a
+ * new JVM for every test-suite execution. The worker is started by a
+ * {@link TestWorkerPool} with ARC, JUnit and Hamcrest on its classpath, but
+ * not the project. Each test-suite execution loads the project in a fresh
+ * class loader, so the static state of the project is never shared between
+ * executions.
+ * 
+ * <p>The requests are read from the standard input, one per line, with the
+ * timeout in milliseconds, the test-suite class and the project classpath
+ * separated by {@value #FIELD_SEPARATOR}. The test-suite is run on its own
+ * thread in its own thread group, and its output is captured in the same
+ * format as {@code org.junit.runner.JUnitCore}. A watchdog waits for the
+ * thread to finish and checks for deadlocked threads. One line is written to
+ * the standard output for each request, with the status, the program time in
+ * milliseconds, the problem found (or {@value #NO_PROBLEM}), and the Base64
+ * encoded output and error output of the test-suite.
+ * 
+ * <p>If the test-suite deadlocks or times out, its threads cannot be
+ * stopped, so the worker exits after responding. The worker also exits after
+ * responding if the test-suite left threads running or changed the state of
+ * the JVM (the standard streams, the system properties or the default
+ * uncaught exception handler), since later executions would not be
+ * independent.
+ * 
+ * @author Devon McGrath
+ * @see TestWorkerPool
+ * @since 1.0
+ */
+public class TestWorker {
+	
+	/** The separator of the fields of the requests and responses. */
+	public static final String FIELD_SEPARATOR = "\t";
+	
+	/** The status of a test-suite execution which finished. */
+	public static final String DONE = "DONE";
+	
+	/** The status of a test-suite execution which did not finish in time. */
+	public static final String TIMEOUT = "TIMEOUT";
+	
+	/** The status of a test-suite execution whose threads deadlocked. */
+	public static final String DEADLOCK = "DEADLOCK";
+	
+	/** The status of a test-suite execution which could not be run. */
+	public static final String ERROR = "ERROR";
+	
+	/** The problem field of a response when nothing was wrong. */
+	public static final String NO_PROBLEM = "-";
+	
+	/** The text before the details of a deadlock in the output, which is the
+	 * same as in a thread dump of the JVM. */
+	public static final String DEADLOCK_HEADER = "Java-level deadlock:";
+	
+	/** The number of milliseconds between checks of the test-suite thread. */
+	private static final int SLEEP_INTERVAL = 50;
+	
+	/** The number of milliseconds the threads started by the test-suite have
+	 * to finish after the test-suite finishes. */
+	private static final int THREAD_GRACE_MILLIS = 500;
+	
+	/** The prefixes of the classes which are always loaded by the worker's
+	 * class loader, so JUnit and the test-suite share them. */
+	private static final String[] SHARED_PACKAGES = {"java.", "javax.",
+			"sun.", "jdk.", "org.junit.", "junit.", "org.hamcrest."};
+	
+	/** The JUnit runner class. */
+	private static Class<?> junitCore;
+	
+	/** The JUnit listener which prints the results like JUnitCore. */
+	private static Class<?> textListener;
+	
+	/** The JUnit run listener class. */
+	private static Class<?> runListener;
+	
+	/**
+	 * Runs test-suite executions until the standard input is closed.
+	 * 
+	 * @param args	ignored.
+	 * @since 1.0
+	 */
+	public static void main(String[] args) {
+		
+		// Keep the real streams for the responses
+		PrintStream out = System.out, err = System.err;
+		InputStream in = System.in;
+		String problem = null;
+		try {
+			junitCore = Class.forName("org.junit.runner.JUnitCore");
+			textListener = Class.forName("org.junit.internal.TextListener");
+			runListener = Class.forName(
+					"org.junit.runner.notification.RunListener");
+		} catch (ClassNotFoundException e) {
+			problem = "JUnit is not on the classpath of the test worker";
+		}
+		
+		// Handle each request
+		BufferedReader br = new BufferedReader(new InputStreamReader(in,
+				StandardCharsets.UTF_8));
+		try {
+			String line;
+			while ((line = br.readLine()) != null) {
+				String[] request = line.split(FIELD_SEPARATOR, -1);
+				if (line.isEmpty()) {
+					continue;
+				} if (problem == null && request.length != 3) {
+					problem = "invalid request";
+				}
+				String[] response = problem != null?
+						new String[] {ERROR, "0", problem, "", ""} :
+						run(request, out, err, in);
+				out.println(String.join(FIELD_SEPARATOR, response));
+				out.flush();
+				
+				// The JVM cannot be used for another execution
+				if (!response[0].equals(DONE) ||
+						!response[2].equals(NO_PROBLEM)) {
+					Runtime.getRuntime().halt(0);
+				}
+			}
+		} catch (IOException e) {
+			e.printStackTrace(err);
+		}
+		Runtime.getRuntime().halt(0);
+	}
+	
+	/**
+	 * Runs the test-suite in a fresh class loader and waits for it to finish,
+	 * deadlock or run out of time.
+	 * 
+	 * @param request	the timeout, test-suite class and project classpath.
+	 * @param out		the standard output of the worker.
+	 * @param err		the standard error output of the worker.
+	 * @param in		the standard input of the worker.
+	 * @return the fields of the response.
+	 */
+	private static String[] run(String[] request, PrintStream out,
+			PrintStream err, InputStream in) {
+		
+		// Parse the request
+		long timeout = 0;
+		try {
+			timeout = Long.parseLong(request[0]);
+		} catch (NumberFormatException e) {
+			return new String[] {ERROR, "0", "invalid timeout", "", ""};
+		}
+		final String testSuite = request[1];
+		List<URL> urls = new ArrayList<>();
+		for (String entry : request[2].split(File.pathSeparator)) {
+			if (entry.isEmpty()) {
+				continue;
+			}
+			try {
+				urls.add(new File(entry).toURI().toURL());
+			} catch (IOException e) {
+				return new String[] {ERROR, "0", "invalid classpath entry '" +
+						entry + "'", "", ""};
+			}
+		}
+		
+		// Capture the output of the test-suite and give it no input
+		ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+		ByteArrayOutputStream stderr = new ByteArrayOutputStream();
+		final PrintStream po = new PrintStream(stdout, true);
+		PrintStream pe = new PrintStream(stderr, true);
+		InputStream pi = new ByteArrayInputStream(new byte[0]);
+		Properties properties = (Properties) System.getProperties().clone();
+		Thread.UncaughtExceptionHandler handler =
+				Thread.getDefaultUncaughtExceptionHandler();
+		
+		// Run the test-suite on its own thread
+		final ProjectClassLoader loader = new ProjectClassLoader(
+				urls.toArray(new URL[urls.size()]),
+				TestWorker.class.getClassLoader());
+		final Throwable[] error = new Throwable[1];
+		ThreadGroup group = new ThreadGroup("test-suite");
+		Thread runner = new Thread(group, new Runnable() {
+			@Override
+			public void run() {
+				try {
+					runSuite(loader, testSuite, po);
+				} catch (Throwable e) {
+					error[0] = e;
+				}
+			}
+		}, "test-suite");
+		runner.setContextClassLoader(loader);
+		runner.setDaemon(true);
+		System.setOut(po);
+		System.setErr(pe);
+		System.setIn(pi);
+		long t = System.currentTimeMillis();
+		runner.start();
+		
+		// Watch the test-suite until it finishes, deadlocks or times out
+		String status = DONE;
+		ThreadMXBean mx = ManagementFactory.getThreadMXBean();
+		while (true) {
+			try {
+				runner.join(SLEEP_INTERVAL);
+			} catch (InterruptedException e) {}
+			if (!runner.isAlive()) {
+				break;
+			} if (findDeadlock(mx, group, po)) {
+				status = DEADLOCK;
+				break;
+			} if (System.currentTimeMillis() - t >= timeout) {
+				status = TIMEOUT;
+				break;
+			}
+		}
+		t = System.currentTimeMillis() - t;
+		
+		// Check that the test-suite did not leave anything behind
+		String problem = NO_PROBLEM;
+		if (error[0] != null) {
+			status = ERROR;
+			problem = "the test-suite could not be run (" + error[0] + ")";
+		} else if (status.equals(DONE)) {
+			problem = findProblem(group, po, pe, pi, properties, handler);
+		}
+		System.setOut(out);
+		System.setErr(err);
+		System.setIn(in);
+		if (problem.equals(NO_PROBLEM)) {
+			try {
+				loader.close();
+			} catch (IOException e) {}
+		}
+		
+		Base64.Encoder encoder = Base64.getEncoder();
+		return new String[] {status, "" + t, problem.replace(
+				FIELD_SEPARATOR, " "), encoder.encodeToString(
+						stdout.toByteArray()), encoder.encodeToString(
+								stderr.toByteArray())};
+	}
+	
+	/**
+	 * Runs the test-suite with JUnit, printing the results the same way as
+	 * {@code org.junit.runner.JUnitCore}. JUnit is used through reflection
+	 * since it is not on the classpath ARC is compiled with.
+	 * 
+	 * @param loader	the class loader of the project.
+	 * @param testSuite	the name of the test-suite class.
+	 * @param out		the stream the results are printed to.
+	 * @throws Exception if the test-suite could not be run.
+	 */
+	private static void runSuite(ClassLoader loader, String testSuite,
+			PrintStream out) throws Exception {
+		Class<?> suite = Class.forName(testSuite, false, loader);
+		Object core = junitCore.getConstructor().newInstance();
+		Object listener = textListener.getConstructor(PrintStream.class)
+				.newInstance(out);
+		junitCore.getMethod("addListener", runListener).invoke(core, listener);
+		Method run = junitCore.getMethod("run", Class[].class);
+		run.invoke(core, (Object) new Class<?>[] {suite});
+	}
+	
+	/**
+	 * Checks if any of the threads of the test-suite are deadlocked. If they
+	 * are, the deadlocked threads are printed to the output.
+	 * 
+	 * @param mx	the thread management bean.
+	 * @param group	the thread group of the test-suite.
+	 * @param out	the output of the test-suite.
+	 * @return true if a thread of the test-suite is deadlocked.
+	 */
+	private static boolean findDeadlock(ThreadMXBean mx, ThreadGroup group,
+			PrintStream out) {
+		
+		// No deadlock at all
+		long[] ids = mx.findDeadlockedThreads();
+		if (ids == null) {
+			return false;
+		}
+		
+		// Only report deadlocks between the threads of the test-suite
+		Thread[] threads = new Thread[group.activeCount() + 16];
+		int n = group.enumerate(threads, true);
+		boolean found = false;
+		for (long id : ids) {
+			for (int i = 0; i < n && !found; i ++) {
+				found = threads[i].getId() == id;
+			}
+		}
+		if (found) {
+			out.println(DEADLOCK_HEADER);
+			for (ThreadInfo info : mx.getThreadInfo(ids, true, true)) {
+				if (info != null) {
+					out.print(info);
+				}
+			}
+		}
+		
+		return found;
+	}
+	
+	/**
+	 * Checks if the test-suite left threads running or changed the state of
+	 * the JVM, which would affect later test-suite executions.
+	 * 
+	 * @param group			the thread group of the test-suite.
+	 * @param out			the standard output given to the test-suite.
+	 * @param err			the standard error output given to the
+	 * 						test-suite.
+	 * @param in			the empty standard input given to the test-suite.
+	 * @param properties	the system properties before the test-suite.
+	 * @param handler		the default uncaught exception handler before the
+	 * 						test-suite.
+	 * @return the problem found or {@link #NO_PROBLEM}.
+	 */
+	private static String findProblem(ThreadGroup group, PrintStream out,
+			PrintStream err, InputStream in, Properties properties,
+			Thread.UncaughtExceptionHandler handler) {
+		
+		// Give the remaining threads a chance to finish
+		long end = System.currentTimeMillis() + THREAD_GRACE_MILLIS;
+		while (group.activeCount() > 0 && System.currentTimeMillis() < end) {
+			try {
+				Thread.sleep(10);
+			} catch (InterruptedException e) {}
+		}
+		int threads = group.activeCount();
+		if (threads > 0) {
+			return "the test-suite left " + threads + " threads running";
+		}
+		
+		// Check the global state
+		if (System.out != out || System.err != err || System.in != in) {
+			return "the test-suite replaced the standard streams";
+		} if (!properties.equals(System.getProperties())) {
+			return "the test-suite changed the system properties";
+		} if (Thread.getDefaultUncaughtExceptionHandler() != handler) {
+			return "the test-suite changed the default uncaught exception " +
+					"handler";
+		}
+		
+		return NO_PROBLEM;
+	}
+	
+	/**
+	 * The {@code ProjectClassLoader} class loads the classes of the project
+	 * before looking in the parent class loader, so each test-suite execution
+	 * gets its own copy of the project classes. JUnit, Hamcrest and the Java
+	 * classes are always loaded by the parent.
+	 * 
+	 * @author Devon McGrath
+	 * @since 1.0
+	 */
+	private static class ProjectClassLoader extends URLClassLoader {
+		
+		static {
+			ClassLoader.registerAsParallelCapable();
+		}
+		
+		/**
+		 * Creates a class loader for the project classpath.
+		 * 
+		 * @param urls		the project classpath.
+		 * @param parent	the class loader of the worker.
+		 */
+		public ProjectClassLoader(URL[] urls, ClassLoader parent) {
+			super(urls, parent);
+		}
+		
+		@Override
+		protected Class<?> loadClass(String name, boolean resolve)
+				throws ClassNotFoundException {
+			synchronized (getClassLoadingLock(name)) {
+				Class<?> c = findLoadedClass(name);
+				if (c == null && !isShared(name)) {
+					try {
+						c = findClass(name);
+					} catch (ClassNotFoundException e) {}
+				}
+				if (c == null) {
+					return super.loadClass(name, resolve);
+				} if (resolve) {
+					resolveClass(c);
+				}
+				return c;
+			}
+		}
+		
+		/**
+		 * Checks if a class is always loaded by the parent class loader.
+		 * 
+		 * @param name	the binary name of the class.
+		 * @return true if the class is shared by all executions.
+		 */
+		private static boolean isShared(String name) {
+			for (String prefix : SHARED_PACKAGES) {
+				if (name.startsWith(prefix)) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+}
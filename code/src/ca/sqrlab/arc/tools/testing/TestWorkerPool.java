@@ -0,0 +1,509 @@
+package ca.sqrlab.arc.tools.testing;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The {@code TestWorkerPool} class keeps {@link TestWorker} JVMs running
+ * between test-suite executions, so the cost of starting a JVM and loading
+ * JUnit is only paid once per working directory instead of once per
+ * execution. Each worker runs one test-suite execution at a time, in the
+ * directory it was started in, since the tests may use relative paths.
+ * 
+ * <p>A worker which timed out or deadlocked is discarded and a new one is
+ * started for the next execution. If a worker cannot be used (it fails to
+ * start, exits unexpectedly or cannot run the test-suite), or a test-suite
+ * leaves threads running or changes the state of the JVM, the pool stops
+ * running tests and all later executions are run in new processes, as if
+ * the pool was never enabled.
+ * 
+ * @author Devon McGrath
+ * @see ca.sqrlab.arc.ARC#SETTING_TEST_BACKEND
+ * @since 1.0
+ */
+public class TestWorkerPool {
+	
+	/** The name of the test backend in
+	 * {@link ca.sqrlab.arc.ARC#SETTING_TEST_BACKEND}. */
+	public static final String NAME = "worker";
+	
+	/** The number of milliseconds a worker has to respond after the timeout
+	 * of the test-suite, before it is considered stuck. */
+	public static final int RESPONSE_GRACE_MILLIS = 10000;
+	
+	/** The number of milliseconds between checks for cancellation while
+	 * waiting for a worker. */
+	private static final int SLEEP_INTERVAL = 150;
+	
+	/** The line put in the response queue when a worker exits. */
+	private static final String EXITED = "";
+	
+	/** The workers which are not running tests, by their command and
+	 * directory. */
+	private Map<String, LinkedList<Worker>> idle;
+	
+	/** The reason the pool stopped running tests, or null if it is still
+	 * running them. */
+	private volatile String fallbackReason;
+	
+	/** The number of test-suite executions run by the workers. */
+	private int runs;
+	
+	/** The number of workers started. */
+	private int started;
+	
+	/**
+	 * Creates an empty pool. The workers are started when they are needed.
+	 * 
+	 * @since 1.0
+	 */
+	public TestWorkerPool() {
+		this.idle = new HashMap<>();
+	}
+	
+	/**
+	 * Runs the test-suite in a worker started in the specified directory.
+	 * This method blocks until the worker responds, the execution is
+	 * cancelled or the worker stops responding.
+	 * 
+	 * @param dir			the working directory of the tests.
+	 * @param java			the Java executable.
+	 * @param jvmArgs		the JVM arguments, such as the maximum heap size.
+	 * @param libs			the classpath of JUnit and Hamcrest.
+	 * @param classpath		the absolute classpath of the project.
+	 * @param testSuite		the name of the test-suite class.
+	 * @param timeoutMillis	the number of milliseconds the test-suite has to
+	 * 						finish.
+	 * @param cancel		the flag which cancels the execution, which may be
+	 * 						null.
+	 * @return the result, or null if the execution was cancelled or the
+	 * test-suite must be run in a new process instead.
+	 * @since 1.0
+	 */
+	public Result run(String dir, String java, String jvmArgs, String libs,
+			String classpath, String testSuite, int timeoutMillis,
+			AtomicBoolean cancel) {
+		
+		// The pool is no longer used
+		if (fallbackReason != null) {
+			return null;
+		}
+		
+		// Get an idle worker or start a new one
+		String key = java + File.pathSeparator + jvmArgs + File.pathSeparator +
+				libs + File.pathSeparator + dir;
+		Worker w = acquire(key);
+		try {
+			if (w == null) {
+				w = new Worker(dir, java, jvmArgs, libs);
+				synchronized (this) {
+					this.started ++;
+				}
+			}
+		} catch (IOException e) {
+			fallBack("unable to start a test worker, " +
+					e.getLocalizedMessage());
+			return null;
+		}
+		
+		// Send the request and wait for the response
+		String response = null;
+		try {
+			w.send(timeoutMillis + TestWorker.FIELD_SEPARATOR + testSuite +
+					TestWorker.FIELD_SEPARATOR + classpath);
+			long deadline = System.currentTimeMillis() + timeoutMillis +
+					RESPONSE_GRACE_MILLIS;
+			while (response == null) {
+				if (cancel != null && cancel.get()) {
+					w.destroy();
+					return null;
+				} if (System.currentTimeMillis() > deadline) {
+					w.destroy();
+					return new Result(TestWorker.TIMEOUT, timeoutMillis,
+							null, "", "");
+				}
+				response = w.responses.poll(SLEEP_INTERVAL,
+						TimeUnit.MILLISECONDS);
+			}
+		} catch (IOException | InterruptedException e) {
+			response = EXITED;
+		}
+		
+		// The worker exited or could not run the test-suite
+		Result r = response.equals(EXITED)? null : Result.parse(response);
+		if (r == null || r.getStatus().equals(TestWorker.ERROR)) {
+			w.destroy();
+			fallBack(r == null? "the test worker exited unexpectedly" :
+				r.getProblem());
+			return null;
+		}
+		
+		// Keep the worker only if it can be used again
+		synchronized (this) {
+			this.runs ++;
+		}
+		if (r.getProblem() != null) {
+			w.destroy();
+			fallBack(r.getProblem());
+		} else if (r.isFinished()) {
+			release(key, w);
+		} else {
+			w.destroy();
+		}
+		
+		return r;
+	}
+	
+	/**
+	 * Gets an idle worker.
+	 * 
+	 * @param key	the command and directory of the worker.
+	 * @return the worker or null if there are no idle workers.
+	 */
+	private synchronized Worker acquire(String key) {
+		LinkedList<Worker> workers = idle.get(key);
+		while (workers != null && !workers.isEmpty()) {
+			Worker w = workers.removeFirst();
+			if (w.process.isAlive()) {
+				return w;
+			}
+		}
+		return null;
+	}
+	
+	/**
+	 * Makes a worker available for another execution, unless the pool is no
+	 * longer used.
+	 * 
+	 * @param key	the command and directory of the worker.
+	 * @param w		the worker.
+	 */
+	private synchronized void release(String key, Worker w) {
+		if (fallbackReason != null) {
+			w.destroy();
+			return;
+		}
+		LinkedList<Worker> workers = idle.get(key);
+		if (workers == null) {
+			workers = new LinkedList<>();
+			idle.put(key, workers);
+		}
+		workers.add(w);
+	}
+	
+	/**
+	 * Stops using the workers for the rest of the repair.
+	 * 
+	 * @param reason	the reason the workers cannot be used.
+	 */
+	private synchronized void fallBack(String reason) {
+		if (fallbackReason == null) {
+			this.fallbackReason = reason == null? "unknown error" : reason;
+		}
+		shutdown();
+	}
+	
+	/**
+	 * Stops the idle workers which were started in the specified directory,
+	 * which should be called before the directory is removed.
+	 * 
+	 * @param dir	the working directory of the workers.
+	 * @since 1.0
+	 */
+	public synchronized void retire(String dir) {
+		if (dir == null) {
+			return;
+		}
+		List<String> keys = new ArrayList<>(idle.keySet());
+		for (String key : keys) {
+			if (key.endsWith(File.pathSeparator + dir)) {
+				for (Worker w : idle.remove(key)) {
+					w.destroy();
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Stops all the idle workers. New workers are started if the pool is used
+	 * again.
+	 * 
+	 * @since 1.0
+	 */
+	public synchronized void shutdown() {
+		for (LinkedList<Worker> workers : idle.values()) {
+			for (Worker w : workers) {
+				w.destroy();
+			}
+		}
+		idle.clear();
+	}
+	
+	/**
+	 * Checks if the pool still runs test-suite executions.
+	 * 
+	 * @return true if the workers are used, false if all the executions are
+	 * run in new processes.
+	 * @since 1.0
+	 */
+	public boolean isEnabled() {
+		return fallbackReason == null;
+	}
+	
+	/**
+	 * Gets the reason the pool stopped running test-suite executions.
+	 * 
+	 * @return the reason or null if the pool is still used.
+	 * @since 1.0
+	 */
+	public String getFallbackReason() {
+		return fallbackReason;
+	}
+	
+	/**
+	 * Gets the number of test-suite executions run by the workers.
+	 * 
+	 * @return the number of executions.
+	 * @since 1.0
+	 */
+	public synchronized int getRuns() {
+		return runs;
+	}
+	
+	/**
+	 * Gets the number of worker JVMs started.
+	 * 
+	 * @return the number of workers started.
+	 * @since 1.0
+	 */
+	public synchronized int getWorkersStarted() {
+		return started;
+	}
+	
+	/**
+	 * The {@code Result} class is the response of a worker to a test-suite
+	 * execution.
+	 * 
+	 * @author Devon McGrath
+	 * @since 1.0
+	 */
+	public static class Result {
+		
+		/** The status reported by the worker, such as
+		 * {@link TestWorker#DONE}. */
+		private String status;
+		
+		/** The number of milliseconds the test-suite ran for. */
+		private long timeMillis;
+		
+		/** The problem the test-suite caused, or null if there was none. */
+		private String problem;
+		
+		/** The output of the test-suite. */
+		private String stdout;
+		
+		/** The error output of the test-suite. */
+		private String stderr;
+		
+		/**
+		 * Creates a result.
+		 * 
+		 * @param status		the status reported by the worker.
+		 * @param timeMillis	the number of milliseconds the test-suite ran
+		 * 						for.
+		 * @param problem		the problem the test-suite caused, or null.
+		 * @param stdout		the output of the test-suite.
+		 * @param stderr		the error output of the test-suite.
+		 * @since 1.0
+		 */
+		public Result(String status, long timeMillis, String problem,
+				String stdout, String stderr) {
+			this.status = status;
+			this.timeMillis = timeMillis;
+			this.problem = problem;
+			this.stdout = stdout;
+			this.stderr = stderr;
+		}
+		
+		/**
+		 * Parses a response line of a worker.
+		 * 
+		 * @param response	the response.
+		 * @return the result or null if the response is invalid.
+		 */
+		private static Result parse(String response) {
+			String[] fields = response.split(TestWorker.FIELD_SEPARATOR, -1);
+			if (fields.length != 5) {
+				return null;
+			}
+			try {
+				Base64.Decoder decoder = Base64.getDecoder();
+				return new Result(fields[0], Long.parseLong(fields[1]),
+						fields[2].equals(TestWorker.NO_PROBLEM)? null : fields[2],
+						new String(decoder.decode(fields[3])),
+						new String(decoder.decode(fields[4])));
+			} catch (IllegalArgumentException e) {
+				return null;
+			}
+		}
+		
+		/**
+		 * Checks if the test-suite finished before the timeout, without
+		 * deadlocking.
+		 * 
+		 * @return true if the test-suite finished.
+		 * @since 1.0
+		 */
+		public boolean isFinished() {
+			return TestWorker.DONE.equals(status);
+		}
+		
+		/**
+		 * Gets the status reported by the worker.
+		 * 
+		 * @return the status, such as {@link TestWorker#DONE}.
+		 * @since 1.0
+		 */
+		public String getStatus() {
+			return status;
+		}
+		
+		/**
+		 * Gets the number of milliseconds the test-suite ran for.
+		 * 
+		 * @return the program time in milliseconds.
+		 * @since 1.0
+		 */
+		public long getTimeMillis() {
+			return timeMillis;
+		}
+		
+		/**
+		 * Gets the problem the test-suite caused, such as leaving threads
+		 * running.
+		 * 
+		 * @return the problem or null if there was none.
+		 * @since 1.0
+		 */
+		public String getProblem() {
+			return problem;
+		}
+		
+		/**
+		 * Gets the output of the test-suite.
+		 * 
+		 * @return the standard output.
+		 * @since 1.0
+		 */
+		public String getSTDOUT() {
+			return stdout;
+		}
+		
+		/**
+		 * Gets the error output of the test-suite.
+		 * 
+		 * @return the standard error output.
+		 * @since 1.0
+		 */
+		public String getSTDERR() {
+			return stderr;
+		}
+	}
+	
+	/**
+	 * The {@code Worker} class is a running {@link TestWorker} JVM. Its
+	 * responses are read by a separate thread, so waiting for a response can
+	 * be cancelled.
+	 * 
+	 * @author Devon McGrath
+	 * @since 1.0
+	 */
+	private static class Worker {
+		
+		/** The worker JVM. */
+		private Process process;
+		
+		/** The writer of the requests. */
+		private Writer writer;
+		
+		/** The responses which have not been handled. */
+		private BlockingQueue<String> responses;
+		
+		/**
+		 * Starts a worker JVM in the specified directory, with ARC and the
+		 * specified libraries on its classpath.
+		 * 
+		 * @param dir		the working directory of the worker.
+		 * @param java		the Java executable.
+		 * @param jvmArgs	the JVM arguments.
+		 * @param libs		the classpath of JUnit and Hamcrest.
+		 * @throws IOException if the worker could not be started.
+		 */
+		public Worker(String dir, String java, String jvmArgs, String libs)
+				throws IOException {
+			String cp = System.getProperty("java.class.path");
+			if (libs != null && !libs.isEmpty()) {
+				cp += File.pathSeparator + libs;
+			}
+			ProcessBuilder pb = new ProcessBuilder(java, jvmArgs, "-cp", cp,
+					TestWorker.class.getName());
+			pb.directory(new File(dir));
+			pb.redirectError(ProcessBuilder.Redirect.INHERIT);
+			this.process = pb.start();
+			this.writer = new OutputStreamWriter(process.getOutputStream(),
+					StandardCharsets.UTF_8);
+			this.responses = new LinkedBlockingQueue<>();
+			
+			// Read the responses until the worker exits
+			final BufferedReader br = new BufferedReader(new InputStreamReader(
+					process.getInputStream(), StandardCharsets.UTF_8));
+			Thread reader = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						String line;
+						while ((line = br.readLine()) != null) {
+							responses.add(line);
+						}
+					} catch (IOException e) {}
+					responses.add(EXITED);
+				}
+			}, "test-worker-reader");
+			reader.setDaemon(true);
+			reader.start();
+		}
+		
+		/**
+		 * Sends a request to the worker.
+		 * 
+		 * @param request	the request.
+		 * @throws IOException if the worker has exited.
+		 */
+		public void send(String request) throws IOException {
+			writer.write(request + "\n");
+			writer.flush();
+		}
+		
+		/**
+		 * Stops the worker JVM.
+		 */
+		public void destroy() {
+			process.destroyForcibly();
+		}
+	}
+}
@@ -1,6 +1,7 @@
 package ca.sqrlab.arc.tools.testing;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
@@ -8,7 +9,8 @@ import java.util.TreeMap;
 /**
  * The {@code TestingSummary} class takes a number of test results and gets
  * metrics on those set of test results. It computes the average test-suite
- * execution time ({@link #getAverageTime()}), the total number of test-suite
+ * execution time ({@link #getAverageTime()}) and its percentiles
+ * ({@link #getPercentileTime(double)}), the total number of test-suite
  * unit tests ({@link #getUnitTestCount()}), and the unique array of unit tests
  * which failed in one or more test results ({@link #getFailedMethods()}).
  * 
@@ -33,6 +35,9 @@ public class TestingSummary {
 	/** The average time for the test-suite to execute, in milliseconds. */
 	private long averageTime;
 	
+	/** The time for each test-suite execution, in ascending order. */
+	private long[] sortedTimes;
+	
 	/**
 	 * Constructs a testing summary with no test results.
 	 * 
@@ -96,6 +101,7 @@ public class TestingSummary {
 		this.unitTestCount = 0;
 		this.averageTime = 0;
 		int n = results.length;
+		this.sortedTimes = new long[n];
 		this.resultMap = new TreeMap<>();
 		List<String> failed = new ArrayList<>();
 		for (int i = 0; i < n; i ++) {
@@ -127,8 +133,12 @@ public class TestingSummary {
 			}
 			
 			this.averageTime += tr.getProgramTimeMillis();
+			this.sortedTimes[i] = tr.getProgramTimeMillis();
+		}
+		if (n > 0) {
+			this.averageTime /= n;
 		}
-		this.averageTime /= n;
+		Arrays.sort(sortedTimes);
 		
 		// Create the array of unique failed methods/tests
 		n = failed.size();
@@ -199,6 +209,27 @@ public class TestingSummary {
 		return averageTime;
 	}
 	
+	/**
+	 * Gets the time which the specified percentage of the test-suite
+	 * executions took at most (e.g. 95 for the 95th percentile), using the
+	 * nearest-rank method.
+	 * 
+	 * @param percentile	the percentile, from 0 to 100.
+	 * @return the test-suite execution time at the percentile, in
+	 * milliseconds or 0 if there are no test results.
+	 * 
+	 * @see TestResult#getProgramTimeMillis()
+	 * @since 1.0
+	 */
+	public long getPercentileTime(double percentile) {
+		int n = sortedTimes.length;
+		if (n == 0) {
+			return 0;
+		}
+		int rank = (int) Math.ceil(percentile / 100 * n);
+		return sortedTimes[Math.min(n - 1, Math.max(0, rank - 1))];
+	}
+	
 	/**
 	 * Gets the unit tests which failed during the all the executions of the
 	 * test-suite. Note: the values in the array are unique.
@@ -0,0 +1,31 @@
+package ca.sqrlab.arc.tools.testing;
+
+/**
+ * The {@code ValidationStoppingRule} class stops testing as soon as any
+ * test-suite execution is not a {@link TestStatus#SUCCESS}. It is used for
+ * extended validation, where a program is only accepted if every execution
+ * succeeds, so a single failure makes the remaining executions pointless.
+ * 
+ * @author Devon McGrath
+ * @since 1.0
+ */
+public class ValidationStoppingRule implements StoppingRule {
+	
+	@Override
+	public boolean shouldStop(TestResult[] results, int count) {
+		if (results == null) {
+			return false;
+		}
+		for (int i = 0; i < count && i < results.length; i ++) {
+			if (shouldAbort(results[i])) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	@Override
+	public boolean shouldAbort(TestResult result) {
+		return result != null && result.getStatus() != TestStatus.SUCCESS;
+	}
+}